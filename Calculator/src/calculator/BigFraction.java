@@ -0,0 +1,277 @@
+package calculator;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+
+/**
+ * An arbitrary-precision Fraction, used once a value no longer fits in the inline longs of a
+ * plain {@link Fraction}.
+ *
+ * A BigFraction only ever holds values that do not fit in a long. Anything that does fit is
+ * demoted back to a plain Fraction by {@link #valueOf(BigInteger, BigInteger)}, so the common
+ * small-entry case never allocates a BigInteger. Since it is a Fraction, it can be stored in any
+ * Matrix and used by every MatrixEngine operation.
+ */
+public class BigFraction extends Fraction
+{
+	
+	/** The smallest value a long can hold. */
+	private static final BigInteger LONG_MIN = BigInteger.valueOf(Long.MIN_VALUE);
+	
+	/** The largest value a long can hold. */
+	private static final BigInteger LONG_MAX = BigInteger.valueOf(Long.MAX_VALUE);
+	
+	/** The numerator. */
+	private final BigInteger m_bigNumerator;
+	
+	/** The denominator. Always positive. */
+	private final BigInteger m_bigDenominator;
+	
+	/**
+	 * Instantiates a new big fraction from a numerator and positive denominator already in lowest terms.
+	 *
+	 * @param a_numerator the numerator
+	 * @param a_denominator the denominator
+	 */
+	private BigFraction(BigInteger a_numerator, BigInteger a_denominator)
+	{
+		m_bigNumerator = a_numerator;
+		m_bigDenominator = a_denominator;
+	}
+	
+	/**
+	 * Creates the Fraction for a numerator and denominator of any size.
+	 * The result is reduced, and is a plain Fraction whenever both parts fit in a long.
+	 * Like the Fraction constructor, a denominator of 0 is treated as 1.
+	 *
+	 * @param a_numerator the numerator
+	 * @param a_denominator the denominator
+	 * @return the fraction
+	 */
+	public static Fraction valueOf(BigInteger a_numerator, BigInteger a_denominator)
+	{
+		if (a_denominator.signum() == 0) a_denominator = BigInteger.ONE;
+		
+		//Switch the negative (if it exists) from the denominator to the numerator
+		if (a_denominator.signum() < 0)
+		{
+			a_numerator = a_numerator.negate();
+			a_denominator = a_denominator.negate();
+		}
+		
+		BigInteger gcd = a_numerator.gcd(a_denominator);
+		
+		if (!gcd.equals(BigInteger.ONE))
+		{
+			a_numerator = a_numerator.divide(gcd);
+			a_denominator = a_denominator.divide(gcd);
+		}
+		
+		//Demote to the inline representation if possible:
+		if (fitsInLong(a_numerator) && fitsInLong(a_denominator))
+		{
+			return reduced(a_numerator.longValue(), a_denominator.longValue());
+		}
+		
+		return new BigFraction(a_numerator, a_denominator);
+	}
+	
+	/**
+	 * Checks if a value fits in a long.
+	 *
+	 * @param a_value the value
+	 * @return true, if it fits
+	 */
+	private static boolean fitsInLong(BigInteger a_value)
+	{
+		return a_value.compareTo(LONG_MIN) >= 0 && a_value.compareTo(LONG_MAX) <= 0;
+	}
+	
+	/**
+	 * Adds two fractions of any size.
+	 *
+	 * @param a_lhs the left-hand side
+	 * @param a_rhs the right-hand side
+	 * @return the sum
+	 */
+	static Fraction add(Fraction a_lhs, Fraction a_rhs)
+	{
+		BigInteger lhsDenominator = a_lhs.getBigDenominator();
+		BigInteger rhsDenominator = a_rhs.getBigDenominator();
+		
+		BigInteger lhsNum = a_lhs.getBigNumerator().multiply(rhsDenominator);
+		BigInteger rhsNum = a_rhs.getBigNumerator().multiply(lhsDenominator);
+		
+		return valueOf(lhsNum.add(rhsNum), lhsDenominator.multiply(rhsDenominator));
+	}
+	
+	/**
+	 * Multiplies two fractions of any size.
+	 *
+	 * @param a_lhs the left-hand side
+	 * @param a_rhs the right-hand side
+	 * @return the product
+	 */
+	static Fraction multiply(Fraction a_lhs, Fraction a_rhs)
+	{
+		BigInteger newNumerator = a_lhs.getBigNumerator().multiply(a_rhs.getBigNumerator());
+		BigInteger newDenominator = a_lhs.getBigDenominator().multiply(a_rhs.getBigDenominator());
+		
+		return valueOf(newNumerator, newDenominator);
+	}
+	
+	/**
+	 * @see calculator.Fraction#getNumerator()
+	 */
+	@Override
+	public long getNumerator()
+	{
+		return m_bigNumerator.longValueExact();
+	}
+	
+	/**
+	 * @see calculator.Fraction#getDenominator()
+	 */
+	@Override
+	public long getDenominator()
+	{
+		return m_bigDenominator.longValueExact();
+	}
+	
+	/**
+	 * @see calculator.Fraction#getBigNumerator()
+	 */
+	@Override
+	public BigInteger getBigNumerator()
+	{
+		return m_bigNumerator;
+	}
+	
+	/**
+	 * @see calculator.Fraction#getBigDenominator()
+	 */
+	@Override
+	public BigInteger getBigDenominator()
+	{
+		return m_bigDenominator;
+	}
+	
+	/**
+	 * @see calculator.Fraction#isBig()
+	 */
+	@Override
+	boolean isBig()
+	{
+		return true;
+	}
+	
+	/**
+	 * A BigFraction is never 0, since 0 fits in a long.
+	 *
+	 * @see calculator.Fraction#isZero()
+	 */
+	@Override
+	public boolean isZero()
+	{
+		return false;
+	}
+	
+	/**
+	 * A BigFraction is never 1, since 1 fits in a long.
+	 *
+	 * @see calculator.Fraction#isOne()
+	 */
+	@Override
+	public boolean isOne()
+	{
+		return false;
+	}
+	
+	/**
+	 * @see calculator.Fraction#signum()
+	 */
+	@Override
+	public int signum()
+	{
+		return m_bigNumerator.signum();
+	}
+	
+	/**
+	 * @see calculator.Fraction#equals(calculator.Fraction)
+	 */
+	@Override
+	public boolean equals(Fraction a_other)
+	{
+		if (!a_other.isBig()) return false;
+		
+		return m_bigNumerator.equals(a_other.getBigNumerator())
+				&& m_bigDenominator.equals(a_other.getBigDenominator());
+	}
+	
+	/**
+	 * A BigFraction never equals a whole number that fits in a long.
+	 *
+	 * @see calculator.Fraction#equals(long)
+	 */
+	@Override
+	public boolean equals(long a_wholeNumber)
+	{
+		return false;
+	}
+	
+	/**
+	 * @see calculator.Fraction#hashCode()
+	 */
+	@Override
+	public int hashCode()
+	{
+		return 31 * m_bigNumerator.hashCode() + m_bigDenominator.hashCode();
+	}
+	
+	/**
+	 * @see calculator.Fraction#negate()
+	 */
+	@Override
+	public Fraction negate()
+	{
+		return valueOf(m_bigNumerator.negate(), m_bigDenominator);
+	}
+	
+	/**
+	 * @see calculator.Fraction#reciprocal()
+	 */
+	@Override
+	public Fraction reciprocal()
+	{
+		return valueOf(m_bigDenominator, m_bigNumerator);
+	}
+	
+	/**
+	 * @see calculator.Fraction#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		if (!m_bigDenominator.equals(BigInteger.ONE))
+		{
+			return m_bigNumerator + "/" + m_bigDenominator;
+		}
+		else
+		{
+			return m_bigNumerator.toString();
+		}
+	}
+	
+	/**
+	 * @see calculator.Fraction#toDouble()
+	 */
+	@Override
+	public double toDouble()
+	{
+		//Dividing the two doubleValues would give infinity / infinity for very large values.
+		BigDecimal quotient = new BigDecimal(m_bigNumerator).divide(new BigDecimal(m_bigDenominator), MathContext.DECIMAL64);
+		return quotient.doubleValue();
+	}
+	
+}
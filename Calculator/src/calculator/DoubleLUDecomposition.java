@@ -0,0 +1,432 @@
+package calculator;
+
+/**
+ * The LU decomposition of a DoubleMatrix with partial pivoting, PA = LU, for approximate mode.
+ * P permutes the rows, L is lower triangular with 1s on its diagonal, and U is in row echelon form.
+ *
+ * Each step takes the largest remaining value in its column as the pivot, so every multiplier in L is
+ * at most 1 and rounding errors don't grow. A column whose largest value is within rounding of 0 is
+ * skipped, so the rank counts only pivots that are really there.
+ *
+ * The factors overwrite one flat copy of the matrix: L below the pivots, U from them rightwards.
+ * Eliminating below a pivot and substituting both run along contiguous rows.
+ */
+public class DoubleLUDecomposition
+{
+	
+	/** The amount of rows. */
+	private final int m_rows;
+	
+	/** The amount of columns. */
+	private final int m_columns;
+	
+	/** The factors, row-major. The multiplier L(i, k) sits in row i, column m_pivotColumns[k]. */
+	private final double[] m_factors;
+	
+	/** For each row of PA, the row of A it came from. */
+	private final int[] m_permutation;
+	
+	/** The column of each pivot, increasing. Only the first m_rank are used. */
+	private final int[] m_pivotColumns;
+	
+	/** The amount of pivots. */
+	private final int m_rank;
+	
+	/** The determinant of P: 1 for an even amount of row swaps, -1 for an odd amount. */
+	private final int m_permutationSign;
+	
+	/**
+	 * Factors a matrix.
+	 *
+	 * @param a_matrix the matrix
+	 */
+	public DoubleLUDecomposition(DoubleMatrix a_matrix)
+	{
+		m_rows = a_matrix.getRows();
+		m_columns = a_matrix.getColumns();
+		m_factors = a_matrix.getValues().clone();
+		m_permutation = new int[m_rows];
+		m_pivotColumns = new int[Math.min(m_rows, m_columns)];
+		
+		double[] factors = m_factors;
+		int columns = m_columns;
+		double largest = 0;
+		
+		for (int row = 0; row < m_rows; row++)
+		{
+			m_permutation[row] = row;
+		}
+		
+		for (double value : factors)
+		{
+			largest = Math.max(largest, Math.abs(value));
+		}
+		
+		//Anything this small after elimination is taken as rounding noise on a 0:
+		double tolerance = largest * Math.max(m_rows, m_columns) * Math.ulp(1.0);
+		int rank = 0;
+		int sign = 1;
+		
+		for (int column = 0; column < columns && rank < m_rows; column++)
+		{
+			MatrixTask.checkpoint(rank, Math.min(m_rows, columns));
+			
+			int pivotRow = rank;
+			
+			for (int row = rank + 1; row < m_rows; row++)
+			{
+				if (Math.abs(factors[row * columns + column]) > Math.abs(factors[pivotRow * columns + column])) pivotRow = row;
+			}
+			
+			//Nothing left in this column, so it has no pivot:
+			if (Math.abs(factors[pivotRow * columns + column]) <= tolerance) continue;
+			
+			if (pivotRow != rank)
+			{
+				for (int index = 0; index < columns; index++)
+				{
+					double value = factors[pivotRow * columns + index];
+					factors[pivotRow * columns + index] = factors[rank * columns + index];
+					factors[rank * columns + index] = value;
+				}
+				
+				int original = m_permutation[pivotRow];
+				m_permutation[pivotRow] = m_permutation[rank];
+				m_permutation[rank] = original;
+				
+				sign = -sign;
+			}
+			
+			double pivot = factors[rank * columns + column];
+			int pivotStart = rank * columns;
+			
+			//Eliminate below the pivot, leaving the multiplier where the eliminated value was:
+			for (int row = rank + 1; row < m_rows; row++)
+			{
+				int rowStart = row * columns;
+				double multiplier = factors[rowStart + column] / pivot;
+				factors[rowStart + column] = multiplier;
+				
+				if (multiplier == 0) continue;
+				
+				for (int index = column + 1; index < columns; index++)
+				{
+					factors[rowStart + index] -= multiplier * factors[pivotStart + index];
+				}
+			}
+			
+			m_pivotColumns[rank] = column;
+			rank++;
+		}
+		
+		m_rank = rank;
+		m_permutationSign = sign;
+	}
+	
+	/**
+	 * Gets the rank: the amount of pivots.
+	 *
+	 * @return the rank
+	 */
+	public int getRank()
+	{
+		return m_rank;
+	}
+	
+	/**
+	 * Checks if the factored matrix has no inverse, to within rounding.
+	 *
+	 * @return true, if the matrix is not square or has a column without a pivot
+	 */
+	public boolean isSingular()
+	{
+		return m_rows != m_columns || m_rank < m_columns;
+	}
+	
+	/**
+	 * Gets the determinant of P: -1 if the rows were swapped an odd amount of times, else 1.
+	 *
+	 * @return the sign
+	 */
+	public int getPermutationSign()
+	{
+		return m_permutationSign;
+	}
+	
+	/**
+	 * Gets the row permutation.
+	 *
+	 * @return for each row of PA, the row of A it came from. A copy.
+	 */
+	public int[] getPermutation()
+	{
+		return m_permutation.clone();
+	}
+	
+	/**
+	 * Gets the determinant: the product of the pivots, with the sign of P.
+	 *
+	 * @return the determinant
+	 * @throws MatrixException if the factored matrix is not square
+	 */
+	public double getDeterminant() throws MatrixException
+	{
+		if (m_rows != m_columns) throw new MatrixException("Not a square matrix");
+		
+		if (m_rank < m_columns) return 0;
+		
+		double determinant = m_permutationSign;
+		
+		for (int step = 0; step < m_rank; step++)
+		{
+			determinant *= m_factors[step * m_columns + step];
+		}
+		
+		return determinant;
+	}
+	
+	/**
+	 * Gets L, rows x rows, lower triangular with 1s on its diagonal.
+	 *
+	 * @return L
+	 */
+	public DoubleMatrix getL()
+	{
+		DoubleMatrix lower = new DoubleMatrix(m_rows, m_rows);
+		
+		for (int row = 0; row < m_rows; row++)
+		{
+			for (int step = 0; step < Math.min(row, m_rank); step++)
+			{
+				lower.set(row, step, m_factors[row * m_columns + m_pivotColumns[step]]);
+			}
+			
+			lower.set(row, row, 1);
+		}
+		
+		return lower;
+	}
+	
+	/**
+	 * Gets U, rows x columns, in row echelon form. Rows past the rank are 0.
+	 *
+	 * @return U
+	 */
+	public DoubleMatrix getU()
+	{
+		DoubleMatrix upper = new DoubleMatrix(m_rows, m_columns);
+		
+		for (int row = 0; row < m_rank; row++)
+		{
+			for (int column = m_pivotColumns[row]; column < m_columns; column++)
+			{
+				upper.set(row, column, m_factors[row * m_columns + column]);
+			}
+		}
+		
+		return upper;
+	}
+	
+	/**
+	 * Solves AX = B. All the columns of B are substituted together, a row at a time.
+	 *
+	 * @param a_RHS B, with as many rows as A
+	 * @return X
+	 * @throws MatrixException if A is singular, or B has the wrong amount of rows
+	 */
+	public DoubleMatrix solve(DoubleMatrix a_RHS) throws MatrixException
+	{
+		if (isSingular()) throw new MatrixException("Singular matrix, not invertible");
+		
+		if (a_RHS.getRows() != m_rows)
+		{
+			throw new MatrixException("Invalid dimensions: expected " + m_rows + " rows, got " + a_RHS.getRows());
+		}
+		
+		int width = a_RHS.getColumns();
+		double[] rhs = a_RHS.getValues();
+		double[] solution = new double[m_rows * width];
+		
+		for (int row = 0; row < m_rows; row++)
+		{
+			System.arraycopy(rhs, m_permutation[row] * width, solution, row * width, width);
+		}
+		
+		substitute(solution, width);
+		dropNoise(solution);
+		
+		return new DoubleMatrix(m_rows, width, solution);
+	}
+	
+	/**
+	 * Solves XA = B: B divided by A on the right, without forming the inverse of A.
+	 * Since A = P^-1 LU, each row x of X is found from its row b of B by solving yU = b, then wL = y,
+	 * and then x = wP. Both substitutions run along contiguous rows of the factors.
+	 *
+	 * @param a_LHS B, with as many columns as A has rows
+	 * @return X
+	 * @throws MatrixException if A is singular, or B has the wrong amount of columns
+	 */
+	public DoubleMatrix divide(DoubleMatrix a_LHS) throws MatrixException
+	{
+		if (isSingular()) throw new MatrixException("Singular matrix, not invertible");
+		
+		if (a_LHS.getColumns() != m_rows)
+		{
+			throw new MatrixException("Invalid dimensions: expected " + m_rows + " columns, got " + a_LHS.getColumns());
+		}
+		
+		int size = m_rows;
+		int amtRows = a_LHS.getRows();
+		double[] factors = m_factors;
+		double[] intermediate = a_LHS.getValues().clone();
+		double[] quotient = new double[amtRows * size];
+		
+		for (int row = 0; row < amtRows; row++)
+		{
+			int rowStart = row * size;
+			
+			//yU = b: once y(k) is final, take its multiple of row k of U from the rest of b.
+			for (int step = 0; step < size; step++)
+			{
+				double value = intermediate[rowStart + step] / factors[step * size + step];
+				intermediate[rowStart + step] = value;
+				
+				if (value == 0) continue;
+				
+				for (int column = step + 1; column < size; column++)
+				{
+					intermediate[rowStart + column] -= value * factors[step * size + column];
+				}
+			}
+			
+			//wL = y, from the last row of L back: once w(k) is final, take its multiple of row k of L.
+			for (int step = size - 1; step > 0; step--)
+			{
+				double value = intermediate[rowStart + step];
+				
+				if (value == 0) continue;
+				
+				for (int column = 0; column < step; column++)
+				{
+					intermediate[rowStart + column] -= value * factors[step * size + column];
+				}
+			}
+			
+			//x = wP:
+			for (int index = 0; index < size; index++)
+			{
+				quotient[rowStart + m_permutation[index]] = intermediate[rowStart + index];
+			}
+		}
+		
+		dropNoise(quotient);
+		
+		return new DoubleMatrix(amtRows, size, quotient);
+	}
+	
+	/**
+	 * Gets the inverse by solving against the identity.
+	 *
+	 * @return the inverse
+	 * @throws MatrixException if A is singular
+	 */
+	public DoubleMatrix inverse() throws MatrixException
+	{
+		if (isSingular()) throw new MatrixException("Singular matrix, not invertible");
+		
+		double[] solution = new double[m_rows * m_rows];
+		
+		for (int row = 0; row < m_rows; row++)
+		{
+			solution[row * m_rows + m_permutation[row]] = 1;
+		}
+		
+		substitute(solution, m_rows);
+		dropNoise(solution);
+		
+		return new DoubleMatrix(m_rows, m_rows, solution);
+	}
+	
+	/**
+	 * Sets values that are 0 to the 12 digits converting back to Fractions keeps, relative to the largest
+	 * value, to exactly 0. The rounding error of a solve grows with the largest value and the condition of A,
+	 * so without this a cell that should be 0 comes out as a tiny Fraction with a huge denominator.
+	 *
+	 * @param a_values the values
+	 */
+	private void dropNoise(double[] a_values)
+	{
+		double largest = 0;
+		
+		for (double value : a_values)
+		{
+			largest = Math.max(largest, Math.abs(value));
+		}
+		
+		double noise = largest * DoubleMatrix.RELATIVE_TOLERANCE;
+		
+		for (int index = 0; index < a_values.length; index++)
+		{
+			if (Math.abs(a_values[index]) <= noise) a_values[index] = 0;
+		}
+	}
+	
+	/**
+	 * Solves LUX = PB in place. The factors are square here, so every pivot is on the diagonal.
+	 *
+	 * @param a_values the rows of PB, overwritten with X
+	 * @param a_width the amount of columns of B
+	 */
+	private void substitute(double[] a_values, int a_width)
+	{
+		int size = m_rows;
+		double[] factors = m_factors;
+		
+		//Forward: Ly = PB.
+		for (int row = 1; row < size; row++)
+		{
+			int rowStart = row * a_width;
+			
+			for (int step = 0; step < row; step++)
+			{
+				double multiplier = factors[row * size + step];
+				if (multiplier == 0) continue;
+				
+				int stepStart = step * a_width;
+				
+				for (int column = 0; column < a_width; column++)
+				{
+					a_values[rowStart + column] -= multiplier * a_values[stepStart + column];
+				}
+			}
+		}
+		
+		//Back: Ux = y.
+		for (int row = size - 1; row >= 0; row--)
+		{
+			int rowStart = row * a_width;
+			
+			for (int step = row + 1; step < size; step++)
+			{
+				double multiplier = factors[row * size + step];
+				if (multiplier == 0) continue;
+				
+				int stepStart = step * a_width;
+				
+				for (int column = 0; column < a_width; column++)
+				{
+					a_values[rowStart + column] -= multiplier * a_values[stepStart + column];
+				}
+			}
+			
+			double pivot = factors[row * size + row];
+			
+			for (int column = 0; column < a_width; column++)
+			{
+				a_values[rowStart + column] /= pivot;
+			}
+		}
+	}
+	
+}
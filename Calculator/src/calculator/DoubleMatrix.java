@@ -0,0 +1,391 @@
+package calculator;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A matrix of doubles in one flat, row-major array, for work where exact Fractions aren't needed.
+ * A cell at (row, column) lives at index row * columns + column.
+ *
+ * The kernels are plain loops written so the JIT can vectorize them: the innermost loop always runs
+ * over contiguous cells with no branches, and the multiply works in cache-sized blocks. The MatrixEngine
+ * routes through here in approximate mode.
+ */
+public class DoubleMatrix
+{
+	
+	/** The block size of the multiply and the transpose. 64 x 64 doubles is 32KB, about an L1 cache. */
+	private static final int BLOCK = 64;
+	
+	/** Converting back to Fractions takes the simplest one within this much of each value, relative to it: about 12 digits. */
+	static final double RELATIVE_TOLERANCE = 1e-12;
+	
+	/** The amount of rows. */
+	private final int m_rows;
+	
+	/** The amount of columns. */
+	private final int m_columns;
+	
+	/** The values, row-major. */
+	private final double[] m_values;
+	
+	/**
+	 * Creates a new matrix of the given size with every cell 0.
+	 *
+	 * @param a_rows the amount of rows
+	 * @param a_columns the amount of columns
+	 */
+	public DoubleMatrix(int a_rows, int a_columns)
+	{
+		this(a_rows, a_columns, new double[a_rows * a_columns]);
+	}
+	
+	/**
+	 * Creates a new matrix around a row-major array. The array is used directly, not copied.
+	 *
+	 * @param a_rows the amount of rows
+	 * @param a_columns the amount of columns
+	 * @param a_values the values, row-major
+	 */
+	public DoubleMatrix(int a_rows, int a_columns, double[] a_values)
+	{
+		if (a_values.length != a_rows * a_columns)
+		{
+			throw new IllegalArgumentException("Expected " + a_rows * a_columns + " values, got " + a_values.length);
+		}
+		
+		m_rows = a_rows;
+		m_columns = a_columns;
+		m_values = a_values;
+	}
+	
+	/**
+	 * Creates a new matrix with the values of a Matrix, rounded to doubles.
+	 *
+	 * @param a_matrix the matrix to copy the values from
+	 */
+	public DoubleMatrix(Matrix a_matrix)
+	{
+		this(a_matrix.getRows(), a_matrix.getColumns());
+		
+		for (int row = 0; row < m_rows; row++)
+		{
+			for (int column = 0; column < m_columns; column++)
+			{
+				m_values[row * m_columns + column] = a_matrix.getCell(row, column).toDouble();
+			}
+		}
+	}
+	
+	/**
+	 * Gets the amount of rows.
+	 *
+	 * @return the amount of rows
+	 */
+	public int getRows()
+	{
+		return m_rows;
+	}
+	
+	/**
+	 * Gets the amount of columns.
+	 *
+	 * @return the amount of columns
+	 */
+	public int getColumns()
+	{
+		return m_columns;
+	}
+	
+	/**
+	 * Gets the value at the cell.
+	 *
+	 * @param a_row the row index
+	 * @param a_column the column index
+	 * @return the value
+	 */
+	public double get(int a_row, int a_column)
+	{
+		return m_values[a_row * m_columns + a_column];
+	}
+	
+	/**
+	 * Sets the value at the cell.
+	 *
+	 * @param a_row the row index
+	 * @param a_column the column index
+	 * @param a_value the value
+	 */
+	public void set(int a_row, int a_column, double a_value)
+	{
+		m_values[a_row * m_columns + a_column] = a_value;
+	}
+	
+	/**
+	 * Gets the values, for kernels.
+	 *
+	 * @return the values, row-major. Not a copy.
+	 */
+	double[] getValues()
+	{
+		return m_values;
+	}
+	
+	/**
+	 * Converts the matrix back to Fractions, each the simplest one that agrees with its double to about 12 digits.
+	 *
+	 * @return the matrix
+	 * @throws ArithmeticException if a value is infinite or NaN
+	 */
+	public Matrix toMatrix()
+	{
+		Matrix matrix = new Matrix(m_rows, m_columns);
+		
+		for (int row = 0; row < m_rows; row++)
+		{
+			for (int column = 0; column < m_columns; column++)
+			{
+				matrix.setCell(row, column, toFraction(m_values[row * m_columns + column]));
+			}
+		}
+		
+		return matrix;
+	}
+	
+	/**
+	 * Converts a value to the simplest Fraction that agrees with it to about 12 digits.
+	 *
+	 * @param a_value the value
+	 * @return the Fraction
+	 * @throws ArithmeticException if the value is infinite or NaN
+	 */
+	static Fraction toFraction(double a_value)
+	{
+		return Fraction.valueOf(a_value, Math.abs(a_value) * RELATIVE_TOLERANCE);
+	}
+	
+	/**
+	 * Adds a matrix of the same size element-wise.
+	 *
+	 * @param a_other the right-hand side
+	 * @return the sum
+	 */
+	public DoubleMatrix add(DoubleMatrix a_other)
+	{
+		checkSameSize(a_other);
+		
+		double[] sum = new double[m_values.length];
+		double[] other = a_other.m_values;
+		
+		for (int index = 0; index < sum.length; index++)
+		{
+			sum[index] = m_values[index] + other[index];
+		}
+		
+		return new DoubleMatrix(m_rows, m_columns, sum);
+	}
+	
+	/**
+	 * Subtracts a matrix of the same size element-wise.
+	 *
+	 * @param a_other the right-hand side
+	 * @return the difference
+	 */
+	public DoubleMatrix subtract(DoubleMatrix a_other)
+	{
+		checkSameSize(a_other);
+		
+		double[] difference = new double[m_values.length];
+		double[] other = a_other.m_values;
+		
+		for (int index = 0; index < difference.length; index++)
+		{
+			difference[index] = m_values[index] - other[index];
+		}
+		
+		return new DoubleMatrix(m_rows, m_columns, difference);
+	}
+	
+	/**
+	 * Multiplies every cell by a scalar.
+	 *
+	 * @param a_scalar the scalar
+	 * @return the product
+	 */
+	public DoubleMatrix scale(double a_scalar)
+	{
+		double[] product = new double[m_values.length];
+		
+		for (int index = 0; index < product.length; index++)
+		{
+			product[index] = m_values[index] * a_scalar;
+		}
+		
+		return new DoubleMatrix(m_rows, m_columns, product);
+	}
+	
+	/**
+	 * Multiplies by another matrix on this thread.
+	 *
+	 * @param a_other the right-hand side, with as many rows as this has columns
+	 * @return the product
+	 */
+	public DoubleMatrix multiply(DoubleMatrix a_other)
+	{
+		return multiply(a_other, null);
+	}
+	
+	/**
+	 * Multiplies by another matrix, splitting the rows of the product over a pool.
+	 * Each row of the product adds up multiples of rows of the RHS, so the innermost loop runs along
+	 * two contiguous rows. The product is worked on in blocks so those rows stay in cache.
+	 *
+	 * @param a_other the right-hand side, with as many rows as this has columns
+	 * @param a_pool the pool, or null to stay on this thread
+	 * @return the product
+	 */
+	DoubleMatrix multiply(DoubleMatrix a_other, ForkJoinPool a_pool)
+	{
+		if (m_columns != a_other.m_rows)
+		{
+			throw new IllegalArgumentException("Cannot multiply " + m_rows + "x" + m_columns + " by " + a_other.m_rows + "x" + a_other.m_columns);
+		}
+		
+		DoubleMatrix product = new DoubleMatrix(m_rows, a_other.m_columns);
+		
+		RowBlockTask.run(a_pool, new MultiplyRows(this, a_other, product), m_rows, BLOCK);
+		
+		return product;
+	}
+	
+	/**
+	 * Transposes the matrix one block at a time, so both the reads and the writes stay in cache.
+	 *
+	 * @return the transpose
+	 */
+	public DoubleMatrix transpose()
+	{
+		double[] transpose = new double[m_values.length];
+		
+		for (int rowBlock = 0; rowBlock < m_rows; rowBlock += BLOCK)
+		{
+			int rowEnd = Math.min(rowBlock + BLOCK, m_rows);
+			
+			for (int columnBlock = 0; columnBlock < m_columns; columnBlock += BLOCK)
+			{
+				int columnEnd = Math.min(columnBlock + BLOCK, m_columns);
+				
+				for (int row = rowBlock; row < rowEnd; row++)
+				{
+					for (int column = columnBlock; column < columnEnd; column++)
+					{
+						transpose[column * m_rows + row] = m_values[row * m_columns + column];
+					}
+				}
+			}
+		}
+		
+		return new DoubleMatrix(m_columns, m_rows, transpose);
+	}
+	
+	/**
+	 * Checks that another matrix has the same size, for element-wise operations.
+	 *
+	 * @param a_other the other matrix
+	 */
+	private void checkSameSize(DoubleMatrix a_other)
+	{
+		if (m_rows != a_other.m_rows || m_columns != a_other.m_columns)
+		{
+			throw new IllegalArgumentException("Sizes do not match: " + m_rows + "x" + m_columns + " and " + a_other.m_rows + "x" + a_other.m_columns);
+		}
+	}
+	
+	/**
+	 * Multiplies a range of rows of the LHS by the RHS.
+	 */
+	private static final class MultiplyRows implements RowOperation
+	{
+		
+		/** The left-hand side. */
+		private final DoubleMatrix m_LHS;
+		
+		/** The right-hand side. */
+		private final DoubleMatrix m_RHS;
+		
+		/** The product. Each call only writes its own rows. */
+		private final DoubleMatrix m_product;
+		
+		/**
+		 * Instantiates a new multiply over rows.
+		 *
+		 * @param a_LHS the left-hand side
+		 * @param a_RHS the right-hand side
+		 * @param a_product the product
+		 */
+		MultiplyRows(DoubleMatrix a_LHS, DoubleMatrix a_RHS, DoubleMatrix a_product)
+		{
+			m_LHS = a_LHS;
+			m_RHS = a_RHS;
+			m_product = a_product;
+		}
+		
+		/**
+		 * @see calculator.RowOperation#computeRows(int, int)
+		 */
+		@Override
+		public void computeRows(int a_fromRow, int a_toRow)
+		{
+			double[] lhs = m_LHS.m_values;
+			double[] rhs = m_RHS.m_values;
+			double[] product = m_product.m_values;
+			int inner = m_LHS.m_columns;
+			int columns = m_RHS.m_columns;
+			
+			for (int columnBlock = 0; columnBlock < columns; columnBlock += BLOCK)
+			{
+				int columnEnd = Math.min(columnBlock + BLOCK, columns);
+				
+				for (int innerBlock = 0; innerBlock < inner; innerBlock += BLOCK)
+				{
+					int innerEnd = Math.min(innerBlock + BLOCK, inner);
+					
+					for (int row = a_fromRow; row < a_toRow; row++)
+					{
+						int productRow = row * columns;
+						int k = innerBlock;
+						
+						//Four rows of the RHS at a time, so each product cell is loaded and stored a quarter as often.
+						//Contiguous and branch-free, so the JIT turns it into SIMD:
+						for (; k + 3 < innerEnd; k += 4)
+						{
+							double first = lhs[row * inner + k];
+							double second = lhs[row * inner + k + 1];
+							double third = lhs[row * inner + k + 2];
+							double fourth = lhs[row * inner + k + 3];
+							int rhsRow = k * columns;
+							
+							for (int column = columnBlock; column < columnEnd; column++)
+							{
+								product[productRow + column] += first * rhs[rhsRow + column] + second * rhs[rhsRow + columns + column]
+										+ third * rhs[rhsRow + 2 * columns + column] + fourth * rhs[rhsRow + 3 * columns + column];
+							}
+						}
+						
+						for (; k < innerEnd; k++)
+						{
+							double multiple = lhs[row * inner + k];
+							int rhsRow = k * columns;
+							
+							for (int column = columnBlock; column < columnEnd; column++)
+							{
+								product[productRow + column] += multiple * rhs[rhsRow + column];
+							}
+						}
+					}
+				}
+			}
+		}
+		
+	}
+	
+}
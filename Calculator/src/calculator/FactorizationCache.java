@@ -0,0 +1,313 @@
+package calculator;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * A bounded cache of elimination results per Matrix, so follow-up operations on the same matrix don't
+ * eliminate it again. In a typical session the determinant, the inverse, the rank and a division by the
+ * same matrix all read one LU decomposition.
+ *
+ * Entries are keyed by the version stamp of the matrix, so a copy that hasn't been changed, such as
+ * the answer of one operation passed on to the next, finds the results of its original. Once a matrix
+ * is changed it gets a new stamp, and the entry of the old one is never looked up again. When the
+ * cache is full, the least recently used entry is dropped. The cache doesn't keep the matrices alive.
+ *
+ * Off-heap matrices are too big to keep extra results for, so they are never kept. Neither are matrices
+ * over a {@link MatrixView}, whose cells can change without their version stamp changing.
+ */
+final class FactorizationCache
+{
+	
+	/** The default amount of matrices to keep results for. */
+	static final int DEFAULT_CAPACITY = 16;
+	
+	/** The entries, least recently used first. */
+	private final LinkedHashMap<Long, Entry> m_entries;
+	
+	/** The amount of matrices to keep results for. 0 keeps none. */
+	private int m_capacity;
+	
+	/**
+	 * Instantiates a new cache.
+	 *
+	 * @param a_capacity the amount of matrices to keep results for
+	 */
+	FactorizationCache(int a_capacity)
+	{
+		m_entries = new LinkedHashMap<Long, Entry>(16, 0.75f, true);
+		setCapacity(a_capacity);
+	}
+	
+	/**
+	 * Sets the amount of matrices to keep results for, dropping the least recently used ones past it.
+	 *
+	 * @param a_capacity the capacity, 0 or more. 0 turns the cache off.
+	 */
+	synchronized void setCapacity(int a_capacity)
+	{
+		if (a_capacity < 0)
+		{
+			throw new IllegalArgumentException("Cache capacity must be 0 or more, was " + a_capacity);
+		}
+		
+		m_capacity = a_capacity;
+		evict();
+	}
+	
+	/**
+	 * Gets the amount of matrices to keep results for.
+	 *
+	 * @return the capacity
+	 */
+	synchronized int getCapacity()
+	{
+		return m_capacity;
+	}
+	
+	/**
+	 * Gets the entry for the current version of a matrix, adding an empty one if there is none.
+	 * With the cache turned off, or for an off-heap matrix or a view, the entry is empty and not kept.
+	 *
+	 * @param a_matrix the matrix
+	 * @return the entry, to read results from and store new ones in
+	 */
+	synchronized Entry get(Matrix a_matrix)
+	{
+		MatrixStorage storage = a_matrix.getStorageAsStored();
+		
+		if (m_capacity == 0 || storage instanceof OffHeapMatrixStorage || storage instanceof MatrixView)
+		{
+			return new Entry(false);
+		}
+		
+		Long version = a_matrix.getVersion();
+		Entry entry = m_entries.get(version);
+		
+		if (entry != null) return entry;
+		
+		entry = new Entry(true);
+		m_entries.put(version, entry);
+		evict();
+		
+		return entry;
+	}
+	
+	/**
+	 * Drops every entry.
+	 */
+	synchronized void clear()
+	{
+		m_entries.clear();
+	}
+	
+	/**
+	 * Drops the least recently used entries until the cache is within its capacity.
+	 */
+	private void evict()
+	{
+		Iterator<Entry> eldest = m_entries.values().iterator();
+		
+		while (m_entries.size() > m_capacity)
+		{
+			eldest.next();
+			eldest.remove();
+		}
+	}
+	
+	/**
+	 * The results kept for one version of a matrix. Any of them may be missing (null).
+	 * Matrix results are handed out by the MatrixEngine as copies, since a Matrix can be changed.
+	 * The results are volatile, so a result stored by one thread is complete when another reads it.
+	 * Two threads may both work out a missing result at once; they get the same answer, and either one is kept.
+	 */
+	static final class Entry
+	{
+		
+		/** If false, the entry is not in the cache, so its results won't be seen again. */
+		private final boolean m_kept;
+		
+		/** The exact LU decomposition. */
+		private volatile LUDecomposition m_factors;
+		
+		/** The LU decomposition in doubles, for approximate mode. */
+		private volatile DoubleLUDecomposition m_doubleFactors;
+		
+		/** The REF. */
+		private volatile Matrix m_REF;
+		
+		/** The RREF. */
+		private volatile Matrix m_RREF;
+		
+		/** The exact inverse. */
+		private volatile Matrix m_inverse;
+		
+		/** The exact determinant. */
+		private volatile Fraction m_determinant;
+		
+		/** The exact rank. */
+		private volatile Fraction m_rank;
+		
+		/**
+		 * Instantiates a new, empty entry.
+		 *
+		 * @param a_kept true, if the entry is in the cache
+		 */
+		Entry(boolean a_kept)
+		{
+			m_kept = a_kept;
+		}
+		
+		/**
+		 * Checks if the entry is in the cache. If not, a Matrix result can be handed out without copying it.
+		 *
+		 * @return true, if the entry is in the cache
+		 */
+		boolean isKept()
+		{
+			return m_kept;
+		}
+		
+		/**
+		 * Gets the exact LU decomposition.
+		 *
+		 * @return the factors, or null
+		 */
+		LUDecomposition getFactors()
+		{
+			return m_factors;
+		}
+		
+		/**
+		 * Sets the exact LU decomposition.
+		 *
+		 * @param a_factors the factors
+		 */
+		void setFactors(LUDecomposition a_factors)
+		{
+			m_factors = a_factors;
+		}
+		
+		/**
+		 * Gets the LU decomposition in doubles.
+		 *
+		 * @return the factors, or null
+		 */
+		DoubleLUDecomposition getDoubleFactors()
+		{
+			return m_doubleFactors;
+		}
+		
+		/**
+		 * Sets the LU decomposition in doubles.
+		 *
+		 * @param a_doubleFactors the factors
+		 */
+		void setDoubleFactors(DoubleLUDecomposition a_doubleFactors)
+		{
+			m_doubleFactors = a_doubleFactors;
+		}
+		
+		/**
+		 * Gets the REF.
+		 *
+		 * @return the REF, or null. Not a copy.
+		 */
+		Matrix getREF()
+		{
+			return m_REF;
+		}
+		
+		/**
+		 * Sets the REF.
+		 *
+		 * @param a_REF the REF, which must not be changed afterwards
+		 */
+		void setREF(Matrix a_REF)
+		{
+			m_REF = a_REF;
+		}
+		
+		/**
+		 * Gets the RREF.
+		 *
+		 * @return the RREF, or null. Not a copy.
+		 */
+		Matrix getRREF()
+		{
+			return m_RREF;
+		}
+		
+		/**
+		 * Sets the RREF.
+		 *
+		 * @param a_RREF the RREF, which must not be changed afterwards
+		 */
+		void setRREF(Matrix a_RREF)
+		{
+			m_RREF = a_RREF;
+		}
+		
+		/**
+		 * Gets the exact inverse.
+		 *
+		 * @return the inverse, or null. Not a copy.
+		 */
+		Matrix getInverse()
+		{
+			return m_inverse;
+		}
+		
+		/**
+		 * Sets the exact inverse.
+		 *
+		 * @param a_inverse the inverse, which must not be changed afterwards
+		 */
+		void setInverse(Matrix a_inverse)
+		{
+			m_inverse = a_inverse;
+		}
+		
+		/**
+		 * Gets the exact determinant.
+		 *
+		 * @return the determinant, or null
+		 */
+		Fraction getDeterminant()
+		{
+			return m_determinant;
+		}
+		
+		/**
+		 * Sets the exact determinant.
+		 *
+		 * @param a_determinant the determinant
+		 */
+		void setDeterminant(Fraction a_determinant)
+		{
+			m_determinant = a_determinant;
+		}
+		
+		/**
+		 * Gets the exact rank.
+		 *
+		 * @return the rank, or null
+		 */
+		Fraction getRank()
+		{
+			return m_rank;
+		}
+		
+		/**
+		 * Sets the exact rank.
+		 *
+		 * @param a_rank the rank
+		 */
+		void setRank(Fraction a_rank)
+		{
+			m_rank = a_rank;
+		}
+		
+	}
+	
+}
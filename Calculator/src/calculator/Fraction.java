@@ -1,327 +1,753 @@
-package calculator;
-
-// TODO: Auto-generated Javadoc
-/**
- * The Class Fraction.
- */
-public class Fraction 
-{
-	
-	/** The numerator. */
-	private int m_numerator;
-	
-	/** The denominator. */
-	private int m_denominator;
-	
-	/**
-	 * Instantiates a new fraction.
-	 */
-	public Fraction()
-	{
-		m_numerator = 0;
-		m_denominator = 1;
-	}
-	
-	/**
-	 * Instantiates a new fraction.
-	 *
-	 * @param a_wholeNumber the whole number to set
-	 */
-	public Fraction(int a_wholeNumber)
-	{
-		m_numerator = a_wholeNumber;
-		m_denominator = 1;
-	}
-	
-	/**
-	 * Instantiates a new fraction.
-	 *
-	 * @param a_numerator the numerator
-	 * @param a_denominator the denominator
-	 */
-	public Fraction(int a_numerator, int a_denominator)
-	{
-		m_numerator = a_numerator;
-		m_denominator = (a_denominator != 0) ? a_denominator : 1;
-		
-		//Switch the negative (if it exists) from the denominator to the numerator
-		if (a_denominator < 0)
-		{
-			m_denominator = -m_denominator;
-			m_numerator = -m_numerator;
-		}
-		
-		reduce();
-	}
-	
-	/**
-	 * Copy constructor.
-	 *
-	 * @param a_other the other fraction
-	 */
-	public Fraction(Fraction a_other)
-	{
-		m_numerator = a_other.getNumerator();
-		m_denominator = a_other.getDenominator();
-	}
-	
-	/**
-	 * Gets the numerator.
-	 *
-	 * @return the numerator
-	 */
-	public int getNumerator()
-	{
-		return m_numerator;
-	}
-	
-	/**
-	 * Gets the denominator.
-	 *
-	 * @return the denominator
-	 */
-	public int getDenominator()
-	{
-		return m_denominator;
-	}
-	
-	/**
-	 * Sets the numerator.
-	 *
-	 * @param a_numerator the new numerator
-	 */
-	public void setNumerator(int a_numerator)
-	{
-		m_numerator = a_numerator;
-		reduce();
-	}
-	
-	/**
-	 * Sets the denominator.
-	 *
-	 * @param a_denominator the new denominator
-	 */
-	public void setDenominator(int a_denominator)
-	{
-		if (a_denominator != 0) m_denominator = a_denominator;
-		
-		//Shift the negative to the numerator:
-		if (a_denominator < 0) 
-		{
-			m_numerator = -m_numerator;
-			m_denominator = -m_denominator;
-		}
-		reduce();
-	}
-	
-	/**
-	 * Reduce the fraction to lowest terms.
-	 */
-	public void reduce()
-	{
-		int abs_num = Math.abs(m_numerator);
-		int largest;
-		
-		
-		if (abs_num > m_denominator) largest = abs_num;
-		else largest = m_denominator;
-		
-		int gcd = 1;
-		
-		for (int i = largest; i > 1; i--)
-		{
-			if (abs_num % i == 0 && m_denominator % i == 0)
-			{
-				gcd = i;
-				break;
-			}
-		}
-		
-		m_numerator /= gcd;
-		m_denominator /= gcd;
-	}
-	
-	/**
-	 * Adds the fraction to another fraction.
-	 *
-	 * @param a_other the other fraction
-	 * @return the sum
-	 */
-	public Fraction add(Fraction a_other)
-	{
-		int newDenominator = this.m_denominator * a_other.m_denominator;
-		
-		int lhsNum = this.m_numerator * a_other.m_denominator;
-		int rhsNum = a_other.m_numerator * this.m_denominator;
-		
-		return new Fraction(lhsNum + rhsNum, newDenominator);
-	}
-	
-	/**
-	 * Adds the fraction to a whole number.
-	 *
-	 * @param a_wholeNumber the whole number
-	 * @return the sum
-	 */
-	public Fraction add(int a_wholeNumber)
-	{
-		return add(new Fraction(a_wholeNumber));
-	}
-	
-	/**
-	 * Subtracts this fraction from another.
-	 *
-	 * @param a_other the other fraction
-	 * @return the difference
-	 */
-	public Fraction subtract(Fraction a_other)
-	{
-		return add(a_other.multiply(-1));
-	}
-	
-	/**
-	 * Subtracts this fraction from a whole number.
-	 *
-	 * @param a_wholeNumber the whole number
-	 * @return the difference
-	 */
-	public Fraction subtract(int a_wholeNumber)
-	{
-		return add(new Fraction(-a_wholeNumber));
-	}
-	
-	/**
-	 * Multiply this fraction with another.
-	 *
-	 * @param a_other the other fraction
-	 * @return the product
-	 */
-	public Fraction multiply(Fraction a_other)
-	{
-		int newNumerator = this.m_numerator * a_other.m_numerator;
-		int newDenominator = this.m_denominator * a_other.m_denominator;
-		
-		return new Fraction(newNumerator, newDenominator);
-	}
-	
-	/**
-	 * Multiply this fraction with a whole number.
-	 *
-	 * @param a_wholeNumber the whole number
-	 * @return the product
-	 */
-	public Fraction multiply(int a_wholeNumber)
-	{
-		return multiply(new Fraction(a_wholeNumber));
-	}
-	
-	/**
-	 * Divide this fraction from another.
-	 *
-	 * @param a_other the other fraction
-	 * @return the quotient
-	 */
-	public Fraction divide(Fraction a_other)
-	{
-		return multiply(a_other.reciprocal());
-	}
-	
-	/**
-	 * Divide this fraction from a whole number.
-	 *
-	 * @param a_wholeNumber the whole number
-	 * @return the quotient
-	 */
-	public Fraction divide(int a_wholeNumber)
-	{
-		return multiply(new Fraction(1, a_wholeNumber));
-	}
-	
-	/**
-	 * Compare if two fractions are equal.
-	 *
-	 * @param a_other the other fraction
-	 * @return true if equal, false if not
-	 */
-	public boolean equals(Fraction a_other)
-	{
-		if (m_numerator == a_other.m_numerator && m_denominator == a_other.m_denominator) return true;
-		else return false;
-	}
-	
-	/**
-	 * Compare if a fraction equals a whole number.
-	 *
-	 * @param a_wholeNumber the whole number
-	 * @return true if equal, false if not.
-	 */
-	public boolean equals(int a_wholeNumber)
-	{
-		return equals(new Fraction(a_wholeNumber));
-	}
-	
-	/**
-	 * Get the reciprocal of this fraction.
-	 *
-	 * @return the reciprocal of this fraction
-	 */
-	public Fraction reciprocal()
-	{
-		int newDenominator = m_numerator;
-		int newNumerator = m_denominator;
-		
-		return new Fraction(newNumerator, newDenominator);
-	}
-	
-	/**
-	 * Parses a given string and returns a Fraction if it can be parsed from the text.
-	 *
-	 * @param a_input the string
-	 * @return the Fraction in the string
-	 * @throws NumberFormatException the string can't be parsed
-	 */
-	public static Fraction parseFraction(String a_input) throws NumberFormatException
-	{
-		//Check for the '/' character
-		if (a_input.indexOf('/') == -1)
-		{
-			int value = Integer.parseInt(a_input);
-			return new Fraction(value);
-		}
-		
-		int split = a_input.indexOf('/');
-		
-		int numerator = Integer.parseInt(a_input.substring(0, split));
-		int denominator = Integer.parseInt(a_input.substring(split + 1));
-		
-		return new Fraction(numerator, denominator);
-		
-	}
-	
-	/**
-	 * @see java.lang.Object#toString()
-	 */
-	@Override
-	public String toString()
-	{
-		if (m_denominator != 1)
-		{
-			return m_numerator + "/" + m_denominator;
-		}
-		else
-		{
-			return new Integer(m_numerator).toString();
-		}
-	}
-	
-	/**
-	 * Returns a double representation of the Fraction.
-	 *
-	 * @return the double representation.
-	 */
-	public double toDouble()
-	{
-		return ((double) m_numerator) / ((double) m_denominator);
-	}
-	
-}
+package calculator;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+// TODO: Auto-generated Javadoc
+/**
+ * The Class Fraction.
+ * Fractions are immutable and always in lowest terms, so they can be shared freely between matrices.
+ */
+public class Fraction implements Comparable<Fraction>
+{
+	
+	/** The smallest whole number kept in the cache. */
+	private static final int CACHE_LOW = -128;
+	
+	/** The largest whole number kept in the cache. */
+	private static final int CACHE_HIGH = 1024;
+	
+	/** The interned whole numbers from CACHE_LOW to CACHE_HIGH. */
+	private static final Fraction[] CACHE = new Fraction[CACHE_HIGH - CACHE_LOW + 1];
+	
+	static
+	{
+		for (int i = 0; i < CACHE.length; i++)
+		{
+			CACHE[i] = new Fraction(CACHE_LOW + i, 1, true);
+		}
+	}
+	
+	/** The fraction 0. */
+	public static final Fraction ZERO = valueOf(0);
+	
+	/** The fraction 1. */
+	public static final Fraction ONE = valueOf(1);
+	
+	/** The fraction -1. */
+	public static final Fraction MINUS_ONE = valueOf(-1);
+	
+	/** The numerator. */
+	private final long m_numerator;
+	
+	/** The denominator. Always positive. */
+	private final long m_denominator;
+	
+	/**
+	 * Instantiates a new fraction.
+	 */
+	public Fraction()
+	{
+		m_numerator = 0;
+		m_denominator = 1;
+	}
+	
+	/**
+	 * Instantiates a new fraction.
+	 *
+	 * @param a_wholeNumber the whole number to set
+	 */
+	public Fraction(long a_wholeNumber)
+	{
+		m_numerator = a_wholeNumber;
+		m_denominator = 1;
+	}
+	
+	/**
+	 * Instantiates a new fraction.
+	 *
+	 * @param a_numerator the numerator
+	 * @param a_denominator the denominator
+	 * @throws ArithmeticException if the sign can't be moved to the numerator without overflow
+	 */
+	public Fraction(long a_numerator, long a_denominator)
+	{
+		long numerator = a_numerator;
+		long denominator = (a_denominator != 0) ? a_denominator : 1;
+		
+		//Switch the negative (if it exists) from the denominator to the numerator
+		if (a_denominator < 0)
+		{
+			denominator = Math.negateExact(denominator);
+			numerator = Math.negateExact(numerator);
+		}
+		
+		//Reduce the fraction to lowest terms. gcd(0, d) is d, which leaves 0/1:
+		long gcd = gcd(numerator, denominator);
+		
+		if (gcd > 1)
+		{
+			numerator /= gcd;
+			denominator /= gcd;
+		}
+		
+		m_numerator = numerator;
+		m_denominator = denominator;
+	}
+	
+	/**
+	 * Instantiates a new fraction from a numerator and positive denominator already in lowest terms.
+	 *
+	 * @param a_numerator the numerator
+	 * @param a_denominator the positive denominator
+	 * @param a_inLowestTerms marks the values as already reduced, skipping the GCD
+	 */
+	private Fraction(long a_numerator, long a_denominator, boolean a_inLowestTerms)
+	{
+		m_numerator = a_numerator;
+		m_denominator = a_denominator;
+	}
+	
+	/**
+	 * Copy constructor.
+	 * Fractions are immutable, so sharing the original is usually all that's needed.
+	 *
+	 * @param a_other the other fraction
+	 * @throws ArithmeticException if a_other is a {@link BigFraction}
+	 */
+	public Fraction(Fraction a_other)
+	{
+		m_numerator = a_other.getNumerator();
+		m_denominator = a_other.getDenominator();
+	}
+	
+	/**
+	 * Gets the Fraction for a whole number. Common values are interned, so this does not allocate for them.
+	 *
+	 * @param a_wholeNumber the whole number
+	 * @return the fraction
+	 */
+	public static Fraction valueOf(long a_wholeNumber)
+	{
+		if (a_wholeNumber >= CACHE_LOW && a_wholeNumber <= CACHE_HIGH)
+		{
+			return CACHE[(int) a_wholeNumber - CACHE_LOW];
+		}
+		
+		return new Fraction(a_wholeNumber, 1, true);
+	}
+	
+	/**
+	 * Gets the Fraction for a numerator and denominator, interned if it is a common whole number.
+	 *
+	 * @param a_numerator the numerator
+	 * @param a_denominator the denominator
+	 * @return the fraction
+	 * @throws ArithmeticException if the sign can't be moved to the numerator without overflow
+	 */
+	public static Fraction valueOf(long a_numerator, long a_denominator)
+	{
+		if (a_denominator == 1) return valueOf(a_numerator);
+		
+		Fraction fraction = new Fraction(a_numerator, a_denominator);
+		if (fraction.m_denominator == 1) return valueOf(fraction.m_numerator);
+		
+		return fraction;
+	}
+	
+	/**
+	 * Gets the simplest Fraction that converts back to the given double, so 0.1 gives 1/10 rather than
+	 * the exact binary value of 0.1. Used to bring approximate results back into a Matrix.
+	 *
+	 * @param a_value the value
+	 * @return the fraction
+	 * @throws ArithmeticException if the value is infinite or NaN
+	 */
+	public static Fraction valueOf(double a_value)
+	{
+		return valueOf(a_value, 0);
+	}
+	
+	/**
+	 * Gets the simplest Fraction within a tolerance of the given double. Results of double arithmetic
+	 * are a few units off in the last place, so a small tolerance turns 0.33333333333333337 back into 1/3.
+	 *
+	 * @param a_value the value
+	 * @param a_tolerance how far the fraction may be from the value, 0 to convert back to the same double
+	 * @return the fraction
+	 * @throws ArithmeticException if the value is infinite or NaN
+	 */
+	public static Fraction valueOf(double a_value, double a_tolerance)
+	{
+		if (Double.isNaN(a_value) || Double.isInfinite(a_value))
+		{
+			throw new ArithmeticException("Not a finite number: " + a_value);
+		}
+		
+		//Walk the continued fraction until a convergent converts back to the same double:
+		long previousNumerator = 0;
+		long previousDenominator = 1;
+		long numerator = 1;
+		long denominator = 0;
+		double remainder = Math.abs(a_value);
+		
+		try
+		{
+			while (true)
+			{
+				long term = (long) Math.floor(remainder);
+				if (term == Long.MAX_VALUE) break;
+				
+				long nextNumerator = Math.addExact(Math.multiplyExact(term, numerator), previousNumerator);
+				long nextDenominator = Math.addExact(Math.multiplyExact(term, denominator), previousDenominator);
+				
+				previousNumerator = numerator;
+				previousDenominator = denominator;
+				numerator = nextNumerator;
+				denominator = nextDenominator;
+				
+				if (Math.abs((double) numerator / denominator - Math.abs(a_value)) <= a_tolerance || remainder == term)
+				{
+					return valueOf(a_value < 0 ? -numerator : numerator, denominator);
+				}
+				
+				remainder = 1 / (remainder - term);
+			}
+		}
+		catch (ArithmeticException exception)
+		{
+			//The convergents outgrew a long. Fall through to the exact value.
+		}
+		
+		//Every double is exactly some integer over a power of ten:
+		BigDecimal exact = new BigDecimal(a_value);
+		
+		if (exact.scale() <= 0) return BigFraction.valueOf(exact.toBigIntegerExact(), BigInteger.ONE);
+		
+		return BigFraction.valueOf(exact.unscaledValue(), BigInteger.TEN.pow(exact.scale()));
+	}
+	
+	/**
+	 * Creates a fraction from a numerator and positive denominator already in lowest terms.
+	 * Skips the GCD, so it is only used where the arithmetic guarantees a reduced result.
+	 *
+	 * @param a_numerator the numerator
+	 * @param a_denominator the positive denominator
+	 * @return the fraction
+	 */
+	static Fraction reduced(long a_numerator, long a_denominator)
+	{
+		if (a_denominator == 1) return valueOf(a_numerator);
+		return new Fraction(a_numerator, a_denominator, true);
+	}
+	
+	/**
+	 * Gets the numerator.
+	 *
+	 * @return the numerator
+	 * @throws ArithmeticException if the numerator does not fit in a long (see {@link BigFraction})
+	 */
+	public long getNumerator()
+	{
+		return m_numerator;
+	}
+	
+	/**
+	 * Gets the denominator.
+	 *
+	 * @return the denominator
+	 * @throws ArithmeticException if the denominator does not fit in a long (see {@link BigFraction})
+	 */
+	public long getDenominator()
+	{
+		return m_denominator;
+	}
+	
+	/**
+	 * Gets the numerator as a BigInteger.
+	 *
+	 * @return the numerator
+	 */
+	public BigInteger getBigNumerator()
+	{
+		return BigInteger.valueOf(m_numerator);
+	}
+	
+	/**
+	 * Gets the denominator as a BigInteger.
+	 *
+	 * @return the denominator
+	 */
+	public BigInteger getBigDenominator()
+	{
+		return BigInteger.valueOf(m_denominator);
+	}
+	
+	/**
+	 * Checks if the value is held in BigIntegers rather than inline longs.
+	 *
+	 * @return true, if this is a promoted {@link BigFraction}
+	 */
+	boolean isBig()
+	{
+		return false;
+	}
+	
+	/**
+	 * Checks if the fraction is 0. Does not allocate.
+	 *
+	 * @return true, if it is 0
+	 */
+	public boolean isZero()
+	{
+		return m_numerator == 0;
+	}
+	
+	/**
+	 * Checks if the fraction is 1. Does not allocate.
+	 *
+	 * @return true, if it is 1
+	 */
+	public boolean isOne()
+	{
+		return m_numerator == 1 && m_denominator == 1;
+	}
+	
+	/**
+	 * Gets the sign of the fraction.
+	 *
+	 * @return -1, 0 or 1 as the fraction is negative, zero or positive
+	 */
+	public int signum()
+	{
+		return Long.signum(m_numerator);
+	}
+	
+	/**
+	 * Greatest common divisor of two numbers using the binary (Stein's) algorithm.
+	 * Only shifts, subtractions and compares are used, so it runs in O(log n) steps
+	 * with no division.
+	 *
+	 * @param a_first the first number
+	 * @param a_second the second number
+	 * @return the non-negative gcd. gcd(0, 0) is 0.
+	 * @throws ArithmeticException if the result is 2^63, which is not representable
+	 */
+	public static long gcd(long a_first, long a_second)
+	{
+		if (a_first == 0) return absExact(a_second);
+		if (a_second == 0) return absExact(a_first);
+		
+		//Work on the two's complement values as unsigned, so Long.MIN_VALUE is handled:
+		long first = (a_first < 0) ? -a_first : a_first;
+		long second = (a_second < 0) ? -a_second : a_second;
+		
+		//Common factors of two:
+		int shift = Long.numberOfTrailingZeros(first | second);
+		first >>>= Long.numberOfTrailingZeros(first);
+		
+		do
+		{
+			second >>>= Long.numberOfTrailingZeros(second);
+			
+			//Keep first <= second, both are odd here:
+			if (Long.compareUnsigned(first, second) > 0)
+			{
+				long temp = first;
+				first = second;
+				second = temp;
+			}
+			
+			second -= first;
+		}
+		while (second != 0);
+		
+		long gcd = first << shift;
+		if (gcd < 0) throw new ArithmeticException("Fraction overflow: gcd is 2^63");
+		
+		return gcd;
+	}
+	
+	/**
+	 * Absolute value that reports overflow instead of returning Long.MIN_VALUE.
+	 *
+	 * @param a_value the value
+	 * @return the absolute value
+	 */
+	private static long absExact(long a_value)
+	{
+		if (a_value == Long.MIN_VALUE) throw new ArithmeticException("Fraction overflow: |" + a_value + "|");
+		return Math.abs(a_value);
+	}
+	
+	/**
+	 * The high 64 bits of the exact 128-bit product of two longs.
+	 * The low 64 bits are the ordinary (wrapping) product.
+	 *
+	 * @param a_first the first factor
+	 * @param a_second the second factor
+	 * @return the high half of the product
+	 */
+	static long multiplyHigh(long a_first, long a_second)
+	{
+		//Split into signed high and unsigned low 32-bit halves (Hacker's Delight 8-2):
+		long firstHigh = a_first >> 32;
+		long firstLow = a_first & 0xFFFFFFFFL;
+		long secondHigh = a_second >> 32;
+		long secondLow = a_second & 0xFFFFFFFFL;
+		
+		long lowProduct = firstLow * secondLow;
+		long middle = firstHigh * secondLow + (lowProduct >>> 32);
+		long middleLow = (middle & 0xFFFFFFFFL) + firstLow * secondHigh;
+		
+		return firstHigh * secondHigh + (middle >> 32) + (middleLow >> 32);
+	}
+	
+	/**
+	 * Adds the fraction to another fraction.
+	 * If the exact sum does not fit in a long, the result is promoted to a {@link BigFraction}.
+	 *
+	 * @param a_other the other fraction
+	 * @return the sum
+	 */
+	public Fraction add(Fraction a_other)
+	{
+		if (isBig() || a_other.isBig()) return BigFraction.add(this, a_other);
+		
+		try
+		{
+			return addExact(a_other);
+		}
+		catch (ArithmeticException exception)
+		{
+			return BigFraction.add(this, a_other);
+		}
+	}
+	
+	/**
+	 * Adds the fraction to another fraction using only long arithmetic.
+	 * The common denominator is the LCM of the denominators rather than their product,
+	 * so intermediates stay as small as possible.
+	 *
+	 * @param a_other the other fraction
+	 * @return the sum
+	 * @throws ArithmeticException if an intermediate does not fit in a long
+	 */
+	private Fraction addExact(Fraction a_other)
+	{
+		//Fast path for whole numbers, which is most cells in practice:
+		if (this.m_denominator == 1 && a_other.m_denominator == 1)
+		{
+			return valueOf(Math.addExact(this.m_numerator, a_other.m_numerator));
+		}
+		
+		long gcd = gcd(this.m_denominator, a_other.m_denominator);
+		
+		//Coprime denominators: the LCM is the product and the sum is already reduced.
+		if (gcd == 1)
+		{
+			long lhsNum = Math.multiplyExact(this.m_numerator, a_other.m_denominator);
+			long rhsNum = Math.multiplyExact(a_other.m_numerator, this.m_denominator);
+			long newDenominator = Math.multiplyExact(this.m_denominator, a_other.m_denominator);
+			
+			return reduced(Math.addExact(lhsNum, rhsNum), newDenominator);
+		}
+		
+		//Scale each numerator by the other denominator's share of the LCM:
+		long lhsNum = Math.multiplyExact(this.m_numerator, a_other.m_denominator / gcd);
+		long rhsNum = Math.multiplyExact(a_other.m_numerator, this.m_denominator / gcd);
+		long newNumerator = Math.addExact(lhsNum, rhsNum);
+		
+		if (newNumerator == 0) return ZERO;
+		
+		//Any common factor left can only divide the gcd (Knuth 4.5.1):
+		long common = gcd(newNumerator, gcd);
+		newNumerator /= common;
+		long newDenominator = Math.multiplyExact(this.m_denominator / common, a_other.m_denominator / gcd);
+		
+		return reduced(newNumerator, newDenominator);
+	}
+	
+	/**
+	 * Adds the fraction to a whole number.
+	 *
+	 * @param a_wholeNumber the whole number
+	 * @return the sum
+	 */
+	public Fraction add(long a_wholeNumber)
+	{
+		return add(valueOf(a_wholeNumber));
+	}
+	
+	/**
+	 * Subtracts this fraction from another.
+	 *
+	 * @param a_other the other fraction
+	 * @return the difference
+	 */
+	public Fraction subtract(Fraction a_other)
+	{
+		return add(a_other.negate());
+	}
+	
+	/**
+	 * Subtracts this fraction from a whole number.
+	 *
+	 * @param a_wholeNumber the whole number
+	 * @return the difference
+	 */
+	public Fraction subtract(long a_wholeNumber)
+	{
+		return subtract(valueOf(a_wholeNumber));
+	}
+	
+	/**
+	 * Multiply this fraction with another.
+	 * If the exact product does not fit in a long, the result is promoted to a {@link BigFraction}.
+	 *
+	 * @param a_other the other fraction
+	 * @return the product
+	 */
+	public Fraction multiply(Fraction a_other)
+	{
+		if (isBig() || a_other.isBig()) return BigFraction.multiply(this, a_other);
+		
+		try
+		{
+			return multiplyExact(a_other);
+		}
+		catch (ArithmeticException exception)
+		{
+			return BigFraction.multiply(this, a_other);
+		}
+	}
+	
+	/**
+	 * Multiply this fraction with another using only long arithmetic.
+	 *
+	 * @param a_other the other fraction
+	 * @return the product
+	 * @throws ArithmeticException if the product does not fit in a long
+	 */
+	private Fraction multiplyExact(Fraction a_other)
+	{
+		if (this.m_numerator == 0 || a_other.m_numerator == 0) return ZERO;
+		
+		//Cross-reduce first so the products are already in lowest terms:
+		long gcdLeft = gcd(this.m_numerator, a_other.m_denominator);
+		long gcdRight = gcd(a_other.m_numerator, this.m_denominator);
+		
+		long newNumerator = Math.multiplyExact(this.m_numerator / gcdLeft, a_other.m_numerator / gcdRight);
+		long newDenominator = Math.multiplyExact(this.m_denominator / gcdRight, a_other.m_denominator / gcdLeft);
+		
+		return reduced(newNumerator, newDenominator);
+	}
+	
+	/**
+	 * Multiply this fraction with a whole number.
+	 *
+	 * @param a_wholeNumber the whole number
+	 * @return the product
+	 */
+	public Fraction multiply(long a_wholeNumber)
+	{
+		return multiply(valueOf(a_wholeNumber));
+	}
+	
+	/**
+	 * Divide this fraction from another.
+	 *
+	 * @param a_other the other fraction
+	 * @return the quotient
+	 */
+	public Fraction divide(Fraction a_other)
+	{
+		return multiply(a_other.reciprocal());
+	}
+	
+	/**
+	 * Divide this fraction from a whole number.
+	 *
+	 * @param a_wholeNumber the whole number
+	 * @return the quotient
+	 */
+	public Fraction divide(long a_wholeNumber)
+	{
+		return divide(valueOf(a_wholeNumber));
+	}
+	
+	/**
+	 * Compare if two fractions are equal.
+	 *
+	 * @param a_other the other fraction
+	 * @return true if equal, false if not
+	 */
+	public boolean equals(Fraction a_other)
+	{
+		//Values that fit in a long are never promoted, so a small value can't equal a big one:
+		if (a_other.isBig()) return a_other.equals(this);
+		
+		if (m_numerator == a_other.m_numerator && m_denominator == a_other.m_denominator) return true;
+		else return false;
+	}
+	
+	/**
+	 * Compare if a fraction equals a whole number.
+	 *
+	 * @param a_wholeNumber the whole number
+	 * @return true if equal, false if not.
+	 */
+	public boolean equals(long a_wholeNumber)
+	{
+		return m_numerator == a_wholeNumber && m_denominator == 1;
+	}
+	
+	/**
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(Object a_other)
+	{
+		if (!(a_other instanceof Fraction)) return false;
+		return equals((Fraction) a_other);
+	}
+	
+	/**
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode()
+	{
+		return 31 * Long.hashCode(m_numerator) + Long.hashCode(m_denominator);
+	}
+	
+	/**
+	 * Compares two fractions by value.
+	 * Cross-multiplies into exact 128-bit products, so it never overflows and does not allocate.
+	 *
+	 * @param a_other the other fraction
+	 * @return a negative number, zero, or a positive number as this is less than, equal to, or greater than a_other
+	 */
+	@Override
+	public int compareTo(Fraction a_other)
+	{
+		if (isBig() || a_other.isBig())
+		{
+			BigInteger lhs = getBigNumerator().multiply(a_other.getBigDenominator());
+			BigInteger rhs = a_other.getBigNumerator().multiply(getBigDenominator());
+			return lhs.compareTo(rhs);
+		}
+		
+		//Different signs (or a zero) decide it without multiplying:
+		int signum = signum();
+		int otherSignum = a_other.signum();
+		if (signum != otherSignum) return Integer.compare(signum, otherSignum);
+		
+		if (m_denominator == a_other.m_denominator) return Long.compare(m_numerator, a_other.m_numerator);
+		
+		//a/b vs c/d is a*d vs c*b since both denominators are positive:
+		long lhsHigh = multiplyHigh(m_numerator, a_other.m_denominator);
+		long rhsHigh = multiplyHigh(a_other.m_numerator, m_denominator);
+		if (lhsHigh != rhsHigh) return Long.compare(lhsHigh, rhsHigh);
+		
+		return Long.compareUnsigned(m_numerator * a_other.m_denominator, a_other.m_numerator * m_denominator);
+	}
+	
+	/**
+	 * Get the negative of this fraction.
+	 *
+	 * @return the negative of this fraction
+	 */
+	public Fraction negate()
+	{
+		if (m_numerator == Long.MIN_VALUE) return BigFraction.valueOf(getBigNumerator().negate(), getBigDenominator());
+		return reduced(-m_numerator, m_denominator);
+	}
+	
+	/**
+	 * Get the reciprocal of this fraction.
+	 *
+	 * @return the reciprocal of this fraction
+	 */
+	public Fraction reciprocal()
+	{
+		long newDenominator = m_numerator;
+		long newNumerator = m_denominator;
+		
+		//The sign moves to the numerator, which -2^63 can't do as a long:
+		if (newDenominator == Long.MIN_VALUE) return BigFraction.valueOf(getBigDenominator(), getBigNumerator());
+		
+		return valueOf(newNumerator, newDenominator);
+	}
+	
+	/**
+	 * Parses a given string and returns a Fraction if it can be parsed from the text.
+	 *
+	 * @param a_input the string
+	 * @return the Fraction in the string
+	 * @throws NumberFormatException the string can't be parsed
+	 */
+	public static Fraction parseFraction(String a_input) throws NumberFormatException
+	{
+		//Check for the '/' character
+		if (a_input.indexOf('/') == -1)
+		{
+			return BigFraction.valueOf(new BigInteger(a_input), BigInteger.ONE);
+		}
+		
+		int split = a_input.indexOf('/');
+		
+		BigInteger numerator = new BigInteger(a_input.substring(0, split));
+		BigInteger denominator = new BigInteger(a_input.substring(split + 1));
+		
+		return BigFraction.valueOf(numerator, denominator);
+		
+	}
+	
+	/**
+	 * Parses a string like {@link #parseFraction(String)}, but rejects a zero denominator instead of
+	 * reading it as 1. For input from files and the network, where "1/0" is a mistake to report.
+	 *
+	 * @param a_input the string
+	 * @return the Fraction in the string
+	 * @throws NumberFormatException the string can't be parsed, or has a zero denominator
+	 */
+	static Fraction parseExactFraction(String a_input) throws NumberFormatException
+	{
+		int split = a_input.indexOf('/');
+		
+		if (split != -1 && new BigInteger(a_input.substring(split + 1)).signum() == 0)
+		{
+			throw new NumberFormatException("Zero denominator in " + a_input);
+		}
+		
+		return parseFraction(a_input);
+	}
+	
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		if (m_denominator != 1)
+		{
+			return m_numerator + "/" + m_denominator;
+		}
+		else
+		{
+			return Long.toString(m_numerator);
+		}
+	}
+	
+	/**
+	 * Returns a double representation of the Fraction.
+	 *
+	 * @return the double representation.
+	 */
+	public double toDouble()
+	{
+		return ((double) m_numerator) / ((double) m_denominator);
+	}
+	
+}
@@ -0,0 +1,252 @@
+package calculator;
+
+import java.math.BigInteger;
+
+/**
+ * A running sum of Fraction products that is updated in place, for dot products.
+ *
+ * Reduction is deferred: terms are added over a common denominator without taking a GCD each time,
+ * and the sum is only reduced when it is read, or when it stops fitting in a long. A sum of whole
+ * numbers therefore costs one multiply and one add per term. If the sum outgrows a long even after
+ * reducing, the accumulator carries on in BigIntegers.
+ */
+final class FractionAccumulator
+{
+	
+	/** Once the BigInteger denominator grows past this many bits, the sum is reduced before going on. */
+	private static final int BIG_REDUCE_BITS = 1024;
+	
+	/** The numerator while the sum fits in longs. */
+	private long m_numerator;
+	
+	/** The positive denominator while the sum fits in longs. */
+	private long m_denominator;
+	
+	/** The numerator once the sum has outgrown longs, or null before that. */
+	private BigInteger m_bigNumerator;
+	
+	/** The positive denominator once the sum has outgrown longs, or null before that. */
+	private BigInteger m_bigDenominator;
+	
+	/**
+	 * Instantiates a new accumulator equal to 0.
+	 */
+	FractionAccumulator()
+	{
+		reset();
+	}
+	
+	/**
+	 * Sets the sum back to 0.
+	 */
+	void reset()
+	{
+		m_numerator = 0;
+		m_denominator = 1;
+		m_bigNumerator = null;
+		m_bigDenominator = null;
+	}
+	
+	/**
+	 * Adds the product of two fractions to the sum.
+	 *
+	 * @param a_first the first fraction
+	 * @param a_second the second fraction
+	 */
+	void addProduct(Fraction a_first, Fraction a_second)
+	{
+		if (a_first.isZero() || a_second.isZero()) return;
+		
+		if (m_bigNumerator == null && !a_first.isBig() && !a_second.isBig())
+		{
+			try
+			{
+				long numerator = Math.multiplyExact(a_first.getNumerator(), a_second.getNumerator());
+				long denominator = Math.multiplyExact(a_first.getDenominator(), a_second.getDenominator());
+				
+				add(numerator, denominator);
+				return;
+			}
+			catch (ArithmeticException exception)
+			{
+				//Too big for longs. Continue in BigIntegers below.
+			}
+		}
+		
+		addBig(a_first.getBigNumerator().multiply(a_second.getBigNumerator()),
+				a_first.getBigDenominator().multiply(a_second.getBigDenominator()));
+	}
+	
+	/**
+	 * Adds the product of two fractions in lowest terms, given as longs, to the sum.
+	 *
+	 * @param a_firstNumerator the first numerator
+	 * @param a_firstDenominator the first positive denominator
+	 * @param a_secondNumerator the second numerator
+	 * @param a_secondDenominator the second positive denominator
+	 */
+	void addProduct(long a_firstNumerator, long a_firstDenominator, long a_secondNumerator, long a_secondDenominator)
+	{
+		if (a_firstNumerator == 0 || a_secondNumerator == 0) return;
+		
+		if (m_bigNumerator == null)
+		{
+			try
+			{
+				long numerator = Math.multiplyExact(a_firstNumerator, a_secondNumerator);
+				long denominator = Math.multiplyExact(a_firstDenominator, a_secondDenominator);
+				
+				add(numerator, denominator);
+				return;
+			}
+			catch (ArithmeticException exception)
+			{
+				//Too big for longs. Continue in BigIntegers below.
+			}
+		}
+		
+		addBig(BigInteger.valueOf(a_firstNumerator).multiply(BigInteger.valueOf(a_secondNumerator)),
+				BigInteger.valueOf(a_firstDenominator).multiply(BigInteger.valueOf(a_secondDenominator)));
+	}
+	
+	/**
+	 * Adds a term to the sum while it is held in longs, reducing only if the unreduced sum overflows.
+	 *
+	 * @param a_numerator the numerator
+	 * @param a_denominator the positive denominator
+	 */
+	private void add(long a_numerator, long a_denominator)
+	{
+		try
+		{
+			addUnreduced(a_numerator, a_denominator);
+		}
+		catch (ArithmeticException unreduced)
+		{
+			//Reduce the sum, then try again:
+			reduce();
+			
+			try
+			{
+				addUnreduced(a_numerator, a_denominator);
+			}
+			catch (ArithmeticException reduced)
+			{
+				addBig(BigInteger.valueOf(a_numerator), BigInteger.valueOf(a_denominator));
+			}
+		}
+	}
+	
+	/**
+	 * Adds a term over a common denominator without reducing. Leaves the sum unchanged if it overflows.
+	 *
+	 * @param a_numerator the numerator
+	 * @param a_denominator the positive denominator
+	 * @throws ArithmeticException if the sum does not fit in longs
+	 */
+	private void addUnreduced(long a_numerator, long a_denominator)
+	{
+		if (a_denominator == m_denominator)
+		{
+			m_numerator = Math.addExact(m_numerator, a_numerator);
+		}
+		else if (m_denominator % a_denominator == 0)
+		{
+			m_numerator = Math.addExact(m_numerator, Math.multiplyExact(a_numerator, m_denominator / a_denominator));
+		}
+		else
+		{
+			long numerator = Math.addExact(Math.multiplyExact(m_numerator, a_denominator), Math.multiplyExact(a_numerator, m_denominator));
+			m_denominator = Math.multiplyExact(m_denominator, a_denominator);
+			m_numerator = numerator;
+		}
+	}
+	
+	/**
+	 * Adds a term to the sum in BigIntegers, moving the sum there first if needed.
+	 *
+	 * @param a_numerator the numerator
+	 * @param a_denominator the positive denominator
+	 */
+	private void addBig(BigInteger a_numerator, BigInteger a_denominator)
+	{
+		if (m_bigNumerator == null)
+		{
+			m_bigNumerator = BigInteger.valueOf(m_numerator);
+			m_bigDenominator = BigInteger.valueOf(m_denominator);
+		}
+		
+		if (a_denominator.equals(m_bigDenominator))
+		{
+			m_bigNumerator = m_bigNumerator.add(a_numerator);
+		}
+		else
+		{
+			m_bigNumerator = m_bigNumerator.multiply(a_denominator).add(a_numerator.multiply(m_bigDenominator));
+			m_bigDenominator = m_bigDenominator.multiply(a_denominator);
+		}
+		
+		//Deferring forever would let the denominator grow with every term:
+		if (m_bigDenominator.bitLength() > BIG_REDUCE_BITS)
+		{
+			BigInteger gcd = m_bigNumerator.gcd(m_bigDenominator);
+			m_bigNumerator = m_bigNumerator.divide(gcd);
+			m_bigDenominator = m_bigDenominator.divide(gcd);
+		}
+	}
+	
+	/**
+	 * Reduces the sum to lowest terms while it is held in longs.
+	 */
+	private void reduce()
+	{
+		long gcd = Fraction.gcd(m_numerator, m_denominator);
+		m_numerator /= gcd;
+		m_denominator /= gcd;
+	}
+	
+	/**
+	 * Checks if the sum has outgrown longs.
+	 *
+	 * @return true, if the sum is held in BigIntegers
+	 */
+	boolean isBig()
+	{
+		return m_bigNumerator != null;
+	}
+	
+	/**
+	 * Gets the numerator of the sum in lowest terms, while it is held in longs.
+	 * Call before {@link #getDenominator()}.
+	 *
+	 * @return the numerator
+	 */
+	long getNumerator()
+	{
+		reduce();
+		return m_numerator;
+	}
+	
+	/**
+	 * Gets the positive denominator of the sum in lowest terms, while it is held in longs.
+	 *
+	 * @return the denominator
+	 */
+	long getDenominator()
+	{
+		return m_denominator;
+	}
+	
+	/**
+	 * Gets the sum in lowest terms.
+	 *
+	 * @return the sum
+	 */
+	Fraction toFraction()
+	{
+		if (m_bigNumerator != null) return BigFraction.valueOf(m_bigNumerator, m_bigDenominator);
+		
+		return Fraction.valueOf(m_numerator, m_denominator);
+	}
+	
+}
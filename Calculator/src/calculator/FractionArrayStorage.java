@@ -0,0 +1,160 @@
+package calculator;
+
+import java.util.Arrays;
+
+/**
+ * The default storage: a 2d array with one Fraction object per cell.
+ *
+ * Copies share their row arrays with the original. A shared row is cloned the first time a cell in it
+ * is set, so copying costs one reference per row, and a copy that is only read never clones anything.
+ */
+class FractionArrayStorage implements MatrixStorage
+{
+	
+	/** The array of numbers. */
+	private Fraction m_numbers[][];
+	
+	/** For each row, if its array may also be in a copy, so it must be cloned before a cell in it is set. */
+	private boolean m_shared[];
+	
+	/**
+	 * Creates a new storage of the given size with every cell 0.
+	 *
+	 * @param a_rows the amount of rows
+	 * @param a_columns the amount of columns
+	 */
+	FractionArrayStorage(int a_rows, int a_columns)
+	{
+		m_numbers = new Fraction[a_rows][a_columns];
+		m_shared = new boolean[a_rows];
+		
+		//Initialize each element to 0:
+		for (int row = 0; row < a_rows; row++)
+		{
+			for (int column = 0; column < a_columns; column++)
+			{
+				m_numbers[row][column] = Fraction.ZERO;
+			}
+		}
+	}
+	
+	/**
+	 * Creates a new storage around a 2d array. The array is used directly, not copied.
+	 *
+	 * @param a_numbers the 2d array of numbers to use
+	 */
+	FractionArrayStorage(Fraction[][] a_numbers)
+	{
+		m_numbers = a_numbers;
+		m_shared = new boolean[a_numbers.length];
+	}
+	
+	/**
+	 * @see calculator.MatrixStorage#getRows()
+	 */
+	@Override
+	public int getRows()
+	{
+		return m_numbers.length;
+	}
+	
+	/**
+	 * @see calculator.MatrixStorage#getColumns()
+	 */
+	@Override
+	public int getColumns()
+	{
+		return (m_numbers.length == 0) ? 0 : m_numbers[0].length;
+	}
+	
+	/**
+	 * @see calculator.MatrixStorage#getCell(int, int)
+	 */
+	@Override
+	public Fraction getCell(int a_row, int a_column)
+	{
+		return m_numbers[a_row][a_column];
+	}
+	
+	/**
+	 * @see calculator.MatrixStorage#setCell(int, int, calculator.Fraction)
+	 */
+	@Override
+	public void setCell(int a_row, int a_column, Fraction a_value)
+	{
+		//Clone a row shared with a copy before the first write to it:
+		if (m_shared[a_row])
+		{
+			m_numbers[a_row] = m_numbers[a_row].clone();
+			m_shared[a_row] = false;
+		}
+		
+		m_numbers[a_row][a_column] = a_value;
+	}
+	
+	/**
+	 * @see calculator.MatrixStorage#isZero(int, int)
+	 */
+	@Override
+	public boolean isZero(int a_row, int a_column)
+	{
+		return m_numbers[a_row][a_column].isZero();
+	}
+	
+	/**
+	 * Returns the row itself, which may be shared with copies.
+	 *
+	 * @see calculator.MatrixStorage#getRow(int)
+	 */
+	@Override
+	public Fraction[] getRow(int a_row)
+	{
+		return m_numbers[a_row];
+	}
+	
+	/**
+	 * Sets the row at the index.
+	 * Note: uses shallow copy, not deep copy.
+	 *
+	 * @see calculator.MatrixStorage#setRow(int, calculator.Fraction[])
+	 */
+	@Override
+	public void setRow(int a_row, Fraction[] a_values)
+	{
+		m_numbers[a_row] = a_values;
+		m_shared[a_row] = false;
+	}
+	
+	/**
+	 * @see calculator.MatrixStorage#swapRows(int, int)
+	 */
+	@Override
+	public void swapRows(int a_firstRowIndex, int a_secondRowIndex)
+	{
+		Fraction[] firstRow = m_numbers[a_firstRowIndex];
+		m_numbers[a_firstRowIndex] = m_numbers[a_secondRowIndex];
+		m_numbers[a_secondRowIndex] = firstRow;
+		
+		boolean firstShared = m_shared[a_firstRowIndex];
+		m_shared[a_firstRowIndex] = m_shared[a_secondRowIndex];
+		m_shared[a_secondRowIndex] = firstShared;
+	}
+	
+	/**
+	 * Shares every row with the copy, marking them shared on both sides. Fractions are immutable,
+	 * so a row only needs its own array once a cell in it is set.
+	 *
+	 * @see calculator.MatrixStorage#copy()
+	 */
+	@Override
+	public MatrixStorage copy()
+	{
+		FractionArrayStorage copy = new FractionArrayStorage(m_numbers.clone());
+		
+		Arrays.fill(m_shared, true);
+		Arrays.fill(copy.m_shared, true);
+		
+		return copy;
+	}
+	
+}
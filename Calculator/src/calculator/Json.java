@@ -0,0 +1,428 @@
+package calculator;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes the JSON of the {@link MatrixServer}. An object is read as a Map, an array as a List,
+ * a number as a BigDecimal so no digit of it is lost, and true, false and null as themselves.
+ */
+final class Json
+{
+	
+	/** The largest power of 10 a number may be scaled by. */
+	private static final int MAX_EXPONENT = 1000;
+	
+	/** The deepest arrays and objects may be nested, so a body of [[[[... can't overflow the stack. */
+	private static final int MAX_DEPTH = 64;
+	
+	/** The text being read. */
+	private final String m_text;
+	
+	/** The position of the next character to read. */
+	private int m_position;
+	
+	/** The amount of arrays and objects the position is in. */
+	private int m_depth;
+	
+	/**
+	 * Instantiates a new reader.
+	 *
+	 * @param a_text the text to read
+	 */
+	private Json(String a_text)
+	{
+		m_text = a_text;
+		m_position = 0;
+		m_depth = 0;
+	}
+	
+	/**
+	 * Reads a JSON value.
+	 *
+	 * @param a_text the text, holding one value
+	 * @return the value
+	 * @throws IllegalArgumentException if the text is not JSON, with the position where it goes wrong
+	 */
+	static Object parse(String a_text)
+	{
+		Json reader = new Json(a_text);
+		Object value = reader.readValue();
+		
+		reader.skipWhitespace();
+		if (reader.m_position < a_text.length()) throw reader.error("end of the text");
+		
+		return value;
+	}
+	
+	/**
+	 * Reads the value at the position.
+	 *
+	 * @return the value
+	 */
+	private Object readValue()
+	{
+		skipWhitespace();
+		if (m_position >= m_text.length()) throw error("a value");
+		
+		char next = m_text.charAt(m_position);
+		
+		if ((next == '{' || next == '[') && m_depth == MAX_DEPTH) throw error("at most " + MAX_DEPTH + " levels of nesting");
+		
+		switch (next)
+		{
+			case '{': return readObject();
+			case '[': return readArray();
+			case '"': return readString();
+			case 't': return readLiteral("true", Boolean.TRUE);
+			case 'f': return readLiteral("false", Boolean.FALSE);
+			case 'n': return readLiteral("null", null);
+			default:
+			{
+				if (next == '-' || Character.isDigit(next)) return readNumber();
+				
+				throw error("a value");
+			}
+		}
+	}
+	
+	/**
+	 * Reads an object.
+	 *
+	 * @return its members by name, in the order they were written
+	 */
+	private Map<String, Object> readObject()
+	{
+		Map<String, Object> members = new LinkedHashMap<String, Object>();
+		m_position++;
+		m_depth++;
+		
+		skipWhitespace();
+		if (take('}'))
+		{
+			m_depth--;
+			return members;
+		}
+		
+		do
+		{
+			skipWhitespace();
+			if (m_position >= m_text.length() || m_text.charAt(m_position) != '"') throw error("a name");
+			
+			String name = readString();
+			
+			skipWhitespace();
+			if (!take(':')) throw error("':'");
+			
+			members.put(name, readValue());
+			skipWhitespace();
+		}
+		while (take(','));
+		
+		if (!take('}')) throw error("',' or '}'");
+		
+		m_depth--;
+		return members;
+	}
+	
+	/**
+	 * Reads an array.
+	 *
+	 * @return its values
+	 */
+	private List<Object> readArray()
+	{
+		List<Object> values = new ArrayList<Object>();
+		m_position++;
+		m_depth++;
+		
+		skipWhitespace();
+		if (take(']'))
+		{
+			m_depth--;
+			return values;
+		}
+		
+		do
+		{
+			values.add(readValue());
+			skipWhitespace();
+		}
+		while (take(','));
+		
+		if (!take(']')) throw error("',' or ']'");
+		
+		m_depth--;
+		return values;
+	}
+	
+	/**
+	 * Reads a string, undoing its escapes.
+	 *
+	 * @return the string
+	 */
+	private String readString()
+	{
+		StringBuilder string = new StringBuilder();
+		m_position++;
+		
+		while (m_position < m_text.length())
+		{
+			char next = m_text.charAt(m_position++);
+			
+			if (next == '"') return string.toString();
+			
+			if (next != '\\')
+			{
+				string.append(next);
+				continue;
+			}
+			
+			if (m_position >= m_text.length()) break;
+			
+			char escaped = m_text.charAt(m_position++);
+			
+			switch (escaped)
+			{
+				case 'b': string.append('\b'); break;
+				case 'f': string.append('\f'); break;
+				case 'n': string.append('\n'); break;
+				case 'r': string.append('\r'); break;
+				case 't': string.append('\t'); break;
+				case 'u':
+				{
+					if (m_position + 4 > m_text.length()) throw error("four hex digits");
+					
+					try
+					{
+						string.append((char) Integer.parseInt(m_text.substring(m_position, m_position + 4), 16));
+					}
+					catch (NumberFormatException exception)
+					{
+						throw error("four hex digits");
+					}
+					
+					m_position += 4;
+					break;
+				}
+				default: string.append(escaped);
+			}
+		}
+		
+		throw error("the closing '\"'");
+	}
+	
+	/**
+	 * Reads a number.
+	 *
+	 * @return the number, exactly as written
+	 */
+	private BigDecimal readNumber()
+	{
+		int start = m_position;
+		
+		while (m_position < m_text.length() && "+-0123456789.eE".indexOf(m_text.charAt(m_position)) >= 0)
+		{
+			m_position++;
+		}
+		
+		try
+		{
+			return new BigDecimal(m_text.substring(start, m_position));
+		}
+		catch (NumberFormatException exception)
+		{
+			m_position = start;
+			throw error("a number");
+		}
+	}
+	
+	/**
+	 * Reads true, false or null.
+	 *
+	 * @param a_word the word expected
+	 * @param a_value its value
+	 * @return the value
+	 */
+	private Object readLiteral(String a_word, Object a_value)
+	{
+		if (!m_text.startsWith(a_word, m_position)) throw error("a value");
+		
+		m_position += a_word.length();
+		
+		return a_value;
+	}
+	
+	/**
+	 * Moves past whitespace.
+	 */
+	private void skipWhitespace()
+	{
+		while (m_position < m_text.length() && " \t\r\n".indexOf(m_text.charAt(m_position)) >= 0)
+		{
+			m_position++;
+		}
+	}
+	
+	/**
+	 * Moves past a character if it is next.
+	 *
+	 * @param a_character the character
+	 * @return true if it was next
+	 */
+	private boolean take(char a_character)
+	{
+		if (m_position >= m_text.length() || m_text.charAt(m_position) != a_character) return false;
+		
+		m_position++;
+		
+		return true;
+	}
+	
+	/**
+	 * Creates the error for something missing at the position.
+	 *
+	 * @param a_expected what was expected
+	 * @return the error, to throw
+	 */
+	private IllegalArgumentException error(String a_expected)
+	{
+		return new IllegalArgumentException("Bad JSON at character " + (m_position + 1) + ": expected " + a_expected);
+	}
+	
+	/**
+	 * Writes a string as JSON, quoted and escaped.
+	 *
+	 * @param a_string the string
+	 * @return the JSON string
+	 */
+	static String quote(String a_string)
+	{
+		StringBuilder quoted = new StringBuilder(a_string.length() + 2);
+		quoted.append('"');
+		
+		for (int index = 0; index < a_string.length(); index++)
+		{
+			char next = a_string.charAt(index);
+			
+			switch (next)
+			{
+				case '"': quoted.append("\\\""); break;
+				case '\\': quoted.append("\\\\"); break;
+				case '\n': quoted.append("\\n"); break;
+				case '\r': quoted.append("\\r"); break;
+				case '\t': quoted.append("\\t"); break;
+				default:
+				{
+					if (next < ' ') quoted.append(String.format("\\u%04x", (int) next));
+					else quoted.append(next);
+				}
+			}
+		}
+		
+		return quoted.append('"').toString();
+	}
+	
+	/**
+	 * Reads a matrix written as an array of rows. A cell is a number, or a string such as "-3/4".
+	 *
+	 * @param a_value the array, as read by {@link #parse(String)}
+	 * @param a_what what the matrix is, for errors
+	 * @return the matrix
+	 * @throws IllegalArgumentException if the value is not a matrix
+	 */
+	static Matrix toMatrix(Object a_value, String a_what)
+	{
+		if (!(a_value instanceof List) || ((List<?>) a_value).isEmpty())
+		{
+			throw new IllegalArgumentException(a_what + " must be an array of rows");
+		}
+		
+		List<?> rows = (List<?>) a_value;
+		int columns = -1;
+		
+		for (Object row : rows)
+		{
+			if (!(row instanceof List) || ((List<?>) row).isEmpty()) throw new IllegalArgumentException(a_what + " must be an array of rows");
+			if (columns >= 0 && ((List<?>) row).size() != columns) throw new IllegalArgumentException("The rows of " + a_what + " differ in length");
+			
+			columns = ((List<?>) row).size();
+		}
+		
+		Matrix matrix = new Matrix(rows.size(), columns);
+		
+		for (int row = 0; row < rows.size(); row++)
+		{
+			List<?> cells = (List<?>) rows.get(row);
+			
+			for (int column = 0; column < columns; column++)
+			{
+				matrix.setCell(row, column, toFraction(cells.get(column), a_what));
+			}
+		}
+		
+		return matrix;
+	}
+	
+	/**
+	 * Reads a cell: a number, which is taken exactly, or a string such as "-3/4".
+	 *
+	 * @param a_value the cell, as read by {@link #parse(String)}
+	 * @param a_what the matrix, for errors
+	 * @return the cell
+	 */
+	private static Fraction toFraction(Object a_value, String a_what)
+	{
+		try
+		{
+			if (a_value instanceof String) return Fraction.parseExactFraction(((String) a_value).trim());
+		}
+		catch (NumberFormatException exception)
+		{
+			throw new IllegalArgumentException("Not a fraction in " + a_what + ": " + a_value);
+		}
+		
+		if (!(a_value instanceof BigDecimal)) throw new IllegalArgumentException("Not a number in " + a_what + ": " + a_value);
+		
+		//0.25 is 25/100, which reduces to 1/4. An exponent such as 1e-999999 would build a huge power of 10 first:
+		BigDecimal number = (BigDecimal) a_value;
+		if (Math.abs(number.scale()) > MAX_EXPONENT) throw new IllegalArgumentException("Exponent too large in " + a_what + ": " + a_value);
+		
+		if (number.scale() <= 0) return BigFraction.valueOf(number.toBigIntegerExact(), BigInteger.ONE);
+		
+		return BigFraction.valueOf(number.unscaledValue(), BigInteger.TEN.pow(number.scale()));
+	}
+	
+	/**
+	 * Writes a matrix as an array of rows, each cell a string such as "-3/4".
+	 *
+	 * @param a_matrix the matrix
+	 * @return the JSON array
+	 */
+	static String fromMatrix(Matrix a_matrix)
+	{
+		StringBuilder json = new StringBuilder();
+		json.append('[');
+		
+		for (int row = 0; row < a_matrix.getRows(); row++)
+		{
+			if (row > 0) json.append(',');
+			json.append('[');
+			
+			for (int column = 0; column < a_matrix.getColumns(); column++)
+			{
+				if (column > 0) json.append(',');
+				json.append('"').append(a_matrix.getCell(row, column)).append('"');
+			}
+			
+			json.append(']');
+		}
+		
+		return json.append(']').toString();
+	}
+	
+}
@@ -0,0 +1,610 @@
+package calculator;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The LU decomposition of a Matrix with row pivoting, PA = LU, in exact Fractions.
+ * P permutes the rows, L is lower triangular with 1s on its diagonal, and U is in row echelon form.
+ *
+ * The factorization is done once, in about n^3 / 3 multiply-adds, and the determinant, the rank, solves
+ * and the inverse are all read from it: the determinant is the product of the pivots, the rank their
+ * amount, and a solve is one forward and one back substitution per column of the right-hand side.
+ *
+ * The factors are built left-looking (Doolittle): each cell of L and U is one dot product against
+ * the factors so far, summed in a {@link FractionAccumulator} and reduced once. Any nonzero pivot is
+ * exact, so the first one in its column is taken. A column without one is skipped, so rectangular and
+ * singular matrices factor too.
+ */
+public class LUDecomposition
+{
+	
+	/** The amount of columns of the right-hand side each fork-join task solves for. */
+	private static final int SOLVE_BLOCK = 8;
+	
+	/** The amount of rows. */
+	private final int m_rows;
+	
+	/** The amount of columns. */
+	private final int m_columns;
+	
+	/** The multipliers below the diagonal of L. Row i holds L(i, 0) to L(i, rank - 1), below the diagonal. */
+	private final Fraction[][] m_lower;
+	
+	/** The nonzero rows of U. Each row is 0 left of its pivot. */
+	private final Fraction[][] m_upper;
+	
+	/** For each row of PA, the row of A it came from. */
+	private final int[] m_permutation;
+	
+	/** The amount of pivots. */
+	private final int m_rank;
+	
+	/** The determinant of P: 1 for an even amount of row swaps, -1 for an odd amount. */
+	private final int m_permutationSign;
+	
+	/**
+	 * Factors a matrix.
+	 *
+	 * @param a_matrix the matrix
+	 */
+	public LUDecomposition(Matrix a_matrix)
+	{
+		m_rows = a_matrix.getRows();
+		m_columns = a_matrix.getColumns();
+		
+		int steps = Math.min(m_rows, m_columns);
+		Fraction[][] rows = new Fraction[m_rows][];
+		m_lower = new Fraction[m_rows][steps];
+		m_upper = new Fraction[steps][m_columns];
+		m_permutation = new int[m_rows];
+		
+		for (int row = 0; row < m_rows; row++)
+		{
+			rows[row] = a_matrix.getRow(row);
+			m_permutation[row] = row;
+			Arrays.fill(m_lower[row], Fraction.ZERO);
+		}
+		
+		for (Fraction[] upperRow : m_upper)
+		{
+			Arrays.fill(upperRow, Fraction.ZERO);
+		}
+		
+		FractionAccumulator sum = new FractionAccumulator();
+		Fraction[] candidates = new Fraction[m_rows];
+		int rank = 0;
+		int sign = 1;
+		
+		for (int column = 0; column < m_columns && rank < m_rows; column++)
+		{
+			MatrixTask.checkpoint(rank, steps);
+			
+			//Each remaining row's entry in this column, less what the pivots so far have taken from it:
+			int pivotRow = -1;
+			
+			for (int row = rank; row < m_rows; row++)
+			{
+				candidates[row] = reduce(rows[row][column], m_lower[row], m_upper, column, rank, sum);
+				
+				if (pivotRow < 0 && !candidates[row].isZero()) pivotRow = row;
+			}
+			
+			//Nothing left in this column, so it has no pivot:
+			if (pivotRow < 0) continue;
+			
+			if (pivotRow != rank)
+			{
+				swap(rows, pivotRow, rank);
+				swap(m_lower, pivotRow, rank);
+				swap(candidates, pivotRow, rank);
+				
+				int original = m_permutation[pivotRow];
+				m_permutation[pivotRow] = m_permutation[rank];
+				m_permutation[rank] = original;
+				
+				sign = -sign;
+			}
+			
+			Fraction pivot = candidates[rank];
+			m_upper[rank][column] = pivot;
+			
+			//The column of L below the pivot:
+			for (int row = rank + 1; row < m_rows; row++)
+			{
+				if (!candidates[row].isZero()) m_lower[row][rank] = candidates[row].divide(pivot);
+			}
+			
+			//The row of U right of the pivot:
+			for (int right = column + 1; right < m_columns; right++)
+			{
+				m_upper[rank][right] = reduce(rows[rank][right], m_lower[rank], m_upper, right, rank, sum);
+			}
+			
+			rank++;
+		}
+		
+		m_rank = rank;
+		m_permutationSign = sign;
+	}
+	
+	/**
+	 * Takes the dot product of a row of L with a column of U away from a cell.
+	 *
+	 * @param a_value the cell of A
+	 * @param a_lower the row of L
+	 * @param a_upper the rows of U
+	 * @param a_column the column of U
+	 * @param a_length the amount of terms
+	 * @param a_sum the accumulator to sum the terms in
+	 * @return the cell less the dot product
+	 */
+	private static Fraction reduce(Fraction a_value, Fraction[] a_lower, Fraction[][] a_upper, int a_column, int a_length, FractionAccumulator a_sum)
+	{
+		if (a_length == 0) return a_value;
+		
+		a_sum.reset();
+		
+		for (int index = 0; index < a_length; index++)
+		{
+			a_sum.addProduct(a_lower[index], a_upper[index][a_column]);
+		}
+		
+		return a_value.subtract(a_sum.toFraction());
+	}
+	
+	/**
+	 * Swaps two entries of an array.
+	 *
+	 * @param a_array the array
+	 * @param a_first the first index
+	 * @param a_second the second index
+	 */
+	private static <T> void swap(T[] a_array, int a_first, int a_second)
+	{
+		T first = a_array[a_first];
+		a_array[a_first] = a_array[a_second];
+		a_array[a_second] = first;
+	}
+	
+	/**
+	 * Gets the amount of rows of the factored matrix.
+	 *
+	 * @return the amount of rows
+	 */
+	public int getRows()
+	{
+		return m_rows;
+	}
+	
+	/**
+	 * Gets the amount of columns of the factored matrix.
+	 *
+	 * @return the amount of columns
+	 */
+	public int getColumns()
+	{
+		return m_columns;
+	}
+	
+	/**
+	 * Gets the rank: the amount of pivots.
+	 *
+	 * @return the rank
+	 */
+	public int getRank()
+	{
+		return m_rank;
+	}
+	
+	/**
+	 * Checks if the factored matrix has no inverse.
+	 *
+	 * @return true, if the matrix is not square or has a column without a pivot
+	 */
+	public boolean isSingular()
+	{
+		return m_rows != m_columns || m_rank < m_columns;
+	}
+	
+	/**
+	 * Gets the determinant of P: -1 if the rows were swapped an odd amount of times, else 1.
+	 *
+	 * @return the sign
+	 */
+	public int getPermutationSign()
+	{
+		return m_permutationSign;
+	}
+	
+	/**
+	 * Gets the row permutation.
+	 *
+	 * @return for each row of PA, the row of A it came from. A copy.
+	 */
+	public int[] getPermutation()
+	{
+		return m_permutation.clone();
+	}
+	
+	/**
+	 * Gets the determinant: the product of the pivots, with the sign of P.
+	 *
+	 * @return the determinant
+	 * @throws MatrixException if the factored matrix is not square
+	 */
+	public Fraction getDeterminant() throws MatrixException
+	{
+		if (m_rows != m_columns) throw new MatrixException("Not a square matrix");
+		
+		if (m_rank < m_columns) return Fraction.ZERO;
+		
+		Fraction determinant = Fraction.valueOf(m_permutationSign);
+		
+		for (int step = 0; step < m_rank; step++)
+		{
+			determinant = determinant.multiply(m_upper[step][step]);
+		}
+		
+		return determinant;
+	}
+	
+	/**
+	 * Gets P, the permutation matrix, rows x rows.
+	 *
+	 * @return P
+	 */
+	public Matrix getP()
+	{
+		Matrix permutation = new Matrix(m_rows, m_rows);
+		
+		for (int row = 0; row < m_rows; row++)
+		{
+			permutation.setCell(row, m_permutation[row], 1);
+		}
+		
+		return permutation;
+	}
+	
+	/**
+	 * Gets L, rows x rows, lower triangular with 1s on its diagonal.
+	 *
+	 * @return L
+	 */
+	public Matrix getL()
+	{
+		Matrix lower = new Matrix(m_rows, m_rows);
+		
+		for (int row = 0; row < m_rows; row++)
+		{
+			for (int column = 0; column < Math.min(row, m_rank); column++)
+			{
+				lower.setCell(row, column, m_lower[row][column]);
+			}
+			
+			lower.setCell(row, row, 1);
+		}
+		
+		return lower;
+	}
+	
+	/**
+	 * Gets U, rows x columns, in row echelon form. Rows past the rank are 0.
+	 *
+	 * @return U
+	 */
+	public Matrix getU()
+	{
+		Matrix upper = new Matrix(m_rows, m_columns);
+		
+		for (int row = 0; row < m_rank; row++)
+		{
+			upper.setRow(row, m_upper[row].clone());
+		}
+		
+		return upper;
+	}
+	
+	/**
+	 * Solves AX = B on this thread.
+	 *
+	 * @param a_RHS B, with as many rows as A
+	 * @return X
+	 * @throws MatrixException if A is singular, or B has the wrong amount of rows
+	 */
+	public Matrix solve(Matrix a_RHS) throws MatrixException
+	{
+		return solve(a_RHS, null);
+	}
+	
+	/**
+	 * Solves AX = B, splitting the columns of B over a pool. Each column is independent.
+	 *
+	 * @param a_RHS B, with as many rows as A
+	 * @param a_pool the pool, or null to stay on this thread
+	 * @return X
+	 * @throws MatrixException if A is singular, or B has the wrong amount of rows
+	 */
+	Matrix solve(Matrix a_RHS, ForkJoinPool a_pool) throws MatrixException
+	{
+		if (isSingular()) throw new MatrixException("Singular matrix, not invertible");
+		
+		if (a_RHS.getRows() != m_rows) throw new MatrixException("Invalid dimensions", a_RHS);
+		
+		Fraction[][] rhs = new Fraction[m_rows][];
+		
+		for (int row = 0; row < m_rows; row++)
+		{
+			rhs[row] = a_RHS.getRow(m_permutation[row]);
+		}
+		
+		return substitute(rhs, a_RHS.getColumns(), a_pool);
+	}
+	
+	/**
+	 * Solves XA = B on this thread: B divided by A on the right, without forming the inverse of A.
+	 *
+	 * @param a_LHS B, with as many columns as A has rows
+	 * @return X
+	 * @throws MatrixException if A is singular, or B has the wrong amount of columns
+	 */
+	public Matrix divide(Matrix a_LHS) throws MatrixException
+	{
+		return divide(a_LHS, null);
+	}
+	
+	/**
+	 * Solves XA = B, splitting the rows of B over a pool. Since A = P^-1 LU, each row x of X is found from its
+	 * row b of B by solving yU = b, then wL = y, and then x = wP.
+	 *
+	 * @param a_LHS B, with as many columns as A has rows
+	 * @param a_pool the pool, or null to stay on this thread
+	 * @return X
+	 * @throws MatrixException if A is singular, or B has the wrong amount of columns
+	 */
+	Matrix divide(Matrix a_LHS, ForkJoinPool a_pool) throws MatrixException
+	{
+		if (isSingular()) throw new MatrixException("Singular matrix, not invertible");
+		
+		if (a_LHS.getColumns() != m_rows) throw new MatrixException("Invalid dimensions", a_LHS);
+		
+		Fraction[][] lhs = new Fraction[a_LHS.getRows()][];
+		
+		for (int row = 0; row < lhs.length; row++)
+		{
+			lhs[row] = a_LHS.getRow(row);
+		}
+		
+		Fraction[][] quotient = new Fraction[lhs.length][m_rows];
+		
+		RowBlockTask.run(a_pool, new SubstituteRows(this, lhs, quotient), lhs.length, SOLVE_BLOCK);
+		
+		return new Matrix(quotient);
+	}
+	
+	/**
+	 * Gets the inverse on this thread.
+	 *
+	 * @return the inverse
+	 * @throws MatrixException if A is singular
+	 */
+	public Matrix inverse() throws MatrixException
+	{
+		return inverse(null);
+	}
+	
+	/**
+	 * Gets the inverse by solving against the identity, splitting its columns over a pool.
+	 * Column j of P times the identity is 0 above row P^-1(j), so its substitution starts there.
+	 *
+	 * @param a_pool the pool, or null to stay on this thread
+	 * @return the inverse
+	 * @throws MatrixException if A is singular
+	 */
+	Matrix inverse(ForkJoinPool a_pool) throws MatrixException
+	{
+		if (isSingular()) throw new MatrixException("Singular matrix, not invertible");
+		
+		Fraction[][] identity = new Fraction[m_rows][m_rows];
+		
+		for (int row = 0; row < m_rows; row++)
+		{
+			Arrays.fill(identity[row], Fraction.ZERO);
+			identity[row][m_permutation[row]] = Fraction.ONE;
+		}
+		
+		return substitute(identity, m_rows, a_pool);
+	}
+	
+	/**
+	 * Solves LUX = B for a B whose rows are already permuted.
+	 *
+	 * @param a_RHS the rows of PB
+	 * @param a_columns the amount of columns of B
+	 * @param a_pool the pool, or null to stay on this thread
+	 * @return X
+	 */
+	private Matrix substitute(Fraction[][] a_RHS, int a_columns, ForkJoinPool a_pool)
+	{
+		Fraction[][] solution = new Fraction[m_rows][a_columns];
+		
+		RowBlockTask.run(a_pool, new SubstituteColumns(this, a_RHS, solution), a_columns, SOLVE_BLOCK);
+		
+		return new Matrix(solution);
+	}
+	
+	/**
+	 * Divides a range of rows of the left-hand side by the factored matrix.
+	 */
+	private static final class SubstituteRows implements RowOperation
+	{
+		
+		/** The factors. */
+		private final LUDecomposition m_factors;
+		
+		/** The rows of B. */
+		private final Fraction[][] m_LHS;
+		
+		/** The rows of X. Each call only writes its own rows. */
+		private final Fraction[][] m_quotient;
+		
+		/** The task of the thread that asked for the division, if any. */
+		private final MatrixTask<?> m_task;
+		
+		/**
+		 * Instantiates a new substitution over rows.
+		 *
+		 * @param a_factors the factors
+		 * @param a_LHS the rows of B
+		 * @param a_quotient the rows of X
+		 */
+		SubstituteRows(LUDecomposition a_factors, Fraction[][] a_LHS, Fraction[][] a_quotient)
+		{
+			m_factors = a_factors;
+			m_LHS = a_LHS;
+			m_quotient = a_quotient;
+			m_task = MatrixTask.current();
+		}
+		
+		/**
+		 * @see calculator.RowOperation#computeRows(int, int)
+		 */
+		@Override
+		public void computeRows(int a_fromRow, int a_toRow)
+		{
+			int size = m_factors.m_rows;
+			Fraction[][] lower = m_factors.m_lower;
+			Fraction[][] upper = m_factors.m_upper;
+			int[] permutation = m_factors.m_permutation;
+			FractionAccumulator sum = new FractionAccumulator();
+			Fraction[] intermediate = new Fraction[size];
+			
+			for (int row = a_fromRow; row < a_toRow; row++)
+			{
+				if (m_task != null) m_task.check();
+				
+				Fraction[] lhs = m_LHS[row];
+				
+				//yU = b, a column of U at a time:
+				for (int column = 0; column < size; column++)
+				{
+					sum.reset();
+					
+					for (int index = 0; index < column; index++)
+					{
+						sum.addProduct(intermediate[index], upper[index][column]);
+					}
+					
+					intermediate[column] = lhs[column].subtract(sum.toFraction()).divide(upper[column][column]);
+				}
+				
+				//wL = y, from the last column of L back. w overwrites y:
+				for (int column = size - 1; column >= 0; column--)
+				{
+					sum.reset();
+					
+					for (int index = column + 1; index < size; index++)
+					{
+						sum.addProduct(intermediate[index], lower[index][column]);
+					}
+					
+					intermediate[column] = intermediate[column].subtract(sum.toFraction());
+				}
+				
+				//x = wP:
+				for (int index = 0; index < size; index++)
+				{
+					m_quotient[row][permutation[index]] = intermediate[index];
+				}
+			}
+		}
+		
+	}
+	
+	/**
+	 * Solves for a range of columns of the right-hand side, one forward and one back substitution each.
+	 */
+	private static final class SubstituteColumns implements RowOperation
+	{
+		
+		/** The factors. */
+		private final LUDecomposition m_factors;
+		
+		/** The rows of PB. */
+		private final Fraction[][] m_RHS;
+		
+		/** The rows of X. Each call only writes its own columns. */
+		private final Fraction[][] m_solution;
+		
+		/** The task of the thread that asked for the solution, if any. */
+		private final MatrixTask<?> m_task;
+		
+		/**
+		 * Instantiates a new substitution over columns.
+		 *
+		 * @param a_factors the factors
+		 * @param a_RHS the rows of PB
+		 * @param a_solution the rows of X
+		 */
+		SubstituteColumns(LUDecomposition a_factors, Fraction[][] a_RHS, Fraction[][] a_solution)
+		{
+			m_factors = a_factors;
+			m_RHS = a_RHS;
+			m_solution = a_solution;
+			m_task = MatrixTask.current();
+		}
+		
+		/**
+		 * Here the "rows" are columns of the right-hand side.
+		 *
+		 * @see calculator.RowOperation#computeRows(int, int)
+		 */
+		@Override
+		public void computeRows(int a_fromRow, int a_toRow)
+		{
+			int size = m_factors.m_rows;
+			Fraction[][] lower = m_factors.m_lower;
+			Fraction[][] upper = m_factors.m_upper;
+			FractionAccumulator sum = new FractionAccumulator();
+			Fraction[] intermediate = new Fraction[size];
+			
+			for (int column = a_fromRow; column < a_toRow; column++)
+			{
+				if (m_task != null) m_task.check();
+				
+				//Forward: Ly = PB. y is 0 until the first nonzero of the column.
+				int start = 0;
+				while (start < size && m_RHS[start][column].isZero()) start++;
+				
+				Arrays.fill(intermediate, 0, start, Fraction.ZERO);
+				
+				for (int row = start; row < size; row++)
+				{
+					sum.reset();
+					
+					for (int index = start; index < row; index++)
+					{
+						sum.addProduct(lower[row][index], intermediate[index]);
+					}
+					
+					intermediate[row] = m_RHS[row][column].subtract(sum.toFraction());
+				}
+				
+				//Back: Ux = y.
+				for (int row = size - 1; row >= 0; row--)
+				{
+					sum.reset();
+					
+					for (int index = row + 1; index < size; index++)
+					{
+						sum.addProduct(upper[row][index], m_solution[index][column]);
+					}
+					
+					m_solution[row][column] = intermediate[row].subtract(sum.toFraction()).divide(upper[row][row]);
+				}
+			}
+		}
+		
+	}
+	
+}
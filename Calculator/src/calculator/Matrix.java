@@ -1,388 +1,629 @@
-package calculator;
-
-/**
- * The representation of a Matrix for the Matrix Calculator.
- */
-public class Matrix
-{
-	
-	/** The amount of rows. */
-	private int m_rows;
-	
-	/** The amount of columns. */
-	private int m_columns;
-	
-	/** The array of numbers. */
-	private Fraction m_numbers[][];
-	
-	/** The name. */
-	private String m_name;
-	
-	/**
-	 * Creates a new blank matrix from an amount of rows and columns.
-	 *
-	 * @param a_rows the amount of rows
-	 * @param a_columns the amount of columns
-	 */
-	//Regular Constructor:
-	public Matrix(int a_rows, int a_columns)
-	{
-		m_rows = a_rows;
-		m_columns = a_columns;
-		m_numbers = new Fraction[m_rows][m_columns];
-		setName("");
-		
-		//Initialize each element to 0:
-		for (int row = 0; row < a_rows; row++)
-		{
-			for (int column = 0; column < a_columns; column++)
-			{
-				Fraction current = new Fraction();
-				m_numbers[row][column] = current;
-			}
-		}
-		
-	}
-	
-	/**
-	 * Creates a new matrix from a 2d array.
-	 *
-	 * @param a_matrix the 2d array of numbers to use.
-	 */
-	//Regular Constructor:
-	public Matrix(Fraction[][] a_matrix)
-	{
-		m_rows = a_matrix.length;
-		m_columns = a_matrix[0].length;
-		m_numbers = a_matrix;
-		setName("");
-	}
-	
-	/**
-	 * Copy constructor. Creates a new matrix.
-	 *
-	 * @param a_other the a other
-	 */
-	//Copy Constructor:
-	public Matrix(Matrix a_other)
-	{
-		m_rows = a_other.getRows();
-		m_columns = a_other.getColumns();
-		this.m_numbers = new Fraction[m_rows][m_columns];
-		setName("Copy_" + a_other.getName());
-		
-		//Copy each cell into this matrix:
-		for (int row = 0; row < a_other.getRows(); row++)
-		{
-			for (int column = 0; column < a_other.getColumns(); column++)
-			{
-				Fraction current = new Fraction(a_other.getCell(row, column));
-				this.m_numbers[row][column] = current;
-			}
-		}
-	}
-	
-	/**
-	 * Gets the amount of rows.
-	 *
-	 * @return the amount of rows
-	 */
-	public int getRows()
-	{
-		return m_rows;
-	}
-	
-	/**
-	 * Gets the amount of columns.
-	 *
-	 * @return the amount of columns
-	 */
-	public int getColumns()
-	{
-		return m_columns;
-	}
-	
-	/**
-	 * Gets the row at the index.
-	 *
-	 * @param a_row the index
-	 * @return the row at the index
-	 */
-	public Fraction[] getRow(int a_row)
-	{
-		return m_numbers[a_row];
-	}
-	
-	/**
-	 * Sets the row at the index.
-	 * Note: uses shallow copy, not deep copy.
-	 * 
-	 * @param a_row the row
-	 * @param a_values the values to set
-	 */
-	public void setRow(int a_row, Fraction[] a_values)
-	{
-		if (a_values.length != getColumns()) return;
-		m_numbers[a_row] = a_values;
-	}
-	
-	/**
-	 * Gets the column at the index.
-	 *
-	 * @param a_column the index
-	 * @return the column at the index
-	 */
-	public Fraction[] getColumn(int a_column)
-	{
-		Fraction[] column = new Fraction[getRows()];
-		
-		//Go through each row and get it's "a_column"th element.
-		for (int i = 0; i < getRows(); i++)
-		{
-			column[i] = getRow(i)[a_column];
-		}
-		
-		return column;
-	}
-	
-	/**
-	 * Sets the column at the index.
-	 *
-	 * @param a_column the index
-	 * @param a_values the values
-	 */
-	public void setColumn(int a_column, Fraction[] a_values)
-	{
-		if (a_values.length != getRows()) return;
-		
-		//Go through each row (i), and set the element of "a_column" to the "i"th element of a_values:
-		for (int i = 0; i < getRows(); i++)
-		{
-			m_numbers[i][a_column] = a_values[i];
-		}
-	}
-	
-	/**
-	 * Gets the name.
-	 *
-	 * @return the name
-	 */
-	public String getName()
-	{
-		return m_name;
-	}
-	
-	/**
-	 * Sets the name.
-	 *
-	 * @param name the new name
-	 */
-	public void setName(String name)
-	{
-		m_name = name;
-	}
-	
-	/**
-	 * Sets the cell at the given row and column with a Fraction value.
-	 *
-	 * @param a_row the row index
-	 * @param a_column the column index
-	 * @param a_value the value to set
-	 */
-	public void setCell(int a_row, int a_column, Fraction a_value)
-	{
-		if (cellExists(a_row, a_column)) m_numbers[a_row][a_column] = a_value;
-	}
-	
-	/**
-	 * Sets the cell at the given row and column with an int value.
-	 *
-	 * @param a_row the row index
-	 * @param a_column the column index
-	 * @param a_value the value
-	 */
-	public void setCell(int a_row, int a_column, int a_value)
-	{
-		Fraction value = new Fraction(a_value);
-		if (cellExists(a_row, a_column)) m_numbers[a_row][a_column] = value;
-	}
-	
-	/**
-	 * Gets the value at the cell
-	 *
-	 * @param a_row the row index
-	 * @param a_column the column index
-	 * @return the cell value
-	 */
-	public Fraction getCell(int a_row, int a_column)
-	{
-		if (cellExists(a_row, a_column)) return m_numbers[a_row][a_column];
-		else return new Fraction(0, 0);
-	}
-	
-	/**
-	 * Checks if the cell requested is in the given range
-	 *
-	 * @param a_row the row index
-	 * @param a_column the column index
-	 * @return true, if it exists
-	 */
-	public boolean cellExists(int a_row, int a_column)
-	{
-		if (rowExists(a_row) && columnExists(a_column)) return true;
-		else return false;
-	}
-	
-	/**
-	 * Checks if a row exists in the matrix.
-	 *
-	 * @param a_row the row index
-	 * @return true, if it exists
-	 */
-	public boolean rowExists(int a_row)
-	{
-		if (a_row < m_rows) return true;
-		else return false;
-	}
-	
-	/**
-	 * Checks if a column exists in the matrix.
-	 *
-	 * @param a_column the column index
-	 * @return true, if it exists
-	 */
-	public boolean columnExists(int a_column)
-	{
-		if (a_column < m_columns) return true;
-		else return false;
-	}
-	
-	/**
-	 * Checks if a row is all zeroes.
-	 *
-	 * @param a_rowIndex the row index
-	 * @return true, if the row is all zeroes
-	 */
-	public boolean isRowZeroes(int a_rowIndex)
-	{
-		Fraction[] row = getRow(a_rowIndex);
-		
-		for (int i = 0; i < row.length; i++)
-		{
-			if (!row[i].equals(0)) return false;
-		}
-		
-		return true;
-	}
-	
-	/**
-	 * Checks if a column is all zeroes.
-	 *
-	 * @param a_columnIndex the column index
-	 * @return true, if the column is all zeroes
-	 */
-	public boolean isColumnZeroes(int a_columnIndex)
-	{
-		for (int i = 0; i < getRows(); i++)
-		{
-			if (!getRow(i)[a_columnIndex].equals(0)) return false;
-		}
-		
-		return true;
-	}
-	
-	/**
-	 * Counts the amount of zeroes in a row.
-	 *
-	 * @param a_rowIndex the row index
-	 * @return the amount of zeroes in the row
-	 */
-	public int amountZeroesInRow(int a_rowIndex)
-	{
-		int count = 0;
-		Fraction[] row = getRow(a_rowIndex);
-		
-		for (int i = 0; i < row.length; i++)
-		{
-			if (row[i].equals(0)) count++;
-		}
-		
-		return count;
-	}
-	
-	/**
-	 * Counts the amount of zeroes in a column.
-	 *
-	 * @param a_columnIndex the column index
-	 * @return the amount of zeroes in the column
-	 */
-	public int amountZeroesInColumn(int a_columnIndex)
-	{
-		int count = 0;
-		for (int i = 0; i < getRows(); i++)
-		{
-			if (getRow(i)[a_columnIndex].equals(0)) count++;
-		}
-		
-		return count;
-	}
-	
-	/**
-	 * Checks if the matrix is a square matrix.
-	 * As in, amount of rows = amount of columns.
-	 * 
-	 * @return true, if it is a square matrix
-	 */
-	public boolean isSquareMatrix()
-	{
-		return (getRows() == getColumns());
-	}
-	
-	/**
-	 * Swap two rows.
-	 * Rows passes in by index: starting at 0, ending at RowCount - 1.
-	 * 
-	 * @param a_firstRowIndex the first row index
-	 * @param a_secondRowIndex the second row index
-	 */
-	public void swapRows(int a_firstRowIndex, int a_secondRowIndex)
-	{
-		//Ensure both rows exist in the matrix:
-		if (!rowExists(a_firstRowIndex) || !rowExists(a_secondRowIndex)) return;
-		
-		//Store the first and second rows:
-		Fraction[] firstRow = getRow(a_firstRowIndex);
-		Fraction[] secondRow = getRow(a_secondRowIndex);
-		
-		//Do the swap:
-		setRow(a_secondRowIndex, firstRow);
-		setRow(a_firstRowIndex, secondRow);	
-	}
-	
-	/**
-	 * @see java.lang.Object#toString()
-	 */
-	@Override
-	public String toString()
-	{
-		StringBuilder matrixString = new StringBuilder("");
-		
-		for (int i = 0; i < getRows(); i++)
-		{
-			//Open the row with a brace:
-			matrixString.append("[ ");
-			for (int j = 0; j < getColumns() - 1; j++)
-			{
-				//Get each cell value and add a | character:
-				matrixString.append(m_numbers[i][j].toString() + " | ");
-			}
-			
-			//Append the last number and add a closing brace:
-			matrixString.append(m_numbers[i][getColumns() - 1].toString());
-			matrixString.append(" ]\n");
-		}
-		
-		return matrixString.toString();
-	}
-
-}
+package calculator;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The representation of a Matrix for the Matrix Calculator.
+ *
+ * Copies are cheap: the copy constructor shares the cells with the original, and the storage clones
+ * them only where one of the two is written to. Each version of the cells gets its own stamp, which a
+ * copy shares with its original until either one changes, so a stamp can stand in for a snapshot.
+ *
+ * Swapping rows doesn't move them in the storage. The matrix keeps the order it shows its rows in
+ * separately, so a swap is two indices and the sign of the permutation is always known. The rows
+ * are moved once something needs them in order: {@link #getStorage()}, or {@link #materialize()}.
+ */
+public class Matrix
+{
+	
+	/** The amount of rows. */
+	private int m_rows;
+	
+	/** The amount of columns. */
+	private int m_columns;
+	
+	/** The storage holding the numbers. */
+	private MatrixStorage m_storage;
+	
+	/** The name. */
+	private String m_name;
+	
+	/** The source of version stamps. Each one is handed out once. */
+	private static final AtomicLong s_versions = new AtomicLong();
+	
+	/** The version stamp of the cells, so cached results can tell they are stale. */
+	private long m_version;
+	
+	/** For each row, the row of the storage it is in. Null while they are the same. */
+	private int[] m_rowOrder;
+	
+	/** The sign of the row order: 1 for an even amount of swaps since the rows were last moved, -1 for odd. */
+	private int m_permutationSign = 1;
+	
+	/**
+	 * Creates a new blank matrix from an amount of rows and columns.
+	 *
+	 * @param a_rows the amount of rows
+	 * @param a_columns the amount of columns
+	 */
+	//Regular Constructor:
+	public Matrix(int a_rows, int a_columns)
+	{
+		this(new FractionArrayStorage(a_rows, a_columns));
+	}
+	
+	/**
+	 * Creates a new matrix from a 2d array.
+	 *
+	 * @param a_matrix the 2d array of numbers to use.
+	 */
+	//Regular Constructor:
+	public Matrix(Fraction[][] a_matrix)
+	{
+		this(new FractionArrayStorage(a_matrix));
+	}
+	
+	/**
+	 * Creates a new matrix over the given storage, for example a {@link PrimitiveMatrixStorage}.
+	 *
+	 * @param a_storage the storage holding the numbers
+	 */
+	//Regular Constructor:
+	public Matrix(MatrixStorage a_storage)
+	{
+		m_rows = a_storage.getRows();
+		m_columns = a_storage.getColumns();
+		m_storage = a_storage;
+		m_version = s_versions.incrementAndGet();
+		setName("");
+	}
+	
+	/**
+	 * Copy constructor. Creates a new matrix with the same kind of storage, sharing the cells of the
+	 * other one until either is changed, and with the same version stamp until then.
+	 * A copy of a view is a snapshot of what the view shows now. The view's stamp doesn't change when
+	 * its source does, so the snapshot gets a stamp of its own.
+	 *
+	 * @param a_other the a other
+	 */
+	//Copy Constructor:
+	public Matrix(Matrix a_other)
+	{
+		this(a_other.m_storage.copy());
+		if (!(a_other.m_storage instanceof MatrixView)) m_version = a_other.m_version;
+		m_rowOrder = (a_other.m_rowOrder == null) ? null : a_other.m_rowOrder.clone();
+		m_permutationSign = a_other.m_permutationSign;
+		setName("Copy_" + a_other.getName());
+	}
+	
+	/**
+	 * Gets the amount of rows.
+	 *
+	 * @return the amount of rows
+	 */
+	public int getRows()
+	{
+		return m_rows;
+	}
+	
+	/**
+	 * Gets the amount of columns.
+	 *
+	 * @return the amount of columns
+	 */
+	public int getColumns()
+	{
+		return m_columns;
+	}
+	
+	/**
+	 * Gets the row at the index.
+	 * Note: may be the row itself, shared with copies of this matrix. Don't write to it; set a new row instead.
+	 *
+	 * @param a_row the index
+	 * @return the row at the index
+	 */
+	public Fraction[] getRow(int a_row)
+	{
+		return m_storage.getRow(storedRow(a_row));
+	}
+	
+	/**
+	 * Sets the row at the index.
+	 * Note: uses shallow copy, not deep copy, unless the storage doesn't hold Fraction arrays.
+	 * 
+	 * @param a_row the row
+	 * @param a_values the values to set
+	 */
+	public void setRow(int a_row, Fraction[] a_values)
+	{
+		if (a_values.length != getColumns()) return;
+		m_storage.setRow(storedRow(a_row), a_values);
+		m_version = s_versions.incrementAndGet();
+	}
+	
+	/**
+	 * Gets the column at the index.
+	 *
+	 * @param a_column the index
+	 * @return the column at the index
+	 */
+	public Fraction[] getColumn(int a_column)
+	{
+		Fraction[] column = new Fraction[getRows()];
+		
+		//Go through each row and get it's "a_column"th element.
+		for (int i = 0; i < getRows(); i++)
+		{
+			column[i] = m_storage.getCell(storedRow(i), a_column);
+		}
+		
+		return column;
+	}
+	
+	/**
+	 * Sets the column at the index.
+	 *
+	 * @param a_column the index
+	 * @param a_values the values
+	 */
+	public void setColumn(int a_column, Fraction[] a_values)
+	{
+		if (a_values.length != getRows()) return;
+		
+		//Go through each row (i), and set the element of "a_column" to the "i"th element of a_values:
+		for (int i = 0; i < getRows(); i++)
+		{
+			m_storage.setCell(storedRow(i), a_column, a_values[i]);
+		}
+		
+		m_version = s_versions.incrementAndGet();
+	}
+	
+	/**
+	 * Gets the name.
+	 *
+	 * @return the name
+	 */
+	public String getName()
+	{
+		return m_name;
+	}
+	
+	/**
+	 * Sets the name.
+	 *
+	 * @param name the new name
+	 */
+	public void setName(String name)
+	{
+		m_name = name;
+	}
+	
+	/**
+	 * Sets the cell at the given row and column with a Fraction value.
+	 *
+	 * @param a_row the row index
+	 * @param a_column the column index
+	 * @param a_value the value to set
+	 */
+	public void setCell(int a_row, int a_column, Fraction a_value)
+	{
+		if (!cellExists(a_row, a_column)) return;
+		
+		m_storage.setCell(storedRow(a_row), a_column, a_value);
+		m_version = s_versions.incrementAndGet();
+	}
+	
+	/**
+	 * Sets the cell at the given row and column with an int value.
+	 *
+	 * @param a_row the row index
+	 * @param a_column the column index
+	 * @param a_value the value
+	 */
+	public void setCell(int a_row, int a_column, int a_value)
+	{
+		setCell(a_row, a_column, Fraction.valueOf(a_value));
+	}
+	
+	/**
+	 * Gets the value at the cell
+	 *
+	 * @param a_row the row index
+	 * @param a_column the column index
+	 * @return the cell value
+	 */
+	public Fraction getCell(int a_row, int a_column)
+	{
+		if (cellExists(a_row, a_column)) return m_storage.getCell(storedRow(a_row), a_column);
+		else return Fraction.ZERO;
+	}
+	
+	/**
+	 * Checks if the cell at the given row and column is 0, without creating a Fraction for it.
+	 *
+	 * @param a_row the row index
+	 * @param a_column the column index
+	 * @return true, if the cell is 0 or doesn't exist
+	 */
+	public boolean isZero(int a_row, int a_column)
+	{
+		return !cellExists(a_row, a_column) || m_storage.isZero(storedRow(a_row), a_column);
+	}
+	
+	/**
+	 * Checks if the cell requested is in the given range
+	 *
+	 * @param a_row the row index
+	 * @param a_column the column index
+	 * @return true, if it exists
+	 */
+	public boolean cellExists(int a_row, int a_column)
+	{
+		if (rowExists(a_row) && columnExists(a_column)) return true;
+		else return false;
+	}
+	
+	/**
+	 * Checks if a row exists in the matrix.
+	 *
+	 * @param a_row the row index
+	 * @return true, if it exists
+	 */
+	public boolean rowExists(int a_row)
+	{
+		if (a_row < m_rows) return true;
+		else return false;
+	}
+	
+	/**
+	 * Checks if a column exists in the matrix.
+	 *
+	 * @param a_column the column index
+	 * @return true, if it exists
+	 */
+	public boolean columnExists(int a_column)
+	{
+		if (a_column < m_columns) return true;
+		else return false;
+	}
+	
+	/**
+	 * Checks if a row is all zeroes.
+	 *
+	 * @param a_rowIndex the row index
+	 * @return true, if the row is all zeroes
+	 */
+	public boolean isRowZeroes(int a_rowIndex)
+	{
+		int row = storedRow(a_rowIndex);
+		
+		//A sparse row knows its amount of nonzeros:
+		if (m_storage instanceof SparseMatrixStorage) return ((SparseMatrixStorage) m_storage).getNonZeros(row) == 0;
+		
+		for (int i = 0; i < getColumns(); i++)
+		{
+			if (!m_storage.isZero(row, i)) return false;
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Checks if a column is all zeroes.
+	 *
+	 * @param a_columnIndex the column index
+	 * @return true, if the column is all zeroes
+	 */
+	public boolean isColumnZeroes(int a_columnIndex)
+	{
+		//The order of the rows doesn't matter here:
+		for (int i = 0; i < getRows(); i++)
+		{
+			if (!m_storage.isZero(i, a_columnIndex)) return false;
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Counts the amount of zeroes in a row.
+	 *
+	 * @param a_rowIndex the row index
+	 * @return the amount of zeroes in the row
+	 */
+	public int amountZeroesInRow(int a_rowIndex)
+	{
+		int row = storedRow(a_rowIndex);
+		
+		//A sparse row knows its amount of nonzeros:
+		if (m_storage instanceof SparseMatrixStorage) return getColumns() - ((SparseMatrixStorage) m_storage).getNonZeros(row);
+		
+		int count = 0;
+		
+		for (int i = 0; i < getColumns(); i++)
+		{
+			if (m_storage.isZero(row, i)) count++;
+		}
+		
+		return count;
+	}
+	
+	/**
+	 * Counts the amount of zeroes in a column.
+	 *
+	 * @param a_columnIndex the column index
+	 * @return the amount of zeroes in the column
+	 */
+	public int amountZeroesInColumn(int a_columnIndex)
+	{
+		//The order of the rows doesn't matter here:
+		int count = 0;
+		for (int i = 0; i < getRows(); i++)
+		{
+			if (m_storage.isZero(i, a_columnIndex)) count++;
+		}
+		
+		return count;
+	}
+	
+	/**
+	 * Checks if the matrix is a square matrix.
+	 * As in, amount of rows = amount of columns.
+	 * 
+	 * @return true, if it is a square matrix
+	 */
+	public boolean isSquareMatrix()
+	{
+		return (getRows() == getColumns());
+	}
+	
+	/**
+	 * Swap two rows.
+	 * Rows passes in by index: starting at 0, ending at RowCount - 1.
+	 * Only the row order changes: the rows stay where they are in the storage until they are materialized.
+	 * 
+	 * @param a_firstRowIndex the first row index
+	 * @param a_secondRowIndex the second row index
+	 */
+	public void swapRows(int a_firstRowIndex, int a_secondRowIndex)
+	{
+		//Ensure both rows exist in the matrix:
+		if (!rowExists(a_firstRowIndex) || !rowExists(a_secondRowIndex)) return;
+		
+		//Do the swap, in the row order:
+		if (a_firstRowIndex != a_secondRowIndex)
+		{
+			if (m_rowOrder == null)
+			{
+				m_rowOrder = new int[m_rows];
+				for (int row = 0; row < m_rows; row++) m_rowOrder[row] = row;
+			}
+			
+			int firstRow = m_rowOrder[a_firstRowIndex];
+			m_rowOrder[a_firstRowIndex] = m_rowOrder[a_secondRowIndex];
+			m_rowOrder[a_secondRowIndex] = firstRow;
+			m_permutationSign = -m_permutationSign;
+		}
+		
+		m_version = s_versions.incrementAndGet();
+	}
+	
+	/**
+	 * Gets the sign of the rows swapped since they were last moved in the storage: 1 for an even amount
+	 * of swaps, -1 for odd. The determinant of the matrix is this times the determinant of its storage.
+	 *
+	 * @return the sign
+	 */
+	public int getPermutationSign()
+	{
+		return m_permutationSign;
+	}
+	
+	/**
+	 * Moves the rows in the storage into the order the matrix shows them in, so the storage can be read
+	 * directly. Each row that isn't in place yet is swapped once. The cells and the version stamp don't change.
+	 * A view can't be changed, so its rows are copied in order instead: the matrix gets a new stamp, and no
+	 * longer follows the view's source.
+	 */
+	public void materialize()
+	{
+		if (m_rowOrder == null) return;
+		
+		if (m_storage instanceof MatrixView)
+		{
+			Fraction[][] numbers = new Fraction[m_rows][];
+			for (int row = 0; row < m_rows; row++) numbers[row] = m_storage.getRow(m_rowOrder[row]);
+			
+			m_storage = new FractionArrayStorage(numbers);
+			m_version = s_versions.incrementAndGet();
+			m_rowOrder = null;
+			m_permutationSign = 1;
+			return;
+		}
+		
+		//Where each row of the storage is shown, the inverse of the row order:
+		int[] shownAt = new int[m_rows];
+		for (int row = 0; row < m_rows; row++) shownAt[m_rowOrder[row]] = row;
+		
+		for (int row = 0; row < m_rows; row++)
+		{
+			int stored = m_rowOrder[row];
+			if (stored == row) continue;
+			
+			//Bring the row in, and move the storage row it replaces to where it came from:
+			m_storage.swapRows(row, stored);
+			
+			int displaced = shownAt[row];
+			m_rowOrder[displaced] = stored;
+			shownAt[stored] = displaced;
+		}
+		
+		m_rowOrder = null;
+		m_permutationSign = 1;
+	}
+	
+	/**
+	 * Checks if any rows have been swapped but not yet moved in the storage.
+	 *
+	 * @return true, if the row order differs from the storage
+	 */
+	boolean isPermuted()
+	{
+		return m_rowOrder != null;
+	}
+	
+	/**
+	 * Gets a matrix over the same storage, showing the rows in the order they are stored in, without moving them.
+	 * For results that don't depend on the order of the rows, or only through {@link #getPermutationSign()}.
+	 * It must only be read: setting its cells would change this matrix without changing its version stamp.
+	 *
+	 * @return the matrix in stored order
+	 */
+	Matrix storedOrder()
+	{
+		return new Matrix(m_storage);
+	}
+	
+	/**
+	 * Gets the row of the storage a row is in.
+	 *
+	 * @param a_row the row index
+	 * @return the row index in the storage
+	 */
+	private int storedRow(int a_row)
+	{
+		return (m_rowOrder == null) ? a_row : m_rowOrder[a_row];
+	}
+	
+	/**
+	 * Gets the version stamp of the cells. It changes whenever the cells are changed through this Matrix:
+	 * by setting a cell, a row or a column, or swapping rows. No other matrix ever gets the same stamp,
+	 * except a copy taken while the cells are unchanged, so two matrices with the same stamp hold the
+	 * same values. Changes made through the storage directly, or through an array after passing it to
+	 * {@link #setRow(int, Fraction[])}, don't change it.
+	 *
+	 * @return the version stamp
+	 */
+	public long getVersion()
+	{
+		return m_version;
+	}
+	
+	/**
+	 * Gets a fingerprint of the size and the values of the cells: the SHA-256 of the amount of rows and
+	 * columns, then every cell in order as its numerator and denominator. Fractions are always kept in
+	 * lowest terms with a positive denominator, so two matrices have the same fingerprint exactly when
+	 * they hold the same values, whatever their storage, name or version stamp.
+	 *
+	 * It reads every cell, so it takes about as long as copying the matrix.
+	 *
+	 * @return the fingerprint, as 64 hexadecimal digits
+	 */
+	public String getFingerprint()
+	{
+		MessageDigest digest;
+		
+		try
+		{
+			digest = MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException exception)
+		{
+			//Every Java platform has to provide SHA-256:
+			throw new IllegalStateException(exception);
+		}
+		
+		ByteBuffer buffer = ByteBuffer.allocate(17);
+		buffer.putInt(m_rows).putInt(m_columns);
+		digest.update(buffer.array(), 0, buffer.position());
+		
+		for (int row = 0; row < m_rows; row++)
+		{
+			for (int column = 0; column < m_columns; column++)
+			{
+				Fraction cell = getCell(row, column);
+				buffer.clear();
+				
+				//A tag keeps the two encodings apart. Values that fit in longs are never held as big ones:
+				if (!cell.isBig())
+				{
+					buffer.put((byte) 0).putLong(cell.getNumerator()).putLong(cell.getDenominator());
+					digest.update(buffer.array(), 0, buffer.position());
+					continue;
+				}
+				
+				byte[] numerator = cell.getBigNumerator().toByteArray();
+				byte[] denominator = cell.getBigDenominator().toByteArray();
+				
+				buffer.put((byte) 1).putInt(numerator.length).putInt(denominator.length);
+				digest.update(buffer.array(), 0, buffer.position());
+				digest.update(numerator);
+				digest.update(denominator);
+			}
+		}
+		
+		StringBuilder hex = new StringBuilder(64);
+		
+		for (byte next : digest.digest())
+		{
+			hex.append(Character.forDigit((next >> 4) & 0xF, 16)).append(Character.forDigit(next & 0xF, 16));
+		}
+		
+		return hex.toString();
+	}
+	
+	/**
+	 * Gets the storage holding the numbers, so calculator kernels can work on it directly.
+	 * Also used to close an {@link OffHeapMatrixStorage} once the matrix is no longer needed.
+	 * Materializes the rows first, so the storage holds them in order.
+	 *
+	 * @return the storage
+	 */
+	public MatrixStorage getStorage()
+	{
+		materialize();
+		return m_storage;
+	}
+	
+	/**
+	 * Gets the storage without materializing the rows, for checking what kind of storage it is.
+	 *
+	 * @return the storage, with its rows possibly out of order
+	 */
+	MatrixStorage getStorageAsStored()
+	{
+		return m_storage;
+	}
+	
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		StringBuilder matrixString = new StringBuilder("");
+		
+		for (int i = 0; i < getRows(); i++)
+		{
+			//Open the row with a brace:
+			matrixString.append("[ ");
+			for (int j = 0; j < getColumns() - 1; j++)
+			{
+				//Get each cell value and add a | character:
+				matrixString.append(getCell(i, j).toString() + " | ");
+			}
+			
+			//Append the last number and add a closing brace:
+			matrixString.append(getCell(i, getColumns() - 1).toString());
+			matrixString.append(" ]\n");
+		}
+		
+		return matrixString.toString();
+	}
+	
+}
@@ -0,0 +1,584 @@
+package calculator;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs a file of matrix jobs without the GUI, spread over a pool of worker threads, and reports how fast they ran.
+ *
+ * The file first defines matrices, then lists one operation per line. Cells are whole numbers or fractions such as -3/4:
+ * <pre>
+ * # A comment
+ * matrix A 2 2
+ * 1 2
+ * 3 4
+ * matrix B 2 2 sparse
+ * 1/2 0
+ * 0 1
+ * random C 200 200 primitive
+ * det A
+ * inverse A
+ * multiply A B A
+ * eval 2 A + B - 1/3 A
+ * </pre>
+ * A matrix is stored as fractions unless primitive or sparse follows its size. A random matrix has small
+ * fractions, the same ones every run. The operations are det, rank, trace, ref, rref, inverse, transpose,
+ * add, subtract, multiply (of two or more matrices, in the cheapest order), divide, solve, and eval (an
+ * element-wise expression). Each result is printed, in the order of the file, as soon as it and all before
+ * it are done. The throughput and the latencies go to standard error at the end.
+ *
+ * Only the engine and the matrix classes are loaded, never AWT or Swing, so this runs on headless machines.
+ *
+ * Usage: java calculator.MatrixBatch [-threads n] [-approximate] [-quiet] jobfile. A jobfile of - reads standard input.
+ */
+public class MatrixBatch
+{
+	
+	/** The matrices defined so far, by name. */
+	private final Map<String, Matrix> m_matrices;
+	
+	/** The jobs, in the order of the file. */
+	private final List<Job> m_jobs;
+	
+	/** The engine the jobs run on, shared by every worker. */
+	private final MatrixEngine m_engine;
+	
+	/** The generator of random matrices. */
+	private final Random m_random;
+	
+	/**
+	 * Instantiates a new batch.
+	 *
+	 * @param a_engine the engine to run the jobs on
+	 */
+	private MatrixBatch(MatrixEngine a_engine)
+	{
+		m_matrices = new HashMap<String, Matrix>();
+		m_jobs = new ArrayList<Job>();
+		m_engine = a_engine;
+		m_random = new Random(42);
+	}
+	
+	/**
+	 * Runs a job file.
+	 *
+	 * @param a_args the options and the job file
+	 */
+	public static void main(String[] a_args)
+	{
+		int threads = Runtime.getRuntime().availableProcessors();
+		boolean approximate = false;
+		boolean quiet = false;
+		String path = null;
+		
+		try
+		{
+			for (int index = 0; index < a_args.length; index++)
+			{
+				if (a_args[index].equals("-threads")) threads = Integer.parseInt(a_args[++index]);
+				else if (a_args[index].equals("-approximate")) approximate = true;
+				else if (a_args[index].equals("-quiet")) quiet = true;
+				else if (path == null) path = a_args[index];
+				else throw new IllegalArgumentException("Unexpected argument " + a_args[index]);
+			}
+			
+			if (path == null) throw new IllegalArgumentException("No job file given");
+			if (threads < 1) throw new IllegalArgumentException("Threads must be at least 1");
+		}
+		catch (RuntimeException exception)
+		{
+			System.err.println(exception.getMessage());
+			System.err.println("Usage: java calculator.MatrixBatch [-threads n] [-approximate] [-quiet] jobfile");
+			System.exit(2);
+		}
+		
+		//The jobs are what runs in parallel, so each one stays on its worker thread:
+		MatrixEngine engine = new MatrixEngine();
+		engine.setParallelism(1);
+		engine.setApproximate(approximate);
+		
+		MatrixBatch batch = new MatrixBatch(engine);
+		
+		try
+		{
+			InputStream input = path.equals("-") ? System.in : new FileInputStream(path);
+			
+			try
+			{
+				batch.read(new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)));
+			}
+			finally
+			{
+				input.close();
+			}
+		}
+		catch (IOException exception)
+		{
+			System.err.println("Unable to read " + path + ": " + exception.getMessage());
+			System.exit(1);
+		}
+		catch (IllegalArgumentException exception)
+		{
+			System.err.println(exception.getMessage());
+			System.exit(1);
+		}
+		
+		batch.run(threads, quiet);
+	}
+	
+	/**
+	 * Reads the matrices and jobs of a file.
+	 *
+	 * @param a_reader the file
+	 * @throws IOException if the file can't be read
+	 * @throws IllegalArgumentException if a line is not understood, with its line number
+	 */
+	private void read(BufferedReader a_reader) throws IOException
+	{
+		int lineNumber = 0;
+		String line;
+		
+		while ((line = a_reader.readLine()) != null)
+		{
+			lineNumber++;
+			
+			String[] tokens = tokenize(line);
+			if (tokens.length == 0) continue;
+			
+			try
+			{
+				if (tokens[0].equals("matrix"))
+				{
+					Matrix matrix = define(tokens);
+					
+					for (int row = 0; row < matrix.getRows(); row++)
+					{
+						line = a_reader.readLine();
+						lineNumber++;
+						
+						String[] cells = (line == null) ? new String[0] : tokenize(line);
+						if (cells.length != matrix.getColumns())
+						{
+							throw new IllegalArgumentException("Expected " + matrix.getColumns() + " cells in row " + (row + 1) + " of " + tokens[1]);
+						}
+						
+						for (int column = 0; column < cells.length; column++)
+						{
+							matrix.setCell(row, column, Fraction.parseExactFraction(cells[column]));
+						}
+					}
+					
+					store(tokens, matrix);
+				}
+				else if (tokens[0].equals("random"))
+				{
+					Matrix matrix = define(tokens);
+					
+					for (int row = 0; row < matrix.getRows(); row++)
+					{
+						for (int column = 0; column < matrix.getColumns(); column++)
+						{
+							matrix.setCell(row, column, Fraction.valueOf(m_random.nextInt(19) - 9, m_random.nextInt(4) + 1));
+						}
+					}
+					
+					store(tokens, matrix);
+				}
+				else
+				{
+					m_jobs.add(parseJob(tokens, line.trim()));
+				}
+			}
+			catch (NumberFormatException exception)
+			{
+				throw new IllegalArgumentException("Line " + lineNumber + ": not a number, " + exception.getMessage());
+			}
+			catch (IllegalArgumentException exception)
+			{
+				throw new IllegalArgumentException("Line " + lineNumber + ": " + exception.getMessage());
+			}
+			catch (MatrixException exception)
+			{
+				throw new IllegalArgumentException("Line " + lineNumber + ": " + exception.getMessage());
+			}
+		}
+	}
+	
+	/**
+	 * Splits a line into its words, leaving out a comment.
+	 *
+	 * @param a_line the line
+	 * @return the words, none for a blank line
+	 */
+	private static String[] tokenize(String a_line)
+	{
+		int comment = a_line.indexOf('#');
+		String text = (comment < 0 ? a_line : a_line.substring(0, comment)).trim();
+		
+		return text.isEmpty() ? new String[0] : text.split("\\s+");
+	}
+	
+	/**
+	 * Creates the matrix of a definition line: matrix or random, the name, the rows, the columns and an optional storage.
+	 *
+	 * @param a_tokens the words of the line
+	 * @return a matrix of 0s of that size
+	 */
+	private static Matrix define(String[] a_tokens)
+	{
+		if (a_tokens.length != 4 && a_tokens.length != 5)
+		{
+			throw new IllegalArgumentException("Expected " + a_tokens[0] + " <name> <rows> <columns> [fraction | primitive | sparse]");
+		}
+		
+		int rows = Integer.parseInt(a_tokens[2]);
+		int columns = Integer.parseInt(a_tokens[3]);
+		if (rows < 1 || columns < 1) throw new IllegalArgumentException("A matrix needs at least one row and one column");
+		
+		Matrix matrix = new Matrix(rows, columns);
+		matrix.setName(a_tokens[1]);
+		
+		return matrix;
+	}
+	
+	/**
+	 * Stores a matrix under its name, in the storage asked for.
+	 *
+	 * @param a_tokens the words of its definition line
+	 * @param a_matrix the matrix, filled in
+	 */
+	private void store(String[] a_tokens, Matrix a_matrix)
+	{
+		String storage = a_tokens.length == 5 ? a_tokens[4] : "fraction";
+		Matrix stored;
+		
+		if (storage.equals("fraction")) stored = a_matrix;
+		else if (storage.equals("primitive")) stored = new Matrix(new PrimitiveMatrixStorage(a_matrix.getStorage()));
+		else if (storage.equals("sparse")) stored = new Matrix(new SparseMatrixStorage(a_matrix.getStorage()));
+		else throw new IllegalArgumentException("Unknown storage " + storage);
+		
+		stored.setName(a_matrix.getName());
+		m_matrices.put(a_matrix.getName(), stored);
+	}
+	
+	/**
+	 * Looks up a matrix by name.
+	 *
+	 * @param a_name the name
+	 * @return the matrix
+	 */
+	private Matrix lookup(String a_name)
+	{
+		Matrix matrix = m_matrices.get(a_name);
+		if (matrix == null) throw new IllegalArgumentException("No matrix named " + a_name);
+		
+		return matrix;
+	}
+	
+	/**
+	 * Parses an operation line into a job.
+	 *
+	 * @param a_tokens the words of the line
+	 * @param a_text the line, to print with its result
+	 * @return the job
+	 * @throws MatrixException if the matrices of an eval don't have the same size
+	 */
+	private Job parseJob(String[] a_tokens, String a_text) throws MatrixException
+	{
+		String operation = a_tokens[0];
+		
+		if (operation.equals("eval"))
+		{
+			return new Job(m_engine, a_text, operation, null, parseExpression(a_tokens));
+		}
+		
+		int operands = a_tokens.length - 1;
+		MatrixEngine.checkOperation(operation, operands);
+		
+		Matrix[] matrices = new Matrix[operands];
+		for (int index = 0; index < operands; index++)
+		{
+			matrices[index] = lookup(a_tokens[index + 1]);
+		}
+		
+		return new Job(m_engine, a_text, operation, matrices, null);
+	}
+	
+	/**
+	 * Parses an element-wise expression such as 2 A + B - 1/3 C. Each matrix name may follow a sign and a coefficient.
+	 *
+	 * @param a_tokens the words of the line, starting with eval
+	 * @return the expression
+	 * @throws MatrixException if the matrices don't have the same size
+	 */
+	private MatrixExpression parseExpression(String[] a_tokens) throws MatrixException
+	{
+		MatrixExpression expression = null;
+		Fraction coefficient = Fraction.ONE;
+		boolean pending = false;
+		
+		for (int index = 1; index < a_tokens.length; index++)
+		{
+			String token = a_tokens[index];
+			
+			//A sign written onto a name, as in -A:
+			if (token.length() > 1 && token.charAt(0) == '-' && !Character.isDigit(token.charAt(1)))
+			{
+				coefficient = coefficient.negate();
+				token = token.substring(1);
+			}
+			
+			char first = token.charAt(0);
+			
+			if (token.equals("+"))
+			{
+				pending = true;
+			}
+			else if (token.equals("-"))
+			{
+				coefficient = coefficient.negate();
+				pending = true;
+			}
+			else if (Character.isDigit(first) || (first == '-' && token.length() > 1 && Character.isDigit(token.charAt(1))))
+			{
+				coefficient = coefficient.multiply(Fraction.parseFraction(token));
+				pending = true;
+			}
+			else
+			{
+				MatrixExpression term = MatrixExpression.of(lookup(token)).times(coefficient);
+				expression = (expression == null) ? term : expression.plus(term);
+				coefficient = Fraction.ONE;
+				pending = false;
+			}
+		}
+		
+		if (expression == null || pending) throw new IllegalArgumentException("eval needs an expression ending in a matrix");
+		
+		return expression;
+	}
+	
+	/**
+	 * Runs every job on a pool, printing the results in order as they are done, then the statistics.
+	 *
+	 * @param a_threads the amount of worker threads
+	 * @param a_quiet if true, only print the statistics
+	 */
+	private void run(int a_threads, boolean a_quiet)
+	{
+		ExecutorService workers = Executors.newFixedThreadPool(a_threads);
+		List<Future<String>> results = new ArrayList<Future<String>>(m_jobs.size());
+		long[] latencies = new long[m_jobs.size()];
+		int failed = 0;
+		
+		long start = System.nanoTime();
+		
+		for (Job job : m_jobs)
+		{
+			results.add(workers.submit(job));
+		}
+		
+		for (int index = 0; index < m_jobs.size(); index++)
+		{
+			Job job = m_jobs.get(index);
+			String result;
+			
+			try
+			{
+				result = results.get(index).get();
+			}
+			catch (InterruptedException exception)
+			{
+				Thread.currentThread().interrupt();
+				result = "error: interrupted";
+			}
+			catch (ExecutionException exception)
+			{
+				result = "error: " + exception.getCause();
+			}
+			
+			if (result.startsWith("error: ")) failed++;
+			latencies[index] = job.getNanos();
+			
+			if (a_quiet) continue;
+			
+			//Matrices go on the lines after their job, everything else on the same line:
+			if (result.indexOf('\n') >= 0) System.out.print(job.getText() + " =\n" + result);
+			else System.out.println(job.getText() + " = " + result);
+		}
+		
+		long wall = System.nanoTime() - start;
+		workers.shutdown();
+		
+		System.out.flush();
+		System.err.println(statistics("jobs", latencies, failed, a_threads, wall));
+	}
+	
+	/**
+	 * Sums up a run: its throughput and the spread of the latencies.
+	 *
+	 * @param a_unit what was run, such as jobs or requests
+	 * @param a_latencies the time of each one in nanoseconds
+	 * @param a_failed the amount that failed
+	 * @param a_threads the amount of threads
+	 * @param a_wall the time of the whole run in nanoseconds
+	 * @return the statistics, on two lines
+	 */
+	static String statistics(String a_unit, long[] a_latencies, int a_failed, int a_threads, long a_wall)
+	{
+		long[] sorted = a_latencies.clone();
+		Arrays.sort(sorted);
+		
+		long total = 0;
+		for (long latency : sorted)
+		{
+			total += latency;
+		}
+		
+		double seconds = a_wall / 1e9;
+		double mean = sorted.length == 0 ? 0 : total / 1e6 / sorted.length;
+		
+		return String.format("%d %s, %d failed, %d threads, %.3f s, %.1f %s/s%n"
+				+ "latency ms: mean %.3f, p50 %.3f, p90 %.3f, p99 %.3f, max %.3f",
+				sorted.length, a_unit, a_failed, a_threads, seconds, sorted.length / seconds, a_unit,
+				mean, percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99), percentile(sorted, 1.0));
+	}
+	
+	/**
+	 * Reads a percentile from sorted latencies, by the nearest rank.
+	 *
+	 * @param a_sorted the latencies in nanoseconds, increasing
+	 * @param a_percentile the percentile, from 0 to 1
+	 * @return the latency in milliseconds, 0 if there are none
+	 */
+	static double percentile(long[] a_sorted, double a_percentile)
+	{
+		if (a_sorted.length == 0) return 0;
+		
+		int rank = (int) Math.ceil(a_percentile * a_sorted.length);
+		
+		return a_sorted[Math.max(0, rank - 1)] / 1e6;
+	}
+	
+	/**
+	 * One operation of the file, run on a worker thread.
+	 */
+	private static final class Job implements Callable<String>
+	{
+		
+		/** The engine. */
+		private final MatrixEngine m_engine;
+		
+		/** The line of the file, to print with the result. */
+		private final String m_text;
+		
+		/** The operation. */
+		private final String m_operation;
+		
+		/** The operands, or null for eval. */
+		private final Matrix[] m_operands;
+		
+		/** The expression of an eval, or null. */
+		private final MatrixExpression m_expression;
+		
+		/** How long the job took in nanoseconds, once it is done. */
+		private long m_nanos;
+		
+		/**
+		 * Instantiates a new job.
+		 *
+		 * @param a_engine the engine
+		 * @param a_text the line of the file
+		 * @param a_operation the operation
+		 * @param a_operands the operands, or null for eval
+		 * @param a_expression the expression of an eval, or null
+		 */
+		Job(MatrixEngine a_engine, String a_text, String a_operation, Matrix[] a_operands, MatrixExpression a_expression)
+		{
+			m_engine = a_engine;
+			m_text = a_text;
+			m_operation = a_operation;
+			m_operands = a_operands;
+			m_expression = a_expression;
+		}
+		
+		/**
+		 * Gets the line of the file.
+		 *
+		 * @return the line
+		 */
+		String getText()
+		{
+			return m_text;
+		}
+		
+		/**
+		 * Gets how long the job took. Only read it after the job's Future is done.
+		 *
+		 * @return the time in nanoseconds
+		 */
+		long getNanos()
+		{
+			return m_nanos;
+		}
+		
+		/**
+		 * Runs the job and times it. A failed operation gives an error line rather than an exception.
+		 *
+		 * @see java.util.concurrent.Callable#call()
+		 */
+		@Override
+		public String call()
+		{
+			long start = System.nanoTime();
+			String result;
+			
+			try
+			{
+				result = perform().toString();
+			}
+			catch (MatrixException exception)
+			{
+				result = "error: " + exception.getMessage();
+			}
+			catch (ArithmeticException exception)
+			{
+				result = "error: " + exception.getMessage();
+			}
+			
+			m_nanos = System.nanoTime() - start;
+			
+			return result;
+		}
+		
+		/**
+		 * Performs the operation.
+		 *
+		 * @return the result, a Matrix or a Fraction
+		 * @throws MatrixException the reason the operation can't be performed, if applicable
+		 */
+		private Object perform() throws MatrixException
+		{
+			if (m_expression != null) return m_engine.evaluate(m_expression);
+			
+			return m_engine.perform(m_operation, m_operands);
+		}
+		
+	}
+	
+}
@@ -0,0 +1,162 @@
+package calculator;
+
+import java.util.Random;
+
+/**
+ * Times matrix multiplication on random n x n matrices of small fractions.
+ * Compares the original column-per-cell loop with the blocked Fraction multiply and the primitive kernel,
+ * and checks that all three agree.
+ *
+ * Usage: java calculator.MatrixBenchmark [size...]. The sizes default to 64, 256 and 1024.
+ */
+public class MatrixBenchmark
+{
+	
+	/** The sizes used when none are given. */
+	private static final int[] DEFAULT_SIZES = { 64, 256, 1024 };
+	
+	/**
+	 * Runs the benchmark.
+	 *
+	 * @param a_args the sizes to run, optional
+	 * @throws MatrixException if a multiplication fails
+	 */
+	public static void main(String[] a_args) throws MatrixException
+	{
+		int[] sizes = DEFAULT_SIZES;
+		
+		if (a_args.length > 0)
+		{
+			sizes = new int[a_args.length];
+			for (int index = 0; index < a_args.length; index++)
+			{
+				sizes[index] = Integer.parseInt(a_args[index]);
+			}
+		}
+		
+		MatrixCalculator calculator = new MatrixCalculator();
+		Random random = new Random(42);
+		
+		System.out.printf("%6s %14s %14s %14s %9s%n", "n", "column (ms)", "blocked (ms)", "primitive (ms)", "speedup");
+		
+		for (int size : sizes)
+		{
+			Matrix lhs = randomMatrix(size, random);
+			Matrix rhs = randomMatrix(size, random);
+			Matrix primitiveLHS = new Matrix(new PrimitiveMatrixStorage(lhs.getStorage()));
+			Matrix primitiveRHS = new Matrix(new PrimitiveMatrixStorage(rhs.getStorage()));
+			
+			//Small sizes are repeated so the JIT has warmed up by the best run:
+			int repeats = Math.max(1, 20 * 64 * 64 * 64 / size / size / size);
+			
+			Matrix[] results = new Matrix[3];
+			long columnTime = Long.MAX_VALUE;
+			long blockedTime = Long.MAX_VALUE;
+			long primitiveTime = Long.MAX_VALUE;
+			
+			for (int repeat = 0; repeat < repeats; repeat++)
+			{
+				long start = System.nanoTime();
+				results[0] = columnMultiply(lhs, rhs);
+				long columnEnd = System.nanoTime();
+				results[1] = calculator.multiplyMatrices(lhs, rhs);
+				long blockedEnd = System.nanoTime();
+				results[2] = calculator.multiplyMatrices(primitiveLHS, primitiveRHS);
+				long primitiveEnd = System.nanoTime();
+				
+				columnTime = Math.min(columnTime, columnEnd - start);
+				blockedTime = Math.min(blockedTime, blockedEnd - columnEnd);
+				primitiveTime = Math.min(primitiveTime, primitiveEnd - blockedEnd);
+			}
+			
+			if (!sameCells(results[0], results[1]) || !sameCells(results[0], results[2]))
+			{
+				throw new IllegalStateException("Products differ at n = " + size);
+			}
+			
+			System.out.printf("%6d %14.1f %14.1f %14.1f %8.1fx%n", size, columnTime / 1e6, blockedTime / 1e6, primitiveTime / 1e6,
+					(double) columnTime / blockedTime);
+		}
+	}
+	
+	/**
+	 * Creates a matrix of random fractions with numerators in [-9, 9] and denominators in [1, 4].
+	 *
+	 * @param a_size the amount of rows and columns
+	 * @param a_random the source of randomness
+	 * @return the matrix
+	 */
+	private static Matrix randomMatrix(int a_size, Random a_random)
+	{
+		Matrix matrix = new Matrix(a_size, a_size);
+		
+		for (int row = 0; row < a_size; row++)
+		{
+			for (int column = 0; column < a_size; column++)
+			{
+				matrix.setCell(row, column, Fraction.valueOf(a_random.nextInt(19) - 9, a_random.nextInt(4) + 1));
+			}
+		}
+		
+		return matrix;
+	}
+	
+	/**
+	 * The original multiply: a fresh column and a products array for every cell of the product,
+	 * summed with immutable Fractions. Kept as the baseline.
+	 *
+	 * @param a_LHS the left-hand side
+	 * @param a_RHS the right-hand side
+	 * @return the product
+	 */
+	private static Matrix columnMultiply(Matrix a_LHS, Matrix a_RHS)
+	{
+		Matrix product = new Matrix(a_LHS.getRows(), a_RHS.getColumns());
+		
+		for (int row = 0; row < product.getRows(); row++)
+		{
+			Fraction[] LHSrow = a_LHS.getRow(row);
+			for (int column = 0; column < product.getColumns(); column++)
+			{
+				Fraction[] RHScolumn = a_RHS.getColumn(column);
+				Fraction[] products = new Fraction[LHSrow.length];
+				
+				for (int i = 0; i < LHSrow.length; i++)
+				{
+					products[i] = LHSrow[i].multiply(RHScolumn[i]);
+				}
+				
+				Fraction total = Fraction.ZERO;
+				for (int i = 0; i < LHSrow.length; i++)
+				{
+					total = total.add(products[i]);
+				}
+				
+				product.setCell(row, column, total);
+			}
+		}
+		
+		return product;
+	}
+	
+	/**
+	 * Checks if two matrices of the same size hold the same values.
+	 *
+	 * @param a_first the first matrix
+	 * @param a_second the second matrix
+	 * @return true, if every cell is equal
+	 */
+	private static boolean sameCells(Matrix a_first, Matrix a_second)
+	{
+		for (int row = 0; row < a_first.getRows(); row++)
+		{
+			for (int column = 0; column < a_first.getColumns(); column++)
+			{
+				if (!a_first.getCell(row, column).equals(a_second.getCell(row, column))) return false;
+			}
+		}
+		
+		return true;
+	}
+	
+}
@@ -0,0 +1,227 @@
+package calculator;
+
+/**
+ * A product of several matrices, A1 A2 ... An, with the order to multiply them in.
+ *
+ * The product is the same however the factors are grouped, but the work isn't: multiplying a p x q
+ * matrix by a q x r matrix takes p * q * r scalar multiplications, so (1000x2)(2x1000)(1000x2) takes
+ * 4,000,000 of them left to right, and 8,000 as (1000x2)((2x1000)(1000x2)). The grouping with the
+ * fewest is found by dynamic programming over the dimensions: for each run of factors, the cheapest
+ * split into two runs, from the shortest runs up. That takes O(n^3) steps for n factors, and no
+ * arithmetic on the cells. The counts assume dense factors, so they are an estimate for sparse ones.
+ */
+public class MatrixChain
+{
+	
+	/** The factors, in order. */
+	private final Matrix[] m_factors;
+	
+	/** The dimensions: factor i is m_dimensions[i] x m_dimensions[i + 1]. */
+	private final int[] m_dimensions;
+	
+	/** The fewest scalar multiplications for the run of factors i to j, inclusive, at [i][j]. */
+	private final long[][] m_costs;
+	
+	/** The cheapest split of the run of factors i to j: the last factor of its left part, at [i][j]. */
+	private final int[][] m_splits;
+	
+	/**
+	 * Plans a product.
+	 *
+	 * @param a_factors the factors, in order. At least two.
+	 * @throws MatrixException if the columns of a factor don't match the rows of the next
+	 */
+	public MatrixChain(Matrix... a_factors) throws MatrixException
+	{
+		if (a_factors.length < 2)
+		{
+			throw new IllegalArgumentException("A product needs at least two matrices, got " + a_factors.length);
+		}
+		
+		int amtFactors = a_factors.length;
+		m_factors = a_factors.clone();
+		m_dimensions = new int[amtFactors + 1];
+		m_costs = new long[amtFactors][amtFactors];
+		m_splits = new int[amtFactors][amtFactors];
+		
+		m_dimensions[0] = a_factors[0].getRows();
+		
+		for (int index = 0; index < amtFactors; index++)
+		{
+			if (a_factors[index].getRows() != m_dimensions[index])
+			{
+				throw new MatrixException("Invalid dimensions", a_factors[index - 1], a_factors[index]);
+			}
+			
+			m_dimensions[index + 1] = a_factors[index].getColumns();
+		}
+		
+		//Runs of one factor cost nothing. Every longer run takes its cheapest split into two shorter ones:
+		for (int length = 2; length <= amtFactors; length++)
+		{
+			for (int first = 0; first + length <= amtFactors; first++)
+			{
+				int last = first + length - 1;
+				m_costs[first][last] = Long.MAX_VALUE;
+				
+				//From the right, so ties keep the left to right grouping:
+				for (int split = last - 1; split >= first; split--)
+				{
+					long cost = m_costs[first][split] + m_costs[split + 1][last]
+							+ (long) m_dimensions[first] * m_dimensions[split + 1] * m_dimensions[last + 1];
+					
+					if (cost < m_costs[first][last])
+					{
+						m_costs[first][last] = cost;
+						m_splits[first][last] = split;
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Gets the amount of factors.
+	 *
+	 * @return the amount of factors
+	 */
+	public int getLength()
+	{
+		return m_factors.length;
+	}
+	
+	/**
+	 * Gets the amount of scalar multiplications in the planned order.
+	 *
+	 * @return the fewest scalar multiplications
+	 */
+	public long getCost()
+	{
+		return m_costs[0][m_factors.length - 1];
+	}
+	
+	/**
+	 * Gets the amount of scalar multiplications when multiplying strictly left to right, ((A1 A2) A3) ...
+	 *
+	 * @return the scalar multiplications left to right
+	 */
+	public long getLeftToRightCost()
+	{
+		long cost = 0;
+		
+		for (int index = 1; index < m_factors.length; index++)
+		{
+			cost += (long) m_dimensions[0] * m_dimensions[index] * m_dimensions[index + 1];
+		}
+		
+		return cost;
+	}
+	
+	/**
+	 * Gets the amount of scalar multiplications the planned order saves over left to right.
+	 *
+	 * @return the saving, 0 if left to right is already the cheapest
+	 */
+	public long getSavings()
+	{
+		return getLeftToRightCost() - getCost();
+	}
+	
+	/**
+	 * Gets the planned order as an expression, such as (A * (B * C)). Each factor is shown by its name,
+	 * or by its place in the chain if it has none.
+	 *
+	 * @return the plan
+	 */
+	public String getPlan()
+	{
+		StringBuilder plan = new StringBuilder();
+		appendPlan(plan, 0, m_factors.length - 1);
+		
+		return plan.toString();
+	}
+	
+	/**
+	 * Multiplies the factors in the planned order.
+	 *
+	 * @param a_engine the engine to multiply each pair with
+	 * @return the product
+	 * @throws MatrixException the reason a multiplication can't be performed, if applicable
+	 */
+	Matrix multiply(MatrixEngine a_engine) throws MatrixException
+	{
+		return multiply(a_engine, 0, m_factors.length - 1);
+	}
+	
+	/**
+	 * Multiplies a run of factors in the planned order. Off-heap products in between are closed once used.
+	 *
+	 * @param a_engine the engine to multiply each pair with
+	 * @param a_first the first factor of the run
+	 * @param a_last the last factor of the run, inclusive
+	 * @return the product of the run
+	 * @throws MatrixException the reason a multiplication can't be performed, if applicable
+	 */
+	private Matrix multiply(MatrixEngine a_engine, int a_first, int a_last) throws MatrixException
+	{
+		if (a_first == a_last) return m_factors[a_first];
+		
+		int split = m_splits[a_first][a_last];
+		Matrix left = multiply(a_engine, a_first, split);
+		Matrix right = multiply(a_engine, split + 1, a_last);
+		Matrix product = a_engine.multiply(left, right);
+		
+		if (a_first != split) closeIfOffHeap(left);
+		if (split + 1 != a_last) closeIfOffHeap(right);
+		
+		return product;
+	}
+	
+	/**
+	 * Closes the storage of a product in between, if it is off-heap.
+	 *
+	 * @param a_product the product
+	 */
+	private static void closeIfOffHeap(Matrix a_product)
+	{
+		MatrixStorage storage = a_product.getStorageAsStored();
+		if (storage instanceof OffHeapMatrixStorage) ((OffHeapMatrixStorage) storage).close();
+	}
+	
+	/**
+	 * Writes the planned order of a run of factors.
+	 *
+	 * @param a_plan the plan so far
+	 * @param a_first the first factor of the run
+	 * @param a_last the last factor of the run, inclusive
+	 */
+	private void appendPlan(StringBuilder a_plan, int a_first, int a_last)
+	{
+		if (a_first == a_last)
+		{
+			String name = m_factors[a_first].getName();
+			a_plan.append((name == null || name.isEmpty()) ? "M" + (a_first + 1) : name);
+			return;
+		}
+		
+		int split = m_splits[a_first][a_last];
+		
+		a_plan.append("(");
+		appendPlan(a_plan, a_first, split);
+		a_plan.append(" * ");
+		appendPlan(a_plan, split + 1, a_last);
+		a_plan.append(")");
+	}
+	
+	/**
+	 * Reports the plan and what it saves.
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		return getPlan() + ": " + getCost() + " scalar multiplications, " + getLeftToRightCost() + " left to right";
+	}
+	
+}
@@ -0,0 +1,85 @@
+package calculator;
+
+/**
+ * Runs the cases that have gone wrong before, and checks that they now give the right answers.
+ * Prints each case as it passes, and stops at the first one that fails.
+ *
+ * Usage: java calculator.MatrixChecks
+ */
+public class MatrixChecks
+{
+	
+	/**
+	 * Runs every check.
+	 *
+	 * @param a_args unused
+	 * @throws MatrixException if an operation fails
+	 */
+	public static void main(String[] a_args) throws MatrixException
+	{
+		checkCopiesOfViews();
+		checkSwappedViews();
+		
+		System.out.println("All checks passed");
+	}
+	
+	/**
+	 * A copy of a view is a snapshot, so its cached results must not be handed to a later copy of the
+	 * same view once the view's source has changed.
+	 *
+	 * @throws MatrixException if an operation fails
+	 */
+	private static void checkCopiesOfViews() throws MatrixException
+	{
+		MatrixEngine engine = new MatrixEngine();
+		Matrix source = new Matrix(new Fraction[][] {
+			{new Fraction(1), new Fraction(2)},
+			{new Fraction(3), new Fraction(4)}
+		});
+		Matrix view = new Matrix(MatrixView.transpose(source));
+		
+		check("determinant of a copy of a view", engine.determinant(new Matrix(view)), Fraction.valueOf(-2));
+		
+		source.setCell(0, 0, new Fraction(10));
+		
+		check("determinant of a copy of a view after its source changed", engine.determinant(new Matrix(view)), Fraction.valueOf(34));
+	}
+	
+	/**
+	 * Rows swapped in a matrix backed by a view can't be moved in the view, so getting its storage
+	 * must copy them out in order instead.
+	 */
+	private static void checkSwappedViews()
+	{
+		Matrix source = new Matrix(new Fraction[][] {
+			{new Fraction(1), new Fraction(2)},
+			{new Fraction(3), new Fraction(4)}
+		});
+		Matrix view = new Matrix(MatrixView.transpose(source));
+		view.swapRows(0, 1);
+		
+		MatrixStorage storage = view.getStorage();
+		
+		check("first cell of the storage of a swapped view", storage.getCell(0, 0), Fraction.valueOf(2));
+		check("first cell of a swapped view after getting its storage", view.getCell(0, 0), Fraction.valueOf(2));
+	}
+	
+	/**
+	 * Checks one answer.
+	 *
+	 * @param a_case what was worked out
+	 * @param a_actual the answer
+	 * @param a_expected the right answer
+	 * @throws IllegalStateException if the answer is wrong
+	 */
+	private static void check(String a_case, Object a_actual, Object a_expected)
+	{
+		if (!a_expected.equals(a_actual))
+		{
+			throw new IllegalStateException(a_case + ": expected " + a_expected + ", was " + a_actual);
+		}
+		
+		System.out.println("ok: " + a_case);
+	}
+	
+}
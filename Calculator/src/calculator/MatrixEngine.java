@@ -0,0 +1,1744 @@
+package calculator;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Performs the matrix operations of the calculator, with no inputs or results held between calls.
+ *
+ * Every operation takes its operands and returns its result, so one engine can be shared by any number
+ * of threads calling it at once. Operands are only read: rows swapped in a {@link Matrix} but not moved
+ * yet are put in order on a copy, not in place. The settings are read at the start of each call; set
+ * them before sharing the engine. The results kept for recent matrices are shared by every caller, and
+ * kept results are handed out as copies, so no caller sees another change them.
+ *
+ * The {@link MatrixCalculator} collects the inputs of the GUI and passes them on to an engine.
+ */
+public class MatrixEngine
+{
+	
+	/** The block size of the multiply: a block of 64 rows by 64 columns, 64 cells deep at a time. */
+	static final int MULTIPLY_BLOCK = 64;
+	
+	/** Below this many cell operations (cells for element-wise operations, multiply-adds for a multiply), work stays on the calling thread. */
+	static final long DEFAULT_PARALLEL_THRESHOLD = 1 << 16;
+	
+	/**
+	 * The Strassen-Winograd recursion stops once a side is below this. Measured on one core against the blocked multiply:
+	 * with small fractions it only breaks even at 1024 x 1024 (10.4 s against 11.0 s), and loses at every size below.
+	 * Whole numbers keep their sums cheap, and win already at 512 x 512 with a crossover of 128 (650 ms against 770 ms).
+	 */
+	public static final int DEFAULT_STRASSEN_CROSSOVER = 512;
+	
+	/** The operations {@link #perform(String, Matrix...)} does on one matrix. */
+	public static final List<String> UNARY_OPERATIONS = Collections.unmodifiableList(Arrays.asList("det", "rank", "trace", "ref", "rref", "inverse", "transpose"));
+	
+	/** The operations {@link #perform(String, Matrix...)} does on two matrices. Multiply takes two or more. */
+	public static final List<String> BINARY_OPERATIONS = Collections.unmodifiableList(Arrays.asList("add", "subtract", "divide", "solve"));
+	
+	/** The pool that rows are split over, or null to stay on the calling thread. */
+	private volatile ForkJoinPool m_pool;
+	
+	/** The amount of threads rows may be split over. */
+	private volatile int m_parallelism;
+	
+	/** Below this many cell operations, work stays on the calling thread. */
+	private volatile long m_parallelThreshold;
+	
+	/** The multiply strategy. */
+	private volatile MultiplyStrategy m_multiplyStrategy;
+	
+	/** The side below which the Strassen-Winograd recursion stops. */
+	private volatile int m_strassenCrossover;
+	
+	/** If true, the arithmetic, transpose, divide, invert, determinant and rank work in doubles. */
+	private volatile boolean m_approximate;
+	
+	/** The LU decompositions, echelon forms and other results of recent matrices. */
+	private final FactorizationCache m_cache;
+	
+	/**
+	 * Instantiates a new engine, with as many threads as there are processors.
+	 */
+	public MatrixEngine()
+	{
+		setParallelism(Runtime.getRuntime().availableProcessors());
+		m_parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+		m_multiplyStrategy = MultiplyStrategy.BLOCKED;
+		m_strassenCrossover = DEFAULT_STRASSEN_CROSSOVER;
+		m_cache = new FactorizationCache(FactorizationCache.DEFAULT_CAPACITY);
+	}
+	
+	/**
+	 * Sets the amount of threads that add, subtract, scalar multiply and multiply may split their rows over.
+	 * The result is the same for any amount.
+	 *
+	 * @param a_parallelism the amount of threads, where 1 keeps everything on the calling thread
+	 */
+	public void setParallelism(int a_parallelism)
+	{
+		if (a_parallelism < 1) throw new IllegalArgumentException("Parallelism must be at least 1");
+		
+		if (m_pool != null) m_pool.shutdown();
+		
+		m_parallelism = a_parallelism;
+		m_pool = a_parallelism > 1 ? new ForkJoinPool(a_parallelism) : null;
+	}
+	
+	/**
+	 * Gets the amount of threads rows may be split over.
+	 *
+	 * @return the parallelism
+	 */
+	public int getParallelism()
+	{
+		return m_parallelism;
+	}
+	
+	/**
+	 * Sets the size below which operations stay on the calling thread.
+	 *
+	 * @param a_threshold the amount of cell operations: cells for element-wise operations, multiply-adds for a multiply
+	 */
+	public void setParallelThreshold(long a_threshold)
+	{
+		m_parallelThreshold = a_threshold;
+	}
+	
+	/**
+	 * Gets the size below which operations stay on the calling thread.
+	 *
+	 * @return the amount of cell operations
+	 */
+	public long getParallelThreshold()
+	{
+		return m_parallelThreshold;
+	}
+	
+	/**
+	 * Sets how matrices are multiplied.
+	 *
+	 * @param a_strategy the multiply strategy
+	 */
+	public void setMultiplyStrategy(MultiplyStrategy a_strategy)
+	{
+		m_multiplyStrategy = a_strategy;
+	}
+	
+	/**
+	 * Gets how matrices are multiplied.
+	 *
+	 * @return the multiply strategy
+	 */
+	public MultiplyStrategy getMultiplyStrategy()
+	{
+		return m_multiplyStrategy;
+	}
+	
+	/**
+	 * Sets the side below which the Strassen-Winograd recursion stops and the blocked multiply takes over.
+	 *
+	 * @param a_crossover the crossover, at least 2
+	 */
+	public void setStrassenCrossover(int a_crossover)
+	{
+		if (a_crossover < 2) throw new IllegalArgumentException("Crossover must be at least 2");
+		
+		m_strassenCrossover = a_crossover;
+	}
+	
+	/**
+	 * Gets the side below which the Strassen-Winograd recursion stops.
+	 *
+	 * @return the crossover
+	 */
+	public int getStrassenCrossover()
+	{
+		return m_strassenCrossover;
+	}
+	
+	/**
+	 * Sets approximate mode. In approximate mode, add, subtract, scalar multiply, multiply and transpose
+	 * work in doubles through a {@link DoubleMatrix}, and divide, invert, determinant and rank through a
+	 * {@link DoubleLUDecomposition}. Each result cell is the simplest Fraction that
+	 * agrees with its double to about 12 digits. Much faster on large matrices, but no longer exact.
+	 *
+	 * @param a_approximate true, to work in doubles
+	 */
+	public void setApproximate(boolean a_approximate)
+	{
+		m_approximate = a_approximate;
+	}
+	
+	/**
+	 * Checks if the engine is in approximate mode.
+	 *
+	 * @return true, if it works in doubles
+	 */
+	public boolean isApproximate()
+	{
+		return m_approximate;
+	}
+	
+	/**
+	 * Sets the amount of matrices to keep LU decompositions, echelon forms, inverses, determinants and ranks for.
+	 * A result is kept until its matrix is changed, so repeated operations on the same matrix don't redo the elimination.
+	 *
+	 * @param a_capacity the amount of matrices, 0 or more. 0 turns the cache off.
+	 */
+	public void setCacheCapacity(int a_capacity)
+	{
+		m_cache.setCapacity(a_capacity);
+	}
+	
+	/**
+	 * Gets the amount of matrices to keep results for.
+	 *
+	 * @return the capacity
+	 */
+	public int getCacheCapacity()
+	{
+		return m_cache.getCapacity();
+	}
+	
+	/**
+	 * Drops every kept result.
+	 */
+	public void clearCache()
+	{
+		m_cache.clear();
+	}
+	
+	/**
+	 * Copies a kept Matrix result, so the caller can change the copy without changing what is kept.
+	 *
+	 * @param a_cached the entry the result is kept in
+	 * @param a_result the result
+	 * @return a copy, or the result itself if the entry isn't kept
+	 */
+	private static Matrix handOut(FactorizationCache.Entry a_cached, Matrix a_result)
+	{
+		if (!a_cached.isKept()) return a_result;
+		
+		Matrix copy = new Matrix(a_result);
+		copy.setName(a_result.getName());
+		
+		return copy;
+	}
+	
+	/**
+	 * Gets the LU decomposition in doubles of a matrix, factoring it only if it isn't kept already.
+	 *
+	 * @param a_matrix the matrix
+	 * @return the factorization
+	 */
+	private DoubleLUDecomposition doubleFactors(Matrix a_matrix)
+	{
+		FactorizationCache.Entry cached = m_cache.get(a_matrix);
+		
+		if (cached.getDoubleFactors() == null) cached.setDoubleFactors(new DoubleLUDecomposition(new DoubleMatrix(a_matrix)));
+		
+		return cached.getDoubleFactors();
+	}
+	
+	/**
+	 * Picks where to run an operation of a given size.
+	 *
+	 * @param a_work the amount of cell operations
+	 * @return the pool, or null to stay on the calling thread
+	 */
+	private ForkJoinPool poolFor(long a_work)
+	{
+		return a_work < m_parallelThreshold ? null : m_pool;
+	}
+	
+	/**
+	 * Adds or subtracts two rows and returns their result.
+	 *
+	 * @param a_fromRow the row to add/subtract from
+	 * @param a_toRow the row to add/subtract to
+	 * @param a_subtract if true, subtract instead of add
+	 * @return the result row
+	 */
+	//Add the rows in a_matrix in index a_fromIndex to the row in a_toIndex
+	public Fraction[] addRow(Fraction[] a_fromRow, Fraction[] a_toRow, boolean a_subtract)
+	{
+		Fraction[] resultRow = new Fraction[a_fromRow.length];
+		
+		for (int i = 0; i < a_fromRow.length; i++)
+		{
+			if (a_subtract)
+			{ 
+				resultRow[i] = a_fromRow[i].subtract(a_toRow[i]);
+			}
+			else
+			{
+				resultRow[i] = a_fromRow[i].add(a_toRow[i]);
+			}
+		}
+		
+		return resultRow;
+		
+	}
+	
+	/**
+	 * Multiplies or divides a row by a Fraction and returns their result.
+	 *
+	 * @param a_row the row
+	 * @param a_multBy the number to multiply by
+	 * @param a_divide if true, divide instead of multiply
+	 * @return the result row
+	 */
+	public Fraction[] multiplyRow(Fraction[] a_row, Fraction a_multBy, boolean a_divide)
+	{
+		if (a_divide) a_multBy = a_multBy.reciprocal(); 
+		
+		Fraction[] newRow = new Fraction[a_row.length];
+		
+		for (int i = 0; i < a_row.length; i++)
+		{
+			newRow[i] = a_row[i].multiply(a_multBy);
+		}
+		
+		return newRow;
+	}
+	
+	/**
+	 * Gets the storage of a matrix if the primitive kernels can run on it.
+	 *
+	 * @param a_matrix the matrix
+	 * @return the primitive storage, or null if the matrix uses another storage or holds big cells
+	 */
+	private static PrimitiveMatrixStorage primitiveStorage(Matrix a_matrix)
+	{
+		return hasPrimitiveKernel(a_matrix) ? (PrimitiveMatrixStorage) inOrder(a_matrix) : null;
+	}
+	
+	/**
+	 * Checks if the primitive kernels can run on a matrix, without copying it.
+	 *
+	 * @param a_matrix the matrix
+	 * @return true if the matrix has primitive storage without big cells
+	 */
+	private static boolean hasPrimitiveKernel(Matrix a_matrix)
+	{
+		MatrixStorage storage = a_matrix.getStorageAsStored();
+		return storage instanceof PrimitiveMatrixStorage && !((PrimitiveMatrixStorage) storage).hasBigCells();
+	}
+	
+	/**
+	 * Gets the storage of a matrix if it lives off-heap and the kernels can stream over it.
+	 *
+	 * @param a_matrix the matrix
+	 * @return the off-heap storage, or null if the matrix uses another storage or holds big cells
+	 */
+	private static OffHeapMatrixStorage offHeapStorage(Matrix a_matrix)
+	{
+		return runsOffHeap(a_matrix) ? (OffHeapMatrixStorage) inOrder(a_matrix) : null;
+	}
+	
+	/**
+	 * Checks if the off-heap kernels can stream over a matrix, without copying it.
+	 *
+	 * @param a_matrix the matrix
+	 * @return true if the matrix lives off-heap without big cells
+	 */
+	private static boolean runsOffHeap(Matrix a_matrix)
+	{
+		MatrixStorage storage = a_matrix.getStorageAsStored();
+		return storage instanceof OffHeapMatrixStorage && !((OffHeapMatrixStorage) storage).hasBigCells();
+	}
+	
+	/**
+	 * Frees the off-heap storage a kernel ran on, if it is a copy made to put the rows in order.
+	 *
+	 * @param a_matrix the matrix the storage came from
+	 * @param a_storage the storage from {@link #offHeapStorage(Matrix)}, or null
+	 */
+	private static void closeCopy(Matrix a_matrix, OffHeapMatrixStorage a_storage)
+	{
+		if (a_storage != null && a_storage != a_matrix.getStorageAsStored()) a_storage.close();
+	}
+	
+	/**
+	 * Gets the sparse storage of a matrix, for the sparse kernels.
+	 *
+	 * @param a_matrix the matrix
+	 * @return the storage, or null if the matrix isn't sparse
+	 */
+	private static SparseMatrixStorage sparseStorage(Matrix a_matrix)
+	{
+		return isSparse(a_matrix) ? (SparseMatrixStorage) inOrder(a_matrix) : null;
+	}
+	
+	/**
+	 * Checks if a matrix is sparse, without copying it.
+	 *
+	 * @param a_matrix the matrix
+	 * @return true if the matrix has sparse storage
+	 */
+	private static boolean isSparse(Matrix a_matrix)
+	{
+		return a_matrix.getStorageAsStored() instanceof SparseMatrixStorage;
+	}
+	
+	/**
+	 * Gets the storage of a matrix with its rows in the order shown, without changing the matrix.
+	 * Rows swapped but not moved yet are moved in a copy, so other threads reading the matrix aren't disturbed.
+	 * Only call it once the kernel is known to run, since the copy is of the whole matrix.
+	 *
+	 * @param a_matrix the matrix
+	 * @return the storage, in order
+	 */
+	private static MatrixStorage inOrder(Matrix a_matrix)
+	{
+		if (!a_matrix.isPermuted()) return a_matrix.getStorageAsStored();
+		
+		return new Matrix(a_matrix).getStorage();
+	}
+	
+	/**
+	 * Copies out every row of a matrix.
+	 *
+	 * @param a_matrix the matrix
+	 * @return the rows
+	 */
+	private static Fraction[][] packRows(Matrix a_matrix)
+	{
+		Fraction[][] rows = new Fraction[a_matrix.getRows()][];
+		for (int row = 0; row < rows.length; row++)
+		{
+			rows[row] = a_matrix.getRow(row);
+		}
+		
+		return rows;
+	}
+	
+	/**
+	 * Counts the multiply-adds of a product, to compare with the parallel threshold.
+	 *
+	 * @param a_LHS the left-hand side
+	 * @param a_RHS the right-hand side
+	 * @return the amount of multiply-adds
+	 */
+	private static long multiplyWork(Matrix a_LHS, Matrix a_RHS)
+	{
+		return (long) a_LHS.getRows() * a_LHS.getColumns() * a_RHS.getColumns();
+	}
+	
+	/**
+	 * Adds the matrices.
+	 *
+	 * @param a_LHS the left-hand side
+	 * @param a_RHS the right-hand side
+	 * @return the sum
+	 * @throws MatrixException the reason the operation can't be performed, if applicable
+	 */
+	public Matrix add(Matrix a_LHS, Matrix a_RHS) throws MatrixException
+	{
+		//Make sure the matrices are of compatible size:
+		if (a_LHS.getRows() != a_RHS.getRows() || a_LHS.getColumns() != a_RHS.getColumns())
+		{
+			throw new MatrixException("Sizes do not match", a_LHS, a_RHS); 
+		}
+		
+		return evaluate(MatrixExpression.of(a_LHS).plus(a_RHS));
+	}
+	
+	/**
+	 * Subtracts the matrices.
+	 *
+	 * @param a_LHS the left-hand side
+	 * @param a_RHS the right-hand side
+	 * @return the difference
+	 * @throws MatrixException the reason the operation can't be performed, if applicable
+	 */
+	public Matrix subtract(Matrix a_LHS, Matrix a_RHS) throws MatrixException
+	{
+		//Make sure the matrices are of compatible size:
+		if (a_LHS.getRows() != a_RHS.getRows() || a_LHS.getColumns() != a_RHS.getColumns())
+		{
+			throw new MatrixException("Sizes do not match", a_LHS, a_RHS); 
+		}
+		
+		return evaluate(MatrixExpression.of(a_LHS).minus(a_RHS));
+	}
+	
+	
+	/**
+	 * Multiply matrices.
+	 *
+	 * @param a_LHS the left-hand side
+	 * @param a_RHS the right-hand side
+	 * @return the product
+	 * @throws MatrixException the reason the operation can't be performed, if applicable
+	 */
+	public Matrix multiply(Matrix a_LHS, Matrix a_RHS) throws MatrixException
+	{
+		//The amount of columns in the LHS must match number of rows in the RHS:
+		if (a_LHS.getColumns() != a_RHS.getRows())
+		{
+			throw new MatrixException("Invalid dimensions", a_LHS, a_RHS);
+		}
+		
+		if (m_approximate)
+		{
+			return new DoubleMatrix(a_LHS).multiply(new DoubleMatrix(a_RHS), poolFor(multiplyWork(a_LHS, a_RHS))).toMatrix();
+		}
+		
+		//Only multiply nonzeros when both sides are sparse:
+		if (isSparse(a_LHS) && isSparse(a_RHS)) return new Matrix(SparseKernels.multiply(sparseStorage(a_LHS), sparseStorage(a_RHS)));
+		
+		//Recurse when asked to and every side is past the crossover. Off-heap operands are too big to copy onto the heap:
+		if (m_multiplyStrategy == MultiplyStrategy.STRASSEN_WINOGRAD
+				&& Math.min(a_LHS.getRows(), Math.min(a_LHS.getColumns(), a_RHS.getColumns())) >= m_strassenCrossover
+				&& !(a_LHS.getStorageAsStored() instanceof OffHeapMatrixStorage) && !(a_RHS.getStorageAsStored() instanceof OffHeapMatrixStorage))
+		{
+			return new Matrix(StrassenMultiply.multiply(packRows(a_LHS), packRows(a_RHS), m_strassenCrossover, poolFor(multiplyWork(a_LHS, a_RHS))));
+		}
+		
+		//Run directly on the long arrays when both sides have them.
+		//Cells that outgrow a long come back as big cells, so this never has to fall back:
+		if (hasPrimitiveKernel(a_LHS) && hasPrimitiveKernel(a_RHS))
+		{
+			return new Matrix(PrimitiveKernels.multiply(primitiveStorage(a_LHS), primitiveStorage(a_RHS), poolFor(multiplyWork(a_LHS, a_RHS))));
+		}
+		
+		//Stream over the rows when both sides live off-heap:
+		if (runsOffHeap(a_LHS) && runsOffHeap(a_RHS))
+		{
+			OffHeapMatrixStorage offHeapLHS = null;
+			OffHeapMatrixStorage offHeapRHS = null;
+			
+			try
+			{
+				offHeapLHS = offHeapStorage(a_LHS);
+				offHeapRHS = offHeapStorage(a_RHS);
+				
+				//Cells that outgrow a long come back as big cells, so this never has to fall back:
+				return new Matrix(PrimitiveKernels.multiply(offHeapLHS, offHeapRHS));
+			}
+			finally
+			{
+				closeCopy(a_LHS, offHeapLHS);
+				closeCopy(a_RHS, offHeapRHS);
+			}
+		}
+		
+		int inner = a_LHS.getColumns();
+		int columns = a_RHS.getColumns();
+		
+		//Pack the LHS rows and the RHS columns once, so every dot product walks two plain arrays:
+		Fraction[][] LHSrows = packRows(a_LHS);
+		
+		Fraction[][] RHScolumns = new Fraction[columns][];
+		for (int column = 0; column < columns; column++)
+		{
+			RHScolumns[column] = a_RHS.getColumn(column);
+		}
+		
+		return new Matrix(multiplyBlocked(LHSrows, RHScolumns, inner, poolFor(multiplyWork(a_LHS, a_RHS))));
+	}
+	
+	/**
+	 * Multiplies several matrices, A1 A2 ... An, grouping them so it takes the fewest scalar multiplications.
+	 *
+	 * @param a_factors the factors, in order. At least two.
+	 * @return the product
+	 * @throws MatrixException the reason the operation can't be performed, if applicable
+	 */
+	public Matrix multiplyChain(Matrix... a_factors) throws MatrixException
+	{
+		return multiplyChain(new MatrixChain(a_factors));
+	}
+	
+	/**
+	 * Multiplies the factors of a planned product in its order. Plan it first to report the order and
+	 * what it saves over multiplying left to right.
+	 *
+	 * @param a_chain the planned product
+	 * @return the product
+	 * @throws MatrixException the reason the operation can't be performed, if applicable
+	 */
+	public Matrix multiplyChain(MatrixChain a_chain) throws MatrixException
+	{
+		return a_chain.multiply(this);
+	}
+	
+	/**
+	 * Multiplies packed rows by packed columns in cache-sized blocks. This is the kernel of the Fraction multiply,
+	 * and the leaf of the Strassen-Winograd recursion.
+	 *
+	 * @param a_LHSrows the rows of the LHS
+	 * @param a_RHScolumns the columns of the RHS
+	 * @param a_inner the amount of columns of the LHS and rows of the RHS
+	 * @param a_pool the pool to split the row blocks over, or null to stay on this thread
+	 * @return the rows of the product
+	 */
+	static Fraction[][] multiplyBlocked(Fraction[][] a_LHSrows, Fraction[][] a_RHScolumns, int a_inner, ForkJoinPool a_pool)
+	{
+		//The new product will have the rows of the LHS and the columns of the RHS.
+		Fraction[][] product = new Fraction[a_LHSrows.length][a_RHScolumns.length];
+		
+		//Blocks of rows are independent, so they can go to different threads:
+		RowBlockTask.run(a_pool, new MultiplyRows(a_LHSrows, a_RHScolumns, a_inner, product), a_LHSrows.length, MULTIPLY_BLOCK);
+		
+		return product;
+	}
+	
+	
+	/**
+	 * Divide matrices.
+	 * Note: Matrix definition does not formally exist.
+	 * For consistency's sake, we will define matrix division as multiplying a_LHS by
+	 * the inverse of a_RHS. It is computed with one LU decomposition and a solve, without forming the inverse.
+	 * 
+	 * @param a_LHS the left-hand side
+	 * @param a_RHS the right-hand side
+	 * @return the quotient
+	 * @throws MatrixException the reason the operation can't be performed, if applicable
+	 */
+	
+	public Matrix divide(Matrix a_LHS, Matrix a_RHS) throws MatrixException
+	{
+		if (!a_RHS.isSquareMatrix())
+		{
+			throw new MatrixException("Not a square matrix", a_RHS);
+		}
+		
+		if (a_LHS.getColumns() != a_RHS.getRows())
+		{
+			throw new MatrixException("Invalid dimensions", a_LHS, a_RHS);
+		}
+		
+		//The quotient X solves X * RHS = LHS. Substituting with the factors of RHS is cheaper than
+		//inverting RHS and then multiplying, and reuses the factors kept from earlier operations on RHS.
+		if (m_approximate)
+		{
+			DoubleLUDecomposition factors = doubleFactors(a_RHS);
+			if (factors.isSingular()) throw new MatrixException("Singular matrix, not invertible", a_RHS);
+			
+			return factors.divide(new DoubleMatrix(a_LHS)).toMatrix();
+		}
+		
+		//A kept inverse is quicker to multiply by than to substitute, since the product sums with deferred reduction:
+		Matrix inverse = m_cache.get(a_RHS).getInverse();
+		if (inverse != null) return multiply(a_LHS, inverse);
+		
+		LUDecomposition factors = decompose(a_RHS);
+		if (factors.isSingular()) throw new MatrixException("Singular matrix, not invertible", a_RHS);
+		
+		long size = a_RHS.getRows();
+		
+		return factors.divide(a_LHS, poolFor(size * size * a_LHS.getRows()));
+	}
+	
+	/**
+	 * Scalar multiply a matrix.
+	 *
+	 * @param a_scalar the scalar
+	 * @param a_matrix the matrix
+	 * @return the result matrix
+	 * @throws MatrixException the reason the operation can't be performed, if applicable
+	 */
+	public Matrix scalarMultiply(Fraction a_scalar, Matrix a_matrix) throws MatrixException
+	{	
+		if (a_scalar == null)
+		{
+			throw new MatrixException("No scalar set for operation");
+		}
+		
+		return evaluate(MatrixExpression.of(a_matrix).times(a_scalar));
+	}
+	
+	/**
+	 * Evaluates an element-wise expression, such as 2A + B - C, in one pass. Each cell of the result is
+	 * summed over the terms in a {@link FractionAccumulator}, so no matrix is made in between and only
+	 * the cells of the result become Fractions. Add, subtract and scalar multiply all come through here.
+	 *
+	 * @param a_expression the expression
+	 * @return the result
+	 */
+	public Matrix evaluate(MatrixExpression a_expression)
+	{
+		int rows = a_expression.getRows();
+		int columns = a_expression.getColumns();
+		int amtTerms = a_expression.getTermCount();
+		
+		//Every term cancelled out:
+		if (amtTerms == 0) return new Matrix(rows, columns);
+		
+		if (m_approximate) return evaluateDoubles(a_expression);
+		
+		SparseMatrixStorage[] sparseTerms = new SparseMatrixStorage[amtTerms];
+		Fraction[] coefficients = new Fraction[amtTerms];
+		boolean allSparse = true;
+		
+		for (int term = 0; term < amtTerms; term++)
+		{
+			coefficients[term] = a_expression.getCoefficient(term);
+			allSparse &= isSparse(a_expression.getMatrix(term));
+		}
+		
+		//Only put the terms' rows in order once the sparse kernels are sure to run on them:
+		for (int term = 0; allSparse && term < amtTerms; term++)
+		{
+			sparseTerms[term] = sparseStorage(a_expression.getMatrix(term));
+		}
+		
+		//A plain sum or difference of two has kernels of its own for when both sides share a storage:
+		if (amtTerms == 2 && coefficients[0].isOne() && (coefficients[1].isOne() || coefficients[1].equals(Fraction.MINUS_ONE)))
+		{
+			Matrix LHS = a_expression.getMatrix(0);
+			Matrix RHS = a_expression.getMatrix(1);
+			boolean subtract = !coefficients[1].isOne();
+			
+			//Merging copies the nonzeros that only one side has without any arithmetic:
+			if (allSparse) return new Matrix(SparseKernels.add(sparseTerms[0], sparseTerms[1], subtract));
+			
+			if (hasPrimitiveKernel(LHS) && hasPrimitiveKernel(RHS))
+			{
+				try
+				{
+					return new Matrix(PrimitiveKernels.add(primitiveStorage(LHS), primitiveStorage(RHS), subtract, poolFor((long) rows * columns)));
+				}
+				catch (ArithmeticException exception)
+				{
+					//A cell outgrew a long. Fall through to the Fraction path, which promotes it.
+				}
+			}
+			
+			if (runsOffHeap(LHS) && runsOffHeap(RHS))
+			{
+				OffHeapMatrixStorage offHeapLHS = null;
+				OffHeapMatrixStorage offHeapRHS = null;
+				
+				try
+				{
+					offHeapLHS = offHeapStorage(LHS);
+					offHeapRHS = offHeapStorage(RHS);
+					
+					return new Matrix(PrimitiveKernels.add(offHeapLHS, offHeapRHS, subtract));
+				}
+				catch (ArithmeticException exception)
+				{
+					//A cell outgrew a long. Fall through to the Fraction path, which promotes it.
+				}
+				finally
+				{
+					closeCopy(LHS, offHeapLHS);
+					closeCopy(RHS, offHeapRHS);
+				}
+			}
+		}
+		
+		//Sum the nonzeros of each row when every term is sparse:
+		if (allSparse) return new Matrix(SparseKernels.combine(sparseTerms, coefficients));
+		
+		//Otherwise sum the terms of each cell, a range of rows at a time:
+		Fraction[][] values = new Fraction[rows][];
+		RowBlockTask.run(poolFor((long) rows * columns * amtTerms), new LinearCombinationRows(a_expression, values), rows, MULTIPLY_BLOCK);
+		
+		if (amtTerms > 1) return new Matrix(values);
+		
+		//Copy the matrix of a single term, so the result keeps its storage, then fill in the products:
+		Matrix scaled = new Matrix(a_expression.getMatrix(0));
+		
+		for (int row = 0; row < rows; row++)
+		{
+			scaled.setRow(row, values[row]);
+		}
+		
+		return scaled;
+	}
+	
+	/**
+	 * Evaluates an element-wise expression in doubles, reading each cell of each term straight into the sum.
+	 *
+	 * @param a_expression the expression, with at least one term
+	 * @return the result, rounded back to Fractions
+	 */
+	private static Matrix evaluateDoubles(MatrixExpression a_expression)
+	{
+		int rows = a_expression.getRows();
+		int columns = a_expression.getColumns();
+		double[] values = new double[rows * columns];
+		
+		for (int term = 0; term < a_expression.getTermCount(); term++)
+		{
+			Matrix matrix = a_expression.getMatrix(term);
+			double coefficient = a_expression.getCoefficient(term).toDouble();
+			
+			for (int row = 0; row < rows; row++)
+			{
+				for (int column = 0; column < columns; column++)
+				{
+					values[row * columns + column] += coefficient * matrix.getCell(row, column).toDouble();
+				}
+			}
+		}
+		
+		return new DoubleMatrix(rows, columns, values).toMatrix();
+	}
+	
+	/**
+	 * Reduced-echelon form of a matrix.
+	 *
+	 * @param a_matrix the matrix
+	 * @return the matrix in REF.
+	 */
+	public Matrix REF(Matrix a_matrix)
+	{
+		FactorizationCache.Entry cached = m_cache.get(a_matrix);
+		
+		if (cached.getREF() == null) cached.setREF(echelonForm(a_matrix, false));
+		
+		return handOut(cached, cached.getREF());
+	}
+	
+	/**
+	 * Row-reduced Echelon Form.
+	 *
+	 * @param a_matrix the matrix
+	 * @return the matrix in RREF.
+	 */
+	public Matrix RREF(Matrix a_matrix)
+	{
+		FactorizationCache.Entry cached = m_cache.get(a_matrix);
+		
+		if (cached.getRREF() == null) cached.setRREF(echelonForm(a_matrix, true));
+		
+		return handOut(cached, cached.getRREF());
+	}
+	
+	/**
+	 * Row-reduces a matrix into REF or RREF.
+	 *
+	 * @param a_matrix the matrix
+	 * @param a_reduced if true, create zeroes above each leading one as well (RREF)
+	 * @return the matrix in REF or RREF
+	 */
+	private Matrix echelonForm(Matrix a_matrix, boolean a_reduced)
+	{
+		//Only touch nonzeros when the matrix is sparse:
+		SparseMatrixStorage sparse = sparseStorage(a_matrix);
+		if (sparse != null) return new Matrix(SparseKernels.echelon(sparse, a_reduced));
+		
+		//Run directly on the long arrays when the matrix has them:
+		PrimitiveMatrixStorage primitive = primitiveStorage(a_matrix);
+		
+		if (primitive != null)
+		{
+			try
+			{
+				return new Matrix(PrimitiveKernels.echelon(primitive, a_reduced));
+			}
+			catch (ArithmeticException exception)
+			{
+				//A cell outgrew a long. Fall through to the Fraction path, which promotes it.
+			}
+		}
+		
+		//Stream over the rows when the matrix lives off-heap:
+		OffHeapMatrixStorage offHeap = offHeapStorage(a_matrix);
+		
+		if (offHeap != null)
+		{
+			try
+			{
+				return new Matrix(PrimitiveKernels.echelon(offHeap, a_reduced));
+			}
+			catch (ArithmeticException exception)
+			{
+				//A cell outgrew a long. Fall through to the Fraction path, which promotes it.
+			}
+			finally
+			{
+				closeCopy(a_matrix, offHeap);
+			}
+		}
+		
+		int numRows = a_matrix.getRows();
+		int numCols = a_matrix.getColumns();
+		
+		//Copy the original matrix:
+		Matrix ref = new Matrix(a_matrix);
+		
+		//The row that gets the next leading one:
+		int rowIndex = 0;
+		
+		//Go through each column: start at the left:
+		for (int columnIndex = 0; columnIndex < numCols && rowIndex < numRows; columnIndex++)
+		{
+			//Find the first row at or below the current one without a zero in this column:
+			int pivotIndex = rowIndex;
+			while (pivotIndex < numRows && ref.getCell(pivotIndex, columnIndex).isZero())
+			{
+				pivotIndex++;
+			}
+			
+			//Column of zeroes from here down. No leading one in this column:
+			if (pivotIndex == numRows) continue;
+			
+			//Rows with leading zeroes must be moved down.
+			//Rows of zeroes never get a leading one, so they end up in the bottom spots:
+			if (pivotIndex != rowIndex) ref.swapRows(rowIndex, pivotIndex);
+			
+			//Create leading one Step:
+			//Get the cell to create the leading one
+			Fraction cellValue = ref.getCell(rowIndex, columnIndex);
+			
+			//divide the whole row by that value to create a one:
+			Fraction[] leadOneRow = multiplyRow(ref.getRow(rowIndex), cellValue, true);
+			ref.setRow(rowIndex, leadOneRow);
+			
+			//Create zeroes below step (and above, for RREF):
+			//Find value to create the zero. Multiply lead one row by this value
+			//Then subtract the produced row from the current row
+			for (int j = a_reduced ? 0 : rowIndex + 1; j < numRows; j++)
+			{
+				if (j == rowIndex) continue;
+				
+				Fraction multVal = ref.getCell(j, columnIndex);
+				if (multVal.isZero()) continue;
+				
+				//Fraction rows are slow to eliminate, so check once per row:
+				MatrixTask.checkpoint(rowIndex, Math.min(numRows, numCols));
+				
+				Fraction[] producedRow = multiplyRow(leadOneRow, multVal, false);
+				Fraction[] resultRow = addRow(ref.getRow(j), producedRow, true);
+				
+				ref.setRow(j, resultRow);
+			}
+			
+			rowIndex++;
+		}
+		
+		return ref;	
+	}
+	
+	/**
+	 * Invert a matrix.
+	 *
+	 * @param a_matrix the matrix
+	 * @return the inverse of the matrix
+	 * @throws MatrixException the reason the operation can't be performed, if applicable
+	 */
+	public Matrix invert(Matrix a_matrix) throws MatrixException
+	{
+		//Check for square matrix:
+		if (!a_matrix.isSquareMatrix())
+		{
+			throw new MatrixException("Not a square matrix", a_matrix);
+		}
+		
+		if (m_approximate)
+		{
+			DoubleLUDecomposition factors = doubleFactors(a_matrix);
+			if (factors.isSingular()) throw new MatrixException("Singular matrix, not invertible", a_matrix);
+			
+			return factors.inverse().toMatrix();
+		}
+		
+		FactorizationCache.Entry cached = m_cache.get(a_matrix);
+		
+		if (cached.getInverse() == null)
+		{
+			//A determinant kept from before shows a singular matrix without factoring it:
+			if (cached.getDeterminant() != null && cached.getDeterminant().isZero())
+			{
+				throw new MatrixException("Singular matrix, not invertible", a_matrix);
+			}
+			
+			//The factorization shows whether the matrix is singular, so there is no separate determinant to take.
+			//The inverse is then one solve against the identity.
+			LUDecomposition factors = decompose(a_matrix);
+			if (factors.isSingular()) throw new MatrixException("Singular matrix, not invertible", a_matrix);
+			
+			long size = a_matrix.getRows();
+			cached.setInverse(factors.inverse(poolFor(size * size * size)));
+		}
+		
+		return handOut(cached, cached.getInverse());
+	}
+	
+	/**
+	 * Solves AX = B for X, for every column of B at once.
+	 * When A is square and nonsingular, it is factored once with an LU decomposition, and each column of B
+	 * is one forward and one back substitution. Otherwise the system is over- or under-determined, or singular,
+	 * and it is solved from the RREF of [A | B], with every free variable 0.
+	 *
+	 * @param a_LHS A, the coefficients
+	 * @param a_RHS B, with as many rows as A
+	 * @return X, with as many rows as A has columns and as many columns as B
+	 * @throws MatrixException the reason the system can't be solved, if applicable
+	 */
+	public Matrix solve(Matrix a_LHS, Matrix a_RHS) throws MatrixException
+	{
+		if (a_LHS.getRows() != a_RHS.getRows())
+		{
+			throw new MatrixException("Invalid dimensions", a_LHS, a_RHS);
+		}
+		
+		if (a_LHS.isSquareMatrix())
+		{
+			if (m_approximate)
+			{
+				DoubleLUDecomposition factors = doubleFactors(a_LHS);
+				if (!factors.isSingular()) return factors.solve(new DoubleMatrix(a_RHS)).toMatrix();
+			}
+			else
+			{
+				LUDecomposition factors = decompose(a_LHS);
+				long size = a_LHS.getRows();
+				
+				if (!factors.isSingular()) return factors.solve(a_RHS, poolFor(size * size * a_RHS.getColumns()));
+			}
+		}
+		
+		return solveRREF(a_LHS, a_RHS);
+	}
+	
+	/**
+	 * Solves AX = B from the RREF of [A | B], for systems without a unique solution.
+	 * Each nonzero row of the RREF sets the variable of its leading 1 to the right-hand side, and the
+	 * variables without a leading 1 are free and set to 0. Always exact.
+	 *
+	 * @param a_LHS A, the coefficients
+	 * @param a_RHS B, with as many rows as A
+	 * @return X, a solution with every free variable 0
+	 * @throws MatrixException if the system is inconsistent
+	 */
+	private Matrix solveRREF(Matrix a_LHS, Matrix a_RHS) throws MatrixException
+	{
+		int amtRows = a_LHS.getRows();
+		int amtColumns = a_LHS.getColumns();
+		int width = a_RHS.getColumns();
+		
+		//View the augmented matrix [A | B]. The elimination fills in its own copy of it:
+		Matrix augmented = new Matrix(MatrixView.beside(a_LHS, a_RHS));
+		
+		//The augmented matrix is thrown away after, so don't keep its RREF:
+		augmented = echelonForm(augmented, true);
+		
+		Matrix solution = new Matrix(amtColumns, width);
+		
+		for (int row = 0; row < amtRows; row++)
+		{
+			int leading = 0;
+			while (leading < amtColumns + width && augmented.getCell(row, leading).isZero()) leading++;
+			
+			//The rest of the rows are zeroes:
+			if (leading == amtColumns + width) break;
+			
+			//A leading 1 on the right-hand side reads 0 = 1:
+			if (leading >= amtColumns)
+			{
+				throw new MatrixException("Inconsistent system, no solution", a_LHS, a_RHS);
+			}
+			
+			for (int column = 0; column < width; column++)
+			{
+				solution.setCell(leading, column, augmented.getCell(row, amtColumns + column));
+			}
+		}
+		
+		return solution;
+	}
+	
+	/**
+	 * Factors a matrix into PA = LU with row pivoting. The determinant, the rank, solves and the inverse
+	 * can all be read from the one factorization, which is kept until the matrix is changed.
+	 *
+	 * @param a_matrix the matrix
+	 * @return the factorization
+	 */
+	public LUDecomposition decompose(Matrix a_matrix)
+	{
+		FactorizationCache.Entry cached = m_cache.get(a_matrix);
+		
+		if (cached.getFactors() == null) cached.setFactors(new LUDecomposition(a_matrix));
+		
+		return cached.getFactors();
+	}
+	
+	/**
+	 * Determinant of a 2x2 matrix.
+	 *
+	 * @param a_matrix the 2x2 matrix
+	 * @return the determinant
+	 * @throws MatrixException the reason the operation can't be performed, if applicable
+	 */
+	public Fraction determinant2by2(Matrix a_matrix) throws MatrixException
+	{
+		if (a_matrix.getRows() != 2 && a_matrix.getColumns() != 2)
+		{
+			throw new MatrixException("Not a 2 by 2 matrix", a_matrix);
+		}
+		
+		Fraction LHS = a_matrix.getCell(0, 0).multiply(a_matrix.getCell(1, 1));
+		Fraction RHS = a_matrix.getCell(0, 1).multiply(a_matrix.getCell(1, 0));
+		return LHS.subtract(RHS);
+	}
+	
+	/**
+	 * Determinant of an n x n matrix by Bareiss fraction-free elimination.
+	 * Each row is first multiplied by the LCM of its denominators, so the elimination runs on integers only.
+	 * Every division in the elimination is exact, and the entries never grow past the size of a minor,
+	 * so this takes O(n^3) integer operations. The row scales are divided back out at the end.
+	 *
+	 * @param a_matrix the square matrix
+	 * @return the determinant
+	 * @throws MatrixException the reason the operation can't be performed, if applicable
+	 */
+	public Fraction determinantBareiss(Matrix a_matrix) throws MatrixException
+	{
+		if (!a_matrix.isSquareMatrix())
+		{
+			throw new MatrixException("Not a square matrix", a_matrix);
+		}
+		
+		int size = a_matrix.getRows();
+		BigInteger[][] integers = new BigInteger[size][size];
+		
+		//Divide out the denominators up front: scale each row to integers, remembering the total scale.
+		BigInteger scale = BigInteger.ONE;
+		
+		for (int row = 0; row < size; row++)
+		{
+			BigInteger rowScale = BigInteger.ONE;
+			
+			for (int column = 0; column < size; column++)
+			{
+				BigInteger denominator = a_matrix.getCell(row, column).getBigDenominator();
+				if (denominator.equals(BigInteger.ONE)) continue;
+				
+				rowScale = rowScale.divide(rowScale.gcd(denominator)).multiply(denominator);
+			}
+			
+			for (int column = 0; column < size; column++)
+			{
+				Fraction cell = a_matrix.getCell(row, column);
+				integers[row][column] = cell.getBigNumerator().multiply(rowScale.divide(cell.getBigDenominator()));
+			}
+			
+			scale = scale.multiply(rowScale);
+		}
+		
+		boolean negate = false;
+		BigInteger previousPivot = BigInteger.ONE;
+		
+		for (int pivot = 0; pivot < size - 1; pivot++)
+		{
+			//Find a row at or below the pivot without a zero in the pivot column:
+			if (integers[pivot][pivot].signum() == 0)
+			{
+				int swapIndex = pivot + 1;
+				while (swapIndex < size && integers[swapIndex][pivot].signum() == 0)
+				{
+					swapIndex++;
+				}
+				
+				//Column of zeroes from here down: the matrix is singular.
+				if (swapIndex == size) return Fraction.ZERO;
+				
+				//Swapping two rows negates the determinant:
+				BigInteger[] pivotRow = integers[pivot];
+				integers[pivot] = integers[swapIndex];
+				integers[swapIndex] = pivotRow;
+				negate = !negate;
+			}
+			
+			BigInteger pivotValue = integers[pivot][pivot];
+			
+			//Each entry below and right of the pivot becomes the 2x2 determinant with the pivot,
+			//divided exactly by the previous pivot:
+			for (int row = pivot + 1; row < size; row++)
+			{
+				//Big integer rows are slow to eliminate, so check once per row:
+				MatrixTask.checkpoint(pivot, size - 1);
+				
+				BigInteger multValue = integers[row][pivot];
+				
+				for (int column = pivot + 1; column < size; column++)
+				{
+					BigInteger value = pivotValue.multiply(integers[row][column]);
+					if (multValue.signum() != 0) value = value.subtract(multValue.multiply(integers[pivot][column]));
+					
+					integers[row][column] = value.divide(previousPivot);
+				}
+			}
+			
+			previousPivot = pivotValue;
+		}
+		
+		//The last pivot is the determinant of the scaled matrix:
+		BigInteger determinant = integers[size - 1][size - 1];
+		if (negate) determinant = determinant.negate();
+		
+		return BigFraction.valueOf(determinant, scale);
+	}
+	
+	/**
+	 * Determinant of an n x n matrix.
+	 * Cofactor expansion is used up to 3x3, and Bareiss elimination past that.
+	 *
+	 * @param a_matrix the matrix
+	 * @return the determinant
+	 * @throws MatrixException the reason the operation can't be performed, if applicable
+	 */
+	public Fraction determinant(Matrix a_matrix) throws MatrixException
+	{
+		if (!a_matrix.isSquareMatrix())
+		{
+			throw new MatrixException("Not a square matrix", a_matrix);
+		}
+		
+		if (m_approximate) return DoubleMatrix.toFraction(doubleFactors(a_matrix).getDeterminant());
+		
+		FactorizationCache.Entry cached = m_cache.get(a_matrix);
+		
+		if (cached.getDeterminant() == null)
+		{
+			//A kept LU decomposition has it as the product of its pivots:
+			LUDecomposition factors = cached.getFactors();
+			cached.setDeterminant(factors != null ? factors.getDeterminant() : computeDeterminant(a_matrix));
+		}
+		
+		return cached.getDeterminant();
+	}
+	
+	/**
+	 * Calculates the determinant of a square matrix, without looking at kept results.
+	 *
+	 * @param a_matrix the square matrix
+	 * @return the determinant
+	 * @throws MatrixException the reason the operation can't be performed, if applicable
+	 */
+	private Fraction computeDeterminant(Matrix a_matrix) throws MatrixException
+	{
+		int amtRows = a_matrix.getRows();
+		
+		//The determinant of a 1x1 matrix is its only cell:
+		if (amtRows == 1) return a_matrix.getCell(0, 0);
+		
+		//Rows swapped but not moved yet only change the sign, so take the rows as they are stored:
+		if (a_matrix.isPermuted())
+		{
+			Fraction determinant = computeDeterminant(a_matrix.storedOrder());
+			return (a_matrix.getPermutationSign() < 0) ? determinant.negate() : determinant;
+		}
+		
+		//Eliminate in a fill-reducing order when the matrix is sparse:
+		SparseMatrixStorage sparse = sparseStorage(a_matrix);
+		if (sparse != null) return SparseKernels.determinant(sparse);
+		
+		//Run directly on the long arrays when the matrix has them:
+		PrimitiveMatrixStorage primitive = primitiveStorage(a_matrix);
+		
+		if (primitive != null)
+		{
+			try
+			{
+				return PrimitiveKernels.determinant(primitive);
+			}
+			catch (ArithmeticException exception)
+			{
+				//A value outgrew a long. Fall through to the Fraction path, which promotes it.
+			}
+		}
+		
+		//Stream over the rows when the matrix lives off-heap:
+		OffHeapMatrixStorage offHeap = offHeapStorage(a_matrix);
+		
+		if (offHeap != null)
+		{
+			try
+			{
+				return PrimitiveKernels.determinant(offHeap);
+			}
+			catch (ArithmeticException exception)
+			{
+				//A value outgrew a long. Fall through to the Fraction path, which promotes it.
+			}
+		}
+		
+		if (amtRows == 2) return determinant2by2(a_matrix);
+		
+		//Cofactor expansion is O(n!). Past 3x3, eliminate instead:
+		if (amtRows > 3)
+		{
+			//Big entries grow too fast for exact elimination. Work modulo primes instead:
+			if (ModularEngine.exceedsThreshold(a_matrix))
+			{
+				return new ModularEngine(a_matrix, poolFor((long) amtRows * amtRows * amtRows)).determinant();
+			}
+			
+			return determinantBareiss(a_matrix);
+		}
+		
+		Fraction determinant = Fraction.ZERO;
+		
+		int highestCount = 0;
+		int highestIndex = 0;
+		boolean pivotIsRow = true;
+		
+		//Optimization: Pick the row or column with most zeroes:
+		for (int index = 0; index < amtRows; index++)
+		{
+			int amountZeroes = a_matrix.amountZeroesInRow(index);
+			if (amountZeroes > highestCount)
+			{
+				highestCount = amountZeroes;
+				highestIndex = index;
+				pivotIsRow = true;
+			}
+			
+			amountZeroes = a_matrix.amountZeroesInColumn(index);
+			if (amountZeroes > highestCount)
+			{
+				highestCount = amountZeroes;
+				highestIndex = index;
+				pivotIsRow = false;
+			}
+			
+		}
+		
+		//We now have the row/column to pivot on.
+		//The below index is the row/column to delete! It may refer to column OR row index.
+		//If isRow is true, then it refers to column. If false, it refers to row.
+		for (int index = 0; index < amtRows; index++)
+		{
+			Fraction multValue;
+			
+			//Get the value from the pivot row/column:
+			//If the pivot is a row, the highestIndex refers to the row index
+			if (pivotIsRow) multValue = a_matrix.getCell(highestIndex, index);
+			else multValue = a_matrix.getCell(index, highestIndex);
+			
+			//If the value to multiply by is a 0, we can just skip this iteration:
+			if (multValue.isZero()) continue;
+			
+			//The submatrix of dimension n-1 is a view, instead of a copy of the cells:
+			//If the pivot is a row, delete it and the index column. If it is a column, delete it and the index row.
+			Matrix subMatrix = new Matrix(pivotIsRow ? MatrixView.minor(a_matrix, highestIndex, index) : MatrixView.minor(a_matrix, index, highestIndex));
+			
+			//Calculate the determinant of submatrices:
+			Fraction innerDeterminant = computeDeterminant(subMatrix);
+			
+			//Chain the determinants:
+			
+			//If the index and highestIndex added together is an odd number,
+			//We subtract the value of multValue multiplied by the innerDeterminant.
+			if ((index + highestIndex) % 2 != 0) multValue = multValue.negate();
+			
+			innerDeterminant = multValue.multiply(innerDeterminant);
+			
+			//Finally, add all of this to the total determinant:
+			determinant = determinant.add(innerDeterminant);
+		}
+		
+		//After all of the submatrices have been added together, return the chained result as the determinant:
+		return determinant;
+	}
+	
+	/**
+	 * Rank of a matrix.
+	 *
+	 * @param a_matrix the matrix
+	 * @return the rank
+	 */
+	public Fraction rank(Matrix a_matrix)
+	{
+		if (m_approximate) return Fraction.valueOf(doubleFactors(a_matrix).getRank());
+		
+		FactorizationCache.Entry cached = m_cache.get(a_matrix);
+		
+		if (cached.getRank() == null) cached.setRank(computeRank(a_matrix, cached));
+		
+		return cached.getRank();
+	}
+	
+	/**
+	 * Calculates the rank of a matrix, reading it from a kept LU decomposition or echelon form if there is one.
+	 *
+	 * @param a_matrix the matrix
+	 * @param a_cached the results kept for the matrix
+	 * @return the rank
+	 */
+	private Fraction computeRank(Matrix a_matrix, FactorizationCache.Entry a_cached)
+	{
+		if (a_cached.getFactors() != null) return Fraction.valueOf(a_cached.getFactors().getRank());
+		
+		Matrix ref = a_cached.getREF() != null ? a_cached.getREF() : a_cached.getRREF();
+		
+		//Eliminate in a fill-reducing order when the matrix is sparse. The order of the rows doesn't change the rank:
+		if (ref == null && isSparse(a_matrix)) return Fraction.valueOf(SparseKernels.rank((SparseMatrixStorage) a_matrix.getStorageAsStored()));
+		
+		//Big entries grow too fast for exact elimination. Work modulo primes instead:
+		if (ref == null)
+		{
+			if (ModularEngine.exceedsThreshold(a_matrix))
+			{
+				long work = (long) a_matrix.getRows() * a_matrix.getRows() * a_matrix.getColumns();
+				return Fraction.valueOf(new ModularEngine(a_matrix, poolFor(work)).rank());
+			}
+			
+			//Without a primitive kernel to run REF, count the pivots of an LU decomposition.
+			//It skips scaling every row to a leading 1, so it takes about half the arithmetic of REF:
+			if (!hasPrimitiveKernel(a_matrix) && !runsOffHeap(a_matrix))
+			{
+				return Fraction.valueOf(decompose(a_matrix).getRank());
+			}
+			
+			ref = echelonForm(a_matrix, false);
+			a_cached.setREF(ref);
+		}
+		
+		//Rank will always be a positive integer.
+		int rank = 0;
+		
+		//It is simply the amount of non-zero rows in the matrix's REF or RREF.
+		for (int rowIndex = 0; rowIndex < a_matrix.getRows(); rowIndex++)
+		{
+			if (!ref.isRowZeroes(rowIndex)) rank++;
+		}
+		
+		return Fraction.valueOf(rank);
+	}
+	
+	/**
+	 * Trace of a matrix.
+	 *
+	 * @param a_matrix the matrix
+	 * @return the trace
+	 * @throws MatrixException the reason the operation can't be performed, if applicable
+	 */
+	public Fraction trace(Matrix a_matrix) throws MatrixException
+	{
+		if (!a_matrix.isSquareMatrix())
+		{
+			throw new MatrixException("Not a square matrix", a_matrix);
+		}
+		
+		//Only look up the diagonal when the matrix is sparse:
+		SparseMatrixStorage sparse = sparseStorage(a_matrix);
+		if (sparse != null) return SparseKernels.trace(sparse);
+		
+		Fraction trace = Fraction.ZERO;
+		
+		//Add up the diagonals of the matrix.
+		for (int index = 0; index < a_matrix.getRows(); index++)
+		{
+			trace = trace.add(a_matrix.getCell(index, index));
+		}
+		
+		return trace;
+	}
+	
+	/**
+	 * Transpose a matrix.
+	 *
+	 * @param a_matrix the matrix
+	 * @return the transpose
+	 */
+	public Matrix transpose(Matrix a_matrix) 
+	{
+		if (m_approximate) return new DoubleMatrix(a_matrix).transpose().toMatrix();
+		
+		//Place each nonzero once when the matrix is sparse:
+		SparseMatrixStorage sparse = sparseStorage(a_matrix);
+		if (sparse != null) return new Matrix(SparseKernels.transpose(sparse));
+		
+		int amtRows = a_matrix.getRows();
+		int amtColumns = a_matrix.getColumns();
+		
+		//Create a new matrix with opposite dimensions (IE 2x3 is now 3x2).
+		Matrix transpose = new Matrix(amtColumns, amtRows);
+		
+		//Invert each row with each column, this is the transpose.
+		for (int rowIndex = 0; rowIndex < amtColumns; rowIndex++)
+		{
+			for (int columnIndex = 0; columnIndex < amtRows; columnIndex++)
+			{
+				Fraction current = a_matrix.getCell(columnIndex, rowIndex);
+				transpose.setCell(rowIndex, columnIndex, current);
+			}
+		}
+		
+		return transpose;
+	}
+	
+	/**
+	 * Checks that an operation can be performed by name on an amount of matrices.
+	 *
+	 * @param a_operation the name of the operation
+	 * @param a_operands the amount of matrices
+	 * @throws IllegalArgumentException if the operation is unknown or takes another amount of matrices
+	 */
+	public static void checkOperation(String a_operation, int a_operands)
+	{
+		if (UNARY_OPERATIONS.contains(a_operation))
+		{
+			if (a_operands != 1) throw new IllegalArgumentException(a_operation + " takes one matrix");
+		}
+		else if (BINARY_OPERATIONS.contains(a_operation))
+		{
+			if (a_operands != 2) throw new IllegalArgumentException(a_operation + " takes two matrices");
+		}
+		else if (a_operation.equals("multiply"))
+		{
+			if (a_operands < 2) throw new IllegalArgumentException("multiply takes two or more matrices");
+		}
+		else
+		{
+			throw new IllegalArgumentException("Unknown operation " + a_operation);
+		}
+	}
+	
+	/**
+	 * Performs an operation by name: det, rank, trace, ref, rref, inverse or transpose of one matrix, add,
+	 * subtract, divide or solve of two, or multiply of two or more, in the cheapest order.
+	 *
+	 * @param a_operation the name of the operation
+	 * @param a_operands the matrices
+	 * @return the result, a Matrix or a Fraction
+	 * @throws MatrixException the reason the operation can't be performed, if applicable
+	 * @throws IllegalArgumentException if the operation is unknown or takes another amount of matrices
+	 */
+	public Object perform(String a_operation, Matrix... a_operands) throws MatrixException
+	{
+		checkOperation(a_operation, a_operands.length);
+		
+		switch (a_operation)
+		{
+			case "det": return determinant(a_operands[0]);
+			case "rank": return rank(a_operands[0]);
+			case "trace": return trace(a_operands[0]);
+			case "ref": return REF(a_operands[0]);
+			case "rref": return RREF(a_operands[0]);
+			case "inverse": return invert(a_operands[0]);
+			case "transpose": return transpose(a_operands[0]);
+			case "add": return add(a_operands[0], a_operands[1]);
+			case "subtract": return subtract(a_operands[0], a_operands[1]);
+			case "divide": return divide(a_operands[0], a_operands[1]);
+			case "solve": return solve(a_operands[0], a_operands[1]);
+			default:
+			{
+				if (a_operands.length == 2) return multiply(a_operands[0], a_operands[1]);
+				
+				return multiplyChain(a_operands);
+			}
+		}
+	}
+	
+	/**
+	 * Sums the scaled terms of an element-wise expression over a range of rows, one cell at a time.
+	 */
+	private static final class LinearCombinationRows implements RowOperation
+	{
+		
+		/** The matrices of the terms. */
+		private final Matrix[] m_matrices;
+		
+		/** The coefficient of each term. */
+		private final Fraction[] m_coefficients;
+		
+		/** For each term, its row-major numerators if it and its coefficient can be read as longs, or null to read its cells. */
+		private final long[][] m_numerators;
+		
+		/** For each term, its row-major denominators, alongside the numerators. */
+		private final long[][] m_denominators;
+		
+		/** If true, the expression is a plain sum or difference of two Fraction matrices, which Fraction.add does faster. */
+		private final boolean m_plain;
+		
+		/** The amount of columns. */
+		private final int m_columns;
+		
+		/** The rows of the result. */
+		private final Fraction[][] m_result;
+		
+		/**
+		 * Instantiates a new sum over rows. Primitive terms are looked up here, on the calling thread.
+		 *
+		 * @param a_expression the expression
+		 * @param a_result the rows of the result, filled in by row
+		 */
+		LinearCombinationRows(MatrixExpression a_expression, Fraction[][] a_result)
+		{
+			int amtTerms = a_expression.getTermCount();
+			m_matrices = new Matrix[amtTerms];
+			m_coefficients = new Fraction[amtTerms];
+			m_numerators = new long[amtTerms][];
+			m_denominators = new long[amtTerms][];
+			m_columns = a_expression.getColumns();
+			m_result = a_result;
+			
+			for (int term = 0; term < amtTerms; term++)
+			{
+				m_matrices[term] = a_expression.getMatrix(term);
+				m_coefficients[term] = a_expression.getCoefficient(term);
+				
+				PrimitiveMatrixStorage primitive = m_coefficients[term].isBig() ? null : primitiveStorage(m_matrices[term]);
+				
+				if (primitive != null)
+				{
+					m_numerators[term] = primitive.getNumerators();
+					m_denominators[term] = primitive.getDenominators();
+				}
+			}
+			
+			m_plain = amtTerms == 2 && m_numerators[0] == null && m_numerators[1] == null && m_coefficients[0].isOne()
+					&& (m_coefficients[1].isOne() || m_coefficients[1].equals(Fraction.MINUS_ONE));
+		}
+		
+		/**
+		 * @see calculator.RowOperation#computeRows(int, int)
+		 */
+		@Override
+		public void computeRows(int a_fromRow, int a_toRow)
+		{
+			FractionAccumulator sum = new FractionAccumulator();
+			
+			for (int row = a_fromRow; row < a_toRow; row++)
+			{
+				Fraction[] values = new Fraction[m_columns];
+				
+				for (int column = 0; column < m_columns; column++)
+				{
+					if (m_plain)
+					{
+						Fraction LHS = m_matrices[0].getCell(row, column);
+						Fraction RHS = m_matrices[1].getCell(row, column);
+						values[column] = m_coefficients[1].isOne() ? LHS.add(RHS) : LHS.subtract(RHS);
+						continue;
+					}
+					
+					int index = row * m_columns + column;
+					sum.reset();
+					
+					for (int term = 0; term < m_matrices.length; term++)
+					{
+						Fraction coefficient = m_coefficients[term];
+						
+						if (m_numerators[term] != null)
+						{
+							sum.addProduct(m_numerators[term][index], m_denominators[term][index], coefficient.getNumerator(), coefficient.getDenominator());
+						}
+						else
+						{
+							sum.addProduct(m_matrices[term].getCell(row, column), coefficient);
+						}
+					}
+					
+					values[column] = sum.toFraction();
+				}
+				
+				m_result[row] = values;
+			}
+		}
+		
+	}
+	
+	/**
+	 * Multiplies a range of packed LHS rows by the packed RHS columns, one block of the product at a time.
+	 */
+	private static final class MultiplyRows implements RowOperation
+	{
+		
+		/** The rows of the LHS. */
+		private final Fraction[][] m_LHSrows;
+		
+		/** The columns of the RHS. */
+		private final Fraction[][] m_RHScolumns;
+		
+		/** The amount of columns of the LHS and rows of the RHS. */
+		private final int m_inner;
+		
+		/** The rows of the product. Each call only sets cells in its own rows. */
+		private final Fraction[][] m_product;
+		
+		/**
+		 * Instantiates a new multiply over rows.
+		 *
+		 * @param a_LHSrows the rows of the LHS
+		 * @param a_RHScolumns the columns of the RHS
+		 * @param a_inner the amount of columns of the LHS and rows of the RHS
+		 * @param a_product the rows of the product
+		 */
+		MultiplyRows(Fraction[][] a_LHSrows, Fraction[][] a_RHScolumns, int a_inner, Fraction[][] a_product)
+		{
+			m_LHSrows = a_LHSrows;
+			m_RHScolumns = a_RHScolumns;
+			m_inner = a_inner;
+			m_product = a_product;
+		}
+		
+		/**
+		 * @see calculator.RowOperation#computeRows(int, int)
+		 */
+		@Override
+		public void computeRows(int a_fromRow, int a_toRow)
+		{
+			//Work on one block of the product at a time, so its rows and columns stay in cache
+			//while the inner index runs across them in blocks as well.
+			//Each cell of the block keeps its own running sum between inner blocks.
+			FractionAccumulator[] sums = new FractionAccumulator[MULTIPLY_BLOCK * MULTIPLY_BLOCK];
+			for (int index = 0; index < sums.length; index++)
+			{
+				sums[index] = new FractionAccumulator();
+			}
+			
+			for (int rowBlock = a_fromRow; rowBlock < a_toRow; rowBlock += MULTIPLY_BLOCK)
+			{
+				int rowEnd = Math.min(rowBlock + MULTIPLY_BLOCK, a_toRow);
+				
+				for (int columnBlock = 0; columnBlock < m_RHScolumns.length; columnBlock += MULTIPLY_BLOCK)
+				{
+					int columnEnd = Math.min(columnBlock + MULTIPLY_BLOCK, m_RHScolumns.length);
+					
+					for (FractionAccumulator sum : sums)
+					{
+						sum.reset();
+					}
+					
+					for (int innerBlock = 0; innerBlock < m_inner; innerBlock += MULTIPLY_BLOCK)
+					{
+						int innerEnd = Math.min(innerBlock + MULTIPLY_BLOCK, m_inner);
+						
+						for (int row = rowBlock; row < rowEnd; row++)
+						{
+							Fraction[] LHSrow = m_LHSrows[row];
+							
+							for (int column = columnBlock; column < columnEnd; column++)
+							{
+								Fraction[] RHScolumn = m_RHScolumns[column];
+								FractionAccumulator sum = sums[(row - rowBlock) * MULTIPLY_BLOCK + (column - columnBlock)];
+								
+								//Run the across the "row" index of LHS, and down the "column" index of RHS.
+								for (int k = innerBlock; k < innerEnd; k++)
+								{
+									sum.addProduct(LHSrow[k], RHScolumn[k]);
+								}
+							}
+						}
+					}
+					
+					for (int row = rowBlock; row < rowEnd; row++)
+					{
+						for (int column = columnBlock; column < columnEnd; column++)
+						{
+							m_product[row][column] = sums[(row - rowBlock) * MULTIPLY_BLOCK + (column - columnBlock)].toFraction();
+						}
+					}
+				}
+			}
+		}
+		
+	}
+	
+}
@@ -0,0 +1,274 @@
+package calculator;
+
+import java.util.Arrays;
+
+/**
+ * An element-wise expression over matrices of one size, such as 2A + B - C, kept as a sum of scaled
+ * matrices instead of being worked out step by step.
+ *
+ * Building an expression only records the terms. The MatrixEngine then evaluates it in one pass,
+ * summing the terms of each cell in a {@link FractionAccumulator} and creating only the Fraction of the
+ * result, where adding, subtracting and scaling one step at a time creates and reads a whole matrix of
+ * Fractions per step. A matrix that appears more than once becomes one term, so A + A is 2A and A - A
+ * leaves no term at all.
+ *
+ * Expressions can't be changed: every operation returns a new one. The matrices are read when the
+ * expression is evaluated, not when it is built.
+ */
+public class MatrixExpression
+{
+	
+	/** The amount of rows. */
+	private final int m_rows;
+	
+	/** The amount of columns. */
+	private final int m_columns;
+	
+	/** The matrices of the terms, each one once. */
+	private final Matrix[] m_matrices;
+	
+	/** The nonzero coefficient of each matrix. */
+	private final Fraction[] m_coefficients;
+	
+	/**
+	 * Instantiates a new expression.
+	 *
+	 * @param a_rows the amount of rows
+	 * @param a_columns the amount of columns
+	 * @param a_matrices the matrices of the terms, used directly
+	 * @param a_coefficients the coefficients, used directly
+	 */
+	private MatrixExpression(int a_rows, int a_columns, Matrix[] a_matrices, Fraction[] a_coefficients)
+	{
+		m_rows = a_rows;
+		m_columns = a_columns;
+		m_matrices = a_matrices;
+		m_coefficients = a_coefficients;
+	}
+	
+	/**
+	 * Creates an expression of one matrix.
+	 *
+	 * @param a_matrix the matrix
+	 * @return the expression
+	 */
+	public static MatrixExpression of(Matrix a_matrix)
+	{
+		return new MatrixExpression(a_matrix.getRows(), a_matrix.getColumns(), new Matrix[] { a_matrix }, new Fraction[] { Fraction.ONE });
+	}
+	
+	/**
+	 * Adds a matrix.
+	 *
+	 * @param a_matrix the matrix, of the same size
+	 * @return the sum
+	 * @throws MatrixException if the sizes don't match
+	 */
+	public MatrixExpression plus(Matrix a_matrix) throws MatrixException
+	{
+		return plus(of(a_matrix));
+	}
+	
+	/**
+	 * Adds an expression.
+	 *
+	 * @param a_other the expression, of the same size
+	 * @return the sum
+	 * @throws MatrixException if the sizes don't match
+	 */
+	public MatrixExpression plus(MatrixExpression a_other) throws MatrixException
+	{
+		return combine(a_other, Fraction.ONE);
+	}
+	
+	/**
+	 * Subtracts a matrix.
+	 *
+	 * @param a_matrix the matrix, of the same size
+	 * @return the difference
+	 * @throws MatrixException if the sizes don't match
+	 */
+	public MatrixExpression minus(Matrix a_matrix) throws MatrixException
+	{
+		return minus(of(a_matrix));
+	}
+	
+	/**
+	 * Subtracts an expression.
+	 *
+	 * @param a_other the expression, of the same size
+	 * @return the difference
+	 * @throws MatrixException if the sizes don't match
+	 */
+	public MatrixExpression minus(MatrixExpression a_other) throws MatrixException
+	{
+		return combine(a_other, Fraction.MINUS_ONE);
+	}
+	
+	/**
+	 * Multiplies by a scalar.
+	 *
+	 * @param a_scalar the scalar
+	 * @return the product
+	 */
+	public MatrixExpression times(Fraction a_scalar)
+	{
+		if (a_scalar.isZero()) return new MatrixExpression(m_rows, m_columns, new Matrix[0], new Fraction[0]);
+		
+		Fraction[] coefficients = new Fraction[m_coefficients.length];
+		
+		for (int term = 0; term < coefficients.length; term++)
+		{
+			coefficients[term] = m_coefficients[term].multiply(a_scalar);
+		}
+		
+		return new MatrixExpression(m_rows, m_columns, m_matrices, coefficients);
+	}
+	
+	/**
+	 * Negates.
+	 *
+	 * @return the negation
+	 */
+	public MatrixExpression negate()
+	{
+		return times(Fraction.MINUS_ONE);
+	}
+	
+	/**
+	 * Gets the amount of rows.
+	 *
+	 * @return the amount of rows
+	 */
+	public int getRows()
+	{
+		return m_rows;
+	}
+	
+	/**
+	 * Gets the amount of columns.
+	 *
+	 * @return the amount of columns
+	 */
+	public int getColumns()
+	{
+		return m_columns;
+	}
+	
+	/**
+	 * Gets the amount of terms: the amount of different matrices with a nonzero coefficient.
+	 *
+	 * @return the amount of terms
+	 */
+	public int getTermCount()
+	{
+		return m_matrices.length;
+	}
+	
+	/**
+	 * Gets the matrix of a term.
+	 *
+	 * @param a_term the term index
+	 * @return the matrix
+	 */
+	Matrix getMatrix(int a_term)
+	{
+		return m_matrices[a_term];
+	}
+	
+	/**
+	 * Gets the coefficient of a term.
+	 *
+	 * @param a_term the term index
+	 * @return the coefficient, never 0
+	 */
+	Fraction getCoefficient(int a_term)
+	{
+		return m_coefficients[a_term];
+	}
+	
+	/**
+	 * Adds a multiple of another expression, merging the terms of matrices in both.
+	 *
+	 * @param a_other the other expression
+	 * @param a_multiple the multiple of it to add
+	 * @return the combination
+	 * @throws MatrixException if the sizes don't match
+	 */
+	private MatrixExpression combine(MatrixExpression a_other, Fraction a_multiple) throws MatrixException
+	{
+		if (a_other.m_rows != m_rows || a_other.m_columns != m_columns)
+		{
+			throw new MatrixException("Sizes do not match: " + m_rows + "x" + m_columns + " and " + a_other.m_rows + "x" + a_other.m_columns);
+		}
+		
+		Matrix[] matrices = Arrays.copyOf(m_matrices, m_matrices.length + a_other.m_matrices.length);
+		Fraction[] coefficients = Arrays.copyOf(m_coefficients, matrices.length);
+		int amtTerms = m_matrices.length;
+		
+		for (int other = 0; other < a_other.m_matrices.length; other++)
+		{
+			Fraction coefficient = a_other.m_coefficients[other].multiply(a_multiple);
+			int term = 0;
+			
+			while (term < amtTerms && matrices[term] != a_other.m_matrices[other]) term++;
+			
+			if (term < amtTerms)
+			{
+				coefficients[term] = coefficients[term].add(coefficient);
+			}
+			else
+			{
+				matrices[amtTerms] = a_other.m_matrices[other];
+				coefficients[amtTerms] = coefficient;
+				amtTerms++;
+			}
+		}
+		
+		//Leave out the terms that cancelled:
+		int kept = 0;
+		
+		for (int term = 0; term < amtTerms; term++)
+		{
+			if (coefficients[term].isZero()) continue;
+			
+			matrices[kept] = matrices[term];
+			coefficients[kept] = coefficients[term];
+			kept++;
+		}
+		
+		return new MatrixExpression(m_rows, m_columns, Arrays.copyOf(matrices, kept), Arrays.copyOf(coefficients, kept));
+	}
+	
+	/**
+	 * Writes the expression out, such as 2 A + B - C. Each matrix is shown by its name, or by its
+	 * place in the expression if it has none.
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		if (m_matrices.length == 0) return "0";
+		
+		StringBuilder expression = new StringBuilder();
+		
+		for (int term = 0; term < m_matrices.length; term++)
+		{
+			Fraction coefficient = m_coefficients[term];
+			boolean negative = coefficient.signum() < 0;
+			
+			if (term > 0) expression.append(negative ? " - " : " + ");
+			else if (negative) expression.append("-");
+			
+			Fraction magnitude = negative ? coefficient.negate() : coefficient;
+			if (!magnitude.equals(Fraction.ONE)) expression.append(magnitude).append(" ");
+			
+			String name = m_matrices[term].getName();
+			expression.append((name == null || name.isEmpty()) ? "M" + (term + 1) : name);
+		}
+		
+		return expression.toString();
+	}
+	
+}
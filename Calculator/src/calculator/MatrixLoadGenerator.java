@@ -0,0 +1,283 @@
+package calculator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends requests to a {@link MatrixServer} from several threads at once, and reports the requests per second
+ * and the spread of their latencies, the same way {@link MatrixBatch} reports its jobs.
+ *
+ * Every request is the same operation on square matrices of small random fractions, the same ones every run.
+ * Unless told to repeat a few, every body is different, the warm-up's included, so a server that keeps its
+ * answers can't answer the measured requests from what it kept during the warm-up.
+ * Each thread sends its next request as soon as its last is answered, over a connection that is kept open.
+ * A request that isn't answered with 200 counts as failed. The first requests warm the server up and are not
+ * counted.
+ *
+ * Usage: java calculator.MatrixLoadGenerator [-url u] [-operation op] [-size n] [-requests n] [-threads n] [-distinct n] [-warmup n]
+ */
+public class MatrixLoadGenerator
+{
+	
+	/** The server sent to when none is given. */
+	public static final String DEFAULT_URL = "http://127.0.0.1:" + MatrixServer.DEFAULT_PORT + "/";
+	
+	/** The bodies of the requests; request i sends body (i + the first body) % the amount of them. */
+	private final byte[][] m_bodies;
+	
+	/** The body the first request sends. */
+	private final int m_firstBody;
+	
+	/** The address of the operation. */
+	private final URL m_url;
+	
+	/** The amount of requests to send. */
+	private final int m_requests;
+	
+	/** The index of the next request to send. */
+	private final AtomicInteger m_next;
+	
+	/** The amount of requests that failed. */
+	private final AtomicInteger m_failed;
+	
+	/** The time of each request in nanoseconds. */
+	private final long[] m_latencies;
+	
+	/**
+	 * Instantiates a new generator.
+	 *
+	 * @param a_url the address of the operation
+	 * @param a_bodies the bodies to send
+	 * @param a_firstBody the body the first request sends
+	 * @param a_requests the amount of requests to send
+	 */
+	private MatrixLoadGenerator(URL a_url, byte[][] a_bodies, int a_firstBody, int a_requests)
+	{
+		m_url = a_url;
+		m_bodies = a_bodies;
+		m_firstBody = a_firstBody;
+		m_requests = a_requests;
+		m_next = new AtomicInteger();
+		m_failed = new AtomicInteger();
+		m_latencies = new long[a_requests];
+	}
+	
+	/**
+	 * Runs a load against a server.
+	 *
+	 * @param a_args the options
+	 */
+	public static void main(String[] a_args)
+	{
+		String url = DEFAULT_URL;
+		String operation = "det";
+		int size = 8;
+		int requests = 1000;
+		int threads = Runtime.getRuntime().availableProcessors();
+		int distinct = -1;
+		int warmup = 100;
+		URL address = null;
+		
+		try
+		{
+			for (int index = 0; index < a_args.length; index++)
+			{
+				if (a_args[index].equals("-url")) url = a_args[++index];
+				else if (a_args[index].equals("-operation")) operation = a_args[++index];
+				else if (a_args[index].equals("-size")) size = Integer.parseInt(a_args[++index]);
+				else if (a_args[index].equals("-requests")) requests = Integer.parseInt(a_args[++index]);
+				else if (a_args[index].equals("-threads")) threads = Integer.parseInt(a_args[++index]);
+				else if (a_args[index].equals("-distinct")) distinct = Integer.parseInt(a_args[++index]);
+				else if (a_args[index].equals("-warmup")) warmup = Integer.parseInt(a_args[++index]);
+				else throw new IllegalArgumentException("Unexpected argument " + a_args[index]);
+			}
+			
+			if (size < 1 || requests < 1 || threads < 1 || warmup < 0) throw new IllegalArgumentException("Sizes and amounts must be positive");
+			
+			MatrixEngine.checkOperation(operation, MatrixEngine.UNARY_OPERATIONS.contains(operation) ? 1 : 2);
+			address = new URL(url.endsWith("/") ? url + operation : url + "/" + operation);
+		}
+		catch (IOException exception)
+		{
+			System.err.println("Bad url " + url + ": " + exception.getMessage());
+			System.exit(2);
+		}
+		catch (RuntimeException exception)
+		{
+			System.err.println(exception.getMessage());
+			System.err.println("Usage: java calculator.MatrixLoadGenerator [-url u] [-operation op] [-size n] [-requests n] [-threads n] [-distinct n] [-warmup n]");
+			System.exit(2);
+		}
+		
+		//The warm-up sends the first bodies, and the measured requests carry on from there:
+		byte[][] bodies = createBodies(operation, size, distinct < 1 ? warmup + requests : Math.min(distinct, requests));
+		
+		if (warmup > 0) new MatrixLoadGenerator(address, bodies, 0, warmup).run(threads);
+		
+		MatrixLoadGenerator load = new MatrixLoadGenerator(address, bodies, warmup, requests);
+		long wall = load.run(threads);
+		
+		System.out.println(MatrixBatch.statistics("requests", load.m_latencies, load.m_failed.get(), threads, wall));
+	}
+	
+	/**
+	 * Creates the bodies of the requests.
+	 *
+	 * @param a_operation the operation, which decides if one or two matrices are sent
+	 * @param a_size the amount of rows and columns of each matrix
+	 * @param a_amount the amount of different bodies
+	 * @return the bodies, as UTF-8
+	 */
+	private static byte[][] createBodies(String a_operation, int a_size, int a_amount)
+	{
+		Random random = new Random(42);
+		boolean unary = MatrixEngine.UNARY_OPERATIONS.contains(a_operation);
+		byte[][] bodies = new byte[a_amount][];
+		
+		for (int index = 0; index < a_amount; index++)
+		{
+			String body;
+			
+			if (unary) body = "{\"matrix\": " + Json.fromMatrix(randomMatrix(random, a_size)) + "}";
+			else body = "{\"lhs\": " + Json.fromMatrix(randomMatrix(random, a_size)) + ", \"rhs\": " + Json.fromMatrix(randomMatrix(random, a_size)) + "}";
+			
+			bodies[index] = body.getBytes(StandardCharsets.UTF_8);
+		}
+		
+		return bodies;
+	}
+	
+	/**
+	 * Creates a square matrix of small fractions.
+	 *
+	 * @param a_random the generator
+	 * @param a_size the amount of rows and columns
+	 * @return the matrix
+	 */
+	private static Matrix randomMatrix(Random a_random, int a_size)
+	{
+		Matrix matrix = new Matrix(a_size, a_size);
+		
+		for (int row = 0; row < a_size; row++)
+		{
+			for (int column = 0; column < a_size; column++)
+			{
+				matrix.setCell(row, column, Fraction.valueOf(a_random.nextInt(19) - 9, a_random.nextInt(4) + 1));
+			}
+		}
+		
+		return matrix;
+	}
+	
+	/**
+	 * Sends every request, from a number of threads, and waits until all are answered.
+	 *
+	 * @param a_threads the amount of threads
+	 * @return the time of the whole run in nanoseconds
+	 */
+	private long run(int a_threads)
+	{
+		Thread[] clients = new Thread[a_threads];
+		long start = System.nanoTime();
+		
+		for (int index = 0; index < a_threads; index++)
+		{
+			clients[index] = new Thread(new Client(), "matrix-load-" + (index + 1));
+			clients[index].start();
+		}
+		
+		for (Thread client : clients)
+		{
+			try
+			{
+				client.join();
+			}
+			catch (InterruptedException exception)
+			{
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+		
+		return System.nanoTime() - start;
+	}
+	
+	/**
+	 * Sends one request and reads the whole answer, so the connection can be used again.
+	 *
+	 * @param a_body the body
+	 * @return true if the answer was 200
+	 * @throws IOException if the server can't be reached
+	 */
+	private boolean send(byte[] a_body) throws IOException
+	{
+		HttpURLConnection connection = (HttpURLConnection) m_url.openConnection();
+		connection.setRequestMethod("POST");
+		connection.setDoOutput(true);
+		connection.setFixedLengthStreamingMode(a_body.length);
+		connection.setRequestProperty("Content-Type", "application/json");
+		
+		OutputStream output = connection.getOutputStream();
+		output.write(a_body);
+		output.close();
+		
+		int status = connection.getResponseCode();
+		InputStream input = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+		
+		if (input != null)
+		{
+			byte[] buffer = new byte[8192];
+			
+			while (input.read(buffer) > 0)
+			{
+				//Only how long the answer took is kept.
+			}
+			
+			input.close();
+		}
+		
+		return status == HttpURLConnection.HTTP_OK;
+	}
+	
+	/**
+	 * Sends requests one after another until all have been sent.
+	 */
+	private final class Client implements Runnable
+	{
+		
+		/**
+		 * @see java.lang.Runnable#run()
+		 */
+		@Override
+		public void run()
+		{
+			int request;
+			
+			while ((request = m_next.getAndIncrement()) < m_requests)
+			{
+				long start = System.nanoTime();
+				boolean answered;
+				
+				try
+				{
+					answered = send(m_bodies[(m_firstBody + request) % m_bodies.length]);
+				}
+				catch (IOException exception)
+				{
+					answered = false;
+				}
+				
+				m_latencies[request] = System.nanoTime() - start;
+				if (!answered) m_failed.incrementAndGet();
+			}
+		}
+		
+	}
+	
+}
@@ -0,0 +1,516 @@
+package calculator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Serves the operations of a {@link MatrixEngine} as JSON over HTTP on the loopback address, so other tools
+ * can use the calculator without the GUI.
+ *
+ * Each operation is a POST to its name, such as /det, /inverse or /multiply, with the matrices in the body.
+ * A matrix is an array of rows, and a cell is a number or a string such as "-3/4":
+ * <pre>
+ * POST /det       {"matrix": [[1, 2], [3, 4]]}
+ * POST /solve     {"lhs": [[2, 1], [1, 3]], "rhs": [["1/2"], [0]]}
+ * POST /multiply  {"matrices": [[[1, 2]], [[3], [4]], [[5, 6]]]}
+ * </pre>
+ * The operations are those of {@link MatrixEngine#perform(String, Matrix...)}. The answer is
+ * {"result": "-2"} for a number, {"result": [["1", "0"], ["0", "1"]]} for a matrix, or {"error": "..."}
+ * with 404 for an unknown operation, 400 for a body that is not understood, 422 for an operation that
+ * can't be performed (a singular matrix, sizes that don't match) and 503 when the server is too busy.
+ *
+ * Every request gets a thread of its own to read and answer it on. Eliminations and products, which can
+ * run for seconds, go to a pool with a thread per processor and a bounded queue, so they never take all the
+ * threads from the requests; once the queue is full they are turned away with 503 instead of waiting.
+ * Add, subtract, transpose and trace take about as long as reading their matrices, and run on the request's
+ * own thread.
+ *
+ * Answers are kept in a {@link ResultCache} by the fingerprints of the matrices, so asking again for the
+ * determinant of the same matrix, from any client, doesn't work it out again. Identical requests that
+ * arrive while the first is still being worked out wait for its answer. GET /stats gives the hits, misses
+ * and coalesced requests of the cache.
+ *
+ * Usage: java calculator.MatrixServer [-port n] [-compute n] [-queue n] [-cache bytes]
+ */
+public class MatrixServer
+{
+	
+	/** The port served when none is given. */
+	public static final int DEFAULT_PORT = 8080;
+	
+	/** The amount of operations that may wait for a compute thread when none is given, per compute thread. */
+	public static final int DEFAULT_QUEUE_PER_THREAD = 16;
+	
+	/** The system property that turns off Nagle's algorithm on the connections of the JDK's HTTP server. */
+	private static final String NO_DELAY = "sun.net.httpserver.nodelay";
+	
+	/** The error of a request turned away. */
+	private static final String BUSY = "Too busy, try again later";
+	
+	/** The largest body read, in bytes. */
+	static final int MAX_BODY = 16 << 20;
+	
+	/** The operations that run on the request's own thread, since they take about as long as reading their matrices. */
+	private static final List<String> INLINE = Arrays.asList("add", "subtract", "transpose", "trace");
+	
+	/** The HTTP server. */
+	private final HttpServer m_server;
+	
+	/** The threads requests are read and answered on, one per request in progress. */
+	private final ExecutorService m_requests;
+	
+	/** The threads eliminations and products run on. */
+	private final ThreadPoolExecutor m_compute;
+	
+	/** The engine, shared by every request. */
+	private final MatrixEngine m_engine;
+	
+	/** The answers of recent requests, and of the requests in progress. */
+	private final ResultCache m_results;
+	
+	/**
+	 * Instantiates a new server on a port of the loopback address. It doesn't answer until started.
+	 *
+	 * @param a_port the port, or 0 for any free one
+	 * @param a_engine the engine, shared by every request
+	 * @param a_computeThreads the amount of threads for eliminations and products
+	 * @param a_queue the amount of eliminations and products that may wait for a thread
+	 * @param a_results the cache of answers
+	 * @throws IOException if the port can't be bound
+	 */
+	public MatrixServer(int a_port, MatrixEngine a_engine, int a_computeThreads, int a_queue, ResultCache a_results) throws IOException
+	{
+		if (a_computeThreads < 1) throw new IllegalArgumentException("Compute threads must be at least 1");
+		if (a_queue < 1) throw new IllegalArgumentException("Queue must be at least 1");
+		
+		m_engine = a_engine;
+		m_results = a_results;
+		m_requests = Executors.newCachedThreadPool(new NamedThreads("matrix-request-"));
+		m_compute = new ThreadPoolExecutor(a_computeThreads, a_computeThreads, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<Runnable>(a_queue), new NamedThreads("matrix-compute-"));
+		
+		//The JDK server writes the headers and the body of an answer apart. Without this, the body waits for the
+		//client's delayed acknowledgement of the headers, about 40 ms, which made an 8 x 8 det take 45 ms instead of 11:
+		if (System.getProperty(NO_DELAY) == null) System.setProperty(NO_DELAY, "true");
+		
+		m_server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), a_port), 0);
+		m_server.setExecutor(m_requests);
+		m_server.createContext("/", new OperationHandler());
+		m_server.createContext("/stats", new StatsHandler());
+	}
+	
+	/**
+	 * Serves on a port until the process is stopped. Only programs on the same machine can reach it.
+	 *
+	 * @param a_args the options
+	 */
+	public static void main(String[] a_args)
+	{
+		int port = DEFAULT_PORT;
+		int computeThreads = Runtime.getRuntime().availableProcessors();
+		int queue = -1;
+		long cache = ResultCache.DEFAULT_CAPACITY;
+		
+		try
+		{
+			for (int index = 0; index < a_args.length; index++)
+			{
+				if (a_args[index].equals("-port")) port = Integer.parseInt(a_args[++index]);
+				else if (a_args[index].equals("-compute")) computeThreads = Integer.parseInt(a_args[++index]);
+				else if (a_args[index].equals("-queue")) queue = Integer.parseInt(a_args[++index]);
+				else if (a_args[index].equals("-cache")) cache = Long.parseLong(a_args[++index]);
+				else throw new IllegalArgumentException("Unexpected argument " + a_args[index]);
+			}
+		}
+		catch (RuntimeException exception)
+		{
+			System.err.println(exception.getMessage());
+			System.err.println("Usage: java calculator.MatrixServer [-port n] [-compute n] [-queue n] [-cache bytes]");
+			System.exit(2);
+		}
+		
+		if (queue < 0) queue = computeThreads * DEFAULT_QUEUE_PER_THREAD;
+		
+		//The requests are what runs in parallel, so each operation stays on its thread:
+		MatrixEngine engine = new MatrixEngine();
+		engine.setParallelism(1);
+		
+		try
+		{
+			MatrixServer server = new MatrixServer(port, engine, computeThreads, queue, new ResultCache(cache));
+			server.start();
+			
+			System.err.println("Serving on http://127.0.0.1:" + server.getPort() + "/ with " + computeThreads + " compute threads");
+		}
+		catch (IOException exception)
+		{
+			System.err.println("Unable to serve on port " + port + ": " + exception.getMessage());
+			System.exit(1);
+		}
+		catch (IllegalArgumentException exception)
+		{
+			System.err.println(exception.getMessage());
+			System.exit(2);
+		}
+	}
+	
+	/**
+	 * Starts answering requests.
+	 */
+	public void start()
+	{
+		m_server.start();
+	}
+	
+	/**
+	 * Stops answering requests, and stops the threads once the requests in progress are done.
+	 *
+	 * @param a_delay the longest to wait for requests in progress, in seconds
+	 */
+	public void stop(int a_delay)
+	{
+		m_server.stop(a_delay);
+		m_compute.shutdown();
+		m_requests.shutdown();
+	}
+	
+	/**
+	 * Gets the port being served, which is the free port picked when 0 was asked for.
+	 *
+	 * @return the port
+	 */
+	public int getPort()
+	{
+		return m_server.getAddress().getPort();
+	}
+	
+	/**
+	 * Reads the operands of a request: "matrices", an array of matrices, or "matrix" for one, or "lhs"
+	 * and "rhs" for two.
+	 *
+	 * @param a_body the body, as read by {@link Json#parse(String)}
+	 * @return the matrices
+	 * @throws IllegalArgumentException if the body doesn't hold them
+	 */
+	private static Matrix[] readOperands(Object a_body)
+	{
+		if (!(a_body instanceof Map)) throw new IllegalArgumentException("The body must be a JSON object");
+		
+		Map<?, ?> body = (Map<?, ?>) a_body;
+		
+		if (body.containsKey("matrices"))
+		{
+			Object value = body.get("matrices");
+			if (!(value instanceof List)) throw new IllegalArgumentException("matrices must be an array of matrices");
+			
+			List<?> values = (List<?>) value;
+			Matrix[] matrices = new Matrix[values.size()];
+			
+			for (int index = 0; index < matrices.length; index++)
+			{
+				matrices[index] = Json.toMatrix(values.get(index), "matrix " + (index + 1));
+			}
+			
+			return matrices;
+		}
+		
+		if (body.containsKey("matrix")) return new Matrix[] { Json.toMatrix(body.get("matrix"), "matrix") };
+		
+		if (body.containsKey("lhs") && body.containsKey("rhs"))
+		{
+			return new Matrix[] { Json.toMatrix(body.get("lhs"), "lhs"), Json.toMatrix(body.get("rhs"), "rhs") };
+		}
+		
+		throw new IllegalArgumentException("The body needs matrix, lhs and rhs, or matrices");
+	}
+	
+	/**
+	 * Reads the body of a request, up to {@link #MAX_BODY} bytes.
+	 *
+	 * @param a_exchange the request
+	 * @return the body, or null if it is too large
+	 * @throws IOException if it can't be read
+	 */
+	private static String readBody(HttpExchange a_exchange) throws IOException
+	{
+		InputStream input = a_exchange.getRequestBody();
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		int read;
+		
+		while ((read = input.read(buffer)) > 0)
+		{
+			if (body.size() + read > MAX_BODY) return null;
+			
+			body.write(buffer, 0, read);
+		}
+		
+		return new String(body.toByteArray(), StandardCharsets.UTF_8);
+	}
+	
+	/**
+	 * Sends the answer to a request.
+	 *
+	 * @param a_exchange the request
+	 * @param a_status the HTTP status
+	 * @param a_json the body
+	 * @throws IOException if it can't be sent
+	 */
+	private static void respond(HttpExchange a_exchange, int a_status, String a_json) throws IOException
+	{
+		respond(a_exchange, a_status, a_json.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	/**
+	 * Sends the answer to a request.
+	 *
+	 * @param a_exchange the request
+	 * @param a_status the HTTP status
+	 * @param a_body the body, as UTF-8
+	 * @throws IOException if it can't be sent
+	 */
+	private static void respond(HttpExchange a_exchange, int a_status, byte[] a_body) throws IOException
+	{
+		a_exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+		a_exchange.sendResponseHeaders(a_status, a_body.length);
+		
+		OutputStream output = a_exchange.getResponseBody();
+		output.write(a_body);
+		output.close();
+	}
+	
+	/**
+	 * Sends an error.
+	 *
+	 * @param a_exchange the request
+	 * @param a_status the HTTP status
+	 * @param a_message the reason
+	 * @throws IOException if it can't be sent
+	 */
+	private static void fail(HttpExchange a_exchange, int a_status, String a_message) throws IOException
+	{
+		respond(a_exchange, a_status, "{\"error\": " + Json.quote(String.valueOf(a_message)) + "}");
+	}
+	
+	/**
+	 * Answers every request: reads its operands, performs its operation and writes the result.
+	 */
+	private final class OperationHandler implements HttpHandler
+	{
+		
+		/**
+		 * @see com.sun.net.httpserver.HttpHandler#handle(com.sun.net.httpserver.HttpExchange)
+		 */
+		@Override
+		public void handle(HttpExchange a_exchange) throws IOException
+		{
+			try
+			{
+				if (!a_exchange.getRequestMethod().equals("POST"))
+				{
+					a_exchange.getResponseHeaders().set("Allow", "POST");
+					fail(a_exchange, 405, "Only POST is supported");
+					return;
+				}
+				
+				String operation = a_exchange.getRequestURI().getPath().substring(1);
+				
+				if (!MatrixEngine.UNARY_OPERATIONS.contains(operation) && !MatrixEngine.BINARY_OPERATIONS.contains(operation) && !operation.equals("multiply"))
+				{
+					fail(a_exchange, 404, "Unknown operation " + operation);
+					return;
+				}
+				
+				String body = readBody(a_exchange);
+				
+				if (body == null)
+				{
+					fail(a_exchange, 413, "The body is larger than " + MAX_BODY + " bytes");
+					return;
+				}
+				
+				Matrix[] operands;
+				
+				try
+				{
+					operands = readOperands(Json.parse(body));
+					MatrixEngine.checkOperation(operation, operands.length);
+				}
+				catch (IllegalArgumentException exception)
+				{
+					fail(a_exchange, 400, exception.getMessage());
+					return;
+				}
+				
+				//The same question from another client is answered from the cache, or waits for the same work:
+				String key = ResultCache.key(operation, operands);
+				Operation work = new Operation(m_engine, operation, operands);
+				
+				respond(a_exchange, 200, m_results.get(key, work, INLINE.contains(operation) ? null : m_compute));
+			}
+			catch (RejectedExecutionException exception)
+			{
+				fail(a_exchange, 503, BUSY);
+			}
+			catch (ExecutionException exception)
+			{
+				Throwable cause = exception.getCause();
+				
+				if (cause instanceof RejectedExecutionException) fail(a_exchange, 503, BUSY);
+				else if (cause instanceof MatrixException || cause instanceof ArithmeticException) fail(a_exchange, 422, cause.getMessage());
+				else fail(a_exchange, 500, cause.toString());
+			}
+			catch (InterruptedException exception)
+			{
+				Thread.currentThread().interrupt();
+				fail(a_exchange, 503, "Shutting down");
+			}
+			catch (RuntimeException exception)
+			{
+				fail(a_exchange, 500, exception.toString());
+			}
+			finally
+			{
+				a_exchange.close();
+			}
+		}
+		
+	}
+	
+	/**
+	 * Answers GET /stats with the counters of the result cache.
+	 */
+	private final class StatsHandler implements HttpHandler
+	{
+		
+		/**
+		 * @see com.sun.net.httpserver.HttpHandler#handle(com.sun.net.httpserver.HttpExchange)
+		 */
+		@Override
+		public void handle(HttpExchange a_exchange) throws IOException
+		{
+			try
+			{
+				if (!a_exchange.getRequestMethod().equals("GET"))
+				{
+					a_exchange.getResponseHeaders().set("Allow", "GET");
+					fail(a_exchange, 405, "Only GET is supported");
+					return;
+				}
+				
+				respond(a_exchange, 200, String.format("{\"hits\": %d, \"misses\": %d, \"coalesced\": %d, \"evictions\": %d, "
+						+ "\"entries\": %d, \"bytes\": %d, \"capacity\": %d}",
+						m_results.getHits(), m_results.getMisses(), m_results.getCoalesced(), m_results.getEvictions(),
+						m_results.size(), m_results.getWeight(), m_results.getCapacity()));
+			}
+			finally
+			{
+				a_exchange.close();
+			}
+		}
+		
+	}
+	
+	/**
+	 * One operation, giving the whole body of its answer.
+	 */
+	private static final class Operation implements Callable<byte[]>
+	{
+		
+		/** The engine. */
+		private final MatrixEngine m_engine;
+		
+		/** The operation. */
+		private final String m_operation;
+		
+		/** The operands. */
+		private final Matrix[] m_operands;
+		
+		/**
+		 * Instantiates a new operation.
+		 *
+		 * @param a_engine the engine
+		 * @param a_operation the operation
+		 * @param a_operands the operands
+		 */
+		Operation(MatrixEngine a_engine, String a_operation, Matrix[] a_operands)
+		{
+			m_engine = a_engine;
+			m_operation = a_operation;
+			m_operands = a_operands;
+		}
+		
+		/**
+		 * @see java.util.concurrent.Callable#call()
+		 */
+		@Override
+		public byte[] call() throws MatrixException
+		{
+			Object result = m_engine.perform(m_operation, m_operands);
+			String json = (result instanceof Matrix) ? Json.fromMatrix((Matrix) result) : Json.quote(result.toString());
+			
+			return ("{\"result\": " + json + "}").getBytes(StandardCharsets.UTF_8);
+		}
+		
+	}
+	
+	/**
+	 * Names the threads of a pool, and makes them daemons so they don't keep a stopped server's JVM alive.
+	 */
+	private static final class NamedThreads implements ThreadFactory
+	{
+		
+		/** The start of every name. */
+		private final String m_prefix;
+		
+		/** The number of the next thread. */
+		private final AtomicInteger m_next;
+		
+		/**
+		 * Instantiates a new factory.
+		 *
+		 * @param a_prefix the start of every name
+		 */
+		NamedThreads(String a_prefix)
+		{
+			m_prefix = a_prefix;
+			m_next = new AtomicInteger(1);
+		}
+		
+		/**
+		 * @see java.util.concurrent.ThreadFactory#newThread(java.lang.Runnable)
+		 */
+		@Override
+		public Thread newThread(Runnable a_runnable)
+		{
+			Thread thread = new Thread(a_runnable, m_prefix + m_next.getAndIncrement());
+			thread.setDaemon(true);
+			
+			return thread;
+		}
+		
+	}
+	
+}
@@ -0,0 +1,84 @@
+package calculator;
+
+/**
+ * Holds the cells of a Matrix. The Matrix handles names, bounds checks and the row/column helpers,
+ * and delegates the actual reads and writes to its storage.
+ */
+public interface MatrixStorage
+{
+	
+	/**
+	 * Gets the amount of rows.
+	 *
+	 * @return the amount of rows
+	 */
+	int getRows();
+	
+	/**
+	 * Gets the amount of columns.
+	 *
+	 * @return the amount of columns
+	 */
+	int getColumns();
+	
+	/**
+	 * Gets the value at the cell.
+	 *
+	 * @param a_row the row index
+	 * @param a_column the column index
+	 * @return the cell value
+	 */
+	Fraction getCell(int a_row, int a_column);
+	
+	/**
+	 * Sets the value at the cell.
+	 *
+	 * @param a_row the row index
+	 * @param a_column the column index
+	 * @param a_value the value to set
+	 */
+	void setCell(int a_row, int a_column, Fraction a_value);
+	
+	/**
+	 * Checks if the cell is 0 without creating a Fraction for it.
+	 *
+	 * @param a_row the row index
+	 * @param a_column the column index
+	 * @return true, if the cell is 0
+	 */
+	boolean isZero(int a_row, int a_column);
+	
+	/**
+	 * Gets the row at the index. Storages backed by Fraction arrays return the row itself,
+	 * which may be shared with copies, so it must not be written to. Others return a copy.
+	 *
+	 * @param a_row the row index
+	 * @return the row
+	 */
+	Fraction[] getRow(int a_row);
+	
+	/**
+	 * Sets the row at the index.
+	 *
+	 * @param a_row the row index
+	 * @param a_values the values to set, one per column
+	 */
+	void setRow(int a_row, Fraction[] a_values);
+	
+	/**
+	 * Swap two rows.
+	 *
+	 * @param a_firstRowIndex the first row index
+	 * @param a_secondRowIndex the second row index
+	 */
+	void swapRows(int a_firstRowIndex, int a_secondRowIndex);
+	
+	/**
+	 * Creates an independent copy of this storage of the same kind. Changing either one never changes
+	 * the other, but storages may share their cells until one of them is written to.
+	 *
+	 * @return the copy
+	 */
+	MatrixStorage copy();
+	
+}
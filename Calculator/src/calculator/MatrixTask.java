@@ -0,0 +1,188 @@
+package calculator;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A long operation that can be stopped part way, by cancelling it or by giving it a deadline, and that
+ * reports how far along it is.
+ *
+ * Stopping is cooperative. While a task runs, the thread running it knows it as the {@link #current()} task,
+ * and the eliminations call {@link #checkpoint(int, int)} once per pivot, or once per row where rows are slow
+ * to eliminate: that records the progress as the fraction of pivots done, and throws a CancellationException
+ * if the task was cancelled, its thread interrupted, or its deadline passed.
+ * Work handed to other threads captures the task first and calls {@link #check()} instead. An operation
+ * stopped this way keeps nothing it had half worked out.
+ *
+ * A task cancelled with {@link #cancel(boolean)} throws a CancellationException from {@link #get()}.
+ * A task past its deadline throws an ExecutionException caused by one, and {@link #isPastDeadline()} is true.
+ *
+ * @param <V> the type of the result
+ */
+public class MatrixTask<V> extends FutureTask<V>
+{
+	
+	/** The task the current thread is running, if any. */
+	private static final ThreadLocal<MatrixTask<?>> s_current = new ThreadLocal<MatrixTask<?>>();
+	
+	/** The most the task may run for, in milliseconds. 0 for no deadline. */
+	private final long m_timeout;
+	
+	/** The System.nanoTime() the task must be done by. Set when it starts to run. */
+	private volatile long m_deadline;
+	
+	/** True once the task has started to run with a deadline. */
+	private volatile boolean m_hasDeadline;
+	
+	/** How far along the task is, from 0 to 1. */
+	private volatile double m_progress;
+	
+	/** True once the operation has thrown, including when it stopped at its deadline. */
+	private volatile boolean m_failed;
+	
+	/**
+	 * Instantiates a new task without a deadline.
+	 *
+	 * @param a_operation the operation
+	 */
+	public MatrixTask(Callable<V> a_operation)
+	{
+		this(a_operation, 0);
+	}
+	
+	/**
+	 * Instantiates a new task with a deadline.
+	 *
+	 * @param a_operation the operation
+	 * @param a_timeoutMillis the most the task may run for once started, in milliseconds. 0 for no deadline.
+	 */
+	public MatrixTask(Callable<V> a_operation, long a_timeoutMillis)
+	{
+		super(a_operation);
+		
+		if (a_timeoutMillis < 0)
+		{
+			throw new IllegalArgumentException("Timeout must be 0 or more, was " + a_timeoutMillis);
+		}
+		
+		m_timeout = a_timeoutMillis;
+	}
+	
+	/**
+	 * Gets the task the current thread is running.
+	 *
+	 * @return the task, or null if the thread is not running one
+	 */
+	public static MatrixTask<?> current()
+	{
+		return s_current.get();
+	}
+	
+	/**
+	 * Records the progress of the current thread's task, and stops it if it should stop.
+	 * Does nothing on a thread that is not running a task.
+	 *
+	 * @param a_done the amount of pivots done
+	 * @param a_total the amount of pivots in all
+	 * @throws CancellationException if the task was cancelled, its thread interrupted, or its deadline passed
+	 */
+	public static void checkpoint(int a_done, int a_total)
+	{
+		MatrixTask<?> task = s_current.get();
+		if (task == null) return;
+		
+		task.setProgress(a_done, a_total);
+		
+		if (Thread.currentThread().isInterrupted()) throw new CancellationException("Interrupted");
+		
+		task.check();
+	}
+	
+	/**
+	 * Stops the task if it was cancelled or its deadline passed. Safe to call from any thread.
+	 *
+	 * @throws CancellationException if the task should stop
+	 */
+	public void check()
+	{
+		if (isCancelled()) throw new CancellationException("Cancelled");
+		
+		if (isPastDeadline()) throw new CancellationException("Took longer than " + m_timeout + " ms");
+	}
+	
+	/**
+	 * Records how far along the task is. Safe to call from any thread.
+	 *
+	 * @param a_done the amount of steps done
+	 * @param a_total the amount of steps in all
+	 */
+	public void setProgress(int a_done, int a_total)
+	{
+		if (a_total > 0) m_progress = Math.min(1.0, Math.max(0.0, (double) a_done / a_total));
+	}
+	
+	/**
+	 * Gets how far along the task is, as last recorded.
+	 *
+	 * @return the fraction done, from 0 to 1. 1 once the task has finished with a result. A task that was
+	 * cancelled, threw, or missed its deadline keeps the fraction it had reached.
+	 */
+	public double getProgress()
+	{
+		return isDone() && !isCancelled() && !m_failed ? 1.0 : m_progress;
+	}
+	
+	/**
+	 * Checks if the task started to run with a deadline, and the deadline has passed.
+	 *
+	 * @return true if the deadline has passed
+	 */
+	public boolean isPastDeadline()
+	{
+		return m_hasDeadline && System.nanoTime() - m_deadline > 0;
+	}
+	
+	/**
+	 * Records that the operation threw, before the task is marked as done.
+	 *
+	 * @see java.util.concurrent.FutureTask#setException(java.lang.Throwable)
+	 */
+	@Override
+	protected void setException(Throwable a_throwable)
+	{
+		m_failed = true;
+		super.setException(a_throwable);
+	}
+	
+	/**
+	 * Runs the task as the current thread's task, starting the clock on its deadline.
+	 *
+	 * @see java.util.concurrent.FutureTask#run()
+	 */
+	@Override
+	public void run()
+	{
+		MatrixTask<?> outer = s_current.get();
+		
+		if (m_timeout > 0 && !m_hasDeadline)
+		{
+			m_deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(m_timeout);
+			m_hasDeadline = true;
+		}
+		
+		s_current.set(this);
+		
+		try
+		{
+			super.run();
+		}
+		finally
+		{
+			if (outer == null) s_current.remove();
+			else s_current.set(outer);
+		}
+	}
+	
+}
@@ -0,0 +1,500 @@
+package calculator;
+
+/**
+ * A read-only storage that looks at the cells of other matrices instead of holding its own: a transpose,
+ * a range of rows and columns, a minor, two matrices side by side or stacked, or an identity.
+ * Making a view is O(1), and reading a cell goes straight through to the matrix it looks at, so a
+ * Matrix over a view can be passed to anything that only reads its operands.
+ *
+ * Views are live: they show later changes to the matrices they look at, row swaps included. Their own
+ * cells can't be set.
+ * Copying a view, for example with the Matrix copy constructor, fills in an ordinary storage that can be.
+ * The calculator doesn't keep results for matrices over views, since their version stamp doesn't change
+ * when the matrices under them do.
+ */
+public abstract class MatrixView implements MatrixStorage
+{
+	
+	/** The amount of rows. */
+	private final int m_rows;
+	
+	/** The amount of columns. */
+	private final int m_columns;
+	
+	/**
+	 * Instantiates a new view.
+	 *
+	 * @param a_rows the amount of rows
+	 * @param a_columns the amount of columns
+	 */
+	MatrixView(int a_rows, int a_columns)
+	{
+		m_rows = a_rows;
+		m_columns = a_columns;
+	}
+	
+	/**
+	 * Creates a view of the transpose of a matrix: cell (i, j) of the view is cell (j, i) of the matrix.
+	 *
+	 * @param a_matrix the matrix
+	 * @return the view
+	 */
+	public static MatrixView transpose(Matrix a_matrix)
+	{
+		return new Transposed(a_matrix);
+	}
+	
+	/**
+	 * Creates a view of a range of rows and columns of a matrix.
+	 *
+	 * @param a_matrix the matrix
+	 * @param a_fromRow the first row, inclusive
+	 * @param a_toRow the last row, exclusive
+	 * @param a_fromColumn the first column, inclusive
+	 * @param a_toColumn the last column, exclusive
+	 * @return the view
+	 * @throws IllegalArgumentException if a range is empty or past the edge of the matrix
+	 */
+	public static MatrixView slice(Matrix a_matrix, int a_fromRow, int a_toRow, int a_fromColumn, int a_toColumn)
+	{
+		if (a_fromRow < 0 || a_toRow > a_matrix.getRows() || a_fromRow >= a_toRow
+				|| a_fromColumn < 0 || a_toColumn > a_matrix.getColumns() || a_fromColumn >= a_toColumn)
+		{
+			throw new IllegalArgumentException("Rows " + a_fromRow + " to " + a_toRow + ", columns " + a_fromColumn + " to " + a_toColumn
+					+ " are not a range of a " + a_matrix.getRows() + "x" + a_matrix.getColumns() + " matrix");
+		}
+		
+		return new Slice(a_matrix, a_fromRow, a_toRow - a_fromRow, a_fromColumn, a_toColumn - a_fromColumn);
+	}
+	
+	/**
+	 * Creates a view of a minor of a matrix: the matrix without one of its rows and one of its columns.
+	 *
+	 * @param a_matrix the matrix, at least 2x2
+	 * @param a_row the row to leave out
+	 * @param a_column the column to leave out
+	 * @return the view
+	 * @throws IllegalArgumentException if the matrix is too small, or the row or column doesn't exist
+	 */
+	public static MatrixView minor(Matrix a_matrix, int a_row, int a_column)
+	{
+		if (a_matrix.getRows() < 2 || a_matrix.getColumns() < 2 || !a_matrix.cellExists(a_row, a_column))
+		{
+			throw new IllegalArgumentException("No minor (" + a_row + ", " + a_column + ") of a " + a_matrix.getRows() + "x" + a_matrix.getColumns() + " matrix");
+		}
+		
+		return new Minor(a_matrix, a_row, a_column);
+	}
+	
+	/**
+	 * Creates a view of two matrices side by side, [A | B], such as the augmented matrix of a system.
+	 *
+	 * @param a_left A
+	 * @param a_right B, with as many rows as A
+	 * @return the view
+	 * @throws IllegalArgumentException if the amounts of rows differ
+	 */
+	public static MatrixView beside(Matrix a_left, Matrix a_right)
+	{
+		if (a_left.getRows() != a_right.getRows())
+		{
+			throw new IllegalArgumentException("Cannot put " + a_left.getRows() + " rows beside " + a_right.getRows());
+		}
+		
+		return new Beside(a_left, a_right);
+	}
+	
+	/**
+	 * Creates a view of one matrix stacked on top of another.
+	 *
+	 * @param a_top the matrix on top
+	 * @param a_bottom the matrix below, with as many columns
+	 * @return the view
+	 * @throws IllegalArgumentException if the amounts of columns differ
+	 */
+	public static MatrixView above(Matrix a_top, Matrix a_bottom)
+	{
+		if (a_top.getColumns() != a_bottom.getColumns())
+		{
+			throw new IllegalArgumentException("Cannot put " + a_top.getColumns() + " columns above " + a_bottom.getColumns());
+		}
+		
+		return new Above(a_top, a_bottom);
+	}
+	
+	/**
+	 * Creates an identity, which has no cells to look at: each is worked out when read.
+	 *
+	 * @param a_size the amount of rows and columns
+	 * @return the view
+	 */
+	public static MatrixView identity(int a_size)
+	{
+		return new Identity(a_size);
+	}
+	
+	/**
+	 * @see calculator.MatrixStorage#getRows()
+	 */
+	@Override
+	public int getRows()
+	{
+		return m_rows;
+	}
+	
+	/**
+	 * @see calculator.MatrixStorage#getColumns()
+	 */
+	@Override
+	public int getColumns()
+	{
+		return m_columns;
+	}
+	
+	/**
+	 * Always throws, since a view has no cells of its own.
+	 *
+	 * @see calculator.MatrixStorage#setCell(int, int, calculator.Fraction)
+	 */
+	@Override
+	public void setCell(int a_row, int a_column, Fraction a_value)
+	{
+		throw new UnsupportedOperationException("A matrix view can't be changed, copy it first");
+	}
+	
+	/**
+	 * Returns a new array, read cell by cell.
+	 *
+	 * @see calculator.MatrixStorage#getRow(int)
+	 */
+	@Override
+	public Fraction[] getRow(int a_row)
+	{
+		Fraction[] row = new Fraction[m_columns];
+		
+		for (int column = 0; column < m_columns; column++)
+		{
+			row[column] = getCell(a_row, column);
+		}
+		
+		return row;
+	}
+	
+	/**
+	 * Always throws, since a view has no cells of its own.
+	 *
+	 * @see calculator.MatrixStorage#setRow(int, calculator.Fraction[])
+	 */
+	@Override
+	public void setRow(int a_row, Fraction[] a_values)
+	{
+		throw new UnsupportedOperationException("A matrix view can't be changed, copy it first");
+	}
+	
+	/**
+	 * Always throws, since a view has no cells of its own.
+	 *
+	 * @see calculator.MatrixStorage#swapRows(int, int)
+	 */
+	@Override
+	public void swapRows(int a_firstRowIndex, int a_secondRowIndex)
+	{
+		throw new UnsupportedOperationException("A matrix view can't be changed, copy it first");
+	}
+	
+	/**
+	 * Fills in the cells the view shows now, in the default storage, which can be changed.
+	 *
+	 * @see calculator.MatrixStorage#copy()
+	 */
+	@Override
+	public MatrixStorage copy()
+	{
+		Fraction[][] numbers = new Fraction[m_rows][];
+		
+		for (int row = 0; row < m_rows; row++)
+		{
+			numbers[row] = getRow(row);
+		}
+		
+		return new FractionArrayStorage(numbers);
+	}
+	
+	/**
+	 * The transpose of a matrix.
+	 */
+	private static final class Transposed extends MatrixView
+	{
+		
+		/** The matrix. */
+		private final Matrix m_source;
+		
+		/**
+		 * Instantiates a new transpose.
+		 *
+		 * @param a_source the matrix
+		 */
+		Transposed(Matrix a_source)
+		{
+			super(a_source.getColumns(), a_source.getRows());
+			m_source = a_source;
+		}
+		
+		/**
+		 * @see calculator.MatrixStorage#getCell(int, int)
+		 */
+		@Override
+		public Fraction getCell(int a_row, int a_column)
+		{
+			return m_source.getCell(a_column, a_row);
+		}
+		
+		/**
+		 * @see calculator.MatrixStorage#isZero(int, int)
+		 */
+		@Override
+		public boolean isZero(int a_row, int a_column)
+		{
+			return m_source.isZero(a_column, a_row);
+		}
+		
+	}
+	
+	/**
+	 * A range of rows and columns of a matrix.
+	 */
+	private static final class Slice extends MatrixView
+	{
+		
+		/** The matrix. */
+		private final Matrix m_source;
+		
+		/** The row of the matrix the first row of the slice is. */
+		private final int m_firstRow;
+		
+		/** The column of the matrix the first column of the slice is. */
+		private final int m_firstColumn;
+		
+		/**
+		 * Instantiates a new slice.
+		 *
+		 * @param a_source the matrix
+		 * @param a_firstRow the first row
+		 * @param a_rows the amount of rows
+		 * @param a_firstColumn the first column
+		 * @param a_columns the amount of columns
+		 */
+		Slice(Matrix a_source, int a_firstRow, int a_rows, int a_firstColumn, int a_columns)
+		{
+			super(a_rows, a_columns);
+			m_source = a_source;
+			m_firstRow = a_firstRow;
+			m_firstColumn = a_firstColumn;
+		}
+		
+		/**
+		 * @see calculator.MatrixStorage#getCell(int, int)
+		 */
+		@Override
+		public Fraction getCell(int a_row, int a_column)
+		{
+			return m_source.getCell(m_firstRow + a_row, m_firstColumn + a_column);
+		}
+		
+		/**
+		 * @see calculator.MatrixStorage#isZero(int, int)
+		 */
+		@Override
+		public boolean isZero(int a_row, int a_column)
+		{
+			return m_source.isZero(m_firstRow + a_row, m_firstColumn + a_column);
+		}
+		
+	}
+	
+	/**
+	 * A matrix without one of its rows and one of its columns.
+	 */
+	private static final class Minor extends MatrixView
+	{
+		
+		/** The matrix. */
+		private final Matrix m_source;
+		
+		/** The row left out. */
+		private final int m_row;
+		
+		/** The column left out. */
+		private final int m_column;
+		
+		/**
+		 * Instantiates a new minor.
+		 *
+		 * @param a_source the matrix
+		 * @param a_row the row to leave out
+		 * @param a_column the column to leave out
+		 */
+		Minor(Matrix a_source, int a_row, int a_column)
+		{
+			super(a_source.getRows() - 1, a_source.getColumns() - 1);
+			m_source = a_source;
+			m_row = a_row;
+			m_column = a_column;
+		}
+		
+		/**
+		 * @see calculator.MatrixStorage#getCell(int, int)
+		 */
+		@Override
+		public Fraction getCell(int a_row, int a_column)
+		{
+			//Rows and columns from the one left out onwards move up by one:
+			return m_source.getCell(a_row < m_row ? a_row : a_row + 1, a_column < m_column ? a_column : a_column + 1);
+		}
+		
+		/**
+		 * @see calculator.MatrixStorage#isZero(int, int)
+		 */
+		@Override
+		public boolean isZero(int a_row, int a_column)
+		{
+			return m_source.isZero(a_row < m_row ? a_row : a_row + 1, a_column < m_column ? a_column : a_column + 1);
+		}
+		
+	}
+	
+	/**
+	 * Two matrices side by side.
+	 */
+	private static final class Beside extends MatrixView
+	{
+		
+		/** The matrix on the left. */
+		private final Matrix m_left;
+		
+		/** The matrix on the right. */
+		private final Matrix m_right;
+		
+		/**
+		 * Instantiates a new view of two matrices side by side.
+		 *
+		 * @param a_left the matrix on the left
+		 * @param a_right the matrix on the right
+		 */
+		Beside(Matrix a_left, Matrix a_right)
+		{
+			super(a_left.getRows(), a_left.getColumns() + a_right.getColumns());
+			m_left = a_left;
+			m_right = a_right;
+		}
+		
+		/**
+		 * @see calculator.MatrixStorage#getCell(int, int)
+		 */
+		@Override
+		public Fraction getCell(int a_row, int a_column)
+		{
+			int split = m_left.getColumns();
+			
+			return a_column < split ? m_left.getCell(a_row, a_column) : m_right.getCell(a_row, a_column - split);
+		}
+		
+		/**
+		 * @see calculator.MatrixStorage#isZero(int, int)
+		 */
+		@Override
+		public boolean isZero(int a_row, int a_column)
+		{
+			int split = m_left.getColumns();
+			
+			return a_column < split ? m_left.isZero(a_row, a_column) : m_right.isZero(a_row, a_column - split);
+		}
+		
+	}
+	
+	/**
+	 * One matrix stacked on top of another.
+	 */
+	private static final class Above extends MatrixView
+	{
+		
+		/** The matrix on top. */
+		private final Matrix m_top;
+		
+		/** The matrix below. */
+		private final Matrix m_bottom;
+		
+		/**
+		 * Instantiates a new view of two stacked matrices.
+		 *
+		 * @param a_top the matrix on top
+		 * @param a_bottom the matrix below
+		 */
+		Above(Matrix a_top, Matrix a_bottom)
+		{
+			super(a_top.getRows() + a_bottom.getRows(), a_top.getColumns());
+			m_top = a_top;
+			m_bottom = a_bottom;
+		}
+		
+		/**
+		 * @see calculator.MatrixStorage#getCell(int, int)
+		 */
+		@Override
+		public Fraction getCell(int a_row, int a_column)
+		{
+			int split = m_top.getRows();
+			
+			return a_row < split ? m_top.getCell(a_row, a_column) : m_bottom.getCell(a_row - split, a_column);
+		}
+		
+		/**
+		 * @see calculator.MatrixStorage#isZero(int, int)
+		 */
+		@Override
+		public boolean isZero(int a_row, int a_column)
+		{
+			int split = m_top.getRows();
+			
+			return a_row < split ? m_top.isZero(a_row, a_column) : m_bottom.isZero(a_row - split, a_column);
+		}
+		
+	}
+	
+	/**
+	 * An identity: 1s on the diagonal, 0s everywhere else.
+	 */
+	private static final class Identity extends MatrixView
+	{
+		
+		/**
+		 * Instantiates a new identity.
+		 *
+		 * @param a_size the amount of rows and columns
+		 */
+		Identity(int a_size)
+		{
+			super(a_size, a_size);
+		}
+		
+		/**
+		 * @see calculator.MatrixStorage#getCell(int, int)
+		 */
+		@Override
+		public Fraction getCell(int a_row, int a_column)
+		{
+			return a_row == a_column ? Fraction.ONE : Fraction.ZERO;
+		}
+		
+		/**
+		 * @see calculator.MatrixStorage#isZero(int, int)
+		 */
+		@Override
+		public boolean isZero(int a_row, int a_column)
+		{
+			return a_row != a_column;
+		}
+		
+	}
+	
+}
@@ -0,0 +1,648 @@
+package calculator;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Computes exact determinants and ranks by working modulo many word-size primes.
+ *
+ * Exact elimination slows down as the entries grow, even fraction-free. Modulo a prime below 2^31,
+ * every value fits in a long, so each prime is a plain O(n^3) elimination. Given a pool, each prime's
+ * elimination runs on its own fork-join worker; without one, the primes run in turn on the calling thread.
+ * The exact determinant is rebuilt from the residues with the Chinese
+ * Remainder Theorem, using enough primes that their product exceeds twice Hadamard's bound on it.
+ *
+ * The rows are first multiplied by the LCM of their denominators, so the primes only see integers.
+ */
+final class ModularEngine
+{
+	
+	/**
+	 * Above this many estimated bits per row, the MatrixEngine uses this engine instead of exact elimination.
+	 * A row's bits are those of its length once scaled to integers, so about those of its largest entry.
+	 * Past a machine word every step of exact elimination is bignum arithmetic from the first pivot on,
+	 * and the primes win. Below it, Bareiss starts out on small numbers and stays ahead of the primes
+	 * until the matrix is large, so the bound is not compared to the whole matrix's.
+	 */
+	static final int THRESHOLD_BITS = 64;
+	
+	/** The largest prime used, the largest prime below 2^31. Residues below it multiply without overflowing a long. */
+	private static final long LARGEST_PRIME = Integer.MAX_VALUE;
+	
+	/** The primes found so far, largest first. Grown on demand. */
+	private static long[] s_primes = new long[0];
+	
+	/** The amount of rows. */
+	private final int m_rows;
+	
+	/** The amount of columns. */
+	private final int m_columns;
+	
+	/** The scaled entries that fit in a long. */
+	private final long[][] m_smallEntries;
+	
+	/** The scaled entries that don't fit in a long, or null where the entry is in m_smallEntries. Null if there are none. */
+	private final BigInteger[][] m_bigEntries;
+	
+	/** The product of the row scales. The determinant of the scaled matrix divided by this is the determinant. */
+	private final BigInteger m_scale;
+	
+	/** The bits in Hadamard's bound: no minor of the scaled matrix has a larger magnitude than 2^m_hadamardBits. */
+	private final int m_hadamardBits;
+	
+	/** The task of the thread that created the engine, if any. The primes may be worked on other threads. */
+	private final MatrixTask<?> m_task;
+	
+	/** The pool to work the primes on, or null to work them on the calling thread. */
+	private final ForkJoinPool m_pool;
+	
+	/**
+	 * Scales a matrix to integers and measures it.
+	 *
+	 * @param a_matrix the matrix
+	 * @param a_pool the pool to work the primes on, or null to work them on the calling thread
+	 */
+	ModularEngine(Matrix a_matrix, ForkJoinPool a_pool)
+	{
+		m_rows = a_matrix.getRows();
+		m_columns = a_matrix.getColumns();
+		m_smallEntries = new long[m_rows][m_columns];
+		
+		BigInteger[][] bigEntries = null;
+		BigInteger scale = BigInteger.ONE;
+		int hadamardBits = 0;
+		
+		for (int row = 0; row < m_rows; row++)
+		{
+			//Scale the row by the LCM of its denominators:
+			BigInteger rowScale = BigInteger.ONE;
+			
+			for (int column = 0; column < m_columns; column++)
+			{
+				BigInteger denominator = a_matrix.getCell(row, column).getBigDenominator();
+				if (denominator.equals(BigInteger.ONE)) continue;
+				
+				rowScale = rowScale.divide(rowScale.gcd(denominator)).multiply(denominator);
+			}
+			
+			BigInteger squareSum = BigInteger.ZERO;
+			
+			for (int column = 0; column < m_columns; column++)
+			{
+				Fraction cell = a_matrix.getCell(row, column);
+				BigInteger entry = cell.getBigNumerator().multiply(rowScale.divide(cell.getBigDenominator()));
+				
+				squareSum = squareSum.add(entry.multiply(entry));
+				
+				if (entry.bitLength() < Long.SIZE)
+				{
+					m_smallEntries[row][column] = entry.longValue();
+				}
+				else
+				{
+					if (bigEntries == null) bigEntries = new BigInteger[m_rows][m_columns];
+					bigEntries[row][column] = entry;
+				}
+			}
+			
+			//The row's length is below 2^ceil(bits / 2) of its square:
+			hadamardBits += (squareSum.bitLength() + 1) / 2;
+			scale = scale.multiply(rowScale);
+		}
+		
+		m_bigEntries = bigEntries;
+		m_scale = scale;
+		m_hadamardBits = hadamardBits;
+		m_task = MatrixTask.current();
+		m_pool = a_pool;
+	}
+	
+	/**
+	 * Checks if the rows of a matrix scaled to integers average more than THRESHOLD_BITS, so that it is
+	 * worth working modulo primes instead of by exact elimination. The bits summed over the rows are
+	 * Hadamard's bound, which covers every minor that fraction-free elimination holds.
+	 *
+	 * Unlike the constructor, this keeps none of the scaled entries, works in longs and doubles while the
+	 * row scales fit, and stops at the first row that takes the sum past the threshold.
+	 *
+	 * @param a_matrix the matrix
+	 * @return true if the rows average more than THRESHOLD_BITS
+	 */
+	static boolean exceedsThreshold(Matrix a_matrix)
+	{
+		long limit = (long) THRESHOLD_BITS * a_matrix.getRows();
+		long hadamardBits = 0;
+		
+		for (int row = 0; row < a_matrix.getRows(); row++)
+		{
+			hadamardBits += rowBits(a_matrix, row);
+			if (hadamardBits > limit) return true;
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Bits in the length of a row once scaled to integers, rounded up.
+	 *
+	 * @param a_matrix the matrix
+	 * @param a_row the row index
+	 * @return the bits
+	 */
+	private static int rowBits(Matrix a_matrix, int a_row)
+	{
+		int columns = a_matrix.getColumns();
+		long rowScale = 1;
+		
+		try
+		{
+			for (int column = 0; column < columns; column++)
+			{
+				Fraction cell = a_matrix.getCell(a_row, column);
+				if (cell.isBig()) return bigRowBits(a_matrix, a_row);
+				
+				long denominator = cell.getDenominator();
+				if (denominator == 1) continue;
+				
+				rowScale = Math.multiplyExact(rowScale / Fraction.gcd(rowScale, denominator), denominator);
+			}
+		}
+		catch (ArithmeticException exception)
+		{
+			//The row scale outgrew a long:
+			return bigRowBits(a_matrix, a_row);
+		}
+		
+		double squareSum = 0;
+		
+		for (int column = 0; column < columns; column++)
+		{
+			Fraction cell = a_matrix.getCell(a_row, column);
+			double entry = (double) cell.getNumerator() * (rowScale / cell.getDenominator());
+			
+			squareSum += entry * entry;
+		}
+		
+		//Same as the constructor's (bitLength + 1) / 2, give or take the rounding of the doubles:
+		return squareSum == 0 ? 0 : (Math.getExponent(squareSum) + 2) / 2;
+	}
+	
+	/**
+	 * Bits in the length of a row once scaled to integers, rounded up, for rows that don't fit in longs.
+	 *
+	 * @param a_matrix the matrix
+	 * @param a_row the row index
+	 * @return the bits
+	 */
+	private static int bigRowBits(Matrix a_matrix, int a_row)
+	{
+		int columns = a_matrix.getColumns();
+		BigInteger rowScale = BigInteger.ONE;
+		
+		for (int column = 0; column < columns; column++)
+		{
+			BigInteger denominator = a_matrix.getCell(a_row, column).getBigDenominator();
+			if (denominator.equals(BigInteger.ONE)) continue;
+			
+			rowScale = rowScale.divide(rowScale.gcd(denominator)).multiply(denominator);
+		}
+		
+		BigInteger squareSum = BigInteger.ZERO;
+		
+		for (int column = 0; column < columns; column++)
+		{
+			Fraction cell = a_matrix.getCell(a_row, column);
+			BigInteger entry = cell.getBigNumerator().multiply(rowScale.divide(cell.getBigDenominator()));
+			
+			squareSum = squareSum.add(entry.multiply(entry));
+		}
+		
+		return (squareSum.bitLength() + 1) / 2;
+	}
+	
+	/**
+	 * Determinant of the square matrix.
+	 *
+	 * @return the determinant
+	 */
+	Fraction determinant()
+	{
+		//The determinant lies in [-bound, bound], so the primes' product must exceed twice the bound:
+		long[] primes = primes(m_hadamardBits + 2);
+		long[] residues = residues(primes);
+		
+		//Rebuild the determinant from the residues one prime at a time (Garner's form of the CRT):
+		BigInteger determinant = BigInteger.valueOf(residues[0]);
+		BigInteger modulus = BigInteger.valueOf(primes[0]);
+		
+		for (int index = 1; index < primes.length; index++)
+		{
+			long prime = primes[index];
+			long current = determinant.mod(BigInteger.valueOf(prime)).longValue();
+			long inverse = inverse(modulus.mod(BigInteger.valueOf(prime)).longValue(), prime);
+			long step = Math.floorMod(residues[index] - current, prime) * inverse % prime;
+			
+			determinant = determinant.add(modulus.multiply(BigInteger.valueOf(step)));
+			modulus = modulus.multiply(BigInteger.valueOf(prime));
+		}
+		
+		//Map the result from [0, modulus) to the symmetric range around 0:
+		if (determinant.shiftLeft(1).compareTo(modulus) > 0) determinant = determinant.subtract(modulus);
+		
+		return BigFraction.valueOf(determinant, m_scale);
+	}
+	
+	/**
+	 * Rank of the matrix.
+	 * The rank modulo a prime is never above the true rank, and is below it only if the prime divides
+	 * every non-zero minor of that size. Taking the largest rank over primes whose product exceeds
+	 * Hadamard's bound is therefore exact.
+	 *
+	 * The primes are worked one at a time, and the rank is taken as soon as it is full, or as soon as two
+	 * primes agree on the largest rank seen. Two primes above 2^30 that both divide every minor of the
+	 * true rank would need those minors to share a factor above 2^60, so the usual case takes two primes
+	 * instead of one per 30 bits of the bound.
+	 *
+	 * @return the rank
+	 */
+	int rank()
+	{
+		long[] primes = primes(m_hadamardBits + 1);
+		long fullRank = Math.min(m_rows, m_columns);
+		long rank = -1;
+		int agreeing = 0;
+		
+		for (int index = 0; index < primes.length; index++)
+		{
+			long current = rankModulo(primes[index]);
+			
+			if (m_task != null) m_task.setProgress(index + 1, primes.length);
+			
+			//A full rank modulo any prime is the true rank, which is the usual case:
+			if (current == fullRank) return (int) current;
+			
+			if (current > rank)
+			{
+				rank = current;
+				agreeing = 1;
+			}
+			else if (current == rank && ++agreeing == 2)
+			{
+				break;
+			}
+		}
+		
+		return (int) rank;
+	}
+	
+	/**
+	 * Computes the determinant modulo each prime, one fork-join task per prime.
+	 * Without a pool, the primes are worked in turn on the calling thread.
+	 *
+	 * @param a_primes the primes
+	 * @return the determinant modulo each prime
+	 */
+	private long[] residues(long[] a_primes)
+	{
+		long[] results = new long[a_primes.length];
+		
+		if (m_pool != null)
+		{
+			m_pool.invoke(new ResidueTask(a_primes, results, new AtomicInteger(), 0, a_primes.length));
+			return results;
+		}
+		
+		//Forking outside a pool would go to the common pool, so work the primes here in turn instead:
+		for (int index = 0; index < a_primes.length; index++)
+		{
+			results[index] = determinantModulo(a_primes[index]);
+			
+			if (m_task != null) m_task.setProgress(index + 1, a_primes.length);
+		}
+		
+		return results;
+	}
+	
+	/**
+	 * Reduces the scaled matrix modulo a prime.
+	 *
+	 * @param a_prime the prime
+	 * @return the entries in [0, a_prime)
+	 */
+	private long[][] reduce(long a_prime)
+	{
+		long[][] reduced = new long[m_rows][m_columns];
+		BigInteger prime = BigInteger.valueOf(a_prime);
+		
+		for (int row = 0; row < m_rows; row++)
+		{
+			for (int column = 0; column < m_columns; column++)
+			{
+				if (m_bigEntries != null && m_bigEntries[row][column] != null)
+				{
+					reduced[row][column] = m_bigEntries[row][column].mod(prime).longValue();
+				}
+				else
+				{
+					reduced[row][column] = Math.floorMod(m_smallEntries[row][column], a_prime);
+				}
+			}
+		}
+		
+		return reduced;
+	}
+	
+	/**
+	 * Determinant of the scaled matrix modulo a prime, by Gaussian elimination.
+	 *
+	 * @param a_prime the prime
+	 * @return the determinant in [0, a_prime)
+	 */
+	private long determinantModulo(long a_prime)
+	{
+		long[][] entries = reduce(a_prime);
+		long determinant = 1;
+		
+		for (int pivot = 0; pivot < m_rows; pivot++)
+		{
+			if (m_task != null) m_task.check();
+			
+			int pivotIndex = pivotRow(entries, pivot, pivot);
+			
+			//No pivot in this column: the determinant is 0 modulo this prime.
+			if (pivotIndex == -1) return 0;
+			
+			if (pivotIndex != pivot)
+			{
+				long[] row = entries[pivot];
+				entries[pivot] = entries[pivotIndex];
+				entries[pivotIndex] = row;
+				determinant = a_prime - determinant;
+			}
+			
+			determinant = determinant * entries[pivot][pivot] % a_prime;
+			eliminateBelow(entries, pivot, pivot, a_prime);
+		}
+		
+		return determinant;
+	}
+	
+	/**
+	 * Rank of the scaled matrix modulo a prime, by Gaussian elimination.
+	 *
+	 * @param a_prime the prime
+	 * @return the rank
+	 */
+	private long rankModulo(long a_prime)
+	{
+		long[][] entries = reduce(a_prime);
+		int rank = 0;
+		
+		for (int column = 0; column < m_columns && rank < m_rows; column++)
+		{
+			if (m_task != null) m_task.check();
+			
+			int pivotIndex = pivotRow(entries, rank, column);
+			if (pivotIndex == -1) continue;
+			
+			long[] row = entries[rank];
+			entries[rank] = entries[pivotIndex];
+			entries[pivotIndex] = row;
+			
+			eliminateBelow(entries, rank, column, a_prime);
+			rank++;
+		}
+		
+		return rank;
+	}
+	
+	/**
+	 * Finds the first row at or below a_fromRow with a non-zero entry in a column.
+	 *
+	 * @param a_entries the entries
+	 * @param a_fromRow the first row to check
+	 * @param a_column the column
+	 * @return the row index, or -1 if there is none
+	 */
+	private int pivotRow(long[][] a_entries, int a_fromRow, int a_column)
+	{
+		for (int row = a_fromRow; row < m_rows; row++)
+		{
+			if (a_entries[row][a_column] != 0) return row;
+		}
+		
+		return -1;
+	}
+	
+	/**
+	 * Creates zeroes below a non-zero pivot modulo a prime.
+	 *
+	 * @param a_entries the entries, in [0, a_prime)
+	 * @param a_pivotRow the pivot row
+	 * @param a_pivotColumn the pivot column
+	 * @param a_prime the prime
+	 */
+	private void eliminateBelow(long[][] a_entries, int a_pivotRow, int a_pivotColumn, long a_prime)
+	{
+		long[] pivotRow = a_entries[a_pivotRow];
+		long pivotInverse = inverse(pivotRow[a_pivotColumn], a_prime);
+		
+		for (int row = a_pivotRow + 1; row < m_rows; row++)
+		{
+			long[] current = a_entries[row];
+			if (current[a_pivotColumn] == 0) continue;
+			
+			//Subtracting factor * pivot row is the same as adding (prime - factor) * pivot row:
+			long factor = a_prime - current[a_pivotColumn] * pivotInverse % a_prime;
+			
+			for (int column = a_pivotColumn; column < m_columns; column++)
+			{
+				current[column] = (current[column] + factor * pivotRow[column]) % a_prime;
+			}
+		}
+	}
+	
+	/**
+	 * Inverse of a non-zero value modulo a prime, by the extended Euclidean algorithm.
+	 *
+	 * @param a_value the value, in [1, a_prime)
+	 * @param a_prime the prime
+	 * @return the inverse, in [1, a_prime)
+	 */
+	private static long inverse(long a_value, long a_prime)
+	{
+		long remainder = a_prime, newRemainder = a_value;
+		long coefficient = 0, newCoefficient = 1;
+		
+		while (newRemainder != 0)
+		{
+			long quotient = remainder / newRemainder;
+			
+			long nextRemainder = remainder - quotient * newRemainder;
+			remainder = newRemainder;
+			newRemainder = nextRemainder;
+			
+			long nextCoefficient = coefficient - quotient * newCoefficient;
+			coefficient = newCoefficient;
+			newCoefficient = nextCoefficient;
+		}
+		
+		return Math.floorMod(coefficient, a_prime);
+	}
+	
+	/**
+	 * Gets the largest primes below 2^31, as many as it takes for their product to reach 2^a_bits.
+	 *
+	 * @param a_bits the bits the product must reach
+	 * @return the primes, largest first
+	 */
+	private static synchronized long[] primes(int a_bits)
+	{
+		//Every prime used is above 2^30, so each adds at least 30 bits:
+		int count = Math.max(1, (a_bits + 29) / 30);
+		
+		if (s_primes.length < count)
+		{
+			long[] primes = Arrays.copyOf(s_primes, Math.max(count, 2 * s_primes.length));
+			long candidate = (s_primes.length == 0) ? LARGEST_PRIME : s_primes[s_primes.length - 1] - 2;
+			
+			for (int index = s_primes.length; index < primes.length; candidate -= 2)
+			{
+				if (isPrime(candidate)) primes[index++] = candidate;
+			}
+			
+			s_primes = primes;
+		}
+		
+		return Arrays.copyOf(s_primes, count);
+	}
+	
+	/**
+	 * Checks if an odd number below 2^31 is prime, with Miller-Rabin on the bases 2, 3, 5 and 7.
+	 * Those bases are enough for every number below 3,215,031,751.
+	 *
+	 * @param a_candidate the odd number
+	 * @return true, if prime
+	 */
+	private static boolean isPrime(long a_candidate)
+	{
+		long oddPart = a_candidate - 1;
+		int twos = 0;
+		
+		while ((oddPart & 1) == 0)
+		{
+			oddPart >>= 1;
+			twos++;
+		}
+		
+		for (long base : new long[] { 2, 3, 5, 7 })
+		{
+			if (base % a_candidate == 0) continue;
+			
+			long value = power(base, oddPart, a_candidate);
+			if (value == 1 || value == a_candidate - 1) continue;
+			
+			boolean composite = true;
+			
+			for (int square = 1; square < twos && composite; square++)
+			{
+				value = value * value % a_candidate;
+				if (value == a_candidate - 1) composite = false;
+			}
+			
+			if (composite) return false;
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Raises a value to a power modulo a number below 2^31.
+	 *
+	 * @param a_base the base
+	 * @param a_exponent the exponent
+	 * @param a_modulus the modulus
+	 * @return the result, in [0, a_modulus)
+	 */
+	private static long power(long a_base, long a_exponent, long a_modulus)
+	{
+		long result = 1;
+		long base = a_base % a_modulus;
+		
+		for (long exponent = a_exponent; exponent > 0; exponent >>= 1)
+		{
+			if ((exponent & 1) == 1) result = result * base % a_modulus;
+			base = base * base % a_modulus;
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Computes the determinant for a range of primes, splitting the range until each task has one prime.
+	 */
+	private final class ResidueTask extends RecursiveAction
+	{
+		
+		/** The serial version UID. */
+		private static final long serialVersionUID = 1L;
+		
+		/** All the primes. */
+		private final long[] m_primes;
+		
+		/** The result for each prime. */
+		private final long[] m_results;
+		
+		/** The amount of primes done, shared by every task of the run. */
+		private final AtomicInteger m_done;
+		
+		/** The first prime index of this task. */
+		private final int m_from;
+		
+		/** The prime index after the last one of this task. */
+		private final int m_to;
+		
+		/**
+		 * Instantiates a new residue task.
+		 *
+		 * @param a_primes all the primes
+		 * @param a_results the result for each prime
+		 * @param a_done the amount of primes done
+		 * @param a_from the first prime index
+		 * @param a_to the prime index after the last one
+		 */
+		ResidueTask(long[] a_primes, long[] a_results, AtomicInteger a_done, int a_from, int a_to)
+		{
+			m_primes = a_primes;
+			m_results = a_results;
+			m_done = a_done;
+			m_from = a_from;
+			m_to = a_to;
+		}
+		
+		/**
+		 * @see java.util.concurrent.RecursiveAction#compute()
+		 */
+		@Override
+		protected void compute()
+		{
+			if (m_to - m_from == 1)
+			{
+				long prime = m_primes[m_from];
+				m_results[m_from] = determinantModulo(prime);
+				
+				if (m_task != null) m_task.setProgress(m_done.incrementAndGet(), m_primes.length);
+				return;
+			}
+			
+			int middle = (m_from + m_to) >>> 1;
+			invokeAll(new ResidueTask(m_primes, m_results, m_done, m_from, middle),
+					new ResidueTask(m_primes, m_results, m_done, middle, m_to));
+		}
+		
+	}
+	
+}
@@ -0,0 +1,18 @@
+package calculator;
+
+/**
+ * The ways the {@link MatrixEngine} can multiply two matrices.
+ */
+public enum MultiplyStrategy
+{
+	
+	/** Every product of cells, in cache-sized blocks, summed with deferred reduction. */
+	BLOCKED,
+	
+	/**
+	 * Winograd's form of Strassen's recursion while every side is at least the crossover, then blocked.
+	 * Fewer multiplies, but more additions, and each exact addition needs a GCD as well.
+	 */
+	STRASSEN_WINOGRAD
+	
+}
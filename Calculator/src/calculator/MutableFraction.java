@@ -0,0 +1,174 @@
+package calculator;
+
+/**
+ * A fraction held in two longs that is updated in place, for the primitive kernels.
+ * It follows the same rules as Fraction (lowest terms, positive denominator) but never allocates.
+ * Operations throw ArithmeticException instead of promoting to a BigFraction; the kernels catch it
+ * and fall back to the Fraction path.
+ */
+final class MutableFraction
+{
+	
+	/** The numerator. */
+	private long m_numerator;
+	
+	/** The denominator. Always positive. */
+	private long m_denominator;
+	
+	/**
+	 * Instantiates a new mutable fraction equal to 0.
+	 */
+	MutableFraction()
+	{
+		m_numerator = 0;
+		m_denominator = 1;
+	}
+	
+	/**
+	 * Gets the numerator.
+	 *
+	 * @return the numerator
+	 */
+	long getNumerator()
+	{
+		return m_numerator;
+	}
+	
+	/**
+	 * Gets the denominator.
+	 *
+	 * @return the denominator
+	 */
+	long getDenominator()
+	{
+		return m_denominator;
+	}
+	
+	/**
+	 * Checks if the value is 0.
+	 *
+	 * @return true, if it is 0
+	 */
+	boolean isZero()
+	{
+		return m_numerator == 0;
+	}
+	
+	/**
+	 * Sets the value from a numerator and positive denominator already in lowest terms.
+	 *
+	 * @param a_numerator the numerator
+	 * @param a_denominator the denominator
+	 */
+	void set(long a_numerator, long a_denominator)
+	{
+		m_numerator = a_numerator;
+		m_denominator = a_denominator;
+	}
+	
+	/**
+	 * Adds a fraction in lowest terms to this one, using the same LCM scheme as Fraction.add.
+	 *
+	 * @param a_numerator the numerator to add
+	 * @param a_denominator the positive denominator to add
+	 * @throws ArithmeticException if the result does not fit in a long
+	 */
+	void add(long a_numerator, long a_denominator)
+	{
+		if (a_numerator == 0) return;
+		
+		if (m_denominator == 1 && a_denominator == 1)
+		{
+			m_numerator = Math.addExact(m_numerator, a_numerator);
+			return;
+		}
+		
+		long gcd = Fraction.gcd(m_denominator, a_denominator);
+		
+		if (gcd == 1)
+		{
+			long lhsNum = Math.multiplyExact(m_numerator, a_denominator);
+			long rhsNum = Math.multiplyExact(a_numerator, m_denominator);
+			m_numerator = Math.addExact(lhsNum, rhsNum);
+			m_denominator = Math.multiplyExact(m_denominator, a_denominator);
+			return;
+		}
+		
+		long lhsNum = Math.multiplyExact(m_numerator, a_denominator / gcd);
+		long rhsNum = Math.multiplyExact(a_numerator, m_denominator / gcd);
+		long newNumerator = Math.addExact(lhsNum, rhsNum);
+		
+		if (newNumerator == 0)
+		{
+			m_numerator = 0;
+			m_denominator = 1;
+			return;
+		}
+		
+		long common = Fraction.gcd(newNumerator, gcd);
+		m_numerator = newNumerator / common;
+		m_denominator = Math.multiplyExact(m_denominator / common, a_denominator / gcd);
+	}
+	
+	/**
+	 * Multiplies this fraction by a fraction in lowest terms, cross-reducing first.
+	 *
+	 * @param a_numerator the numerator to multiply by
+	 * @param a_denominator the positive denominator to multiply by
+	 * @throws ArithmeticException if the result does not fit in a long
+	 */
+	void multiply(long a_numerator, long a_denominator)
+	{
+		if (m_numerator == 0) return;
+		
+		if (a_numerator == 0)
+		{
+			m_numerator = 0;
+			m_denominator = 1;
+			return;
+		}
+		
+		long gcdLeft = Fraction.gcd(m_numerator, a_denominator);
+		long gcdRight = Fraction.gcd(a_numerator, m_denominator);
+		
+		m_numerator = Math.multiplyExact(m_numerator / gcdLeft, a_numerator / gcdRight);
+		m_denominator = Math.multiplyExact(m_denominator / gcdRight, a_denominator / gcdLeft);
+	}
+	
+	/**
+	 * Divides this fraction by a non-zero fraction in lowest terms.
+	 *
+	 * @param a_numerator the non-zero numerator to divide by
+	 * @param a_denominator the positive denominator to divide by
+	 * @throws ArithmeticException if the result does not fit in a long
+	 */
+	void divide(long a_numerator, long a_denominator)
+	{
+		//Multiply by the reciprocal, moving its sign to the numerator:
+		if (a_numerator < 0) multiply(Math.negateExact(a_denominator), Math.negateExact(a_numerator));
+		else multiply(a_denominator, a_numerator);
+	}
+	
+	/**
+	 * Adds the product of two fractions in lowest terms to this one: this += a * b.
+	 *
+	 * @param a_firstNumerator the first numerator
+	 * @param a_firstDenominator the first denominator
+	 * @param a_secondNumerator the second numerator
+	 * @param a_secondDenominator the second denominator
+	 * @throws ArithmeticException if the result does not fit in a long
+	 */
+	void addProduct(long a_firstNumerator, long a_firstDenominator, long a_secondNumerator, long a_secondDenominator)
+	{
+		if (a_firstNumerator == 0 || a_secondNumerator == 0) return;
+		
+		long gcdLeft = Fraction.gcd(a_firstNumerator, a_secondDenominator);
+		long gcdRight = Fraction.gcd(a_secondNumerator, a_firstDenominator);
+		
+		long productNumerator = Math.multiplyExact(a_firstNumerator / gcdLeft, a_secondNumerator / gcdRight);
+		long productDenominator = Math.multiplyExact(a_firstDenominator / gcdRight, a_secondDenominator / gcdLeft);
+		
+		add(productNumerator, productDenominator);
+	}
+	
+}
@@ -0,0 +1,473 @@
+package calculator;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.HashMap;
+
+/**
+ * Stores the cells of a Matrix outside the Java heap, in direct buffers, using the same
+ * numerator/denominator layout as {@link PrimitiveMatrixStorage}. The garbage collector never scans
+ * the cells, so very large operands don't slow down collections for the rest of the program.
+ *
+ * A direct buffer holds at most 2GB, so the rows are split across as many buffers as needed.
+ * The MatrixEngine streams over the rows with primitive kernels instead of creating Fractions.
+ *
+ * The storage must be closed when it is no longer needed, preferably with try-with-resources.
+ * Closing drops the buffers right away and any later access throws IllegalStateException.
+ * The native memory itself is released once the buffers are collected. Java 8 has no public
+ * way to free it sooner. Results of the calculator that are off-heap must be closed by the caller.
+ * Not thread safe.
+ */
+public class OffHeapMatrixStorage implements MatrixStorage, AutoCloseable
+{
+	
+	/** The most cells in one buffer: 2^27 longs is 1GB, half of the 2GB buffer limit. */
+	private static final int CHUNK_CELLS = 1 << 27;
+	
+	/** The amount of rows. */
+	private final int m_rows;
+	
+	/** The amount of columns. */
+	private final int m_columns;
+	
+	/** The amount of whole rows held by each buffer. */
+	private final int m_rowsPerChunk;
+	
+	/** The numerators, row-major, one buffer per chunk of rows. Null once closed. */
+	private LongBuffer[] m_numerators;
+	
+	/** The denominators, row-major, one buffer per chunk of rows. 0 marks a cell in the big cell table. Null once closed. */
+	private LongBuffer[] m_denominators;
+	
+	/** The cells that don't fit in a long, by row-major index. Null until one is stored. */
+	private HashMap<Long, Fraction> m_bigCells;
+	
+	/**
+	 * Creates a new off-heap storage of the given size with every cell 0.
+	 *
+	 * @param a_rows the amount of rows
+	 * @param a_columns the amount of columns
+	 */
+	public OffHeapMatrixStorage(int a_rows, int a_columns)
+	{
+		m_rows = a_rows;
+		m_columns = a_columns;
+		m_rowsPerChunk = Math.max(1, CHUNK_CELLS / Math.max(1, a_columns));
+		
+		int chunks = (a_rows + m_rowsPerChunk - 1) / m_rowsPerChunk;
+		m_numerators = new LongBuffer[chunks];
+		m_denominators = new LongBuffer[chunks];
+		
+		for (int chunk = 0; chunk < chunks; chunk++)
+		{
+			int cells = Math.min(m_rowsPerChunk, a_rows - chunk * m_rowsPerChunk) * a_columns;
+			
+			//New direct buffers are zeroed, which is what the numerators need:
+			m_numerators[chunk] = allocate(cells);
+			m_denominators[chunk] = allocate(cells);
+			
+			for (int index = 0; index < cells; index++)
+			{
+				m_denominators[chunk].put(index, 1);
+			}
+		}
+	}
+	
+	/**
+	 * Creates a new off-heap storage with the same size and values as another storage.
+	 *
+	 * @param a_other the storage to copy the values from
+	 */
+	public OffHeapMatrixStorage(MatrixStorage a_other)
+	{
+		this(a_other.getRows(), a_other.getColumns());
+		
+		for (int row = 0; row < m_rows; row++)
+		{
+			for (int column = 0; column < m_columns; column++)
+			{
+				setCell(row, column, a_other.getCell(row, column));
+			}
+		}
+	}
+	
+	/**
+	 * Allocates a direct buffer of longs in the platform's byte order.
+	 *
+	 * @param a_cells the amount of longs
+	 * @return the buffer
+	 */
+	private static LongBuffer allocate(int a_cells)
+	{
+		return ByteBuffer.allocateDirect(a_cells * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer();
+	}
+	
+	/**
+	 * @see calculator.MatrixStorage#getRows()
+	 */
+	@Override
+	public int getRows()
+	{
+		return m_rows;
+	}
+	
+	/**
+	 * @see calculator.MatrixStorage#getColumns()
+	 */
+	@Override
+	public int getColumns()
+	{
+		return m_columns;
+	}
+	
+	/**
+	 * Checks if the storage has been closed.
+	 *
+	 * @return true, if closed
+	 */
+	public boolean isClosed()
+	{
+		return m_numerators == null;
+	}
+	
+	/**
+	 * Drops the buffers. Closing twice does nothing.
+	 *
+	 * @see java.lang.AutoCloseable#close()
+	 */
+	@Override
+	public void close()
+	{
+		m_numerators = null;
+		m_denominators = null;
+		m_bigCells = null;
+	}
+	
+	/**
+	 * Gets the buffer of numerators holding a row.
+	 *
+	 * @param a_row the row index
+	 * @return the buffer
+	 * @throws IllegalStateException if the storage is closed
+	 */
+	private LongBuffer numerators(int a_row)
+	{
+		if (m_numerators == null) throw new IllegalStateException("Matrix storage is closed");
+		
+		return m_numerators[a_row / m_rowsPerChunk];
+	}
+	
+	/**
+	 * Gets the buffer of denominators holding a row.
+	 *
+	 * @param a_row the row index
+	 * @return the buffer
+	 * @throws IllegalStateException if the storage is closed
+	 */
+	private LongBuffer denominators(int a_row)
+	{
+		if (m_denominators == null) throw new IllegalStateException("Matrix storage is closed");
+		
+		return m_denominators[a_row / m_rowsPerChunk];
+	}
+	
+	/**
+	 * Gets the index of the first cell of a row within its buffer.
+	 *
+	 * @param a_row the row index
+	 * @return the index
+	 */
+	private int rowOffset(int a_row)
+	{
+		return (a_row % m_rowsPerChunk) * m_columns;
+	}
+	
+	/**
+	 * Gets the row-major index of a cell over the whole matrix, the key of the big cell table.
+	 *
+	 * @param a_row the row index
+	 * @param a_column the column index
+	 * @return the index
+	 */
+	private long bigIndex(int a_row, int a_column)
+	{
+		return (long) a_row * m_columns + a_column;
+	}
+	
+	/**
+	 * Gets the numerator of a cell without creating a Fraction.
+	 *
+	 * @param a_row the row index
+	 * @param a_column the column index
+	 * @return the numerator
+	 * @throws ArithmeticException if the cell does not fit in a long
+	 */
+	public long getNumerator(int a_row, int a_column)
+	{
+		int index = rowOffset(a_row) + a_column;
+		if (denominators(a_row).get(index) == 0) return m_bigCells.get(bigIndex(a_row, a_column)).getNumerator();
+		
+		return numerators(a_row).get(index);
+	}
+	
+	/**
+	 * Gets the denominator of a cell without creating a Fraction.
+	 *
+	 * @param a_row the row index
+	 * @param a_column the column index
+	 * @return the positive denominator
+	 * @throws ArithmeticException if the cell does not fit in a long
+	 */
+	public long getDenominator(int a_row, int a_column)
+	{
+		int index = rowOffset(a_row) + a_column;
+		long denominator = denominators(a_row).get(index);
+		if (denominator == 0) return m_bigCells.get(bigIndex(a_row, a_column)).getDenominator();
+		
+		return denominator;
+	}
+	
+	/**
+	 * Sets a cell from a numerator and denominator without creating a Fraction.
+	 *
+	 * @param a_row the row index
+	 * @param a_column the column index
+	 * @param a_numerator the numerator
+	 * @param a_denominator the denominator. 0 is treated as 1, as in Fraction.
+	 * @throws ArithmeticException if the sign can't be moved to the numerator without overflow
+	 */
+	public void setCell(int a_row, int a_column, long a_numerator, long a_denominator)
+	{
+		if (a_denominator == 0) a_denominator = 1;
+		
+		//Switch the negative (if it exists) from the denominator to the numerator
+		if (a_denominator < 0)
+		{
+			a_numerator = Math.negateExact(a_numerator);
+			a_denominator = Math.negateExact(a_denominator);
+		}
+		
+		long gcd = Fraction.gcd(a_numerator, a_denominator);
+		
+		if (gcd > 1)
+		{
+			a_numerator /= gcd;
+			a_denominator /= gcd;
+		}
+		
+		setReduced(a_row, a_column, a_numerator, a_denominator);
+	}
+	
+	/**
+	 * Sets a cell from a numerator and positive denominator already in lowest terms.
+	 *
+	 * @param a_row the row index
+	 * @param a_column the column index
+	 * @param a_numerator the numerator
+	 * @param a_denominator the denominator
+	 */
+	private void setReduced(int a_row, int a_column, long a_numerator, long a_denominator)
+	{
+		int index = rowOffset(a_row) + a_column;
+		LongBuffer denominators = denominators(a_row);
+		
+		if (denominators.get(index) == 0) m_bigCells.remove(bigIndex(a_row, a_column));
+		
+		numerators(a_row).put(index, a_numerator);
+		denominators.put(index, a_denominator);
+	}
+	
+	/**
+	 * @see calculator.MatrixStorage#getCell(int, int)
+	 */
+	@Override
+	public Fraction getCell(int a_row, int a_column)
+	{
+		int index = rowOffset(a_row) + a_column;
+		long denominator = denominators(a_row).get(index);
+		if (denominator == 0) return m_bigCells.get(bigIndex(a_row, a_column));
+		
+		return Fraction.reduced(numerators(a_row).get(index), denominator);
+	}
+	
+	/**
+	 * @see calculator.MatrixStorage#setCell(int, int, calculator.Fraction)
+	 */
+	@Override
+	public void setCell(int a_row, int a_column, Fraction a_value)
+	{
+		if (a_value.isBig())
+		{
+			int index = rowOffset(a_row) + a_column;
+			if (m_bigCells == null) m_bigCells = new HashMap<Long, Fraction>();
+			
+			m_bigCells.put(bigIndex(a_row, a_column), a_value);
+			numerators(a_row).put(index, 0);
+			denominators(a_row).put(index, 0);
+		}
+		else
+		{
+			setReduced(a_row, a_column, a_value.getNumerator(), a_value.getDenominator());
+		}
+	}
+	
+	/**
+	 * @see calculator.MatrixStorage#isZero(int, int)
+	 */
+	@Override
+	public boolean isZero(int a_row, int a_column)
+	{
+		int index = rowOffset(a_row) + a_column;
+		
+		//A big cell has a numerator of 0 in the buffer, but is never 0 itself:
+		return numerators(a_row).get(index) == 0 && denominators(a_row).get(index) != 0;
+	}
+	
+	/**
+	 * Returns a copy of the row, since the row isn't held as a Fraction array.
+	 *
+	 * @see calculator.MatrixStorage#getRow(int)
+	 */
+	@Override
+	public Fraction[] getRow(int a_row)
+	{
+		Fraction[] row = new Fraction[m_columns];
+		
+		for (int column = 0; column < m_columns; column++)
+		{
+			row[column] = getCell(a_row, column);
+		}
+		
+		return row;
+	}
+	
+	/**
+	 * Copies the values into the row.
+	 *
+	 * @see calculator.MatrixStorage#setRow(int, calculator.Fraction[])
+	 */
+	@Override
+	public void setRow(int a_row, Fraction[] a_values)
+	{
+		for (int column = 0; column < m_columns; column++)
+		{
+			setCell(a_row, column, a_values[column]);
+		}
+	}
+	
+	/**
+	 * Copies a row into two arrays, for the kernels. The row must not hold big cells.
+	 *
+	 * @param a_row the row index
+	 * @param a_numerators receives the numerators, at least one per column
+	 * @param a_denominators receives the denominators, at least one per column
+	 */
+	void readRow(int a_row, long[] a_numerators, long[] a_denominators)
+	{
+		LongBuffer numerators = numerators(a_row);
+		LongBuffer denominators = denominators(a_row);
+		int offset = rowOffset(a_row);
+		
+		for (int column = 0; column < m_columns; column++)
+		{
+			a_numerators[column] = numerators.get(offset + column);
+			a_denominators[column] = denominators.get(offset + column);
+		}
+	}
+	
+	/**
+	 * Copies a row from two arrays in lowest terms with positive denominators, for the kernels.
+	 * The row must not hold big cells.
+	 *
+	 * @param a_row the row index
+	 * @param a_numerators the numerators, at least one per column
+	 * @param a_denominators the denominators, at least one per column
+	 */
+	void writeRow(int a_row, long[] a_numerators, long[] a_denominators)
+	{
+		LongBuffer numerators = numerators(a_row);
+		LongBuffer denominators = denominators(a_row);
+		int offset = rowOffset(a_row);
+		
+		for (int column = 0; column < m_columns; column++)
+		{
+			numerators.put(offset + column, a_numerators[column]);
+			denominators.put(offset + column, a_denominators[column]);
+		}
+	}
+	
+	/**
+	 * @see calculator.MatrixStorage#swapRows(int, int)
+	 */
+	@Override
+	public void swapRows(int a_firstRowIndex, int a_secondRowIndex)
+	{
+		if (a_firstRowIndex == a_secondRowIndex) return;
+		
+		//Move big cells through Fraction objects so the side table stays keyed correctly:
+		if (hasBigCells())
+		{
+			Fraction[] firstRow = getRow(a_firstRowIndex);
+			setRow(a_firstRowIndex, getRow(a_secondRowIndex));
+			setRow(a_secondRowIndex, firstRow);
+			return;
+		}
+		
+		LongBuffer firstNumerators = numerators(a_firstRowIndex);
+		LongBuffer firstDenominators = denominators(a_firstRowIndex);
+		LongBuffer secondNumerators = numerators(a_secondRowIndex);
+		LongBuffer secondDenominators = denominators(a_secondRowIndex);
+		int first = rowOffset(a_firstRowIndex);
+		int second = rowOffset(a_secondRowIndex);
+		
+		for (int column = 0; column < m_columns; column++)
+		{
+			long numerator = firstNumerators.get(first + column);
+			firstNumerators.put(first + column, secondNumerators.get(second + column));
+			secondNumerators.put(second + column, numerator);
+			
+			long denominator = firstDenominators.get(first + column);
+			firstDenominators.put(first + column, secondDenominators.get(second + column));
+			secondDenominators.put(second + column, denominator);
+		}
+	}
+	
+	/**
+	 * Copies into new off-heap buffers, which the caller must close.
+	 *
+	 * @see calculator.MatrixStorage#copy()
+	 */
+	@Override
+	public MatrixStorage copy()
+	{
+		if (isClosed()) throw new IllegalStateException("Matrix storage is closed");
+		
+		OffHeapMatrixStorage copy = new OffHeapMatrixStorage(m_rows, m_columns);
+		
+		for (int chunk = 0; chunk < m_numerators.length; chunk++)
+		{
+			copy.m_numerators[chunk].put(m_numerators[chunk].duplicate());
+			copy.m_denominators[chunk].put(m_denominators[chunk].duplicate());
+			
+			//Relative bulk puts move the position. Rewind it, since everything else uses absolute indices:
+			copy.m_numerators[chunk].clear();
+			copy.m_denominators[chunk].clear();
+		}
+		
+		if (hasBigCells()) copy.m_bigCells = new HashMap<Long, Fraction>(m_bigCells);
+		
+		return copy;
+	}
+	
+	/**
+	 * Checks if any cell is too big for a long. The kernels only run when none is.
+	 *
+	 * @return true, if there are big cells
+	 */
+	public boolean hasBigCells()
+	{
+		return m_bigCells != null && !m_bigCells.isEmpty();
+	}
+	
+}
@@ -0,0 +1,799 @@
+package calculator;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Matrix operations that run directly on the flat long arrays of a {@link PrimitiveMatrixStorage},
+ * without creating a Fraction per cell.
+ *
+ * Every kernel throws ArithmeticException as soon as a value no longer fits in a long. The
+ * MatrixEngine catches it and redoes the operation with Fractions, which promote to BigFraction.
+ * Inputs are never modified, so a failed kernel leaves nothing to undo.
+ *
+ * The add and multiply on arrays can split their rows over a fork-join pool. Every row is computed
+ * the same way on any thread, so the result is the same as on one thread.
+ */
+final class PrimitiveKernels
+{
+	
+	/**
+	 * Not instantiable.
+	 */
+	private PrimitiveKernels()
+	{
+	}
+	
+	/**
+	 * Adds or subtracts two matrices of the same size element-wise.
+	 *
+	 * @param a_lhs the left-hand side
+	 * @param a_rhs the right-hand side
+	 * @param a_subtract if true, subtract instead of add
+	 * @param a_pool the pool to split the rows over, or null to stay on this thread
+	 * @return the sum or difference
+	 * @throws ArithmeticException if a cell does not fit in a long
+	 */
+	static PrimitiveMatrixStorage add(PrimitiveMatrixStorage a_lhs, PrimitiveMatrixStorage a_rhs, boolean a_subtract, ForkJoinPool a_pool)
+	{
+		PrimitiveMatrixStorage sum = new PrimitiveMatrixStorage(a_lhs.getRows(), a_lhs.getColumns());
+		
+		RowBlockTask.run(a_pool, new AddRows(a_lhs, a_rhs, sum, a_subtract), a_lhs.getRows(), MatrixEngine.MULTIPLY_BLOCK);
+		
+		return sum;
+	}
+	
+	/**
+	 * Adds or subtracts two off-heap matrices of the same size element-wise, one row at a time.
+	 * The caller owns the result and must close it.
+	 *
+	 * @param a_lhs the left-hand side
+	 * @param a_rhs the right-hand side
+	 * @param a_subtract if true, subtract instead of add
+	 * @return the sum or difference, off-heap
+	 * @throws ArithmeticException if a cell does not fit in a long
+	 */
+	static OffHeapMatrixStorage add(OffHeapMatrixStorage a_lhs, OffHeapMatrixStorage a_rhs, boolean a_subtract)
+	{
+		int rows = a_lhs.getRows();
+		int columns = a_lhs.getColumns();
+		
+		long[] lhsNumerators = new long[columns];
+		long[] lhsDenominators = new long[columns];
+		long[] rhsNumerators = new long[columns];
+		long[] rhsDenominators = new long[columns];
+		
+		MutableFraction cell = new MutableFraction();
+		OffHeapMatrixStorage sum = new OffHeapMatrixStorage(rows, columns);
+		
+		try
+		{
+			for (int row = 0; row < rows; row++)
+			{
+				a_lhs.readRow(row, lhsNumerators, lhsDenominators);
+				a_rhs.readRow(row, rhsNumerators, rhsDenominators);
+				
+				//The LHS row doubles as the result row:
+				addRange(lhsNumerators, lhsDenominators, rhsNumerators, rhsDenominators, lhsNumerators, lhsDenominators,
+						0, columns, a_subtract, cell);
+				
+				sum.writeRow(row, lhsNumerators, lhsDenominators);
+			}
+		}
+		catch (RuntimeException exception)
+		{
+			sum.close();
+			throw exception;
+		}
+		
+		return sum;
+	}
+	
+	/**
+	 * Adds or subtracts a range of entries of two arrays element-wise. The result may overwrite an input.
+	 *
+	 * @param a_lhsNumerators the left-hand numerators
+	 * @param a_lhsDenominators the left-hand denominators
+	 * @param a_rhsNumerators the right-hand numerators
+	 * @param a_rhsDenominators the right-hand denominators
+	 * @param a_numerators the result numerators
+	 * @param a_denominators the result denominators
+	 * @param a_from the first entry
+	 * @param a_to the entry after the last one
+	 * @param a_subtract if true, subtract instead of add
+	 * @param a_cell scratch space
+	 * @throws ArithmeticException if an entry does not fit in a long
+	 */
+	private static void addRange(long[] a_lhsNumerators, long[] a_lhsDenominators, long[] a_rhsNumerators, long[] a_rhsDenominators,
+			long[] a_numerators, long[] a_denominators, int a_from, int a_to, boolean a_subtract, MutableFraction a_cell)
+	{
+		for (int index = a_from; index < a_to; index++)
+		{
+			long rhsNumerator = a_subtract ? Math.negateExact(a_rhsNumerators[index]) : a_rhsNumerators[index];
+			
+			a_cell.set(a_lhsNumerators[index], a_lhsDenominators[index]);
+			a_cell.add(rhsNumerator, a_rhsDenominators[index]);
+			
+			a_numerators[index] = a_cell.getNumerator();
+			a_denominators[index] = a_cell.getDenominator();
+		}
+	}
+	
+	/**
+	 * Multiplies two matrices, the same way as the Fraction multiply in the MatrixEngine:
+	 * the RHS is transposed once, the product is computed in cache-sized blocks, and each cell
+	 * of a block sums its dot product in a FractionAccumulator with deferred reduction.
+	 * Cells that outgrow a long are stored as big cells, so this never fails on overflow.
+	 *
+	 * @param a_lhs the left-hand side
+	 * @param a_rhs the right-hand side, with as many rows as the LHS has columns
+	 * @param a_pool the pool to split the row blocks over, or null to stay on this thread
+	 * @return the product
+	 */
+	static PrimitiveMatrixStorage multiply(PrimitiveMatrixStorage a_lhs, PrimitiveMatrixStorage a_rhs, ForkJoinPool a_pool)
+	{
+		int inner = a_lhs.getColumns();
+		int columns = a_rhs.getColumns();
+		
+		//Transpose the RHS once, so every dot product walks two contiguous runs:
+		long[] rhsNumerators = a_rhs.getNumerators();
+		long[] rhsDenominators = a_rhs.getDenominators();
+		long[] columnNumerators = new long[columns * inner];
+		long[] columnDenominators = new long[columns * inner];
+		
+		for (int k = 0; k < inner; k++)
+		{
+			for (int column = 0; column < columns; column++)
+			{
+				columnNumerators[column * inner + k] = rhsNumerators[k * columns + column];
+				columnDenominators[column * inner + k] = rhsDenominators[k * columns + column];
+			}
+		}
+		
+		PrimitiveMatrixStorage product = new PrimitiveMatrixStorage(a_lhs.getRows(), columns);
+		
+		RowBlockTask.run(a_pool, new MultiplyRows(a_lhs, columnNumerators, columnDenominators, product),
+				a_lhs.getRows(), MatrixEngine.MULTIPLY_BLOCK);
+		
+		return product;
+	}
+	
+	/**
+	 * Multiplies two off-heap matrices, streaming one row of each side at a time.
+	 * Each row of the product accumulates multiples of rows of the RHS, one FractionAccumulator per column,
+	 * so only a few rows are ever on the heap. Cells that outgrow a long are stored as big cells.
+	 * The caller owns the result and must close it.
+	 *
+	 * @param a_lhs the left-hand side
+	 * @param a_rhs the right-hand side, with as many rows as the LHS has columns
+	 * @return the product, off-heap
+	 */
+	static OffHeapMatrixStorage multiply(OffHeapMatrixStorage a_lhs, OffHeapMatrixStorage a_rhs)
+	{
+		int rows = a_lhs.getRows();
+		int inner = a_lhs.getColumns();
+		int columns = a_rhs.getColumns();
+		
+		long[] lhsNumerators = new long[inner];
+		long[] lhsDenominators = new long[inner];
+		long[] rhsNumerators = new long[columns];
+		long[] rhsDenominators = new long[columns];
+		long[] numerators = new long[columns];
+		long[] denominators = new long[columns];
+		
+		FractionAccumulator[] sums = new FractionAccumulator[columns];
+		for (int column = 0; column < columns; column++)
+		{
+			sums[column] = new FractionAccumulator();
+		}
+		
+		OffHeapMatrixStorage product = new OffHeapMatrixStorage(rows, columns);
+		
+		try
+		{
+			for (int row = 0; row < rows; row++)
+			{
+				a_lhs.readRow(row, lhsNumerators, lhsDenominators);
+				
+				for (FractionAccumulator sum : sums)
+				{
+					sum.reset();
+				}
+				
+				for (int k = 0; k < inner; k++)
+				{
+					if (lhsNumerators[k] == 0) continue;
+					
+					a_rhs.readRow(k, rhsNumerators, rhsDenominators);
+					
+					for (int column = 0; column < columns; column++)
+					{
+						sums[column].addProduct(lhsNumerators[k], lhsDenominators[k], rhsNumerators[column], rhsDenominators[column]);
+					}
+				}
+				
+				//Write the row with placeholder zeroes for big sums, then store those as big cells:
+				for (int column = 0; column < columns; column++)
+				{
+					boolean big = sums[column].isBig();
+					numerators[column] = big ? 0 : sums[column].getNumerator();
+					denominators[column] = big ? 1 : sums[column].getDenominator();
+				}
+				
+				product.writeRow(row, numerators, denominators);
+				
+				for (int column = 0; column < columns; column++)
+				{
+					if (sums[column].isBig()) product.setCell(row, column, sums[column].toFraction());
+				}
+			}
+		}
+		catch (RuntimeException exception)
+		{
+			product.close();
+			throw exception;
+		}
+		
+		return product;
+	}
+	
+	/**
+	 * Row-reduces a matrix with Gauss-Jordan elimination, creating a leading one in each non-zero row.
+	 *
+	 * @param a_matrix the matrix
+	 * @param a_reduced if true, clear the entries above each leading one as well (RREF), not just below (REF)
+	 * @return the matrix in REF or RREF
+	 * @throws ArithmeticException if a cell does not fit in a long
+	 */
+	static PrimitiveMatrixStorage echelon(PrimitiveMatrixStorage a_matrix, boolean a_reduced)
+	{
+		int rows = a_matrix.getRows();
+		int columns = a_matrix.getColumns();
+		
+		long[] numerators = a_matrix.getNumerators().clone();
+		long[] denominators = a_matrix.getDenominators().clone();
+		
+		MutableFraction cell = new MutableFraction();
+		int pivotRow = 0;
+		
+		for (int column = 0; column < columns && pivotRow < rows; column++)
+		{
+			MatrixTask.checkpoint(pivotRow, Math.min(rows, columns));
+			
+			int pivotIndex = findPivot(numerators, columns, pivotRow, rows, column);
+			if (pivotIndex == -1) continue;
+			
+			swapRows(numerators, denominators, columns, pivotRow, pivotIndex);
+			
+			//Entries left of the pivot are already 0, so each row operation starts at the pivot column:
+			int pivotOffset = pivotRow * columns + column;
+			int length = columns - column;
+			
+			divideRow(numerators, denominators, pivotOffset, length, numerators[pivotOffset], denominators[pivotOffset], cell);
+			
+			for (int row = a_reduced ? 0 : pivotRow + 1; row < rows; row++)
+			{
+				int offset = row * columns + column;
+				if (row == pivotRow || numerators[offset] == 0) continue;
+				
+				subtractRowMultiple(numerators, denominators, offset, numerators, denominators, pivotOffset, length,
+						numerators[offset], denominators[offset], cell);
+			}
+			
+			pivotRow++;
+		}
+		
+		return new PrimitiveMatrixStorage(rows, columns, numerators, denominators);
+	}
+	
+	/**
+	 * Determinant of a square matrix by Gaussian elimination: the product of the pivots,
+	 * negated for each row swap.
+	 *
+	 * @param a_matrix the square matrix
+	 * @return the determinant
+	 * @throws ArithmeticException if a value does not fit in a long
+	 */
+	static Fraction determinant(PrimitiveMatrixStorage a_matrix)
+	{
+		int size = a_matrix.getRows();
+		
+		long[] numerators = a_matrix.getNumerators().clone();
+		long[] denominators = a_matrix.getDenominators().clone();
+		
+		MutableFraction determinant = new MutableFraction();
+		determinant.set(1, 1);
+		
+		MutableFraction cell = new MutableFraction();
+		MutableFraction factor = new MutableFraction();
+		
+		for (int column = 0; column < size; column++)
+		{
+			MatrixTask.checkpoint(column, size);
+			
+			int pivotIndex = findPivot(numerators, size, column, size, column);
+			
+			//No pivot in this column: the matrix is singular.
+			if (pivotIndex == -1) return Fraction.ZERO;
+			
+			if (pivotIndex != column)
+			{
+				swapRows(numerators, denominators, size, column, pivotIndex);
+				determinant.multiply(-1, 1);
+			}
+			
+			int pivotOffset = column * size + column;
+			long pivotNumerator = numerators[pivotOffset];
+			long pivotDenominator = denominators[pivotOffset];
+			
+			determinant.multiply(pivotNumerator, pivotDenominator);
+			
+			//Clear the column below the pivot. Only the columns to the right still matter:
+			for (int row = column + 1; row < size; row++)
+			{
+				int offset = row * size + column;
+				if (numerators[offset] == 0) continue;
+				
+				factor.set(numerators[offset], denominators[offset]);
+				factor.divide(pivotNumerator, pivotDenominator);
+				
+				subtractRowMultiple(numerators, denominators, offset + 1, numerators, denominators, pivotOffset + 1, size - column - 1,
+						factor.getNumerator(), factor.getDenominator(), cell);
+			}
+		}
+		
+		return Fraction.reduced(determinant.getNumerator(), determinant.getDenominator());
+	}
+	
+	/**
+	 * Row-reduces an off-heap matrix the same way as {@link #echelon(PrimitiveMatrixStorage, boolean)},
+	 * working on an off-heap copy and loading one row at a time. The caller owns the result and must close it.
+	 *
+	 * @param a_matrix the matrix
+	 * @param a_reduced if true, clear the entries above each leading one as well (RREF), not just below (REF)
+	 * @return the matrix in REF or RREF, off-heap
+	 * @throws ArithmeticException if a cell does not fit in a long
+	 */
+	static OffHeapMatrixStorage echelon(OffHeapMatrixStorage a_matrix, boolean a_reduced)
+	{
+		int rows = a_matrix.getRows();
+		int columns = a_matrix.getColumns();
+		
+		long[] pivotNumerators = new long[columns];
+		long[] pivotDenominators = new long[columns];
+		long[] numerators = new long[columns];
+		long[] denominators = new long[columns];
+		
+		MutableFraction cell = new MutableFraction();
+		OffHeapMatrixStorage result = (OffHeapMatrixStorage) a_matrix.copy();
+		int pivotRow = 0;
+		
+		try
+		{
+			for (int column = 0; column < columns && pivotRow < rows; column++)
+			{
+				MatrixTask.checkpoint(pivotRow, Math.min(rows, columns));
+				
+				int pivotIndex = findPivot(result, pivotRow, column);
+				if (pivotIndex == -1) continue;
+				
+				result.swapRows(pivotRow, pivotIndex);
+				
+				result.readRow(pivotRow, pivotNumerators, pivotDenominators);
+				divideRow(pivotNumerators, pivotDenominators, column, columns - column,
+						pivotNumerators[column], pivotDenominators[column], cell);
+				result.writeRow(pivotRow, pivotNumerators, pivotDenominators);
+				
+				for (int row = a_reduced ? 0 : pivotRow + 1; row < rows; row++)
+				{
+					if (row == pivotRow || result.getNumerator(row, column) == 0) continue;
+					
+					result.readRow(row, numerators, denominators);
+					subtractRowMultiple(numerators, denominators, column, pivotNumerators, pivotDenominators, column, columns - column,
+							numerators[column], denominators[column], cell);
+					result.writeRow(row, numerators, denominators);
+				}
+				
+				pivotRow++;
+			}
+		}
+		catch (RuntimeException exception)
+		{
+			result.close();
+			throw exception;
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Determinant of a square off-heap matrix by Gaussian elimination on an off-heap copy,
+	 * loading one row at a time.
+	 *
+	 * @param a_matrix the square matrix
+	 * @return the determinant
+	 * @throws ArithmeticException if a value does not fit in a long
+	 */
+	static Fraction determinant(OffHeapMatrixStorage a_matrix)
+	{
+		int size = a_matrix.getRows();
+		
+		long[] pivotNumerators = new long[size];
+		long[] pivotDenominators = new long[size];
+		long[] numerators = new long[size];
+		long[] denominators = new long[size];
+		
+		MutableFraction determinant = new MutableFraction();
+		determinant.set(1, 1);
+		
+		MutableFraction cell = new MutableFraction();
+		MutableFraction factor = new MutableFraction();
+		
+		try (OffHeapMatrixStorage work = (OffHeapMatrixStorage) a_matrix.copy())
+		{
+			for (int column = 0; column < size; column++)
+			{
+				MatrixTask.checkpoint(column, size);
+				
+				int pivotIndex = findPivot(work, column, column);
+				
+				//No pivot in this column: the matrix is singular.
+				if (pivotIndex == -1) return Fraction.ZERO;
+				
+				if (pivotIndex != column)
+				{
+					work.swapRows(column, pivotIndex);
+					determinant.multiply(-1, 1);
+				}
+				
+				work.readRow(column, pivotNumerators, pivotDenominators);
+				long pivotNumerator = pivotNumerators[column];
+				long pivotDenominator = pivotDenominators[column];
+				
+				determinant.multiply(pivotNumerator, pivotDenominator);
+				
+				//Clear the column below the pivot. Only the columns to the right still matter:
+				for (int row = column + 1; row < size; row++)
+				{
+					if (work.getNumerator(row, column) == 0) continue;
+					
+					work.readRow(row, numerators, denominators);
+					
+					factor.set(numerators[column], denominators[column]);
+					factor.divide(pivotNumerator, pivotDenominator);
+					
+					subtractRowMultiple(numerators, denominators, column + 1, pivotNumerators, pivotDenominators, column + 1, size - column - 1,
+							factor.getNumerator(), factor.getDenominator(), cell);
+					work.writeRow(row, numerators, denominators);
+				}
+			}
+		}
+		
+		return Fraction.reduced(determinant.getNumerator(), determinant.getDenominator());
+	}
+	
+	/**
+	 * Finds the first row at or after a_fromRow with a non-zero entry in a column.
+	 *
+	 * @param a_numerators the row-major numerators
+	 * @param a_columns the amount of columns
+	 * @param a_fromRow the first row to check
+	 * @param a_rows the amount of rows
+	 * @param a_column the column
+	 * @return the row index, or -1 if the column is all zeroes from a_fromRow down
+	 */
+	static int findPivot(long[] a_numerators, int a_columns, int a_fromRow, int a_rows, int a_column)
+	{
+		for (int row = a_fromRow; row < a_rows; row++)
+		{
+			if (a_numerators[row * a_columns + a_column] != 0) return row;
+		}
+		
+		return -1;
+	}
+	
+	/**
+	 * Finds the first row at or after a_fromRow with a non-zero entry in a column of an off-heap matrix.
+	 *
+	 * @param a_matrix the matrix
+	 * @param a_fromRow the first row to check
+	 * @param a_column the column
+	 * @return the row index, or -1 if the column is all zeroes from a_fromRow down
+	 */
+	static int findPivot(OffHeapMatrixStorage a_matrix, int a_fromRow, int a_column)
+	{
+		for (int row = a_fromRow; row < a_matrix.getRows(); row++)
+		{
+			if (a_matrix.getNumerator(row, a_column) != 0) return row;
+		}
+		
+		return -1;
+	}
+	
+	/**
+	 * Swaps two rows in place.
+	 *
+	 * @param a_numerators the row-major numerators
+	 * @param a_denominators the row-major denominators
+	 * @param a_columns the amount of columns
+	 * @param a_firstRow the first row index
+	 * @param a_secondRow the second row index
+	 */
+	static void swapRows(long[] a_numerators, long[] a_denominators, int a_columns, int a_firstRow, int a_secondRow)
+	{
+		if (a_firstRow == a_secondRow) return;
+		
+		int first = a_firstRow * a_columns;
+		int second = a_secondRow * a_columns;
+		
+		for (int column = 0; column < a_columns; column++)
+		{
+			long numerator = a_numerators[first + column];
+			a_numerators[first + column] = a_numerators[second + column];
+			a_numerators[second + column] = numerator;
+			
+			long denominator = a_denominators[first + column];
+			a_denominators[first + column] = a_denominators[second + column];
+			a_denominators[second + column] = denominator;
+		}
+	}
+	
+	/**
+	 * Divides part of a row by a non-zero value in place.
+	 *
+	 * @param a_numerators the numerators holding the row
+	 * @param a_denominators the denominators holding the row
+	 * @param a_offset the index of the first entry
+	 * @param a_from the first entry
+	 * @param a_to the entry after the last one
+	 * @param a_numerator the numerator to divide by
+	 * @param a_denominator the denominator to divide by
+	 * @param a_cell scratch space
+	 * @throws ArithmeticException if an entry does not fit in a long
+	 */
+	static void divideRow(long[] a_numerators, long[] a_denominators, int a_offset, int a_length,
+			long a_numerator, long a_denominator, MutableFraction a_cell)
+	{
+		for (int index = a_offset; index < a_offset + a_length; index++)
+		{
+			a_cell.set(a_numerators[index], a_denominators[index]);
+			a_cell.divide(a_numerator, a_denominator);
+			
+			a_numerators[index] = a_cell.getNumerator();
+			a_denominators[index] = a_cell.getDenominator();
+		}
+	}
+	
+	/**
+	 * Subtracts a multiple of a source row from a target row in place: target -= factor * source.
+	 * The rows may live in the same arrays or in separate ones.
+	 *
+	 * @param a_targetNumerators the numerators holding the target row
+	 * @param a_targetDenominators the denominators holding the target row
+	 * @param a_targetOffset the index of the first target entry
+	 * @param a_sourceNumerators the numerators holding the source row
+	 * @param a_sourceDenominators the denominators holding the source row
+	 * @param a_sourceOffset the index of the first source entry
+	 * @param a_from the first entry
+	 * @param a_to the entry after the last one
+	 * @param a_numerator the numerator of the factor
+	 * @param a_denominator the denominator of the factor
+	 * @param a_cell scratch space
+	 * @throws ArithmeticException if an entry does not fit in a long
+	 */
+	static void subtractRowMultiple(long[] a_targetNumerators, long[] a_targetDenominators, int a_targetOffset,
+			long[] a_sourceNumerators, long[] a_sourceDenominators, int a_sourceOffset, int a_length,
+			long a_numerator, long a_denominator, MutableFraction a_cell)
+	{
+		addRowMultiple(a_targetNumerators, a_targetDenominators, a_targetOffset, a_sourceNumerators, a_sourceDenominators,
+				a_sourceOffset, a_length, Math.negateExact(a_numerator), a_denominator, a_cell);
+	}
+	
+	/**
+	 * Adds a multiple of a source row to a target row in place: target += factor * source.
+	 * The rows may live in the same arrays or in separate ones.
+	 *
+	 * @param a_targetNumerators the numerators holding the target row
+	 * @param a_targetDenominators the denominators holding the target row
+	 * @param a_targetOffset the index of the first target entry
+	 * @param a_sourceNumerators the numerators holding the source row
+	 * @param a_sourceDenominators the denominators holding the source row
+	 * @param a_sourceOffset the index of the first source entry
+	 * @param a_from the first entry
+	 * @param a_to the entry after the last one
+	 * @param a_numerator the numerator of the factor
+	 * @param a_denominator the denominator of the factor
+	 * @param a_cell scratch space
+	 * @throws ArithmeticException if an entry does not fit in a long
+	 */
+	static void addRowMultiple(long[] a_targetNumerators, long[] a_targetDenominators, int a_targetOffset,
+			long[] a_sourceNumerators, long[] a_sourceDenominators, int a_sourceOffset, int a_length,
+			long a_numerator, long a_denominator, MutableFraction a_cell)
+	{
+		for (int index = 0; index < a_length; index++)
+		{
+			int target = a_targetOffset + index;
+			int source = a_sourceOffset + index;
+			
+			a_cell.set(a_targetNumerators[target], a_targetDenominators[target]);
+			a_cell.addProduct(a_numerator, a_denominator, a_sourceNumerators[source], a_sourceDenominators[source]);
+			
+			a_targetNumerators[target] = a_cell.getNumerator();
+			a_targetDenominators[target] = a_cell.getDenominator();
+		}
+	}
+	
+	/**
+	 * Adds or subtracts a range of rows of two matrices.
+	 */
+	private static final class AddRows implements RowOperation
+	{
+		
+		/** The left-hand side. */
+		private final PrimitiveMatrixStorage m_lhs;
+		
+		/** The right-hand side. */
+		private final PrimitiveMatrixStorage m_rhs;
+		
+		/** The sum or difference. */
+		private final PrimitiveMatrixStorage m_sum;
+		
+		/** If true, subtract instead of add. */
+		private final boolean m_subtract;
+		
+		/**
+		 * Instantiates a new add over rows.
+		 *
+		 * @param a_lhs the left-hand side
+		 * @param a_rhs the right-hand side
+		 * @param a_sum the sum or difference
+		 * @param a_subtract if true, subtract instead of add
+		 */
+		AddRows(PrimitiveMatrixStorage a_lhs, PrimitiveMatrixStorage a_rhs, PrimitiveMatrixStorage a_sum, boolean a_subtract)
+		{
+			m_lhs = a_lhs;
+			m_rhs = a_rhs;
+			m_sum = a_sum;
+			m_subtract = a_subtract;
+		}
+		
+		/**
+		 * @see calculator.RowOperation#computeRows(int, int)
+		 */
+		@Override
+		public void computeRows(int a_fromRow, int a_toRow)
+		{
+			int columns = m_lhs.getColumns();
+			
+			addRange(m_lhs.getNumerators(), m_lhs.getDenominators(), m_rhs.getNumerators(), m_rhs.getDenominators(),
+					m_sum.getNumerators(), m_sum.getDenominators(), a_fromRow * columns, a_toRow * columns, m_subtract, new MutableFraction());
+		}
+		
+	}
+	
+	/**
+	 * Multiplies a range of rows of the LHS by the transposed RHS, one block of rows at a time.
+	 */
+	private static final class MultiplyRows implements RowOperation
+	{
+		
+		/** The LHS numerators. */
+		private final long[] m_lhsNumerators;
+		
+		/** The LHS denominators. */
+		private final long[] m_lhsDenominators;
+		
+		/** The numerators of the transposed RHS. */
+		private final long[] m_columnNumerators;
+		
+		/** The denominators of the transposed RHS. */
+		private final long[] m_columnDenominators;
+		
+		/** The product. */
+		private final PrimitiveMatrixStorage m_product;
+		
+		/** The product numerators. */
+		private final long[] m_numerators;
+		
+		/** The product denominators. */
+		private final long[] m_denominators;
+		
+		/** The amount of columns of the LHS and rows of the RHS. */
+		private final int m_inner;
+		
+		/**
+		 * Instantiates a new multiply over rows.
+		 *
+		 * @param a_lhs the left-hand side
+		 * @param a_columnNumerators the numerators of the transposed RHS
+		 * @param a_columnDenominators the denominators of the transposed RHS
+		 * @param a_product the product
+		 */
+		MultiplyRows(PrimitiveMatrixStorage a_lhs, long[] a_columnNumerators, long[] a_columnDenominators, PrimitiveMatrixStorage a_product)
+		{
+			m_lhsNumerators = a_lhs.getNumerators();
+			m_lhsDenominators = a_lhs.getDenominators();
+			m_columnNumerators = a_columnNumerators;
+			m_columnDenominators = a_columnDenominators;
+			m_product = a_product;
+			m_numerators = a_product.getNumerators();
+			m_denominators = a_product.getDenominators();
+			m_inner = a_lhs.getColumns();
+		}
+		
+		/**
+		 * @see calculator.RowOperation#computeRows(int, int)
+		 */
+		@Override
+		public void computeRows(int a_fromRow, int a_toRow)
+		{
+			int inner = m_inner;
+			int columns = m_product.getColumns();
+			int block = MatrixEngine.MULTIPLY_BLOCK;
+			
+			//Each call keeps its own sums, so calls on different threads share nothing but the arrays:
+			FractionAccumulator[] sums = new FractionAccumulator[block * block];
+			for (int index = 0; index < sums.length; index++)
+			{
+				sums[index] = new FractionAccumulator();
+			}
+			
+			for (int rowBlock = a_fromRow; rowBlock < a_toRow; rowBlock += block)
+			{
+				int rowEnd = Math.min(rowBlock + block, a_toRow);
+				
+				for (int columnBlock = 0; columnBlock < columns; columnBlock += block)
+				{
+					int columnEnd = Math.min(columnBlock + block, columns);
+					
+					for (FractionAccumulator sum : sums)
+					{
+						sum.reset();
+					}
+					
+					for (int innerBlock = 0; innerBlock < inner; innerBlock += block)
+					{
+						int innerEnd = Math.min(innerBlock + block, inner);
+						
+						for (int row = rowBlock; row < rowEnd; row++)
+						{
+							for (int column = columnBlock; column < columnEnd; column++)
+							{
+								FractionAccumulator sum = sums[(row - rowBlock) * block + (column - columnBlock)];
+								
+								for (int k = innerBlock; k < innerEnd; k++)
+								{
+									sum.addProduct(m_lhsNumerators[row * inner + k], m_lhsDenominators[row * inner + k],
+											m_columnNumerators[column * inner + k], m_columnDenominators[column * inner + k]);
+								}
+							}
+						}
+					}
+					
+					for (int row = rowBlock; row < rowEnd; row++)
+					{
+						for (int column = columnBlock; column < columnEnd; column++)
+						{
+							FractionAccumulator sum = sums[(row - rowBlock) * block + (column - columnBlock)];
+							
+							if (sum.isBig())
+							{
+								//The big cells share a map, so writers take turns:
+								synchronized (m_product)
+								{
+									m_product.setCell(row, column, sum.toFraction());
+								}
+							}
+							else
+							{
+								m_numerators[row * columns + column] = sum.getNumerator();
+								m_denominators[row * columns + column] = sum.getDenominator();
+							}
+						}
+					}
+				}
+			}
+		}
+		
+	}
+	
+}
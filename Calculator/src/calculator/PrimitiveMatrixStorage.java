@@ -0,0 +1,360 @@
+package calculator;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Stores the cells of a Matrix as numerators and denominators in two flat, row-major long arrays,
+ * instead of one Fraction object per cell. A cell at (row, column) lives at index row * columns + column.
+ *
+ * This cuts a cell from a Fraction object plus a pointer down to two longs, and keeps each row
+ * contiguous in memory. The MatrixEngine runs primitive kernels directly on these arrays.
+ * The few cells that grow too big for a long are kept as BigFractions in a side table, marked by
+ * a denominator of 0 in the arrays.
+ *
+ * A copy shares the arrays with the original until either one is written to, which then clones them.
+ * Since the arrays aren't split by row, the first write clones all of them.
+ */
+public class PrimitiveMatrixStorage implements MatrixStorage
+{
+	
+	/** The amount of rows. */
+	private final int m_rows;
+	
+	/** The amount of columns. */
+	private final int m_columns;
+	
+	/** The numerators, row-major. */
+	private long[] m_numerators;
+	
+	/** The denominators, row-major. Always positive, or 0 for a cell in the big cell table. */
+	private long[] m_denominators;
+	
+	/** The cells that don't fit in a long, by index. Null until one is stored. */
+	private HashMap<Integer, Fraction> m_bigCells;
+	
+	/** If the arrays and big cell table may also be in a copy, so they must be cloned before a write. */
+	private boolean m_shared;
+	
+	/**
+	 * Creates a new storage of the given size with every cell 0.
+	 *
+	 * @param a_rows the amount of rows
+	 * @param a_columns the amount of columns
+	 */
+	public PrimitiveMatrixStorage(int a_rows, int a_columns)
+	{
+		m_rows = a_rows;
+		m_columns = a_columns;
+		m_numerators = new long[a_rows * a_columns];
+		m_denominators = new long[a_rows * a_columns];
+		
+		Arrays.fill(m_denominators, 1);
+	}
+	
+	/**
+	 * Creates a new storage with the same size and values as another storage.
+	 *
+	 * @param a_other the storage to copy the values from
+	 */
+	public PrimitiveMatrixStorage(MatrixStorage a_other)
+	{
+		this(a_other.getRows(), a_other.getColumns());
+		
+		for (int row = 0; row < m_rows; row++)
+		{
+			for (int column = 0; column < m_columns; column++)
+			{
+				setCell(row, column, a_other.getCell(row, column));
+			}
+		}
+	}
+	
+	/**
+	 * Creates a new storage around arrays filled in by a kernel. The arrays are used directly, not copied.
+	 *
+	 * @param a_rows the amount of rows
+	 * @param a_columns the amount of columns
+	 * @param a_numerators the numerators, row-major
+	 * @param a_denominators the positive denominators, row-major
+	 */
+	PrimitiveMatrixStorage(int a_rows, int a_columns, long[] a_numerators, long[] a_denominators)
+	{
+		m_rows = a_rows;
+		m_columns = a_columns;
+		m_numerators = a_numerators;
+		m_denominators = a_denominators;
+	}
+	
+	/**
+	 * @see calculator.MatrixStorage#getRows()
+	 */
+	@Override
+	public int getRows()
+	{
+		return m_rows;
+	}
+	
+	/**
+	 * @see calculator.MatrixStorage#getColumns()
+	 */
+	@Override
+	public int getColumns()
+	{
+		return m_columns;
+	}
+	
+	/**
+	 * Gets the numerator of a cell without creating a Fraction.
+	 *
+	 * @param a_row the row index
+	 * @param a_column the column index
+	 * @return the numerator
+	 * @throws ArithmeticException if the cell does not fit in a long
+	 */
+	public long getNumerator(int a_row, int a_column)
+	{
+		int index = a_row * m_columns + a_column;
+		if (m_denominators[index] == 0) return m_bigCells.get(index).getNumerator();
+		
+		return m_numerators[index];
+	}
+	
+	/**
+	 * Gets the denominator of a cell without creating a Fraction.
+	 *
+	 * @param a_row the row index
+	 * @param a_column the column index
+	 * @return the positive denominator
+	 * @throws ArithmeticException if the cell does not fit in a long
+	 */
+	public long getDenominator(int a_row, int a_column)
+	{
+		int index = a_row * m_columns + a_column;
+		if (m_denominators[index] == 0) return m_bigCells.get(index).getDenominator();
+		
+		return m_denominators[index];
+	}
+	
+	/**
+	 * Sets a cell from a numerator and denominator without creating a Fraction.
+	 *
+	 * @param a_row the row index
+	 * @param a_column the column index
+	 * @param a_numerator the numerator
+	 * @param a_denominator the denominator. 0 is treated as 1, as in Fraction.
+	 * @throws ArithmeticException if the sign can't be moved to the numerator without overflow
+	 */
+	public void setCell(int a_row, int a_column, long a_numerator, long a_denominator)
+	{
+		if (a_denominator == 0) a_denominator = 1;
+		
+		//Switch the negative (if it exists) from the denominator to the numerator
+		if (a_denominator < 0)
+		{
+			a_numerator = Math.negateExact(a_numerator);
+			a_denominator = Math.negateExact(a_denominator);
+		}
+		
+		long gcd = Fraction.gcd(a_numerator, a_denominator);
+		
+		if (gcd > 1)
+		{
+			a_numerator /= gcd;
+			a_denominator /= gcd;
+		}
+		
+		own();
+		setReduced(a_row * m_columns + a_column, a_numerator, a_denominator);
+	}
+	
+	/**
+	 * Sets a cell from a numerator and positive denominator already in lowest terms.
+	 *
+	 * @param a_index the row-major index
+	 * @param a_numerator the numerator
+	 * @param a_denominator the denominator
+	 */
+	private void setReduced(int a_index, long a_numerator, long a_denominator)
+	{
+		if (m_denominators[a_index] == 0) m_bigCells.remove(a_index);
+		
+		m_numerators[a_index] = a_numerator;
+		m_denominators[a_index] = a_denominator;
+	}
+	
+	/**
+	 * @see calculator.MatrixStorage#getCell(int, int)
+	 */
+	@Override
+	public Fraction getCell(int a_row, int a_column)
+	{
+		int index = a_row * m_columns + a_column;
+		if (m_denominators[index] == 0) return m_bigCells.get(index);
+		
+		return Fraction.reduced(m_numerators[index], m_denominators[index]);
+	}
+	
+	/**
+	 * @see calculator.MatrixStorage#setCell(int, int, calculator.Fraction)
+	 */
+	@Override
+	public void setCell(int a_row, int a_column, Fraction a_value)
+	{
+		int index = a_row * m_columns + a_column;
+		own();
+		
+		if (a_value.isBig())
+		{
+			if (m_bigCells == null) m_bigCells = new HashMap<Integer, Fraction>();
+			
+			m_bigCells.put(index, a_value);
+			m_numerators[index] = 0;
+			m_denominators[index] = 0;
+		}
+		else
+		{
+			setReduced(index, a_value.getNumerator(), a_value.getDenominator());
+		}
+	}
+	
+	/**
+	 * @see calculator.MatrixStorage#isZero(int, int)
+	 */
+	@Override
+	public boolean isZero(int a_row, int a_column)
+	{
+		int index = a_row * m_columns + a_column;
+		
+		//A big cell has a numerator of 0 in the array, but is never 0 itself:
+		return m_numerators[index] == 0 && m_denominators[index] != 0;
+	}
+	
+	/**
+	 * Returns a copy of the row, since the row isn't held as a Fraction array.
+	 *
+	 * @see calculator.MatrixStorage#getRow(int)
+	 */
+	@Override
+	public Fraction[] getRow(int a_row)
+	{
+		Fraction[] row = new Fraction[m_columns];
+		
+		for (int column = 0; column < m_columns; column++)
+		{
+			row[column] = getCell(a_row, column);
+		}
+		
+		return row;
+	}
+	
+	/**
+	 * Copies the values into the row.
+	 *
+	 * @see calculator.MatrixStorage#setRow(int, calculator.Fraction[])
+	 */
+	@Override
+	public void setRow(int a_row, Fraction[] a_values)
+	{
+		for (int column = 0; column < m_columns; column++)
+		{
+			setCell(a_row, column, a_values[column]);
+		}
+	}
+	
+	/**
+	 * @see calculator.MatrixStorage#swapRows(int, int)
+	 */
+	@Override
+	public void swapRows(int a_firstRowIndex, int a_secondRowIndex)
+	{
+		if (a_firstRowIndex == a_secondRowIndex) return;
+		
+		//Move big cells through Fraction objects so the side table stays keyed correctly:
+		if (hasBigCells())
+		{
+			Fraction[] firstRow = getRow(a_firstRowIndex);
+			setRow(a_firstRowIndex, getRow(a_secondRowIndex));
+			setRow(a_secondRowIndex, firstRow);
+			return;
+		}
+		
+		own();
+		
+		int first = a_firstRowIndex * m_columns;
+		int second = a_secondRowIndex * m_columns;
+		
+		for (int column = 0; column < m_columns; column++)
+		{
+			long numerator = m_numerators[first + column];
+			m_numerators[first + column] = m_numerators[second + column];
+			m_numerators[second + column] = numerator;
+			
+			long denominator = m_denominators[first + column];
+			m_denominators[first + column] = m_denominators[second + column];
+			m_denominators[second + column] = denominator;
+		}
+	}
+	
+	/**
+	 * Shares the arrays with the copy, marking them shared on both sides.
+	 *
+	 * @see calculator.MatrixStorage#copy()
+	 */
+	@Override
+	public MatrixStorage copy()
+	{
+		PrimitiveMatrixStorage copy = new PrimitiveMatrixStorage(m_rows, m_columns, m_numerators, m_denominators);
+		copy.m_bigCells = m_bigCells;
+		
+		m_shared = true;
+		copy.m_shared = true;
+		
+		return copy;
+	}
+	
+	/**
+	 * Clones the arrays and big cell table if they are shared with a copy, before a write.
+	 */
+	private void own()
+	{
+		if (!m_shared) return;
+		
+		m_numerators = m_numerators.clone();
+		m_denominators = m_denominators.clone();
+		if (m_bigCells != null) m_bigCells = new HashMap<Integer, Fraction>(m_bigCells);
+		
+		m_shared = false;
+	}
+	
+	/**
+	 * Checks if any cell is too big for a long. The primitive kernels only run when none is.
+	 *
+	 * @return true, if there are big cells
+	 */
+	public boolean hasBigCells()
+	{
+		return m_bigCells != null && !m_bigCells.isEmpty();
+	}
+	
+	/**
+	 * Gets the numerator array itself, for the kernels.
+	 *
+	 * @return the row-major numerators. Only write to it on a storage the kernel made, since it may be shared with copies.
+	 */
+	long[] getNumerators()
+	{
+		return m_numerators;
+	}
+	
+	/**
+	 * Gets the denominator array itself, for the kernels.
+	 *
+	 * @return the row-major denominators. Only write to it on a storage the kernel made, since it may be shared with copies.
+	 */
+	long[] getDenominators()
+	{
+		return m_denominators;
+	}
+	
+}
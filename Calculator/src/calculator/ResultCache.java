@@ -0,0 +1,402 @@
+package calculator;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the answers of the {@link MatrixServer} by what was asked, so the same question is worked out
+ * once however often and however many clients at once ask it.
+ *
+ * A question is a key built from the operation and the {@link Matrix#getFingerprint() fingerprints} of its
+ * matrices, so the same matrix sent twice finds the same answer. Asking works in three ways:
+ * <ul>
+ * <li>A hit: the answer is kept, and is handed out at once.</li>
+ * <li>Coalesced: another thread is working the answer out right now. This thread waits for it instead of
+ * working it out again, and gets the same answer, or the same error.</li>
+ * <li>A miss: this thread works the answer out, and keeps it once done. Errors are not kept.</li>
+ * </ul>
+ *
+ * The answers are bounded by their size in bytes, not their amount, since one inverse can be larger than a
+ * thousand determinants. Each entry weighs what it keeps alive, as laid out by a 64-bit Java 8 JVM with
+ * compressed references: the answer's byte array, the key's String and char array, and the map's entry.
+ * When the answers weigh more than the capacity, the least recently used are dropped.
+ */
+public final class ResultCache
+{
+	
+	/** The default capacity: 64 MB. */
+	public static final long DEFAULT_CAPACITY = 64L << 20;
+	
+	/** The weight of a map entry: a 40 byte LinkedHashMap node, and 8 bytes for its share of the table. */
+	private static final long ENTRY_WEIGHT = 48;
+	
+	/** The weight of a String without its char array: a header, the array reference and the hash. */
+	private static final long STRING_WEIGHT = 24;
+	
+	/** The weight of an array without its elements: a header and the length. */
+	private static final long ARRAY_WEIGHT = 16;
+	
+	/** The kept answers, least recently used first. */
+	private final LinkedHashMap<String, byte[]> m_answers;
+	
+	/** The answers being worked out, by key. */
+	private final ConcurrentHashMap<String, Flight> m_flights;
+	
+	/** The most the kept answers may weigh, in bytes. */
+	private long m_capacity;
+	
+	/** What the kept answers weigh, in bytes. */
+	private long m_weight;
+	
+	/** The amount of questions answered from a kept answer. */
+	private final AtomicLong m_hits;
+	
+	/** The amount of questions worked out. */
+	private final AtomicLong m_misses;
+	
+	/** The amount of questions that waited for the same question being worked out. */
+	private final AtomicLong m_coalesced;
+	
+	/** The amount of answers dropped to stay within the capacity. */
+	private final AtomicLong m_evictions;
+	
+	/**
+	 * Instantiates a new cache.
+	 *
+	 * @param a_capacity the most the kept answers may weigh, in bytes. 0 keeps none, but still coalesces.
+	 */
+	public ResultCache(long a_capacity)
+	{
+		m_answers = new LinkedHashMap<String, byte[]>(16, 0.75f, true);
+		m_flights = new ConcurrentHashMap<String, Flight>();
+		m_hits = new AtomicLong();
+		m_misses = new AtomicLong();
+		m_coalesced = new AtomicLong();
+		m_evictions = new AtomicLong();
+		setCapacity(a_capacity);
+	}
+	
+	/**
+	 * Creates the key of a question.
+	 *
+	 * @param a_operation the operation
+	 * @param a_operands the matrices
+	 * @return the key
+	 */
+	public static String key(String a_operation, Matrix... a_operands)
+	{
+		StringBuilder key = new StringBuilder(a_operation);
+		
+		for (Matrix operand : a_operands)
+		{
+			key.append(' ').append(operand.getFingerprint());
+		}
+		
+		return key.toString();
+	}
+	
+	/**
+	 * Gets the answer to a question: the kept one, the one being worked out by another thread, or a new one.
+	 *
+	 * @param a_key the question, from {@link #key(String, Matrix...)}
+	 * @param a_work works the answer out
+	 * @param a_executor what to work the answer out on, or null for this thread
+	 * @return the answer
+	 * @throws ExecutionException if working the answer out failed, here or on the thread this one waited for
+	 * @throws InterruptedException if interrupted while waiting
+	 * @throws RejectedExecutionException if the executor turned the work away. Threads waiting for it get an
+	 * ExecutionException caused by this.
+	 */
+	public byte[] get(String a_key, Callable<byte[]> a_work, Executor a_executor) throws ExecutionException, InterruptedException
+	{
+		byte[] answer = getKept(a_key);
+		
+		if (answer != null)
+		{
+			m_hits.incrementAndGet();
+			return answer;
+		}
+		
+		Flight flight = new Flight(a_key, a_work);
+		Flight existing = m_flights.putIfAbsent(a_key, flight);
+		
+		if (existing != null)
+		{
+			m_coalesced.incrementAndGet();
+			return existing.get();
+		}
+		
+		//The answer may have been kept between looking for it and taking off:
+		answer = getKept(a_key);
+		
+		if (answer != null)
+		{
+			m_flights.remove(a_key, flight);
+			flight.land(answer);
+			m_hits.incrementAndGet();
+			return answer;
+		}
+		
+		m_misses.incrementAndGet();
+		
+		if (a_executor == null)
+		{
+			flight.run();
+		}
+		else
+		{
+			try
+			{
+				a_executor.execute(flight);
+			}
+			catch (RejectedExecutionException exception)
+			{
+				flight.fail(exception);
+				throw exception;
+			}
+		}
+		
+		return flight.get();
+	}
+	
+	/**
+	 * Gets a kept answer, marking it used.
+	 *
+	 * @param a_key the question
+	 * @return the answer, or null if none is kept
+	 */
+	private synchronized byte[] getKept(String a_key)
+	{
+		return m_answers.get(a_key);
+	}
+	
+	/**
+	 * Keeps an answer, unless it alone weighs more than the capacity.
+	 *
+	 * @param a_key the question
+	 * @param a_answer the answer
+	 */
+	private synchronized void keep(String a_key, byte[] a_answer)
+	{
+		long weight = weigh(a_key, a_answer);
+		if (weight > m_capacity) return;
+		
+		byte[] replaced = m_answers.put(a_key, a_answer);
+		if (replaced != null) m_weight -= weigh(a_key, replaced);
+		
+		m_weight += weight;
+		evict();
+	}
+	
+	/**
+	 * Works out the weight of an entry.
+	 *
+	 * @param a_key the question
+	 * @param a_answer the answer
+	 * @return the bytes the entry keeps alive
+	 */
+	static long weigh(String a_key, byte[] a_answer)
+	{
+		return ENTRY_WEIGHT + STRING_WEIGHT + align(ARRAY_WEIGHT + 2L * a_key.length()) + align(ARRAY_WEIGHT + a_answer.length);
+	}
+	
+	/**
+	 * Rounds a size up to the 8 bytes objects are aligned to.
+	 *
+	 * @param a_bytes the size
+	 * @return the size taken
+	 */
+	private static long align(long a_bytes)
+	{
+		return (a_bytes + 7) & ~7L;
+	}
+	
+	/**
+	 * Drops the least recently used answers until the rest are within the capacity.
+	 */
+	private void evict()
+	{
+		Iterator<Map.Entry<String, byte[]>> eldest = m_answers.entrySet().iterator();
+		
+		while (m_weight > m_capacity)
+		{
+			Map.Entry<String, byte[]> entry = eldest.next();
+			m_weight -= weigh(entry.getKey(), entry.getValue());
+			eldest.remove();
+			m_evictions.incrementAndGet();
+		}
+	}
+	
+	/**
+	 * Sets the most the kept answers may weigh, dropping the least recently used ones past it.
+	 *
+	 * @param a_capacity the capacity in bytes, 0 or more. 0 keeps none.
+	 */
+	public synchronized void setCapacity(long a_capacity)
+	{
+		if (a_capacity < 0)
+		{
+			throw new IllegalArgumentException("Cache capacity must be 0 or more, was " + a_capacity);
+		}
+		
+		m_capacity = a_capacity;
+		evict();
+	}
+	
+	/**
+	 * Gets the most the kept answers may weigh.
+	 *
+	 * @return the capacity in bytes
+	 */
+	public synchronized long getCapacity()
+	{
+		return m_capacity;
+	}
+	
+	/**
+	 * Gets what the kept answers weigh.
+	 *
+	 * @return the weight in bytes
+	 */
+	public synchronized long getWeight()
+	{
+		return m_weight;
+	}
+	
+	/**
+	 * Gets the amount of kept answers.
+	 *
+	 * @return the amount
+	 */
+	public synchronized int size()
+	{
+		return m_answers.size();
+	}
+	
+	/**
+	 * Drops every kept answer. Answers being worked out are still kept once done.
+	 */
+	public synchronized void clear()
+	{
+		m_answers.clear();
+		m_weight = 0;
+	}
+	
+	/**
+	 * Gets the amount of questions answered from a kept answer.
+	 *
+	 * @return the amount of hits
+	 */
+	public long getHits()
+	{
+		return m_hits.get();
+	}
+	
+	/**
+	 * Gets the amount of questions that were worked out.
+	 *
+	 * @return the amount of misses
+	 */
+	public long getMisses()
+	{
+		return m_misses.get();
+	}
+	
+	/**
+	 * Gets the amount of questions that waited for the same question to be worked out by another thread.
+	 *
+	 * @return the amount coalesced
+	 */
+	public long getCoalesced()
+	{
+		return m_coalesced.get();
+	}
+	
+	/**
+	 * Gets the amount of answers dropped to stay within the capacity.
+	 *
+	 * @return the amount of evictions
+	 */
+	public long getEvictions()
+	{
+		return m_evictions.get();
+	}
+	
+	/**
+	 * One question being worked out. Once done, a good answer is kept, and then the question is no longer
+	 * in flight, so there is no moment where it is neither.
+	 */
+	private final class Flight extends FutureTask<byte[]>
+	{
+		
+		/** The question. */
+		private final String m_key;
+		
+		/**
+		 * Instantiates a new flight.
+		 *
+		 * @param a_key the question
+		 * @param a_work works the answer out
+		 */
+		Flight(String a_key, Callable<byte[]> a_work)
+		{
+			super(a_work);
+			m_key = a_key;
+		}
+		
+		/**
+		 * Ends the flight with an answer found some other way.
+		 *
+		 * @param a_answer the answer for the threads waiting
+		 */
+		void land(byte[] a_answer)
+		{
+			set(a_answer);
+		}
+		
+		/**
+		 * Ends the flight without an answer.
+		 *
+		 * @param a_error the error for the threads waiting
+		 */
+		void fail(Throwable a_error)
+		{
+			setException(a_error);
+		}
+		
+		/**
+		 * @see java.util.concurrent.FutureTask#done()
+		 */
+		@Override
+		protected void done()
+		{
+			try
+			{
+				if (!isCancelled()) keep(m_key, get());
+			}
+			catch (ExecutionException exception)
+			{
+				//Errors are handed to the threads waiting, but not kept.
+			}
+			catch (InterruptedException exception)
+			{
+				//Can't happen: the flight is done.
+				Thread.currentThread().interrupt();
+			}
+			finally
+			{
+				m_flights.remove(m_key, this);
+			}
+		}
+		
+	}
+	
+}
@@ -0,0 +1,85 @@
+package calculator;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs a {@link RowOperation} on a fork-join pool by halving its row range until a piece is a single block.
+ *
+ * Every row is computed by exactly the same code whether the range is split or not, so the result
+ * does not depend on the amount of threads.
+ */
+final class RowBlockTask extends RecursiveAction
+{
+	
+	/** The serial version UID. */
+	private static final long serialVersionUID = 1L;
+	
+	/** The operation. */
+	private final RowOperation m_operation;
+	
+	/** The first row of this task. */
+	private final int m_fromRow;
+	
+	/** The row after the last one of this task. */
+	private final int m_toRow;
+	
+	/** The amount of rows in a block. Splits only fall on block boundaries. */
+	private final int m_block;
+	
+	/**
+	 * Instantiates a new row block task.
+	 *
+	 * @param a_operation the operation
+	 * @param a_fromRow the first row
+	 * @param a_toRow the row after the last one
+	 * @param a_block the amount of rows in a block
+	 */
+	RowBlockTask(RowOperation a_operation, int a_fromRow, int a_toRow, int a_block)
+	{
+		m_operation = a_operation;
+		m_fromRow = a_fromRow;
+		m_toRow = a_toRow;
+		m_block = a_block;
+	}
+	
+	/**
+	 * Runs an operation over all the rows, on the pool if there is one, or on this thread if not.
+	 *
+	 * @param a_pool the pool, or null to stay on this thread
+	 * @param a_operation the operation
+	 * @param a_rows the amount of rows
+	 * @param a_block the amount of rows in a block
+	 */
+	static void run(ForkJoinPool a_pool, RowOperation a_operation, int a_rows, int a_block)
+	{
+		if (a_pool == null || a_rows <= a_block)
+		{
+			a_operation.computeRows(0, a_rows);
+		}
+		else
+		{
+			a_pool.invoke(new RowBlockTask(a_operation, 0, a_rows, a_block));
+		}
+	}
+	
+	/**
+	 * @see java.util.concurrent.RecursiveAction#compute()
+	 */
+	@Override
+	protected void compute()
+	{
+		int blocks = (m_toRow - m_fromRow + m_block - 1) / m_block;
+		
+		if (blocks <= 1)
+		{
+			m_operation.computeRows(m_fromRow, m_toRow);
+			return;
+		}
+		
+		int middle = m_fromRow + (blocks / 2) * m_block;
+		invokeAll(new RowBlockTask(m_operation, m_fromRow, middle, m_block),
+				new RowBlockTask(m_operation, middle, m_toRow, m_block));
+	}
+	
+}
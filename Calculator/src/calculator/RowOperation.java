@@ -0,0 +1,19 @@
+package calculator;
+
+/**
+ * Work over the rows of a matrix that splits into independent row ranges, so that a
+ * {@link RowBlockTask} can hand the ranges to different threads. An implementation may only
+ * write the rows it is given, and must keep its scratch space per call.
+ */
+interface RowOperation
+{
+	
+	/**
+	 * Computes a range of rows.
+	 *
+	 * @param a_fromRow the first row
+	 * @param a_toRow the row after the last one
+	 */
+	void computeRows(int a_fromRow, int a_toRow);
+	
+}
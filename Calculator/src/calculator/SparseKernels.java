@@ -0,0 +1,630 @@
+package calculator;
+
+import java.util.Arrays;
+
+/**
+ * Matrix operations that run directly on the compressed rows of a {@link SparseMatrixStorage}.
+ * Every kernel only visits nonzeros, so its time grows with them rather than with rows * columns.
+ *
+ * Values stay Fractions, which promote to BigFraction on their own, so none of these fall back.
+ */
+final class SparseKernels
+{
+	
+	/**
+	 * Not instantiable.
+	 */
+	private SparseKernels()
+	{
+	}
+	
+	/**
+	 * Adds or subtracts two matrices of the same size, merging their rows.
+	 *
+	 * @param a_lhs the left-hand side
+	 * @param a_rhs the right-hand side
+	 * @param a_subtract if true, subtract instead of add
+	 * @return the sum or difference
+	 */
+	static SparseMatrixStorage add(SparseMatrixStorage a_lhs, SparseMatrixStorage a_rhs, boolean a_subtract)
+	{
+		SparseMatrixStorage sum = new SparseMatrixStorage(a_lhs.getRows(), a_lhs.getColumns());
+		Fraction multiple = a_subtract ? Fraction.MINUS_ONE : Fraction.ONE;
+		
+		for (int row = 0; row < a_lhs.getRows(); row++)
+		{
+			setMerged(sum, row, a_lhs.getColumnIndices(row), a_lhs.getValues(row), a_lhs.getNonZeros(row),
+					a_rhs.getColumnIndices(row), a_rhs.getValues(row), a_rhs.getNonZeros(row), multiple);
+		}
+		
+		return sum;
+	}
+	
+	/**
+	 * Sums multiples of several matrices of the same size in one pass over each row: every nonzero of
+	 * every term goes straight into a running sum for its column, and only the columns hit get one.
+	 *
+	 * @param a_terms the matrices
+	 * @param a_coefficients the multiple of each matrix
+	 * @return the sum
+	 */
+	static SparseMatrixStorage combine(SparseMatrixStorage[] a_terms, Fraction[] a_coefficients)
+	{
+		int columns = a_terms[0].getColumns();
+		SparseMatrixStorage sum = new SparseMatrixStorage(a_terms[0].getRows(), columns);
+		
+		//One running sum per column, and the columns hit in the current row:
+		FractionAccumulator[] sums = new FractionAccumulator[columns];
+		boolean[] hit = new boolean[columns];
+		int[] hitColumns = new int[columns];
+		
+		for (int row = 0; row < sum.getRows(); row++)
+		{
+			int hits = 0;
+			
+			for (int term = 0; term < a_terms.length; term++)
+			{
+				int[] termColumns = a_terms[term].getColumnIndices(row);
+				Fraction[] termValues = a_terms[term].getValues(row);
+				
+				for (int index = 0; index < a_terms[term].getNonZeros(row); index++)
+				{
+					int column = termColumns[index];
+					
+					if (!hit[column])
+					{
+						hit[column] = true;
+						hitColumns[hits++] = column;
+						
+						if (sums[column] == null) sums[column] = new FractionAccumulator();
+						else sums[column].reset();
+					}
+					
+					sums[column].addProduct(termValues[index], a_coefficients[term]);
+				}
+			}
+			
+			setSums(sum, row, sums, hit, hitColumns, hits);
+		}
+		
+		return sum;
+	}
+	
+	/**
+	 * Multiplies two matrices row by row: each row of the product is the sum of the RHS rows
+	 * picked out by the nonzeros of the LHS row, scaled by them. Only the columns actually hit
+	 * get a running sum.
+	 *
+	 * @param a_lhs the left-hand side
+	 * @param a_rhs the right-hand side, with as many rows as the LHS has columns
+	 * @return the product
+	 */
+	static SparseMatrixStorage multiply(SparseMatrixStorage a_lhs, SparseMatrixStorage a_rhs)
+	{
+		int columns = a_rhs.getColumns();
+		SparseMatrixStorage product = new SparseMatrixStorage(a_lhs.getRows(), columns);
+		
+		//One running sum per column, and the columns hit in the current row:
+		FractionAccumulator[] sums = new FractionAccumulator[columns];
+		boolean[] hit = new boolean[columns];
+		int[] hitColumns = new int[columns];
+		
+		for (int row = 0; row < a_lhs.getRows(); row++)
+		{
+			int hits = 0;
+			int[] lhsColumns = a_lhs.getColumnIndices(row);
+			Fraction[] lhsValues = a_lhs.getValues(row);
+			
+			for (int index = 0; index < a_lhs.getNonZeros(row); index++)
+			{
+				int k = lhsColumns[index];
+				int[] rhsColumns = a_rhs.getColumnIndices(k);
+				Fraction[] rhsValues = a_rhs.getValues(k);
+				
+				for (int rhsIndex = 0; rhsIndex < a_rhs.getNonZeros(k); rhsIndex++)
+				{
+					int column = rhsColumns[rhsIndex];
+					
+					if (!hit[column])
+					{
+						hit[column] = true;
+						hitColumns[hits++] = column;
+						
+						if (sums[column] == null) sums[column] = new FractionAccumulator();
+						else sums[column].reset();
+					}
+					
+					sums[column].addProduct(lhsValues[index], rhsValues[rhsIndex]);
+				}
+			}
+			
+			setSums(product, row, sums, hit, hitColumns, hits);
+		}
+		
+		return product;
+	}
+	
+	/**
+	 * Sets a row from the running sums of the columns hit in it, dropping the sums that cancelled out,
+	 * and clears the hits for the next row.
+	 *
+	 * @param a_target the storage to set the row in
+	 * @param a_row the row index
+	 * @param a_sums the running sum of each column
+	 * @param a_hit for each column, if it was hit
+	 * @param a_hitColumns the columns hit, in the order they were
+	 * @param a_hits the amount of columns hit
+	 */
+	private static void setSums(SparseMatrixStorage a_target, int a_row, FractionAccumulator[] a_sums, boolean[] a_hit, int[] a_hitColumns, int a_hits)
+	{
+		Arrays.sort(a_hitColumns, 0, a_hits);
+		
+		int[] columns = new int[a_hits];
+		Fraction[] values = new Fraction[a_hits];
+		int length = 0;
+		
+		for (int index = 0; index < a_hits; index++)
+		{
+			int column = a_hitColumns[index];
+			a_hit[column] = false;
+			
+			Fraction value = a_sums[column].toFraction();
+			if (value.isZero()) continue;
+			
+			columns[length] = column;
+			values[length] = value;
+			length++;
+		}
+		
+		a_target.setCompressedRow(a_row, columns, values, length);
+	}
+	
+	/**
+	 * Transposes a matrix by counting the nonzeros in each column first, then placing each one.
+	 *
+	 * @param a_matrix the matrix
+	 * @return the transpose
+	 */
+	static SparseMatrixStorage transpose(SparseMatrixStorage a_matrix)
+	{
+		int rows = a_matrix.getRows();
+		int columns = a_matrix.getColumns();
+		
+		int[] lengths = new int[columns];
+		for (int row = 0; row < rows; row++)
+		{
+			for (int index = 0; index < a_matrix.getNonZeros(row); index++)
+			{
+				lengths[a_matrix.getColumnIndices(row)[index]]++;
+			}
+		}
+		
+		int[][] transposeColumns = new int[columns][];
+		Fraction[][] transposeValues = new Fraction[columns][];
+		for (int column = 0; column < columns; column++)
+		{
+			transposeColumns[column] = new int[lengths[column]];
+			transposeValues[column] = new Fraction[lengths[column]];
+		}
+		
+		//Going down the rows in order keeps each row of the transpose sorted:
+		int[] filled = new int[columns];
+		for (int row = 0; row < rows; row++)
+		{
+			for (int index = 0; index < a_matrix.getNonZeros(row); index++)
+			{
+				int column = a_matrix.getColumnIndices(row)[index];
+				
+				transposeColumns[column][filled[column]] = row;
+				transposeValues[column][filled[column]] = a_matrix.getValues(row)[index];
+				filled[column]++;
+			}
+		}
+		
+		SparseMatrixStorage transpose = new SparseMatrixStorage(columns, rows);
+		for (int column = 0; column < columns; column++)
+		{
+			transpose.setCompressedRow(column, transposeColumns[column], transposeValues[column], lengths[column]);
+		}
+		
+		return transpose;
+	}
+	
+	/**
+	 * Adds up the diagonal of a square matrix.
+	 *
+	 * @param a_matrix the matrix
+	 * @return the trace
+	 */
+	static Fraction trace(SparseMatrixStorage a_matrix)
+	{
+		Fraction trace = Fraction.ZERO;
+		
+		for (int row = 0; row < a_matrix.getRows(); row++)
+		{
+			trace = trace.add(a_matrix.getCell(row, row));
+		}
+		
+		return trace;
+	}
+	
+	/**
+	 * Puts a copy of a matrix into row echelon form, or reduced row echelon form, with leading ones.
+	 *
+	 * The REF takes the first row with a nonzero as the pivot, the same as the other paths, since a REF
+	 * depends on the pivots picked. The RREF is the same whatever the pivots, so it takes the row
+	 * with the fewest nonzeros, which keeps the fill-in down.
+	 *
+	 * @param a_matrix the matrix
+	 * @param a_reduced if true, also clear the entries above each leading one
+	 * @return the echelon form
+	 */
+	static SparseMatrixStorage echelon(SparseMatrixStorage a_matrix, boolean a_reduced)
+	{
+		SparseMatrixStorage ref = (SparseMatrixStorage) a_matrix.copy();
+		int rows = ref.getRows();
+		int rowIndex = 0;
+		
+		for (int column = 0; column < ref.getColumns() && rowIndex < rows; column++)
+		{
+			MatrixTask.checkpoint(rowIndex, Math.min(rows, ref.getColumns()));
+			
+			//Rows below the pivot row are already zero left of this column, so a nonzero here leads its row:
+			int pivot = -1;
+			
+			for (int row = rowIndex; row < rows; row++)
+			{
+				if (ref.getNonZeros(row) == 0 || ref.getColumnIndices(row)[0] != column) continue;
+				
+				if (pivot < 0 || (a_reduced && ref.getNonZeros(row) < ref.getNonZeros(pivot))) pivot = row;
+				if (!a_reduced) break;
+			}
+			
+			if (pivot < 0) continue;
+			
+			if (pivot != rowIndex) ref.swapRows(rowIndex, pivot);
+			
+			//Create the leading one:
+			int length = ref.getNonZeros(rowIndex);
+			Fraction lead = ref.getValues(rowIndex)[0];
+			Fraction[] values = new Fraction[length];
+			
+			for (int index = 0; index < length; index++)
+			{
+				values[index] = ref.getValues(rowIndex)[index].divide(lead);
+			}
+			
+			ref.setCompressedRow(rowIndex, Arrays.copyOf(ref.getColumnIndices(rowIndex), length), values, length);
+			
+			//Create zeroes below (and above, for RREF):
+			for (int row = a_reduced ? 0 : rowIndex + 1; row < rows; row++)
+			{
+				if (row == rowIndex) continue;
+				
+				Fraction multiple = ref.getCell(row, column);
+				if (multiple.isZero()) continue;
+				
+				setMerged(ref, row, ref.getColumnIndices(row), ref.getValues(row), ref.getNonZeros(row),
+						ref.getColumnIndices(rowIndex), ref.getValues(rowIndex), length, multiple.negate());
+			}
+			
+			rowIndex++;
+		}
+		
+		return ref;
+	}
+	
+	/**
+	 * Computes the determinant of a square matrix by elimination with Markowitz pivoting.
+	 *
+	 * @param a_matrix the matrix
+	 * @return the determinant
+	 */
+	static Fraction determinant(SparseMatrixStorage a_matrix)
+	{
+		return new Elimination(a_matrix).determinant();
+	}
+	
+	/**
+	 * Computes the rank of a matrix by elimination with Markowitz pivoting.
+	 *
+	 * @param a_matrix the matrix
+	 * @return the rank
+	 */
+	static int rank(SparseMatrixStorage a_matrix)
+	{
+		return new Elimination(a_matrix).rank();
+	}
+	
+	/**
+	 * Sets a row to the first compressed row plus a multiple of the second, merging them by column.
+	 * Cells that cancel out are left out.
+	 *
+	 * @param a_target the storage to write to
+	 * @param a_row the row to write
+	 * @param a_firstColumns the columns of the first row
+	 * @param a_firstValues the values of the first row
+	 * @param a_firstLength the amount of nonzeros in the first row
+	 * @param a_secondColumns the columns of the second row
+	 * @param a_secondValues the values of the second row
+	 * @param a_secondLength the amount of nonzeros in the second row
+	 * @param a_multiple the multiple of the second row to add
+	 */
+	private static void setMerged(SparseMatrixStorage a_target, int a_row, int[] a_firstColumns, Fraction[] a_firstValues, int a_firstLength,
+			int[] a_secondColumns, Fraction[] a_secondValues, int a_secondLength, Fraction a_multiple)
+	{
+		int[] columns = new int[a_firstLength + a_secondLength];
+		Fraction[] values = new Fraction[a_firstLength + a_secondLength];
+		int length = 0;
+		int first = 0;
+		int second = 0;
+		
+		while (first < a_firstLength || second < a_secondLength)
+		{
+			int firstColumn = first < a_firstLength ? a_firstColumns[first] : Integer.MAX_VALUE;
+			int secondColumn = second < a_secondLength ? a_secondColumns[second] : Integer.MAX_VALUE;
+			Fraction value;
+			int column;
+			
+			if (firstColumn < secondColumn)
+			{
+				column = firstColumn;
+				value = a_firstValues[first++];
+			}
+			else if (secondColumn < firstColumn)
+			{
+				column = secondColumn;
+				value = a_secondValues[second++].multiply(a_multiple);
+			}
+			else
+			{
+				column = firstColumn;
+				value = a_firstValues[first++].add(a_secondValues[second++].multiply(a_multiple));
+			}
+			
+			if (value.isZero()) continue;
+			
+			columns[length] = column;
+			values[length] = value;
+			length++;
+		}
+		
+		a_target.setCompressedRow(a_row, columns, values, length);
+	}
+	
+	/**
+	 * Gaussian elimination that picks its pivots to keep the fill-in down, for the determinant and rank,
+	 * which don't depend on the order of the pivots.
+	 *
+	 * Each step takes the row with the fewest nonzeros, and within it the column found in the fewest rows:
+	 * the Markowitz rule, restricted to the sparsest row. The pivot column is then cleared from every other
+	 * row, and the pivot row and column are retired. Each column keeps a list of the rows that may have a
+	 * nonzero in it, so clearing a column never scans rows that can't be affected.
+	 */
+	private static final class Elimination
+	{
+		
+		/** The amount of rows. */
+		private final int m_rows;
+		
+		/** The amount of columns. */
+		private final int m_columns;
+		
+		/** The working copy of the matrix. */
+		private final SparseMatrixStorage m_matrix;
+		
+		/** The rows that may have a nonzero in each column. Some may have been cleared since, or retired. */
+		private final int[][] m_columnRows;
+		
+		/** The amount of entries in use in each list of m_columnRows. */
+		private final int[] m_columnCounts;
+		
+		/** True for rows that have been a pivot row. */
+		private final boolean[] m_retired;
+		
+		/** The pivot row of each step. */
+		private final int[] m_pivotRows;
+		
+		/** The pivot column of each step. */
+		private final int[] m_pivotColumns;
+		
+		/** The product of the pivots. */
+		private Fraction m_product;
+		
+		/**
+		 * Runs the elimination to the end.
+		 *
+		 * @param a_matrix the matrix, which is copied first
+		 */
+		Elimination(SparseMatrixStorage a_matrix)
+		{
+			m_rows = a_matrix.getRows();
+			m_columns = a_matrix.getColumns();
+			m_matrix = (SparseMatrixStorage) a_matrix.copy();
+			m_columnRows = new int[m_columns][];
+			m_columnCounts = new int[m_columns];
+			m_retired = new boolean[m_rows];
+			m_pivotRows = new int[Math.min(m_rows, m_columns)];
+			m_pivotColumns = new int[Math.min(m_rows, m_columns)];
+			m_product = Fraction.ONE;
+			
+			for (int column = 0; column < m_columns; column++)
+			{
+				m_columnRows[column] = new int[4];
+			}
+			
+			for (int row = 0; row < m_rows; row++)
+			{
+				addToColumns(row, m_matrix.getColumnIndices(row), m_matrix.getNonZeros(row));
+			}
+		}
+		
+		/**
+		 * Notes that a row may now have nonzeros in some columns.
+		 *
+		 * @param a_row the row
+		 * @param a_columns the columns
+		 * @param a_length the amount of columns
+		 */
+		private void addToColumns(int a_row, int[] a_columns, int a_length)
+		{
+			for (int index = 0; index < a_length; index++)
+			{
+				int column = a_columns[index];
+				
+				if (m_columnCounts[column] == m_columnRows[column].length)
+				{
+					m_columnRows[column] = Arrays.copyOf(m_columnRows[column], m_columnCounts[column] * 2);
+				}
+				
+				m_columnRows[column][m_columnCounts[column]++] = a_row;
+			}
+		}
+		
+		/**
+		 * Notes the columns a row has gained nonzeros in, by comparing it with its columns before.
+		 *
+		 * @param a_row the row
+		 * @param a_oldColumns the columns of the row before
+		 * @param a_oldLength the amount of columns before
+		 */
+		private void addFill(int a_row, int[] a_oldColumns, int a_oldLength)
+		{
+			int[] columns = m_matrix.getColumnIndices(a_row);
+			int length = m_matrix.getNonZeros(a_row);
+			int[] fill = new int[length];
+			int fillLength = 0;
+			int old = 0;
+			
+			//Both are increasing, so walk them together:
+			for (int index = 0; index < length; index++)
+			{
+				while (old < a_oldLength && a_oldColumns[old] < columns[index])
+				{
+					old++;
+				}
+				
+				if (old == a_oldLength || a_oldColumns[old] != columns[index]) fill[fillLength++] = columns[index];
+			}
+			
+			addToColumns(a_row, fill, fillLength);
+		}
+		
+		/**
+		 * Runs the elimination.
+		 *
+		 * @return the amount of pivots, which is the rank
+		 */
+		private int eliminate()
+		{
+			int steps = 0;
+			
+			while (steps < m_pivotRows.length)
+			{
+				MatrixTask.checkpoint(steps, m_pivotRows.length);
+				
+				//The sparsest row left:
+				int pivotRow = -1;
+				for (int row = 0; row < m_rows; row++)
+				{
+					if (m_retired[row] || m_matrix.getNonZeros(row) == 0) continue;
+					if (pivotRow < 0 || m_matrix.getNonZeros(row) < m_matrix.getNonZeros(pivotRow)) pivotRow = row;
+				}
+				
+				//Every row left is 0:
+				if (pivotRow < 0) break;
+				
+				//Its column with the fewest rows:
+				int length = m_matrix.getNonZeros(pivotRow);
+				int[] columns = m_matrix.getColumnIndices(pivotRow);
+				Fraction[] values = m_matrix.getValues(pivotRow);
+				int position = 0;
+				
+				for (int index = 1; index < length; index++)
+				{
+					if (m_columnCounts[columns[index]] < m_columnCounts[columns[position]]) position = index;
+				}
+				
+				int pivotColumn = columns[position];
+				Fraction pivot = values[position];
+				
+				m_retired[pivotRow] = true;
+				m_pivotRows[steps] = pivotRow;
+				m_pivotColumns[steps] = pivotColumn;
+				m_product = m_product.multiply(pivot);
+				steps++;
+				
+				//Clear the pivot column from every other row left:
+				for (int index = 0; index < m_columnCounts[pivotColumn]; index++)
+				{
+					int row = m_columnRows[pivotColumn][index];
+					if (m_retired[row]) continue;
+					
+					Fraction entry = m_matrix.getCell(row, pivotColumn);
+					if (entry.isZero()) continue;
+					
+					int[] oldColumns = m_matrix.getColumnIndices(row);
+					int oldLength = m_matrix.getNonZeros(row);
+					
+					setMerged(m_matrix, row, oldColumns, m_matrix.getValues(row), oldLength, columns, values, length, entry.divide(pivot).negate());
+					
+					addFill(row, oldColumns, oldLength);
+				}
+				
+				//The column is now 0 outside the retired rows:
+				m_columnCounts[pivotColumn] = 0;
+			}
+			
+			return steps;
+		}
+		
+		/**
+		 * Computes the determinant: the product of the pivots, with the sign of the permutation they were taken in.
+		 *
+		 * @return the determinant
+		 */
+		Fraction determinant()
+		{
+			if (eliminate() < m_rows) return Fraction.ZERO;
+			
+			boolean negative = isOdd(m_pivotRows) != isOdd(m_pivotColumns);
+			
+			return negative ? m_product.negate() : m_product;
+		}
+		
+		/**
+		 * Computes the rank.
+		 *
+		 * @return the amount of pivots
+		 */
+		int rank()
+		{
+			return eliminate();
+		}
+		
+		/**
+		 * Checks if a permutation is odd, by counting its cycles.
+		 *
+		 * @param a_permutation the permutation of 0 to length - 1
+		 * @return true, if it is odd
+		 */
+		private static boolean isOdd(int[] a_permutation)
+		{
+			boolean[] seen = new boolean[a_permutation.length];
+			int transpositions = 0;
+			
+			for (int start = 0; start < a_permutation.length; start++)
+			{
+				for (int index = start; !seen[index]; index = a_permutation[index])
+				{
+					seen[index] = true;
+					if (index != start) transpositions++;
+				}
+			}
+			
+			return transpositions % 2 == 1;
+		}
+		
+	}
+	
+}
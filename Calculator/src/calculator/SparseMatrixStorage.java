@@ -0,0 +1,354 @@
+package calculator;
+
+import java.util.Arrays;
+
+/**
+ * Stores only the nonzero cells of a Matrix, compressed by row: for each row, the columns of its
+ * nonzero cells in increasing order, and their values alongside.
+ *
+ * Memory grows with the amount of nonzeros instead of rows * columns, and the {@link SparseKernels}
+ * only ever visit nonzeros. Each row has its own arrays, so setting a row or swapping two rows does
+ * not shift the rest of the matrix. Reading a cell is a binary search within its row.
+ *
+ * Copies share their row arrays with the original. A shared row is cloned the first time a cell in it
+ * is set; setting a whole row replaces its arrays, so it never needs to.
+ */
+public class SparseMatrixStorage implements MatrixStorage
+{
+	
+	/** The arrays of a row without nonzeros. Shared, since they are never written. */
+	private static final int[] NO_COLUMNS = new int[0];
+	
+	/** The values of a row without nonzeros. */
+	private static final Fraction[] NO_VALUES = new Fraction[0];
+	
+	/** The amount of rows. */
+	private final int m_rows;
+	
+	/** The amount of columns. */
+	private final int m_columns;
+	
+	/** The columns of the nonzeros of each row, increasing. Only the first m_lengths[row] are used. */
+	private final int[][] m_columnIndices;
+	
+	/** The nonzero values of each row, alongside their columns. */
+	private final Fraction[][] m_values;
+	
+	/** The amount of nonzeros in each row. */
+	private final int[] m_lengths;
+	
+	/** For each row, if its arrays may also be in a copy, so they must be cloned before a cell in them is set. */
+	private final boolean[] m_shared;
+	
+	/**
+	 * Creates a new storage of the given size with every cell 0.
+	 *
+	 * @param a_rows the amount of rows
+	 * @param a_columns the amount of columns
+	 */
+	public SparseMatrixStorage(int a_rows, int a_columns)
+	{
+		m_rows = a_rows;
+		m_columns = a_columns;
+		m_columnIndices = new int[a_rows][];
+		m_values = new Fraction[a_rows][];
+		m_lengths = new int[a_rows];
+		m_shared = new boolean[a_rows];
+		
+		Arrays.fill(m_columnIndices, NO_COLUMNS);
+		Arrays.fill(m_values, NO_VALUES);
+	}
+	
+	/**
+	 * Creates a new storage with the same size and values as another storage, keeping only its nonzeros.
+	 *
+	 * @param a_other the storage to copy the values from
+	 */
+	public SparseMatrixStorage(MatrixStorage a_other)
+	{
+		this(a_other.getRows(), a_other.getColumns());
+		
+		for (int row = 0; row < m_rows; row++)
+		{
+			int[] columns = new int[m_columns];
+			Fraction[] values = new Fraction[m_columns];
+			int length = 0;
+			
+			for (int column = 0; column < m_columns; column++)
+			{
+				if (a_other.isZero(row, column)) continue;
+				
+				columns[length] = column;
+				values[length] = a_other.getCell(row, column);
+				length++;
+			}
+			
+			setCompressedRow(row, Arrays.copyOf(columns, length), Arrays.copyOf(values, length), length);
+		}
+	}
+	
+	/**
+	 * @see calculator.MatrixStorage#getRows()
+	 */
+	@Override
+	public int getRows()
+	{
+		return m_rows;
+	}
+	
+	/**
+	 * @see calculator.MatrixStorage#getColumns()
+	 */
+	@Override
+	public int getColumns()
+	{
+		return m_columns;
+	}
+	
+	/**
+	 * Gets the amount of nonzero cells in a row.
+	 *
+	 * @param a_row the row index
+	 * @return the amount of nonzeros
+	 */
+	public int getNonZeros(int a_row)
+	{
+		return m_lengths[a_row];
+	}
+	
+	/**
+	 * Gets the amount of nonzero cells in the whole matrix.
+	 *
+	 * @return the amount of nonzeros
+	 */
+	public long getNonZeros()
+	{
+		long nonZeros = 0;
+		
+		for (int length : m_lengths)
+		{
+			nonZeros += length;
+		}
+		
+		return nonZeros;
+	}
+	
+	/**
+	 * Gets the columns of the nonzeros of a row, for kernels. Only the first {@link #getNonZeros(int)} are used.
+	 *
+	 * @param a_row the row index
+	 * @return the columns, increasing. Not a copy: don't modify it.
+	 */
+	int[] getColumnIndices(int a_row)
+	{
+		return m_columnIndices[a_row];
+	}
+	
+	/**
+	 * Gets the nonzero values of a row, for kernels. Only the first {@link #getNonZeros(int)} are used.
+	 *
+	 * @param a_row the row index
+	 * @return the values, alongside the columns. Not a copy: don't modify it.
+	 */
+	Fraction[] getValues(int a_row)
+	{
+		return m_values[a_row];
+	}
+	
+	/**
+	 * Replaces a row with compressed arrays filled in by a kernel. The arrays are used directly, not copied.
+	 *
+	 * @param a_row the row index
+	 * @param a_columns the columns of the nonzeros, increasing
+	 * @param a_values the nonzero values, alongside the columns
+	 * @param a_length the amount of nonzeros
+	 */
+	void setCompressedRow(int a_row, int[] a_columns, Fraction[] a_values, int a_length)
+	{
+		m_columnIndices[a_row] = a_length == 0 ? NO_COLUMNS : a_columns;
+		m_values[a_row] = a_length == 0 ? NO_VALUES : a_values;
+		m_lengths[a_row] = a_length;
+		m_shared[a_row] = false;
+	}
+	
+	/**
+	 * Finds a column within a row.
+	 *
+	 * @param a_row the row index
+	 * @param a_column the column index
+	 * @return the position of the column in the row, or (-(insertion point) - 1) if the cell is 0
+	 */
+	private int find(int a_row, int a_column)
+	{
+		return Arrays.binarySearch(m_columnIndices[a_row], 0, m_lengths[a_row], a_column);
+	}
+	
+	/**
+	 * @see calculator.MatrixStorage#getCell(int, int)
+	 */
+	@Override
+	public Fraction getCell(int a_row, int a_column)
+	{
+		int position = find(a_row, a_column);
+		
+		return position < 0 ? Fraction.ZERO : m_values[a_row][position];
+	}
+	
+	/**
+	 * Setting a 0 removes the cell, so only nonzeros are ever stored.
+	 *
+	 * @see calculator.MatrixStorage#setCell(int, int, calculator.Fraction)
+	 */
+	@Override
+	public void setCell(int a_row, int a_column, Fraction a_value)
+	{
+		int position = find(a_row, a_column);
+		int length = m_lengths[a_row];
+		
+		//Clone a row shared with a copy before the first write to it:
+		if (m_shared[a_row])
+		{
+			m_columnIndices[a_row] = Arrays.copyOf(m_columnIndices[a_row], length);
+			m_values[a_row] = Arrays.copyOf(m_values[a_row], length);
+			m_shared[a_row] = false;
+		}
+		
+		if (position >= 0)
+		{
+			if (!a_value.isZero())
+			{
+				m_values[a_row][position] = a_value;
+				return;
+			}
+			
+			//Close the gap:
+			System.arraycopy(m_columnIndices[a_row], position + 1, m_columnIndices[a_row], position, length - position - 1);
+			System.arraycopy(m_values[a_row], position + 1, m_values[a_row], position, length - position - 1);
+			m_values[a_row][length - 1] = null;
+			m_lengths[a_row] = length - 1;
+			return;
+		}
+		
+		if (a_value.isZero()) return;
+		
+		//Make room, growing the arrays by half when they are full:
+		int insert = -position - 1;
+		
+		if (length == m_columnIndices[a_row].length)
+		{
+			int capacity = Math.min(m_columns, Math.max(4, length + length / 2));
+			m_columnIndices[a_row] = Arrays.copyOf(m_columnIndices[a_row], capacity);
+			m_values[a_row] = Arrays.copyOf(m_values[a_row], capacity);
+		}
+		
+		System.arraycopy(m_columnIndices[a_row], insert, m_columnIndices[a_row], insert + 1, length - insert);
+		System.arraycopy(m_values[a_row], insert, m_values[a_row], insert + 1, length - insert);
+		m_columnIndices[a_row][insert] = a_column;
+		m_values[a_row][insert] = a_value;
+		m_lengths[a_row] = length + 1;
+	}
+	
+	/**
+	 * @see calculator.MatrixStorage#isZero(int, int)
+	 */
+	@Override
+	public boolean isZero(int a_row, int a_column)
+	{
+		return find(a_row, a_column) < 0;
+	}
+	
+	/**
+	 * Returns a dense copy of the row, since the row isn't held as a Fraction array.
+	 *
+	 * @see calculator.MatrixStorage#getRow(int)
+	 */
+	@Override
+	public Fraction[] getRow(int a_row)
+	{
+		Fraction[] row = new Fraction[m_columns];
+		Arrays.fill(row, Fraction.ZERO);
+		
+		for (int index = 0; index < m_lengths[a_row]; index++)
+		{
+			row[m_columnIndices[a_row][index]] = m_values[a_row][index];
+		}
+		
+		return row;
+	}
+	
+	/**
+	 * Compresses the values into the row.
+	 *
+	 * @see calculator.MatrixStorage#setRow(int, calculator.Fraction[])
+	 */
+	@Override
+	public void setRow(int a_row, Fraction[] a_values)
+	{
+		int length = 0;
+		
+		for (Fraction value : a_values)
+		{
+			if (!value.isZero()) length++;
+		}
+		
+		int[] columns = new int[length];
+		Fraction[] values = new Fraction[length];
+		int index = 0;
+		
+		for (int column = 0; column < m_columns; column++)
+		{
+			if (a_values[column].isZero()) continue;
+			
+			columns[index] = column;
+			values[index] = a_values[column];
+			index++;
+		}
+		
+		setCompressedRow(a_row, columns, values, length);
+	}
+	
+	/**
+	 * Swaps the row arrays, without touching the cells.
+	 *
+	 * @see calculator.MatrixStorage#swapRows(int, int)
+	 */
+	@Override
+	public void swapRows(int a_firstRowIndex, int a_secondRowIndex)
+	{
+		int[] columns = m_columnIndices[a_firstRowIndex];
+		m_columnIndices[a_firstRowIndex] = m_columnIndices[a_secondRowIndex];
+		m_columnIndices[a_secondRowIndex] = columns;
+		
+		Fraction[] values = m_values[a_firstRowIndex];
+		m_values[a_firstRowIndex] = m_values[a_secondRowIndex];
+		m_values[a_secondRowIndex] = values;
+		
+		int length = m_lengths[a_firstRowIndex];
+		m_lengths[a_firstRowIndex] = m_lengths[a_secondRowIndex];
+		m_lengths[a_secondRowIndex] = length;
+		
+		boolean shared = m_shared[a_firstRowIndex];
+		m_shared[a_firstRowIndex] = m_shared[a_secondRowIndex];
+		m_shared[a_secondRowIndex] = shared;
+	}
+	
+	/**
+	 * Shares every row with the copy, marking them shared on both sides.
+	 *
+	 * @see calculator.MatrixStorage#copy()
+	 */
+	@Override
+	public MatrixStorage copy()
+	{
+		SparseMatrixStorage copy = new SparseMatrixStorage(m_rows, m_columns);
+		
+		System.arraycopy(m_columnIndices, 0, copy.m_columnIndices, 0, m_rows);
+		System.arraycopy(m_values, 0, copy.m_values, 0, m_rows);
+		System.arraycopy(m_lengths, 0, copy.m_lengths, 0, m_rows);
+		Arrays.fill(m_shared, true);
+		Arrays.fill(copy.m_shared, true);
+		
+		return copy;
+	}
+	
+}
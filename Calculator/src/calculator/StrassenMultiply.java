@@ -0,0 +1,167 @@
+package calculator;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Multiplies matrices with Winograd's variant of Strassen's recursion: 7 half-size products
+ * and 15 half-size additions instead of 8 products.
+ *
+ * An exact Fraction multiply needs a GCD to stay in lowest terms, so saving an eighth of the multiplies
+ * at each level pays off once the operands are large. Odd sizes are padded with a row or column of zeros.
+ * Below the crossover the recursion hands each product to the blocked multiply of the MatrixEngine.
+ */
+final class StrassenMultiply
+{
+	
+	/**
+	 * Not instantiable.
+	 */
+	private StrassenMultiply()
+	{
+	}
+	
+	/**
+	 * Multiplies two matrices given by rows.
+	 *
+	 * @param a_LHS the rows of the left-hand side
+	 * @param a_RHS the rows of the right-hand side, as many as the LHS has columns
+	 * @param a_crossover recurse while every dimension is at least this, then use the blocked multiply
+	 * @param a_pool the pool for the blocked multiply at the leaves, or null to stay on this thread
+	 * @return the rows of the product
+	 */
+	static Fraction[][] multiply(Fraction[][] a_LHS, Fraction[][] a_RHS, int a_crossover, ForkJoinPool a_pool)
+	{
+		int rows = a_LHS.length;
+		int inner = a_RHS.length;
+		int columns = a_RHS[0].length;
+		
+		if (Math.min(rows, Math.min(inner, columns)) < Math.max(a_crossover, 2))
+		{
+			//Pack the RHS by columns, the way the blocked multiply reads it:
+			Fraction[][] RHScolumns = new Fraction[columns][inner];
+			for (int row = 0; row < inner; row++)
+			{
+				for (int column = 0; column < columns; column++)
+				{
+					RHScolumns[column][row] = a_RHS[row][column];
+				}
+			}
+			
+			return MatrixEngine.multiplyBlocked(a_LHS, RHScolumns, inner, a_pool);
+		}
+		
+		//Round the halves up, which pads odd sizes with zeros:
+		int halfRows = (rows + 1) / 2;
+		int halfInner = (inner + 1) / 2;
+		int halfColumns = (columns + 1) / 2;
+		
+		Fraction[][] A11 = quadrant(a_LHS, 0, 0, halfRows, halfInner);
+		Fraction[][] A12 = quadrant(a_LHS, 0, halfInner, halfRows, halfInner);
+		Fraction[][] A21 = quadrant(a_LHS, halfRows, 0, halfRows, halfInner);
+		Fraction[][] A22 = quadrant(a_LHS, halfRows, halfInner, halfRows, halfInner);
+		
+		Fraction[][] B11 = quadrant(a_RHS, 0, 0, halfInner, halfColumns);
+		Fraction[][] B12 = quadrant(a_RHS, 0, halfColumns, halfInner, halfColumns);
+		Fraction[][] B21 = quadrant(a_RHS, halfInner, 0, halfInner, halfColumns);
+		Fraction[][] B22 = quadrant(a_RHS, halfInner, halfColumns, halfInner, halfColumns);
+		
+		//Winograd's sums of the LHS and RHS quadrants:
+		Fraction[][] S1 = add(A21, A22, false);
+		Fraction[][] S2 = add(S1, A11, true);
+		Fraction[][] S3 = add(A11, A21, true);
+		Fraction[][] S4 = add(A12, S2, true);
+		
+		Fraction[][] T1 = add(B12, B11, true);
+		Fraction[][] T2 = add(B22, T1, true);
+		Fraction[][] T3 = add(B22, B12, true);
+		Fraction[][] T4 = add(T2, B21, true);
+		
+		//The seven products:
+		Fraction[][] M1 = multiply(A11, B11, a_crossover, a_pool);
+		Fraction[][] M2 = multiply(A12, B21, a_crossover, a_pool);
+		Fraction[][] M3 = multiply(S4, B22, a_crossover, a_pool);
+		Fraction[][] M4 = multiply(A22, T4, a_crossover, a_pool);
+		Fraction[][] M5 = multiply(S1, T1, a_crossover, a_pool);
+		Fraction[][] M6 = multiply(S2, T2, a_crossover, a_pool);
+		Fraction[][] M7 = multiply(S3, T3, a_crossover, a_pool);
+		
+		//And the quadrants of the product, sharing partial sums:
+		Fraction[][] U2 = add(M1, M6, false);
+		Fraction[][] U3 = add(U2, M7, false);
+		Fraction[][] U4 = add(U2, M5, false);
+		
+		Fraction[][] C11 = add(M1, M2, false);
+		Fraction[][] C12 = add(U4, M3, false);
+		Fraction[][] C21 = add(U3, M4, true);
+		Fraction[][] C22 = add(U3, M5, false);
+		
+		//Put the quadrants together, dropping the padding:
+		Fraction[][] product = new Fraction[rows][columns];
+		
+		for (int row = 0; row < rows; row++)
+		{
+			Fraction[][] left = row < halfRows ? C11 : C21;
+			Fraction[][] right = row < halfRows ? C12 : C22;
+			int quadrantRow = row < halfRows ? row : row - halfRows;
+			
+			System.arraycopy(left[quadrantRow], 0, product[row], 0, halfColumns);
+			System.arraycopy(right[quadrantRow], 0, product[row], halfColumns, columns - halfColumns);
+		}
+		
+		return product;
+	}
+	
+	/**
+	 * Copies a quadrant out of a matrix. Cells past the edge of the matrix are 0.
+	 *
+	 * @param a_matrix the rows of the matrix
+	 * @param a_fromRow the first row
+	 * @param a_fromColumn the first column
+	 * @param a_rows the amount of rows in the quadrant
+	 * @param a_columns the amount of columns in the quadrant
+	 * @return the rows of the quadrant
+	 */
+	private static Fraction[][] quadrant(Fraction[][] a_matrix, int a_fromRow, int a_fromColumn, int a_rows, int a_columns)
+	{
+		Fraction[][] quadrant = new Fraction[a_rows][a_columns];
+		int columns = a_matrix[0].length;
+		
+		for (int row = 0; row < a_rows; row++)
+		{
+			for (int column = 0; column < a_columns; column++)
+			{
+				boolean inside = a_fromRow + row < a_matrix.length && a_fromColumn + column < columns;
+				quadrant[row][column] = inside ? a_matrix[a_fromRow + row][a_fromColumn + column] : Fraction.ZERO;
+			}
+		}
+		
+		return quadrant;
+	}
+	
+	/**
+	 * Adds or subtracts two matrices of the same size element-wise.
+	 *
+	 * @param a_LHS the rows of the left-hand side
+	 * @param a_RHS the rows of the right-hand side
+	 * @param a_subtract if true, subtract instead of add
+	 * @return the rows of the sum or difference
+	 */
+	private static Fraction[][] add(Fraction[][] a_LHS, Fraction[][] a_RHS, boolean a_subtract)
+	{
+		Fraction[][] sum = new Fraction[a_LHS.length][a_LHS[0].length];
+		
+		for (int row = 0; row < sum.length; row++)
+		{
+			for (int column = 0; column < sum[row].length; column++)
+			{
+				Fraction lhs = a_LHS[row][column];
+				Fraction rhs = a_RHS[row][column];
+				
+				sum[row][column] = a_subtract ? lhs.subtract(rhs) : lhs.add(rhs);
+			}
+		}
+		
+		return sum;
+	}
+	
+}
@@ -1,8 +1,8 @@
-/**
- * 
- */
-/**
- * @author Chris
- *
- */
+/**
+ * 
+ */
+/**
+ * @author Chris
+ *
+ */
 package calculator;
\ No newline at end of file